@@ -34,6 +34,7 @@ import org.apache.geode.cache.server.CacheServer;
 import org.apache.geode.cache.wan.GatewaySender;
 import org.apache.geode.cache.wan.GatewaySenderFactory;
 import org.spring.data.gemfire.app.beans.Address;
+import org.spring.data.gemfire.cache.management.DiskStoreCompactionManager;
 
 /**
  * The NativePeerCacheApp class is a example test app using the GemFire public API to verify the correct behavior
@@ -52,7 +53,6 @@ import org.spring.data.gemfire.app.beans.Address;
  */
 public class NativePeerCacheApp {
 
-  protected static final boolean DEFAULT_AUTO_COMPACT = true;
   protected static final boolean DEFAULT_MANUAL_START = false;
   protected static final boolean DEFAULT_PARALLEL = true;
   protected static final boolean DEFAULT_PERSISTENCE_ENABLED = true;
@@ -78,6 +78,12 @@ public class NativePeerCacheApp {
   protected static final String GEMFIRE_MEMBER_NAME = "NativeGemFirePeerCache";
   protected static final String GEMFIRE_START_LOCATOR = GEMFIRE_LOCATORS;
 
+  protected static final DiskStoreCompactionManager COMPACTION_MANAGER = new DiskStoreCompactionManager();
+
+  static {
+    COMPACTION_MANAGER.setCompactionWindows("01:00-05:00");
+  }
+
   @SuppressWarnings("unused")
   public static void main(final String... args) throws Exception {
     Cache gemfireCache = createDefaultCache();
@@ -154,7 +160,7 @@ public class NativePeerCacheApp {
   protected static DiskStore createDiskStore(final Cache gemfireCache, final String name, final File diskStoreDirectory) {
     DiskStoreFactory diskStoreFactory = gemfireCache.createDiskStoreFactory();
 
-    diskStoreFactory.setAutoCompact(DEFAULT_AUTO_COMPACT);
+    DiskStoreCompactionManager.configure(diskStoreFactory);
     diskStoreFactory.setCompactionThreshold(DEFAULT_COMPACTION_THRESHOLD);
     diskStoreFactory.setQueueSize(DEFAULT_QUEUE_SIZE);
     diskStoreFactory.setDiskDirs(new File[] { diskStoreDirectory });
@@ -163,6 +169,9 @@ public class NativePeerCacheApp {
 
     assert diskStore != null : "DiskStore creation failed";
 
+    COMPACTION_MANAGER.manage(diskStore);
+    COMPACTION_MANAGER.start();
+
     return diskStore;
   }
 
@@ -256,6 +265,7 @@ public class NativePeerCacheApp {
           }
         }
 
+        COMPACTION_MANAGER.stop();
         gemfireCache.close();
       }
     }));
@@ -16,7 +16,6 @@
 
 package org.spring.data.gemfire.app.beans;
 
-import org.codeprimate.util.ComparatorAccumulator;
 import org.springframework.util.ObjectUtils;
 
 /**
@@ -115,13 +114,7 @@ public class Address implements Comparable<Address> {
 
   @Override
   public int compareTo(final Address address) {
-    return new ComparatorAccumulator()
-      .doCompare(getState(), address.getState())
-      .doCompare(getZipCode(), address.getZipCode())
-      .doCompare(getCity(), address.getCity())
-      .doCompare(getStreet1(), address.getStreet1())
-      .doCompare(getStreet2(), address.getStreet2())
-      .getResult();
+    return Comparators.ADDRESS_NATURAL_ORDER.compare(this, address);
   }
 
   protected boolean equalsIgnoreNull(final Object obj1, final Object obj2) {
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.beans;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+/**
+ * The Comparators class is a collection of reusable {@link Comparator Comparators} for the application domain beans.
+ *
+ * Each {@link Comparator} is built once from a key extractor reading the bean's state as is, sorting {@literal null}
+ * keys last (consistent with {@link org.codeprimate.util.ComparatorAccumulator}), so that no objects are allocated
+ * per comparison. The {@link Comparator Comparators} are also registered by property name, which allows
+ * {@literal ORDER BY} clauses and Spring Data {@link Sort Sorts} to be applied to query results on the client.
+ *
+ * @author John Blum
+ * @see java.util.Comparator
+ * @see org.spring.data.gemfire.app.beans.Address
+ * @see org.spring.data.gemfire.app.beans.Person
+ * @see org.spring.data.gemfire.app.beans.Programmer
+ * @see org.spring.data.gemfire.app.beans.User
+ * @see org.springframework.data.domain.Sort
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public abstract class Comparators {
+
+  public static final Comparator<Address> ADDRESS_BY_CITY = nullsLast(Address::getCity);
+  public static final Comparator<Address> ADDRESS_BY_STATE = nullsLast(Address::getState);
+  public static final Comparator<Address> ADDRESS_BY_STREET1 = nullsLast(Address::getStreet1);
+  public static final Comparator<Address> ADDRESS_BY_STREET2 = nullsLast(Address::getStreet2);
+  public static final Comparator<Address> ADDRESS_BY_ZIP_CODE = nullsLast(Address::getZipCode);
+
+  public static final Comparator<Address> ADDRESS_NATURAL_ORDER = ADDRESS_BY_STATE
+    .thenComparing(ADDRESS_BY_ZIP_CODE)
+    .thenComparing(ADDRESS_BY_CITY)
+    .thenComparing(ADDRESS_BY_STREET1)
+    .thenComparing(ADDRESS_BY_STREET2);
+
+  public static final Comparator<Person> PERSON_BY_BIRTH_DATE = nullsLast(Person::getBirthDateInMillis);
+  public static final Comparator<Person> PERSON_BY_FIRST_NAME = nullsLast(Person::getFirstName);
+  public static final Comparator<Person> PERSON_BY_LAST_NAME = nullsLast(Person::getLastName);
+
+  /**
+   * Orders {@link Person People} the same as {@link Person#getName()} would (first name, then last name)
+   * without formatting the name {@link String} for every comparison.
+   */
+  public static final Comparator<Person> PERSON_BY_NAME = PERSON_BY_FIRST_NAME.thenComparing(PERSON_BY_LAST_NAME);
+
+  public static final Comparator<Person> PERSON_NATURAL_ORDER = PERSON_BY_LAST_NAME
+    .thenComparing(PERSON_BY_FIRST_NAME)
+    .thenComparing(PERSON_BY_BIRTH_DATE);
+
+  public static final Comparator<Programmer> PROGRAMMER_BY_PROGRAMMING_LANGUAGE =
+    nullsLast(Programmer::getProgrammingLanguage);
+
+  public static final Comparator<Programmer> PROGRAMMER_BY_REPUTATION =
+    Comparator.comparingInt(Programmer::getReputation);
+
+  public static final Comparator<User> USER_BY_EMAIL = nullsLast(User::getEmail);
+  public static final Comparator<User> USER_BY_USERNAME = nullsLast(User::getUsername);
+
+  private static final Map<Class<?>, Map<String, Comparator<?>>> PROPERTY_COMPARATORS;
+
+  static {
+    Map<Class<?>, Map<String, Comparator<?>>> propertyComparators = new HashMap<>(4);
+
+    Map<String, Comparator<?>> addressComparators = new HashMap<>(5);
+    addressComparators.put("city", ADDRESS_BY_CITY);
+    addressComparators.put("state", ADDRESS_BY_STATE);
+    addressComparators.put("street1", ADDRESS_BY_STREET1);
+    addressComparators.put("street2", ADDRESS_BY_STREET2);
+    addressComparators.put("zipCode", ADDRESS_BY_ZIP_CODE);
+    propertyComparators.put(Address.class, Collections.unmodifiableMap(addressComparators));
+
+    Map<String, Comparator<?>> personComparators = new HashMap<>(4);
+    personComparators.put("birthDate", PERSON_BY_BIRTH_DATE);
+    personComparators.put("firstName", PERSON_BY_FIRST_NAME);
+    personComparators.put("lastName", PERSON_BY_LAST_NAME);
+    personComparators.put("name", PERSON_BY_NAME);
+    propertyComparators.put(Person.class, Collections.unmodifiableMap(personComparators));
+
+    Map<String, Comparator<?>> programmerComparators = new HashMap<>(2);
+    programmerComparators.put("programmingLanguage", PROGRAMMER_BY_PROGRAMMING_LANGUAGE);
+    programmerComparators.put("reputation", PROGRAMMER_BY_REPUTATION);
+    propertyComparators.put(Programmer.class, Collections.unmodifiableMap(programmerComparators));
+
+    Map<String, Comparator<?>> userComparators = new HashMap<>(2);
+    userComparators.put("email", USER_BY_EMAIL);
+    userComparators.put("username", USER_BY_USERNAME);
+    propertyComparators.put(User.class, Collections.unmodifiableMap(userComparators));
+
+    PROPERTY_COMPARATORS = Collections.unmodifiableMap(propertyComparators);
+  }
+
+  /**
+   * Constructs a {@link Comparator} comparing the keys extracted with the given {@link Function},
+   * ordering {@literal null} keys last.
+   *
+   * @param <T> {@link Class} type of the compared objects.
+   * @param <U> {@link Comparable} type of the extracted key.
+   * @param keyExtractor {@link Function} used to extract the key from the compared objects.
+   * @return a {@link Comparator} comparing the extracted keys.
+   * @see java.util.function.Function
+   */
+  public static <T, U extends Comparable<? super U>> Comparator<T> nullsLast(
+      Function<? super T, ? extends U> keyExtractor) {
+
+    Assert.notNull(keyExtractor, "Key extractor must not be null");
+
+    return (objectOne, objectTwo) -> {
+
+      U keyOne = keyExtractor.apply(objectOne);
+      U keyTwo = keyExtractor.apply(objectTwo);
+
+      return (keyOne == keyTwo ? 0 : (keyOne == null ? 1 : (keyTwo == null ? -1 : keyOne.compareTo(keyTwo))));
+    };
+  }
+
+  /**
+   * Determines whether a {@link Comparator} is registered for the named property of the given application domain type
+   * or any of its super types.
+   *
+   * @param type {@link Class} type of the application domain bean.
+   * @param propertyName name of the property to compare.
+   * @return a boolean value indicating whether the property can be compared with a registered {@link Comparator}.
+   * @see #forProperty(Class, String)
+   */
+  public static boolean hasComparator(Class<?> type, String propertyName) {
+    return (findComparator(type, propertyName) != null);
+  }
+
+  /* (non-Javadoc) - returns null if no Comparator is registered for the property of the type or its super types */
+  private static Comparator<?> findComparator(Class<?> type, String propertyName) {
+
+    Assert.notNull(type, "Type must not be null");
+    Assert.hasText(propertyName, "Property name must be specified");
+
+    for (Class<?> currentType = type; currentType != null; currentType = currentType.getSuperclass()) {
+
+      Comparator<?> comparator = PROPERTY_COMPARATORS.getOrDefault(currentType, Collections.emptyMap())
+        .get(propertyName);
+
+      if (comparator != null) {
+        return comparator;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Resolves the {@link Comparator} registered for the named property of the given application domain type
+   * or any of its super types.
+   *
+   * @param <T> {@link Class} type of the compared objects.
+   * @param type {@link Class} type of the application domain bean.
+   * @param propertyName name of the property to compare.
+   * @return the registered {@link Comparator} for the property.
+   * @throws IllegalArgumentException if no {@link Comparator} is registered for the property.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Comparator<T> forProperty(Class<T> type, String propertyName) {
+
+    Comparator<?> comparator = findComparator(type, propertyName);
+
+    if (comparator != null) {
+      return (Comparator<T>) comparator;
+    }
+
+    throw new IllegalArgumentException(String.format("No Comparator for property [%1$s] of type [%2$s]",
+      propertyName, type.getName()));
+  }
+
+  /**
+   * Composes a {@link Comparator} from the {@link Sort.Order orders} of the given {@link Sort}.
+   *
+   * The returned {@link Comparator} should be held onto by the caller for the duration of the sort
+   * since composing it is the only step that allocates.
+   *
+   * @param <T> {@link Class} type of the compared objects.
+   * @param type {@link Class} type of the application domain bean.
+   * @param sort {@link Sort} to apply.
+   * @return a {@link Comparator} applying the {@link Sort}, or {@literal null} if the {@link Sort} is unsorted.
+   * @see org.springframework.data.domain.Sort
+   * @see #forProperty(Class, String)
+   */
+  public static <T> Comparator<T> forSort(Class<T> type, Sort sort) {
+
+    Comparator<T> comparator = null;
+
+    if (sort != null) {
+      for (Sort.Order order : sort) {
+
+        Comparator<T> orderComparator = forProperty(type, order.getProperty());
+
+        orderComparator = (order.isDescending() ? orderComparator.reversed() : orderComparator);
+        comparator = (comparator != null ? comparator.thenComparing(orderComparator) : orderComparator);
+      }
+    }
+
+    return comparator;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.beans;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.Delta;
+import org.apache.geode.InvalidDeltaException;
+
+/**
+ * The DeltaProgrammer class is a {@link Programmer} that sends only the fields changed through its setters on update.
+ *
+ * @author John Blum
+ * @see org.apache.geode.Delta
+ * @see org.spring.data.gemfire.app.beans.Deltas
+ * @see org.spring.data.gemfire.app.beans.Programmer
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class DeltaProgrammer extends Programmer implements Delta {
+
+  protected static final int REPUTATION_FIELD = Deltas.PERSON_FIELD_COUNT;
+  protected static final int PROGRAMMING_LANGUAGE_FIELD = Deltas.PERSON_FIELD_COUNT + 1;
+
+  private long deltaVersion;
+
+  private transient long dirtyFields;
+
+  public DeltaProgrammer() {
+  }
+
+  public DeltaProgrammer(final Long id) {
+    super(id);
+  }
+
+  public DeltaProgrammer(final String firstName, final String lastName) {
+    super(firstName, lastName);
+  }
+
+  long getDeltaVersion() {
+    return deltaVersion;
+  }
+
+  protected void markDirty(final int field) {
+    dirtyFields = Deltas.mark(dirtyFields, field);
+  }
+
+  @Override
+  public void setId(final Long id) {
+    super.setId(id);
+    markDirty(Deltas.ID_FIELD);
+  }
+
+  @Override
+  public void setBirthDate(final Long birthDate) {
+    super.setBirthDate(birthDate);
+    markDirty(Deltas.BIRTH_DATE_FIELD);
+  }
+
+  @Override
+  public void setBirthDate(final Calendar birthDate) {
+    super.setBirthDate(birthDate);
+    markDirty(Deltas.BIRTH_DATE_FIELD);
+  }
+
+  @Override
+  public void setBirthDate(final Date birthDate) {
+    super.setBirthDate(birthDate);
+    markDirty(Deltas.BIRTH_DATE_FIELD);
+  }
+
+  @Override
+  public void setFirstName(final String firstName) {
+    super.setFirstName(firstName);
+    markDirty(Deltas.FIRST_NAME_FIELD);
+  }
+
+  @Override
+  public void setGender(final Gender gender) {
+    super.setGender(gender);
+    markDirty(Deltas.GENDER_FIELD);
+  }
+
+  @Override
+  public void setLastName(final String lastName) {
+    super.setLastName(lastName);
+    markDirty(Deltas.LAST_NAME_FIELD);
+  }
+
+  @Override
+  public void setProgrammingLanguage(final String programmingLanguage) {
+    super.setProgrammingLanguage(programmingLanguage);
+    markDirty(PROGRAMMING_LANGUAGE_FIELD);
+  }
+
+  @Override
+  public void setReputation(final Integer reputation) {
+    super.setReputation(reputation);
+    markDirty(REPUTATION_FIELD);
+  }
+
+  @Override
+  public boolean hasDelta() {
+    return (dirtyFields != 0L);
+  }
+
+  @Override
+  public void toDelta(final DataOutput out) throws IOException {
+    out.writeLong(deltaVersion);
+    out.writeLong(dirtyFields);
+    Deltas.writePersonDelta(this, dirtyFields, out);
+    if (Deltas.isDirty(dirtyFields, REPUTATION_FIELD)) {
+      DataSerializer.writeObject(getReputation(), out);
+    }
+    if (Deltas.isDirty(dirtyFields, PROGRAMMING_LANGUAGE_FIELD)) {
+      DataSerializer.writeString(getProgrammingLanguage(), out);
+    }
+    deltaVersion++;
+    dirtyFields = 0L;
+  }
+
+  @Override
+  public void fromDelta(final DataInput in) throws IOException, InvalidDeltaException {
+    Deltas.verifyVersion(this, deltaVersion, in.readLong());
+    long fields = in.readLong();
+    Deltas.readPersonDelta(this, fields, in);
+    if (Deltas.isDirty(fields, REPUTATION_FIELD)) {
+      setReputation(Deltas.readObject(in));
+    }
+    if (Deltas.isDirty(fields, PROGRAMMING_LANGUAGE_FIELD)) {
+      setProgrammingLanguage(DataSerializer.readString(in));
+    }
+    deltaVersion++;
+    dirtyFields = 0L;
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.beans;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.Delta;
+import org.apache.geode.InvalidDeltaException;
+
+/**
+ * The DeltaUser class is a {@link User} that sends only the fields changed through its setters, or by adding
+ * or removing an {@link Address}, on update.
+ *
+ * Note, the serialized form includes the {@literal deltaVersion} field (a PDX field when serialized with PDX) so that
+ * a member receiving the full value can verify the base version of the next delta applied to it.
+ *
+ * @author John Blum
+ * @see org.apache.geode.Delta
+ * @see org.spring.data.gemfire.app.beans.Deltas
+ * @see org.spring.data.gemfire.app.beans.User
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class DeltaUser extends User implements Delta {
+
+  protected static final int ACTIVE_FIELD = 0;
+  protected static final int ADDRESS_FIELD = 1;
+  protected static final int ADDRESSES_FIELD = 2;
+  protected static final int EMAIL_FIELD = 3;
+  protected static final int SINCE_FIELD = 4;
+
+  // part of the serialized form; see the class Javadoc
+  @javax.persistence.Transient
+  private long deltaVersion;
+
+  private transient long dirtyFields;
+
+  public DeltaUser() {
+  }
+
+  public DeltaUser(String username) {
+    super(username);
+  }
+
+  long getDeltaVersion() {
+    return deltaVersion;
+  }
+
+  protected void markDirty(final int field) {
+    dirtyFields = Deltas.mark(dirtyFields, field);
+  }
+
+  @Override
+  public void setActive(final Boolean active) {
+    super.setActive(active);
+    markDirty(ACTIVE_FIELD);
+  }
+
+  @Override
+  public void setAddress(final Address address) {
+    super.setAddress(address);
+    markDirty(ADDRESS_FIELD);
+  }
+
+  @Override
+  public void setEmail(final String email) {
+    super.setEmail(email);
+    markDirty(EMAIL_FIELD);
+  }
+
+  @Override
+  public void setSince(final Calendar since) {
+    super.setSince(since);
+    markDirty(SINCE_FIELD);
+  }
+
+  /**
+   * Returns a read-only view of this User's Addresses; use {@link #add(Address)} and {@link #remove(Address)}
+   * so changes are tracked.
+   */
+  @Override
+  public Set<Address> getAddresses() {
+    return Collections.unmodifiableSet(super.getAddresses());
+  }
+
+  @Override
+  public boolean add(final Address address) {
+    boolean added = super.add(address);
+    if (added) {
+      markDirty(ADDRESSES_FIELD);
+    }
+    return added;
+  }
+
+  public boolean remove(final Address address) {
+    boolean removed = super.getAddresses().remove(address);
+    if (removed) {
+      markDirty(ADDRESSES_FIELD);
+    }
+    return removed;
+  }
+
+  @Override
+  public boolean hasDelta() {
+    return (dirtyFields != 0L);
+  }
+
+  @Override
+  public void toDelta(final DataOutput out) throws IOException {
+    out.writeLong(deltaVersion);
+    out.writeLong(dirtyFields);
+    if (Deltas.isDirty(dirtyFields, ACTIVE_FIELD)) {
+      out.writeBoolean(isActive());
+    }
+    if (Deltas.isDirty(dirtyFields, ADDRESS_FIELD)) {
+      DataSerializer.writeObject(getAddress(), out);
+    }
+    if (Deltas.isDirty(dirtyFields, ADDRESSES_FIELD)) {
+      DataSerializer.writeObject(new HashSet<>(super.getAddresses()), out);
+    }
+    if (Deltas.isDirty(dirtyFields, EMAIL_FIELD)) {
+      DataSerializer.writeString(getEmail(), out);
+    }
+    if (Deltas.isDirty(dirtyFields, SINCE_FIELD)) {
+      DataSerializer.writeObject(getSince(), out);
+    }
+    deltaVersion++;
+    dirtyFields = 0L;
+  }
+
+  @Override
+  public void fromDelta(final DataInput in) throws IOException, InvalidDeltaException {
+    Deltas.verifyVersion(this, deltaVersion, in.readLong());
+    long fields = in.readLong();
+    if (Deltas.isDirty(fields, ACTIVE_FIELD)) {
+      setActive(in.readBoolean());
+    }
+    if (Deltas.isDirty(fields, ADDRESS_FIELD)) {
+      setAddress(Deltas.readObject(in));
+    }
+    if (Deltas.isDirty(fields, ADDRESSES_FIELD)) {
+      Set<Address> addresses = Deltas.readObject(in);
+      super.getAddresses().clear();
+      super.getAddresses().addAll(addresses);
+    }
+    if (Deltas.isDirty(fields, EMAIL_FIELD)) {
+      setEmail(DataSerializer.readString(in));
+    }
+    if (Deltas.isDirty(fields, SINCE_FIELD)) {
+      setSince(Deltas.readObject(in));
+    }
+    deltaVersion++;
+    dirtyFields = 0L;
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.beans;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.InvalidDeltaException;
+
+/**
+ * The Deltas class contains the common support for the application domain beans implementing GemFire
+ * {@link org.apache.geode.Delta} propagation.
+ *
+ * Delta propagation is opt-in by type: the {@link DeltaPerson}, {@link DeltaProgrammer} and {@link DeltaUser}
+ * subclasses implement {@link org.apache.geode.Delta}, while the base beans do not, since GemFire keeps values
+ * implementing {@link org.apache.geode.Delta} deserialized in the cache (defeating PDX {@literal read-serialized}).
+ *
+ * The subclasses record each field changed through a setter in a dirty field bit set.  Only the dirty fields are
+ * written on update along with the version of the object the changes were made to.  A receiver holding a different
+ * version throws an {@link InvalidDeltaException}, in which case GemFire falls back to sending the full value.
+ *
+ * @author John Blum
+ * @see org.apache.geode.Delta
+ * @see org.apache.geode.InvalidDeltaException
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public abstract class Deltas {
+
+  static final int ID_FIELD = 0;
+  static final int BIRTH_DATE_FIELD = 1;
+  static final int FIRST_NAME_FIELD = 2;
+  static final int LAST_NAME_FIELD = 3;
+  static final int GENDER_FIELD = 4;
+
+  // subclasses of Person number their fields starting at the field count
+  static final int PERSON_FIELD_COUNT = 5;
+
+  static long mark(long dirtyFields, int field) {
+    return (dirtyFields | (1L << field));
+  }
+
+  static boolean isDirty(long dirtyFields, int field) {
+    return ((dirtyFields & (1L << field)) != 0L);
+  }
+
+  static <T> T readObject(DataInput in) throws IOException {
+
+    try {
+      return DataSerializer.readObject(in);
+    }
+    catch (ClassNotFoundException e) {
+      throw new IOException("Failed to read delta", e);
+    }
+  }
+
+  static void verifyVersion(Object target, long version, long baseVersion) {
+
+    if (version != baseVersion) {
+      throw new InvalidDeltaException(String.format(
+        "Delta based on version [%1$d] cannot be applied to [%2$s] at version [%3$d]",
+          baseVersion, target, version));
+    }
+  }
+
+  static void writePersonDelta(Person person, long fields, DataOutput out) throws IOException {
+
+    if (isDirty(fields, ID_FIELD)) {
+      DataSerializer.writeObject(person.getId(), out);
+    }
+    if (isDirty(fields, BIRTH_DATE_FIELD)) {
+      DataSerializer.writeObject(person.getBirthDateInMillis(), out);
+    }
+    if (isDirty(fields, FIRST_NAME_FIELD)) {
+      DataSerializer.writeString(person.getFirstName(), out);
+    }
+    if (isDirty(fields, LAST_NAME_FIELD)) {
+      DataSerializer.writeString(person.getLastName(), out);
+    }
+    if (isDirty(fields, GENDER_FIELD)) {
+      DataSerializer.writeObject(person.getGender(), out);
+    }
+  }
+
+  static void readPersonDelta(Person person, long fields, DataInput in) throws IOException {
+
+    if (isDirty(fields, ID_FIELD)) {
+      person.setId(readObject(in));
+    }
+    if (isDirty(fields, BIRTH_DATE_FIELD)) {
+      person.setBirthDate(Deltas.<Long>readObject(in));
+    }
+    if (isDirty(fields, FIRST_NAME_FIELD)) {
+      person.setFirstName(DataSerializer.readString(in));
+    }
+    if (isDirty(fields, LAST_NAME_FIELD)) {
+      person.setLastName(DataSerializer.readString(in));
+    }
+    if (isDirty(fields, GENDER_FIELD)) {
+      person.setGender(readObject(in));
+    }
+  }
+}
@@ -27,7 +27,6 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
-import org.codeprimate.util.ComparatorAccumulator;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.gemfire.mapping.annotation.Region;
 import org.springframework.util.ObjectUtils;
@@ -38,6 +37,7 @@ import org.springframework.util.ObjectUtils;
  * @author John Blum
  * @see java.io.Serializable
  * @see java.lang.Comparable
+ * @see org.spring.data.gemfire.app.beans.Comparators
  * @see org.springframework.data.annotation.Id
  * @see org.springframework.data.gemfire.mapping.Region
  * @since 1.0.0
@@ -95,6 +95,10 @@ public class Person implements Comparable<Person>, Serializable {
     return (birthDate != null ? birthDate.getTime() : null);
   }
 
+  Long getBirthDateInMillis() {
+    return birthDate;
+  }
+
   public Calendar getBirthDateAsCalendar() {
     return (birthDate != null ? getCalendar(birthDate) : null);
   }
@@ -144,11 +148,7 @@ public class Person implements Comparable<Person>, Serializable {
 
   @Override
   public int compareTo(final Person that) {
-    return new ComparatorAccumulator()
-      .doCompare(this.getLastName(), that.getLastName())
-      .doCompare(this.getFirstName(), that.getFirstName())
-      .doCompare(getBirthDate(), that.getBirthDate())
-      .getResult();
+    return Comparators.PERSON_NATURAL_ORDER.compare(this, that);
   }
 
   @Override
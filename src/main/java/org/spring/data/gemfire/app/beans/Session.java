@@ -0,0 +1,194 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.beans;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceConstructor;
+import org.springframework.data.gemfire.mapping.annotation.Region;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * The Session class is an abstract data type modeling an HTTP session stored in the partitioned {@literal /Sessions}
+ * {@link org.apache.geode.cache.Region}.
+ *
+ * Unlike the Session modeled in {@literal CachePartitionRegionQueryTest}, the principal name is a property
+ * of its own rather than a session attribute, so that it can be indexed with a hash index and found
+ * on login without evaluating the attributes {@link Map} of every session.
+ *
+ * @author John Blum
+ * @see java.io.Serializable
+ * @see org.springframework.data.annotation.Id
+ * @see org.springframework.data.gemfire.mapping.Region
+ * @since 1.0.0
+ */
+@Region("Sessions")
+@SuppressWarnings("unused")
+public class Session implements Comparable<Session>, Serializable {
+
+  public static final int DEFAULT_MAX_INACTIVE_INTERVAL_IN_SECONDS = (int) TimeUnit.MINUTES.toSeconds(30);
+
+  private int maxInactiveIntervalInSeconds = DEFAULT_MAX_INACTIVE_INTERVAL_IN_SECONDS;
+
+  private long creationTime;
+  private long lastAccessedTime;
+
+  private final Map<String, Object> attributes = new HashMap<>();
+
+  @Id
+  private String id;
+
+  private String principalName;
+
+  public Session() {
+    this(UUID.randomUUID().toString());
+  }
+
+  @PersistenceConstructor
+  public Session(String id) {
+    Assert.hasText(id, String.format("id (%1$s) is not valid", id));
+    this.id = id;
+    this.creationTime = System.currentTimeMillis();
+    this.lastAccessedTime = this.creationTime;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setAttribute(String name, Object value) {
+    if (value == null) {
+      removeAttribute(name);
+    }
+    else {
+      attributes.put(name, value);
+    }
+  }
+
+  public void removeAttribute(String name) {
+    attributes.remove(name);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T getAttribute(String name) {
+    return (T) attributes.get(name);
+  }
+
+  /**
+   * Returns a read-only view of the session attributes, which is what OQL queries and map indexes
+   * on {@literal s.attributes['name']} evaluate.
+   */
+  public Map<String, Object> getAttributes() {
+    return Collections.unmodifiableMap(attributes);
+  }
+
+  public Set<String> getAttributeNames() {
+    return Collections.unmodifiableSet(attributes.keySet());
+  }
+
+  public long getCreationTime() {
+    return creationTime;
+  }
+
+  public void setLastAccessedTime(long lastAccessedTime) {
+    this.lastAccessedTime = lastAccessedTime;
+  }
+
+  public long getLastAccessedTime() {
+    return Math.max(lastAccessedTime, 0L);
+  }
+
+  public void setMaxInactiveIntervalInSeconds(int maxInactiveIntervalInSeconds) {
+    this.maxInactiveIntervalInSeconds = maxInactiveIntervalInSeconds;
+  }
+
+  public int getMaxInactiveIntervalInSeconds() {
+    return maxInactiveIntervalInSeconds;
+  }
+
+  public void setPrincipalName(String principalName) {
+    this.principalName = principalName;
+  }
+
+  public String getPrincipalName() {
+    return principalName;
+  }
+
+  public boolean isExpired() {
+    return isExpired(System.currentTimeMillis());
+  }
+
+  /**
+   * Determines whether this Session has been inactive for longer than its maximum inactive interval as of the given
+   * time.  A negative maximum inactive interval means the Session never expires.
+   *
+   * @param now time in milliseconds since the epoch.
+   * @return a boolean value indicating whether this Session has expired.
+   */
+  public boolean isExpired(long now) {
+    return (getMaxInactiveIntervalInSeconds() >= 0
+      && now - TimeUnit.SECONDS.toMillis(getMaxInactiveIntervalInSeconds()) >= getLastAccessedTime());
+  }
+
+  public Session touch() {
+    setLastAccessedTime(System.currentTimeMillis());
+    return this;
+  }
+
+  @Override
+  public int compareTo(Session session) {
+    return Long.compare(getCreationTime(), session.getCreationTime());
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+
+    if (!(obj instanceof Session)) {
+      return false;
+    }
+
+    Session that = (Session) obj;
+
+    return ObjectUtils.nullSafeEquals(this.getId(), that.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    int hashValue = 17;
+    hashValue = 37 * hashValue + ObjectUtils.nullSafeHashCode(getId());
+    return hashValue;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("{ @type = %1$s, id = %2$s, principalName = %3$s, lastAccessedTime = %4$d, attributes = %5$s }",
+      getClass().getName(), getId(), getPrincipalName(), getLastAccessedTime(),
+      StringUtils.collectionToCommaDelimitedString(getAttributeNames()));
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.beans.projection;
+
+/**
+ * The UserSummary interface is a projection of a {@link org.spring.data.gemfire.app.beans.User}
+ * exposing only the properties displayed when listing Users.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.beans.User
+ * @see org.spring.data.gemfire.pdx.PdxInstanceProjectionFactory
+ * @since 1.0.0
+ */
+public interface UserSummary {
+
+  String getUsername();
+
+  String getEmail();
+
+  Boolean getActive();
+
+}
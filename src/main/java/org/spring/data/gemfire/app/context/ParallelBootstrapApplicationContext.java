@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.context;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.util.Assert;
+
+/**
+ * The ParallelBootstrapApplicationContext class is a {@link ClassPathXmlApplicationContext} using
+ * a {@link ParallelBootstrapBeanFactory} to create independent GemFire Disk Stores, Regions, Indexes,
+ * AEQs and Gateway Senders concurrently when the context is refreshed.
+ *
+ * Applications opt in by setting the {@value #BOOTSTRAP_PARALLELISM_PROPERTY} System property to the number
+ * of bootstrap threads, in which case {@link #newApplicationContext(String...)} returns
+ * a ParallelBootstrapApplicationContext rather than a serially refreshed {@link ClassPathXmlApplicationContext}.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.context.ParallelBootstrapBeanFactory
+ * @see org.springframework.context.support.ClassPathXmlApplicationContext
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class ParallelBootstrapApplicationContext extends ClassPathXmlApplicationContext {
+
+  public static final String BOOTSTRAP_PARALLELISM_PROPERTY = "spring.data.gemfire.app.context.bootstrap-parallelism";
+
+  private final int bootstrapParallelism;
+
+  /**
+   * Constructs and refreshes a Spring {@link ConfigurableApplicationContext} from the given XML configuration
+   * files, creating the GemFire beans in parallel when the {@value #BOOTSTRAP_PARALLELISM_PROPERTY}
+   * System property is set to more than 1 thread.
+   *
+   * @param configLocations locations of the Spring XML configuration files.
+   * @return the refreshed {@link ConfigurableApplicationContext}.
+   */
+  public static ConfigurableApplicationContext newApplicationContext(String... configLocations) {
+
+    int bootstrapParallelism = Integer.getInteger(BOOTSTRAP_PARALLELISM_PROPERTY, 1);
+
+    return (bootstrapParallelism > 1 ? new ParallelBootstrapApplicationContext(bootstrapParallelism, configLocations)
+      : new ClassPathXmlApplicationContext(configLocations));
+  }
+
+  public ParallelBootstrapApplicationContext(String... configLocations) {
+    this(ParallelBootstrapBeanFactory.DEFAULT_BOOTSTRAP_PARALLELISM, configLocations);
+  }
+
+  public ParallelBootstrapApplicationContext(int bootstrapParallelism, String... configLocations) {
+
+    super(configLocations, false, null);
+
+    Assert.isTrue(bootstrapParallelism > 0, "Bootstrap parallelism must be greater than 0");
+
+    this.bootstrapParallelism = bootstrapParallelism;
+
+    refresh();
+  }
+
+  @Override
+  protected DefaultListableBeanFactory createBeanFactory() {
+
+    ParallelBootstrapBeanFactory beanFactory = new ParallelBootstrapBeanFactory();
+
+    beanFactory.setBootstrapParallelism(this.bootstrapParallelism);
+    beanFactory.setParentBeanFactory(getInternalParentBeanFactory());
+
+    return beanFactory;
+  }
+
+  /**
+   * Returns the {@link ParallelBootstrapBeanFactory}, for instance to inspect the bean creation timings.
+   *
+   * @return the {@link ParallelBootstrapBeanFactory} of this context.
+   * @see ParallelBootstrapBeanFactory#getBeanTimings()
+   */
+  public ParallelBootstrapBeanFactory getParallelBootstrapBeanFactory() {
+    return (ParallelBootstrapBeanFactory) getBeanFactory();
+  }
+}
@@ -0,0 +1,782 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.data.gemfire.DiskStoreFactoryBean;
+import org.springframework.data.gemfire.IndexFactoryBean;
+import org.springframework.data.gemfire.RegionLookupFactoryBean;
+import org.springframework.data.gemfire.wan.AsyncEventQueueFactoryBean;
+import org.springframework.data.gemfire.wan.GatewaySenderFactoryBean;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The ParallelBootstrapBeanFactory class is a Spring {@link DefaultListableBeanFactory} creating the GemFire
+ * {@link DiskStoreFactoryBean Disk Store}, {@link RegionLookupFactoryBean Region}, {@link IndexFactoryBean Index},
+ * {@link AsyncEventQueueFactoryBean AEQ} and {@link GatewaySenderFactoryBean Gateway Sender} beans concurrently
+ * on a bounded pool of bootstrap threads before the remaining singletons are pre-instantiated serially.
+ *
+ * A dependency graph of the GemFire beans is built from the bean definitions using {@literal depends-on},
+ * bean references (including references from inner beans and managed collections) and the GemFire component names
+ * referred to by {@literal diskStoreName}, {@literal from} (Index), {@literal colocatedWith},
+ * {@literal asyncEventQueueIds} and {@literal gatewaySenderIds}.  Independent beans, for instance persistent Regions
+ * recovering from different Disk Stores, are then created (and recovered) at the same time, while every bean
+ * is created only after the beans it depends on.  Other beans referred to by the GemFire beans, like the cache,
+ * are created serially beforehand.
+ *
+ * Spring's singleton registry creates every singleton while holding its registry lock, so concurrent
+ * {@link #getBean(String)} calls would simply be serialized.  Therefore, GemFire beans in the graph are created
+ * with {@link #createBean(String, RootBeanDefinition, Object[])} directly and then registered as singletons.
+ * Dependencies between GemFire beans that cannot be seen in the bean definitions (e.g. autowiring) are still
+ * honored since the bean is then created on the requesting thread, or awaited when another thread is already
+ * creating it.  Cycles between GemFire beans leave those beans to the serial phase.
+ *
+ * The (inclusive) creation time of every named bean is recorded and a startup report is printed once
+ * all singletons have been pre-instantiated.
+ *
+ * @author John Blum
+ * @see org.springframework.beans.factory.support.DefaultListableBeanFactory
+ * @see org.springframework.data.gemfire.DiskStoreFactoryBean
+ * @see org.springframework.data.gemfire.IndexFactoryBean
+ * @see org.springframework.data.gemfire.RegionLookupFactoryBean
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class ParallelBootstrapBeanFactory extends DefaultListableBeanFactory {
+
+  public static final int DEFAULT_BOOTSTRAP_PARALLELISM = Runtime.getRuntime().availableProcessors();
+  public static final int DEFAULT_REPORT_SIZE = 10;
+
+  protected static final String BOOTSTRAP_THREAD_NAME_PREFIX = "GemFire Bootstrap-";
+
+  protected static final Class<?>[] GEMFIRE_BEAN_TYPES = {
+    DiskStoreFactoryBean.class, RegionLookupFactoryBean.class, IndexFactoryBean.class,
+    AsyncEventQueueFactoryBean.class, GatewaySenderFactoryBean.class
+  };
+
+  private int bootstrapParallelism = DEFAULT_BOOTSTRAP_PARALLELISM;
+  private int reportSize = DEFAULT_REPORT_SIZE;
+
+  private volatile long parallelPhaseNanos;
+  private volatile long preInstantiationNanos;
+
+  private final Map<String, BeanTiming> beanTimings = new ConcurrentHashMap<>();
+
+  private volatile Map<String, Node> bootstrapGraph = Collections.emptyMap();
+
+  public void setBootstrapParallelism(int bootstrapParallelism) {
+    Assert.isTrue(bootstrapParallelism > 0, "Bootstrap parallelism must be greater than 0");
+    this.bootstrapParallelism = bootstrapParallelism;
+  }
+
+  protected int getBootstrapParallelism() {
+    return this.bootstrapParallelism;
+  }
+
+  public void setReportSize(int reportSize) {
+    Assert.isTrue(reportSize >= 0, "Report size must be greater than or equal to 0");
+    this.reportSize = reportSize;
+  }
+
+  protected int getReportSize() {
+    return this.reportSize;
+  }
+
+  /**
+   * Returns the creation timings of the named beans in the order the beans started being created.
+   *
+   * @return a {@link List} of {@link BeanTiming BeanTimings}.
+   */
+  public List<BeanTiming> getBeanTimings() {
+
+    List<BeanTiming> beanTimings = new ArrayList<>(this.beanTimings.values());
+
+    beanTimings.sort(Comparator.comparingLong(BeanTiming::getStartNanos));
+
+    return beanTimings;
+  }
+
+  public BeanTiming getBeanTiming(String beanName) {
+    return this.beanTimings.get(beanName);
+  }
+
+  public long getParallelPhaseTime(TimeUnit timeUnit) {
+    return timeUnit.convert(this.parallelPhaseNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public long getPreInstantiationTime(TimeUnit timeUnit) {
+    return timeUnit.convert(this.preInstantiationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void preInstantiateSingletons() throws BeansException {
+
+    long startNanos = System.nanoTime();
+
+    preInstantiateGemFireBeansInParallel();
+    super.preInstantiateSingletons();
+
+    this.preInstantiationNanos = (System.nanoTime() - startNanos);
+
+    report();
+  }
+
+  @Override
+  protected Object createBean(String beanName, RootBeanDefinition mbd, Object[] args) throws BeanCreationException {
+
+    if (!containsBeanDefinition(beanName)) {
+      return super.createBean(beanName, mbd, args);
+    }
+
+    long startNanos = System.nanoTime();
+
+    try {
+      return super.createBean(beanName, mbd, args);
+    }
+    finally {
+      this.beanTimings.putIfAbsent(beanName, new BeanTiming(beanName, Thread.currentThread().getName(),
+        startNanos, System.nanoTime()));
+    }
+  }
+
+  @Override
+  public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+
+    Node node = this.bootstrapGraph.get(beanName);
+
+    if (node == null) {
+      return super.getSingleton(beanName, singletonFactory);
+    }
+
+    if (node.claim()) {
+      createSingleton(node, singletonFactory);
+    }
+    else {
+      node.await(getSingletonMutex());
+    }
+
+    return getSingleton(beanName);
+  }
+
+  /**
+   * Creates the GemFire beans in the dependency graph concurrently.
+   */
+  protected void preInstantiateGemFireBeansInParallel() {
+
+    Map<String, Node> graph = buildBootstrapGraph();
+
+    if (graph.isEmpty()) {
+      return;
+    }
+
+    long startNanos = 0L;
+
+    this.bootstrapGraph = graph;
+
+    try {
+      graph.values().stream().flatMap(node -> node.getReferencedBeanNames().stream())
+        .distinct()
+        .filter(beanName -> !getMergedLocalBeanDefinition(beanName).isAbstract())
+        .filter(beanName -> getMergedLocalBeanDefinition(beanName).isSingleton())
+        .forEach(this::getBean);
+
+      startNanos = System.nanoTime();
+
+      int parallelism = Math.min(getBootstrapParallelism(), graph.size());
+
+      ExecutorService bootstrapExecutor = newBootstrapExecutor(parallelism);
+
+      try {
+        new BootstrapSchedule(graph.values(), bootstrapExecutor).run();
+      }
+      finally {
+        shutdown(bootstrapExecutor);
+      }
+    }
+    finally {
+      this.bootstrapGraph = Collections.emptyMap();
+      this.parallelPhaseNanos = (startNanos > 0L ? System.nanoTime() - startNanos : 0L);
+    }
+  }
+
+  protected ExecutorService newBootstrapExecutor(int parallelism) {
+
+    AtomicInteger threadCount = new AtomicInteger(0);
+
+    return Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, BOOTSTRAP_THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private void shutdown(ExecutorService bootstrapExecutor) {
+
+    bootstrapExecutor.shutdownNow();
+
+    try {
+      // beans still being created after a failure must not race with the destruction of the singletons
+      bootstrapExecutor.awaitTermination(30L, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException ignore) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Builds the acyclic dependency graph of the GemFire beans.
+   *
+   * @return a {@link Map} of GemFire bean names to graph {@link Node Nodes}.
+   */
+  protected Map<String, Node> buildBootstrapGraph() {
+
+    Map<String, Node> graph = new LinkedHashMap<>();
+
+    for (String beanName : getBeanDefinitionNames()) {
+
+      RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+
+      if (isGemFireBean(beanName, mbd) && !containsSingleton(beanName)) {
+        graph.put(beanName, new Node(beanName, mbd));
+      }
+    }
+
+    Map<String, String> diskStoreNames = new HashMap<>();
+    Map<String, String> regionNames = new HashMap<>();
+    Map<String, String> componentIds = new HashMap<>();
+
+    graph.values().forEach(node -> {
+
+      Class<?> beanType = predictBeanType(node.getBeanName(), node.getBeanDefinition());
+
+      if (DiskStoreFactoryBean.class.isAssignableFrom(beanType)) {
+        diskStoreNames.put(node.getBeanName(), node.getBeanName());
+      }
+      else if (RegionLookupFactoryBean.class.isAssignableFrom(beanType)) {
+        Set<String> names = new LinkedHashSet<>(Collections.singleton(node.getBeanName()));
+        names.add(stringValue(node.getBeanDefinition(), "name"));
+        names.add(stringValue(node.getBeanDefinition(), "regionName"));
+        names.stream().filter(StringUtils::hasText).map(ParallelBootstrapBeanFactory::toRegionName)
+          .forEach(name -> regionNames.put(name, node.getBeanName()));
+      }
+      else if (!IndexFactoryBean.class.isAssignableFrom(beanType)) {
+        componentIds.put(node.getBeanName(), node.getBeanName());
+      }
+    });
+
+    for (Node node : graph.values()) {
+
+      Set<String> dependencyNames = new LinkedHashSet<>();
+
+      Collections.addAll(dependencyNames, nullSafeArray(node.getBeanDefinition().getDependsOn()));
+
+      collectReferences(node.getBeanDefinition(), dependencyNames, (propertyName, value) -> {
+        switch (propertyName) {
+          case "diskStoreName":
+            return diskStoreNames.get(value);
+          case "colocatedWith":
+            return regionNames.get(toRegionName(value));
+          case "from":
+            return regionNames.get(toRegionName(StringUtils.tokenizeToStringArray(value, " ")[0]));
+          case "asyncEventQueueIds":
+          case "gatewaySenderIds":
+            return componentIds.get(value);
+          default:
+            return null;
+        }
+      });
+
+      for (String dependencyName : dependencyNames) {
+
+        String beanName = transformedBeanName(dependencyName);
+
+        if (!beanName.equals(node.getBeanName())) {
+          if (graph.containsKey(beanName)) {
+            node.dependsOn(graph.get(beanName));
+          }
+          else if (containsBeanDefinition(beanName)) {
+            node.getReferencedBeanNames().add(beanName);
+          }
+        }
+      }
+    }
+
+    removeCycles(graph);
+
+    return graph;
+  }
+
+  protected boolean isGemFireBean(String beanName, RootBeanDefinition mbd) {
+
+    if (mbd.isAbstract() || !mbd.isSingleton() || mbd.isLazyInit()) {
+      return false;
+    }
+
+    Class<?> beanType = predictBeanType(beanName, mbd);
+
+    if (beanType != null) {
+      for (Class<?> gemfireBeanType : GEMFIRE_BEAN_TYPES) {
+        if (gemfireBeanType.isAssignableFrom(beanType)) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private void collectReferences(BeanDefinition beanDefinition, Set<String> beanNames,
+      NameResolver nameResolver) {
+
+    for (PropertyValue propertyValue : beanDefinition.getPropertyValues().getPropertyValueList()) {
+      collectReferences(propertyValue.getName(), propertyValue.getValue(), beanNames, nameResolver);
+    }
+
+    ConstructorArgumentValues constructorArguments = beanDefinition.getConstructorArgumentValues();
+
+    constructorArguments.getIndexedArgumentValues().values().forEach(argument ->
+      collectReferences(argument.getName(), argument.getValue(), beanNames, nameResolver));
+
+    constructorArguments.getGenericArgumentValues().forEach(argument ->
+      collectReferences(argument.getName(), argument.getValue(), beanNames, nameResolver));
+  }
+
+  private void collectReferences(String propertyName, Object value, Set<String> beanNames,
+      NameResolver nameResolver) {
+
+    if (value instanceof RuntimeBeanReference) {
+      beanNames.add(((RuntimeBeanReference) value).getBeanName());
+    }
+    else if (value instanceof BeanDefinitionHolder) {
+      collectReferences(((BeanDefinitionHolder) value).getBeanDefinition(), beanNames, nameResolver);
+    }
+    else if (value instanceof BeanDefinition) {
+      collectReferences((BeanDefinition) value, beanNames, nameResolver);
+    }
+    else if (value instanceof Collection) {
+      ((Collection<?>) value).forEach(element ->
+        collectReferences(propertyName, element, beanNames, nameResolver));
+    }
+    else if (value instanceof Map) {
+      ((Map<?, ?>) value).forEach((key, element) -> {
+        collectReferences(propertyName, key, beanNames, nameResolver);
+        collectReferences(propertyName, element, beanNames, nameResolver);
+      });
+    }
+    else if (value instanceof Object[]) {
+      for (Object element : (Object[]) value) {
+        collectReferences(propertyName, element, beanNames, nameResolver);
+      }
+    }
+    else if (propertyName != null) {
+
+      String stringValue = (value instanceof TypedStringValue ? ((TypedStringValue) value).getValue()
+        : (value instanceof String ? (String) value : null));
+
+      if (StringUtils.hasText(stringValue)) {
+        for (String name : StringUtils.commaDelimitedListToStringArray(stringValue)) {
+
+          String beanName = nameResolver.resolve(propertyName, name.trim());
+
+          if (beanName != null) {
+            beanNames.add(beanName);
+          }
+        }
+      }
+    }
+  }
+
+  private void removeCycles(Map<String, Node> graph) {
+
+    Map<Node, Integer> dependencyCounts = new HashMap<>();
+    List<Node> readyNodes = new ArrayList<>();
+
+    graph.values().forEach(node -> {
+      dependencyCounts.put(node, node.getDependencies().size());
+
+      if (node.getDependencies().isEmpty()) {
+        readyNodes.add(node);
+      }
+    });
+
+    for (int index = 0; index < readyNodes.size(); index++) {
+      for (Node dependent : readyNodes.get(index).getDependents()) {
+        if (dependencyCounts.merge(dependent, -1, Integer::sum) == 0) {
+          readyNodes.add(dependent);
+        }
+      }
+    }
+
+    if (readyNodes.size() < graph.size()) {
+
+      // beans in a cycle, or depending on a bean in a cycle, are left to the serial phase
+      Set<Node> cyclicNodes = new LinkedHashSet<>(graph.values());
+
+      cyclicNodes.removeAll(readyNodes);
+      graph.values().removeAll(cyclicNodes);
+      graph.values().forEach(node -> node.getDependents().removeAll(cyclicNodes));
+
+      System.err.printf("Creating GemFire beans %s serially due to cyclic dependencies%n",
+        cyclicNodes.stream().map(Node::getBeanName).collect(Collectors.toList()));
+    }
+  }
+
+  private void createNode(Node node) {
+
+    if (node.claim()) {
+
+      RootBeanDefinition mbd = node.getBeanDefinition();
+
+      for (String dependsOn : nullSafeArray(mbd.getDependsOn())) {
+        registerDependentBean(dependsOn, node.getBeanName());
+        getBean(dependsOn);
+      }
+
+      markBeanAsCreated(node.getBeanName());
+      createSingleton(node, () -> createBean(node.getBeanName(), mbd, null));
+    }
+  }
+
+  private void createSingleton(Node node, ObjectFactory<?> singletonFactory) {
+
+    try {
+      beforeSingletonCreation(node.getBeanName());
+
+      try {
+        addSingleton(node.getBeanName(), singletonFactory.getObject());
+      }
+      finally {
+        afterSingletonCreation(node.getBeanName());
+      }
+
+      node.complete(null);
+    }
+    catch (RuntimeException cause) {
+      node.complete(cause);
+      throw cause;
+    }
+  }
+
+  protected void report() {
+
+    List<BeanTiming> slowestBeans = getBeanTimings();
+
+    slowestBeans.sort(Comparator.comparingLong(BeanTiming::getDurationNanos).reversed());
+
+    System.out.printf("Created %1$d beans in %2$d ms (GemFire beans in parallel: %3$d ms on up to %4$d threads)%n",
+      slowestBeans.size(), getPreInstantiationTime(TimeUnit.MILLISECONDS),
+      getParallelPhaseTime(TimeUnit.MILLISECONDS), getBootstrapParallelism());
+
+    slowestBeans.stream().limit(getReportSize()).forEach(beanTiming ->
+      System.out.printf("  %s%n", beanTiming));
+  }
+
+  private static String[] nullSafeArray(String[] array) {
+    return (array != null ? array : new String[0]);
+  }
+
+  private static String stringValue(BeanDefinition beanDefinition, String propertyName) {
+
+    PropertyValue propertyValue = beanDefinition.getPropertyValues().getPropertyValue(propertyName);
+
+    Object value = (propertyValue != null ? propertyValue.getValue() : null);
+
+    return (value instanceof TypedStringValue ? ((TypedStringValue) value).getValue()
+      : (value instanceof String ? (String) value : null));
+  }
+
+  private static String toRegionName(String regionPath) {
+    return StringUtils.trimLeadingCharacter(regionPath, '/');
+  }
+
+  @FunctionalInterface
+  private interface NameResolver {
+    String resolve(String propertyName, String name);
+  }
+
+  /**
+   * The BeanTiming class records when and on which thread a bean was created.
+   */
+  public static class BeanTiming {
+
+    private final long endNanos;
+    private final long startNanos;
+
+    private final String beanName;
+    private final String threadName;
+
+    protected BeanTiming(String beanName, String threadName, long startNanos, long endNanos) {
+      this.beanName = beanName;
+      this.threadName = threadName;
+      this.startNanos = startNanos;
+      this.endNanos = endNanos;
+    }
+
+    public String getBeanName() {
+      return this.beanName;
+    }
+
+    public long getDurationNanos() {
+      return (this.endNanos - this.startNanos);
+    }
+
+    public long getEndNanos() {
+      return this.endNanos;
+    }
+
+    public long getStartNanos() {
+      return this.startNanos;
+    }
+
+    public String getThreadName() {
+      return this.threadName;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%1$s created in %2$d ms on [%3$s]", getBeanName(),
+        TimeUnit.NANOSECONDS.toMillis(getDurationNanos()), getThreadName());
+    }
+  }
+
+  /**
+   * The Node class is a GemFire bean in the bootstrap dependency graph.
+   */
+  protected static class Node {
+
+    private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    private final CountDownLatch created = new CountDownLatch(1);
+
+    private final Set<Node> dependencies = new LinkedHashSet<>();
+    private final Set<Node> dependents = new LinkedHashSet<>();
+
+    private final Set<String> referencedBeanNames = new LinkedHashSet<>();
+
+    private final RootBeanDefinition beanDefinition;
+
+    private final String beanName;
+
+    private volatile Runnable completionCallback;
+
+    private volatile Thread owner;
+
+    protected Node(String beanName, RootBeanDefinition beanDefinition) {
+      this.beanName = beanName;
+      this.beanDefinition = beanDefinition;
+    }
+
+    protected RootBeanDefinition getBeanDefinition() {
+      return this.beanDefinition;
+    }
+
+    protected String getBeanName() {
+      return this.beanName;
+    }
+
+    protected Set<Node> getDependencies() {
+      return this.dependencies;
+    }
+
+    protected Set<Node> getDependents() {
+      return this.dependents;
+    }
+
+    protected Set<String> getReferencedBeanNames() {
+      return this.referencedBeanNames;
+    }
+
+    protected boolean isCreated() {
+      return (this.created.getCount() == 0);
+    }
+
+    protected boolean claim() {
+
+      if (this.claimed.compareAndSet(false, true)) {
+        this.owner = Thread.currentThread();
+        return true;
+      }
+
+      return false;
+    }
+
+    protected void complete(RuntimeException cause) {
+
+      this.failure.compareAndSet(null, cause);
+      this.created.countDown();
+
+      Runnable completionCallback = this.completionCallback;
+
+      if (completionCallback != null) {
+        completionCallback.run();
+      }
+    }
+
+    protected void dependsOn(Node dependency) {
+      this.dependencies.add(dependency);
+      dependency.dependents.add(this);
+    }
+
+    /**
+     * Waits for another thread to finish creating this bean.  When the waiting thread holds the singleton
+     * registry lock, the lock is released while waiting so that the creating thread is able to register the bean.
+     */
+    protected void await(Object singletonMutex) {
+
+      if (this.owner == Thread.currentThread() && !isCreated()) {
+        throw new BeanCurrentlyInCreationException(getBeanName());
+      }
+
+      try {
+        if (Thread.holdsLock(singletonMutex)) {
+          while (!isCreated()) {
+            singletonMutex.wait(50L);
+          }
+        }
+        else {
+          this.created.await();
+        }
+      }
+      catch (InterruptedException cause) {
+        Thread.currentThread().interrupt();
+        throw new BeanCreationException(getBeanName(), "Interrupted while waiting for bean to be created", cause);
+      }
+
+      RuntimeException cause = this.failure.get();
+
+      if (cause != null) {
+        throw new BeanCreationException(getBeanName(), "Bean failed to be created on another thread", cause);
+      }
+    }
+  }
+
+  /**
+   * The BootstrapSchedule class submits every {@link Node} to the bootstrap {@link ExecutorService} once all
+   * its dependencies have been created and waits for all {@link Node Nodes} to be created.
+   */
+  protected class BootstrapSchedule {
+
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    private final Collection<Node> nodes;
+
+    private final CountDownLatch remainingNodes;
+
+    private final ExecutorService bootstrapExecutor;
+
+    private final Map<Node, AtomicInteger> remainingDependencies = new HashMap<>();
+
+    protected BootstrapSchedule(Collection<Node> nodes, ExecutorService bootstrapExecutor) {
+      this.nodes = nodes;
+      this.bootstrapExecutor = bootstrapExecutor;
+      this.remainingNodes = new CountDownLatch(nodes.size());
+    }
+
+    protected void run() {
+
+      this.nodes.forEach(node -> {
+        this.remainingDependencies.put(node, new AtomicInteger(node.getDependencies().size()));
+        node.completionCallback = () -> onCreated(node);
+      });
+
+      // beans created while creating the beans referred to by the GemFire beans
+      this.nodes.stream().filter(Node::isCreated).forEach(this::onCreated);
+
+      this.nodes.stream().filter(node -> node.getDependencies().isEmpty()).forEach(this::submit);
+
+      try {
+        while (!this.remainingNodes.await(100L, TimeUnit.MILLISECONDS)) {
+          if (this.failure.get() != null) {
+            break;
+          }
+        }
+      }
+      catch (InterruptedException cause) {
+        Thread.currentThread().interrupt();
+        throw new BeanCreationException("Interrupted while creating GemFire beans in parallel", cause);
+      }
+
+      RuntimeException cause = this.failure.get();
+
+      if (cause != null) {
+        throw cause;
+      }
+    }
+
+    private void onCreated(Node node) {
+
+      if (node.failure.get() != null) {
+        this.failure.compareAndSet(null, node.failure.get());
+      }
+      else {
+        node.getDependents().stream()
+          .filter(dependent -> this.remainingDependencies.get(dependent).decrementAndGet() == 0)
+          .forEach(this::submit);
+      }
+
+      this.remainingNodes.countDown();
+    }
+
+    private void submit(Node node) {
+
+      if (!node.isCreated() && this.failure.get() == null) {
+        this.bootstrapExecutor.execute(() -> {
+          try {
+            createNode(node);
+          }
+          catch (RuntimeException cause) {
+            this.failure.compareAndSet(null, cause);
+          }
+        });
+      }
+    }
+  }
+}
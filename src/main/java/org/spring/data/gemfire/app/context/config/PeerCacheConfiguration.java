@@ -26,14 +26,21 @@ import org.apache.geode.cache.ExpirationAction;
 import org.apache.geode.cache.ExpirationAttributes;
 import org.apache.geode.cache.GemFireCache;
 import org.apache.geode.cache.PartitionAttributes;
+import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionAttributes;
 import org.apache.geode.cache.Scope;
 import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.cache.compression.AdaptiveCompressor;
+import org.spring.data.gemfire.cache.management.DiskStoreCompactionManager;
+import org.spring.data.gemfire.cache.management.EvictionTuningAdvisor;
+import org.spring.data.gemfire.cache.management.OffHeapMemoryMonitor;
+import org.spring.data.gemfire.config.OffHeapBeanPostProcessor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.PropertyPlaceholderConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableMBeanExport;
 import org.springframework.data.gemfire.CacheFactoryBean;
 import org.springframework.data.gemfire.DiskStoreFactoryBean;
 import org.springframework.data.gemfire.DiskStoreFactoryBean.DiskDir;
@@ -55,6 +62,7 @@ import org.springframework.data.gemfire.expiration.ExpirationAttributesFactoryBe
  * @since 1.0.0
  */
 @Configuration
+@EnableMBeanExport
 @SuppressWarnings("unused")
 public class PeerCacheConfiguration {
 
@@ -68,6 +76,8 @@ public class PeerCacheConfiguration {
     placeholders.setProperty("app.gemfire.region.entry.expiration.timeout", "120000");
     placeholders.setProperty("app.gemfire.region.partition.local-max-memory", "1024000");
     placeholders.setProperty("app.gemfire.region.partition.total-max-memory", "81920000");
+    // snappy-java is optional and not a dependency of this project; deflate is pure Java
+    placeholders.setProperty("app.gemfire.region.compression.codec", "deflate");
 
     // NOTE ideally, "placeholder" properties used by Spring's Configurer would be externalized in order to
     // avoid re-compilation on property value changes (this is just an example)!
@@ -104,6 +114,29 @@ public class PeerCacheConfiguration {
     return cacheFactory;
   }
 
+  @Bean
+  public static OffHeapBeanPostProcessor offHeapBeanPostProcessor(
+      @Value("${app.gemfire.region.eviction.threshold}") int evictionThreshold) {
+
+    OffHeapBeanPostProcessor offHeapBeanPostProcessor = new OffHeapBeanPostProcessor();
+
+    // Customers overflows to disk past its MEMORY_SIZE eviction threshold (in megabytes),
+    // so the off-heap memory pool only needs to hold that much plus headroom
+    long offHeapMemorySize = (long) evictionThreshold
+      * (100 + OffHeapBeanPostProcessor.DEFAULT_HEADROOM_PERCENTAGE) / 100;
+
+    offHeapBeanPostProcessor.setCriticalOffHeapPercentage(90.0f);
+    offHeapBeanPostProcessor.setOffHeapMemorySize(String.format("%dm", offHeapMemorySize));
+    offHeapBeanPostProcessor.setRegionNames("Customers");
+
+    return offHeapBeanPostProcessor;
+  }
+
+  @Bean
+  public OffHeapMemoryMonitor offHeapMemoryMonitor(GemFireCache gemfireCache) {
+    return new OffHeapMemoryMonitor(gemfireCache);
+  }
+
   @Bean(name = "StaticReferenceData")
   public ReplicatedRegionFactoryBean<?, ?> exampleReplicateRegion(GemFireCache gemfireCache) {
 
@@ -117,6 +150,16 @@ public class PeerCacheConfiguration {
     return staticReferenceData;
   }
 
+  @Bean
+  public static DiskStoreCompactionManager diskStoreCompactionManager() {
+
+    DiskStoreCompactionManager diskStoreCompactionManager = new DiskStoreCompactionManager();
+
+    diskStoreCompactionManager.setCompactionWindows("01:00-05:00");
+
+    return diskStoreCompactionManager;
+  }
+
   @Bean(name = "CustomersDataStore")
   public DiskStoreFactoryBean exampleDiskStore(Cache gemfireCache) {
 
@@ -124,7 +167,8 @@ public class PeerCacheConfiguration {
 
     customersDiskStore.setCache(gemfireCache);
     customersDiskStore.setBeanName("CustomerDataStore");
-    customersDiskStore.setAutoCompact(true);
+    customersDiskStore.setAllowForceCompaction(true);
+    customersDiskStore.setAutoCompact(false);
     customersDiskStore.setDiskDirs(Collections.singletonList(new DiskDir("./gemfire/disk-stores/customers")));
     customersDiskStore.setCompactionThreshold(75);
     customersDiskStore.setMaxOplogSize(10L);
@@ -148,9 +192,30 @@ public class PeerCacheConfiguration {
     return customers;
   }
 
+  @Bean
+  public EvictionTuningAdvisor customersEvictionTuningAdvisor(@Qualifier("Customers") Region<Long, Customer> customers) {
+
+    EvictionTuningAdvisor evictionTuningAdvisor = new EvictionTuningAdvisor();
+
+    evictionTuningAdvisor.setRegions(customers);
+
+    return evictionTuningAdvisor;
+  }
+
+  @Bean
+  public AdaptiveCompressor customersCompressor(@Value("${app.gemfire.region.compression.codec}") String codecName) {
+
+    AdaptiveCompressor customersCompressor = new AdaptiveCompressor();
+
+    customersCompressor.setCodecName(codecName);
+
+    return customersCompressor;
+  }
+
   @Bean
   public RegionAttributesFactoryBean partitionRegionAttributes(PartitionAttributes partitionAttributes,
-      EvictionAttributes evictionAttributes, ExpirationAttributes expirationAttributes) {
+      EvictionAttributes evictionAttributes, ExpirationAttributes expirationAttributes,
+      @Qualifier("customersCompressor") AdaptiveCompressor customersCompressor) {
 
     RegionAttributesFactoryBean partitionRegionAttributes = new RegionAttributesFactoryBean();
 
@@ -158,6 +223,7 @@ public class PeerCacheConfiguration {
     partitionRegionAttributes.setEvictionAttributes(evictionAttributes);
     partitionRegionAttributes.setEntryIdleTimeout(expirationAttributes);
     partitionRegionAttributes.setStatisticsEnabled(true);
+    partitionRegionAttributes.setCompressor(customersCompressor);
 
     return partitionRegionAttributes;
   }
@@ -29,7 +29,10 @@ import org.apache.geode.cache.PartitionedRegionStorageException;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.TimeoutException;
 import org.apache.geode.distributed.LeaseExpiredException;
+import org.apache.geode.cache.query.SelectResults;
 import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.cache.query.CompiledQueryCache;
+import org.spring.data.gemfire.support.LazyReference;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DeadlockLoserDataAccessException;
 import org.springframework.dao.PessimisticLockingFailureException;
@@ -41,6 +44,7 @@ import org.springframework.util.Assert;
  * The GemfireRegionCustomerDao class is a Repository bean for managing data access operation on Customers.
  *
  * @author John Blum
+ * @see org.spring.data.gemfire.cache.query.CompiledQueryCache
  * @see org.springframework.stereotype.Repository
  * @see org.apache.geode.cache.Region
  * @since 1.0.0
@@ -51,6 +55,8 @@ public class GemfireRegionCustomerDao {
 
   protected static final AtomicLong ID_SEQUENCE = new AtomicLong(0l);
 
+  private final LazyReference<CompiledQueryCache> queryCache = new LazyReference<>();
+
   @Resource(name = "Customers")
   private Region<Long, Customer> customers;
 
@@ -59,6 +65,14 @@ public class GemfireRegionCustomerDao {
     return customers;
   }
 
+  protected CompiledQueryCache queryCache() {
+    return queryCache.get(() -> CompiledQueryCache.forRegion(customersRegion()));
+  }
+
+  public CompiledQueryCache.Statistics getQueryStatistics() {
+    return queryCache().getStatistics();
+  }
+
   @PostConstruct
   public void init() {
     Region customers = customersRegion();
@@ -128,7 +142,17 @@ public class GemfireRegionCustomerDao {
   }
 
   public List query(String predicate) throws Exception {
-    return customersRegion().query(predicate).asList();
+    return query(predicate, new Object[0]);
+  }
+
+  /**
+   * Queries the Customers matching the given OQL predicate, which should refer to values with bind parameters
+   * ($1, $2, ...) so that the compiled query is cached and reused.
+   */
+  public List query(String predicate, Object... parameters) {
+    SelectResults<?> results = queryCache().execute(CompiledQueryCache.selectWhere(customersRegion(), predicate),
+      parameters);
+    return results.asList();
   }
 
   public boolean delete(Customer customer) {
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.spring.data.gemfire.app.beans.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * The CustomCustomerRepository interface is a Repository custom interface declaration declaring finder methods
+ * for Customers joined with their Accounts, optionally returning projections, and for paging through Customers.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.CustomerRepository
+ * @see org.spring.data.gemfire.cache.query.KeysetPageRequest
+ * @see org.spring.data.gemfire.cache.query.SemiJoinExecutor
+ * @see org.spring.data.gemfire.pdx.PdxInstanceProjectionFactory
+ * @since 1.0.0
+ */
+public interface CustomCustomerRepository {
+
+  int DEFAULT_LIMIT = 10;
+
+  //SELECT DISTINCT c FROM /Customers c, /Accounts a WHERE c.id = a.customerId LIMIT 10
+  List<Customer> findCustomersWithAccounts();
+
+  List<Customer> findCustomersWithAccounts(int limit);
+
+  // LIMIT 10
+  <T> List<T> findCustomersWithAccounts(Class<T> projectionType);
+
+  Slice<Customer> findByLastName(String lastName, Pageable pageable);
+
+  // streams all Customers ordered by ID, querying a page of the given size at a time
+  Stream<Customer> streamAll(int pageSize);
+
+}
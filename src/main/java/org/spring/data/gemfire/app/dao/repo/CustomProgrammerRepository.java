@@ -19,6 +19,9 @@ package org.spring.data.gemfire.app.dao.repo;
 import java.util.List;
 
 import org.spring.data.gemfire.app.beans.Programmer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 /**
  * The CustomProgrammerRepository class is a Repository custom interface declaration declaring additional finder methods
@@ -26,10 +29,22 @@ import org.spring.data.gemfire.app.beans.Programmer;
  *
  * @author John Blum
  * @see org.spring.data.gemfire.app.dao.repo.ProgrammerRepository
+ * @see org.spring.data.gemfire.cache.query.KeysetPageRequest
+ * @see org.spring.data.gemfire.cache.query.OrderByPostProcessor
+ * @see org.springframework.data.domain.Slice
+ * @see org.springframework.data.domain.Sort
  * @since 1.0.0
  */
 public interface CustomProgrammerRepository {
 
   List<Programmer> findByJvmBasedLanguages();
 
+  <T> List<T> findByJvmBasedLanguages(Class<T> projectionType);
+
+  List<Programmer> findByProgrammingLanguage(String programmingLanguage, Sort sort);
+
+  Slice<Programmer> findByProgrammingLanguage(String programmingLanguage, Pageable pageable);
+
+  List<Programmer> findByQuery(String query, Object... parameters);
+
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo;
+
+import java.util.List;
+
+import org.spring.data.gemfire.app.beans.Session;
+
+/**
+ * The CustomSessionRepository class is a Repository custom interface declaration declaring additional finder methods
+ * for Sessions.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.SessionRepository
+ * @since 1.0.0
+ */
+public interface CustomSessionRepository {
+
+  List<Session> findByAttribute(String attributeName, Object attributeValue);
+
+}
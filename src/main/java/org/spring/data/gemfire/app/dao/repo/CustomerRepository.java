@@ -16,25 +16,25 @@
 
 package org.spring.data.gemfire.app.dao.repo;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.spring.data.gemfire.app.beans.Customer;
+import org.springframework.data.gemfire.function.annotation.Filter;
 import org.springframework.data.gemfire.repository.GemfireRepository;
 import org.springframework.data.gemfire.repository.Query;
-import org.springframework.data.gemfire.repository.query.annotation.Hint;
-import org.springframework.data.gemfire.repository.query.annotation.Limit;
-import org.springframework.data.gemfire.repository.query.annotation.Trace;
 
 /**
  * The CustomerRepository class...
  *
  * @author John Blum
  * @see org.spring.data.gemfire.app.beans.Customer
+ * @see org.spring.data.gemfire.app.dao.repo.CustomCustomerRepository
  * @see org.springframework.data.gemfire.repository.GemfireRepository
  * @since 1.0.0
  */
 @SuppressWarnings("unused")
-public interface CustomerRepository extends GemfireRepository<Customer, Long> {
+public interface CustomerRepository extends GemfireRepository<Customer, Long>, CustomCustomerRepository {
 
   //SELECT * FROM /Customers WHERE id = $1
   Customer findCustomerById(Long id);
@@ -42,10 +42,10 @@ public interface CustomerRepository extends GemfireRepository<Customer, Long> {
   //SELECT * FROM /Customers WHERE lastName = $1
   List<Customer> findByLastName(String lastName);
 
-  @Trace
-  @Limit(10)
-  @Hint({"CustomerIdIdx", "AnotherIndexIdx" })
-  @Query("SELECT DISTINCT c FROM /Customers c, /Accounts a WHERE c.id = a.customerId")
-  List<Customer> findCustomersWithAccounts();
+  @Query("SELECT * FROM /Customers c WHERE c.lastName = $1")
+  List<Customer> findByLastName(String lastName, @Filter Collection<Long> customerIds);
+
+  @Query("SELECT * FROM /Customers c WHERE c.id IN $1")
+  List<Customer> findByIdIn(Collection<Long> ids);
 
 }
@@ -19,6 +19,7 @@ package org.spring.data.gemfire.app.dao.repo;
 import java.util.List;
 
 import org.spring.data.gemfire.app.beans.Programmer;
+import org.spring.data.gemfire.cache.query.CacheableQuery;
 import org.springframework.data.gemfire.repository.GemfireRepository;
 
 /**
@@ -28,6 +29,7 @@ import org.springframework.data.gemfire.repository.GemfireRepository;
  * @author John Blum
  * @see org.spring.data.gemfire.app.beans.Programmer
  * @see CustomProgrammerRepository
+ * @see org.spring.data.gemfire.cache.query.CacheableQuery
  * @see org.springframework.data.gemfire.repository.GemfireRepository
  * @since 1.0.0
  */
@@ -36,6 +38,7 @@ public interface ProgrammerRepository extends GemfireRepository<Programmer, Long
 
   List<Programmer> findDistinctByLastName(String lastName);
 
+  @CacheableQuery
   List<Programmer> findDistinctByProgrammingLanguageOrderByNameAsc(String programmingLanguage);
 
   List<Programmer> findDistinctByProgrammingLanguageLikeOrderByNameAsc(String programmingLanguage);
@@ -19,6 +19,7 @@ package org.spring.data.gemfire.app.dao.repo;
 import java.util.List;
 
 import org.spring.data.gemfire.app.beans.User;
+import org.spring.data.gemfire.cache.query.CacheableQuery;
 import org.springframework.data.gemfire.repository.GemfireRepository;
 import org.springframework.data.gemfire.repository.Query;
 
@@ -28,6 +29,8 @@ import org.springframework.data.gemfire.repository.Query;
  *
  * @author John Blum
  * @see org.spring.data.gemfire.app.beans.User
+ * @see org.spring.data.gemfire.app.dao.repo.CustomUserRepository
+ * @see org.spring.data.gemfire.cache.query.CacheableQuery
  * @see org.springframework.data.gemfire.repository.GemfireRepository
  * @see org.springframework.data.gemfire.repository.Query
  * @since 1.0.0
@@ -35,7 +38,7 @@ import org.springframework.data.gemfire.repository.Query;
  * @since 7.0.1 (GemFire)
  */
 @SuppressWarnings("unused")
-public interface UserRepository extends GemfireRepository<User, String> {
+public interface UserRepository extends GemfireRepository<User, String>, CustomUserRepository {
 
   // Query for Active Users
   //@Query("SELECT DISTINCT u FROM /Users u WHERE u.active = true")
@@ -56,6 +59,7 @@ public interface UserRepository extends GemfireRepository<User, String> {
   //@Query("IMPORT org.spring.data.gemfire.app.beans.Address; SELECT DISTINCT u, a FROM /Users u, u.addresses a TYPE Address WHERE a.city = $1")
   List<User> findUsersInCity(String city);
 
+  @CacheableQuery
   @Query("SELECT count(*) FROM /Users u WHERE u.username LIKE $1")
   Integer countUsersByUsernameLike(String username);
 
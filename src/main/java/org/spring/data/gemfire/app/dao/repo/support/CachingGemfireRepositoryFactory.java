@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import java.util.Optional;
+
+import org.apache.geode.cache.Region;
+import org.spring.data.gemfire.cache.query.CacheableQuery;
+import org.spring.data.gemfire.cache.query.QueryResultCache;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.gemfire.mapping.GemfirePersistentEntity;
+import org.springframework.data.gemfire.mapping.GemfirePersistentProperty;
+import org.springframework.data.gemfire.repository.query.GemfireQueryMethod;
+import org.springframework.data.gemfire.repository.query.GemfireRepositoryQuery;
+import org.springframework.data.gemfire.repository.query.QueryPostProcessor;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.EvaluationContextProvider;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.util.Assert;
+
+/**
+ * The CachingGemfireRepositoryFactory class is a {@link RoutingGemfireRepositoryFactory} caching the results
+ * of the query methods annotated with {@link CacheableQuery @CacheableQuery} in a {@link QueryResultCache}.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.support.RoutingGemfireRepositoryFactory
+ * @see org.spring.data.gemfire.cache.query.CacheableQuery
+ * @see org.spring.data.gemfire.cache.query.QueryResultCache
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class CachingGemfireRepositoryFactory extends RoutingGemfireRepositoryFactory {
+
+  private final QueryResultCache queryResultCache;
+
+  public CachingGemfireRepositoryFactory(Iterable<Region<?, ?>> regions,
+      MappingContext<? extends GemfirePersistentEntity<?>, GemfirePersistentProperty> mappingContext,
+      QueryResultCache queryResultCache) {
+
+    super(regions, mappingContext);
+
+    Assert.notNull(queryResultCache, "QueryResultCache must not be null");
+
+    this.queryResultCache = queryResultCache;
+  }
+
+  protected QueryResultCache getQueryResultCache() {
+    return this.queryResultCache;
+  }
+
+  @Override
+  protected Optional<QueryLookupStrategy> getQueryLookupStrategy(QueryLookupStrategy.Key key,
+      EvaluationContextProvider evaluationContextProvider) {
+
+    return super.getQueryLookupStrategy(key, evaluationContextProvider).map(queryLookupStrategy ->
+      (method, metadata, projectionFactory, namedQueries) -> {
+
+        RepositoryQuery query = queryLookupStrategy.resolveQuery(method, metadata, projectionFactory, namedQueries);
+
+        CacheableQuery cacheableQuery = AnnotatedElementUtils.findMergedAnnotation(method, CacheableQuery.class);
+
+        return (cacheableQuery != null && query instanceof GemfireRepositoryQuery
+          ? new CachingRepositoryQuery((GemfireRepositoryQuery) query, getQueryResultCache(),
+              cacheableQuery.maxResults())
+          : query);
+      });
+  }
+
+  /**
+   * {@link GemfireRepositoryQuery} returning the results cached for the arguments of the query method,
+   * executing the query on a miss.
+   */
+  protected static class CachingRepositoryQuery extends GemfireRepositoryQuery {
+
+    private final GemfireRepositoryQuery delegate;
+
+    private final int maximumResults;
+
+    private final QueryResultCache queryResultCache;
+
+    private final String queryMethodName;
+
+    protected CachingRepositoryQuery(GemfireRepositoryQuery delegate, QueryResultCache queryResultCache,
+        int maximumResults) {
+
+      super((GemfireQueryMethod) delegate.getQueryMethod());
+
+      this.delegate = delegate;
+      this.queryResultCache = queryResultCache;
+      this.maximumResults = maximumResults;
+      this.queryMethodName = delegate.getQueryMethod().toString();
+
+      QueryPostProcessor<Repository, String> queryWatcher = (queryMethod, query, arguments) -> {
+        queryResultCache.watch(query, arguments);
+        return query;
+      };
+
+      this.delegate.register(queryWatcher);
+    }
+
+    @Override
+    public GemfireRepositoryQuery register(QueryPostProcessor<?, String> queryPostProcessor) {
+      this.delegate.register(queryPostProcessor);
+      return this;
+    }
+
+    @Override
+    public Object execute(Object[] parameters) {
+      return this.queryResultCache.execute(QueryResultCache.key(this.queryMethodName, parameters),
+        this.maximumResults, () -> this.delegate.execute(parameters));
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import java.util.Iterator;
+
+import org.apache.geode.cache.Region;
+import org.spring.data.gemfire.cache.query.QueryResultCache;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.util.Assert;
+
+/**
+ * The CachingGemfireRepositoryFactoryBean class is a {@link RoutingGemfireRepositoryFactoryBean} creating repositories
+ * with a {@link CachingGemfireRepositoryFactory}, for example with
+ * {@literal @EnableGemfireRepositories(repositoryFactoryBeanClass = CachingGemfireRepositoryFactoryBean.class)}.
+ *
+ * The results are cached in the {@link QueryResultCache} bean declared in the application context, if any,
+ * otherwise in a {@link QueryResultCache} of the repository.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.support.CachingGemfireRepositoryFactory
+ * @see org.spring.data.gemfire.cache.query.QueryResultCache
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class CachingGemfireRepositoryFactoryBean<T extends Repository<S, ID>, S, ID>
+    extends RoutingGemfireRepositoryFactoryBean<T, S, ID> {
+
+  public CachingGemfireRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+    super(repositoryInterface);
+  }
+
+  protected QueryResultCache resolveQueryResultCache() {
+
+    return getApplicationContext()
+      .map(applicationContext -> applicationContext.getBeansOfType(QueryResultCache.class))
+      .filter(queryResultCaches -> queryResultCaches.size() == 1)
+      .map(queryResultCaches -> queryResultCaches.values().iterator().next())
+      .orElseGet(() -> {
+
+        Iterator<Region<?, ?>> regions = getRegions().iterator();
+
+        Assert.state(regions.hasNext(), "No Region found to resolve the RegionService");
+
+        return new QueryResultCache(regions.next().getRegionService());
+      });
+  }
+
+  @Override
+  protected RepositoryFactorySupport createRepositoryFactory() {
+
+    CachingGemfireRepositoryFactory repositoryFactory =
+      new CachingGemfireRepositoryFactory(getRegions(), getGemfireMappingContext(), resolveQueryResultCache());
+
+    getApplicationContext().map(QueryPostProcessorRegistrationOnQueryCreationListener::new)
+      .ifPresent(repositoryFactory::addQueryCreationListener);
+
+    return repositoryFactory;
+  }
+}
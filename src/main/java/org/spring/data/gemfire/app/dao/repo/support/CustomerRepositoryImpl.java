@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.app.dao.repo.CustomCustomerRepository;
+import org.spring.data.gemfire.cache.query.KeysetQueryExecutor;
+import org.spring.data.gemfire.cache.query.SemiJoinExecutor;
+import org.spring.data.gemfire.support.LazyReference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * The CustomerRepositoryImpl class is an implementation of the CustomCustomerRepository interface.
+ *
+ * Customers with Accounts are found with a {@link SemiJoinExecutor} rather than an OQL join, which the query engine
+ * evaluates by comparing every Customer with every Account and only supports on colocated partitioned Regions
+ * inside a Function.  When the {@literal example.accounts.routed-by-customer-id} property is {@literal true},
+ * the join is executed on the members hosting the colocated Customers and Accounts.  Customers are paged and streamed
+ * in ID order with a {@link KeysetQueryExecutor}.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.CustomCustomerRepository
+ * @see org.spring.data.gemfire.app.dao.repo.support.ProjectingRepositorySupport
+ * @see org.spring.data.gemfire.cache.query.KeysetQueryExecutor
+ * @see org.spring.data.gemfire.cache.query.SemiJoinExecutor
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class CustomerRepositoryImpl extends ProjectingRepositorySupport implements CustomCustomerRepository {
+
+  protected static final String LAST_NAME_PREDICATE = "this.lastName = $1";
+
+  private final LazyReference<KeysetQueryExecutor> customersQueryExecutor = new LazyReference<>();
+
+  private final LazyReference<SemiJoinExecutor> customersWithAccountsJoin = new LazyReference<>();
+
+  private volatile boolean accountsRoutedByCustomerId;
+
+  protected KeysetQueryExecutor getCustomersQueryExecutor() {
+    return this.customersQueryExecutor.get(() -> new KeysetQueryExecutor(getTemplate("/Customers").getRegion(), "id"));
+  }
+
+  /**
+   * Declares whether the Accounts Region is colocated with the Customers Region and routes each Account by the ID
+   * of its Customer (e.g. with a {@link org.apache.geode.cache.PartitionResolver}), in which case Customers with
+   * Accounts are joined on the members hosting them.  Defaults to {@literal false}.
+   *
+   * @param accountsRoutedByCustomerId whether Accounts are routed by the ID of their Customer.
+   * @see org.spring.data.gemfire.cache.query.SemiJoinExecutor#setRoutedByJoinProperties(boolean)
+   */
+  @Value("${example.accounts.routed-by-customer-id:false}")
+  public void setAccountsRoutedByCustomerId(boolean accountsRoutedByCustomerId) {
+    this.accountsRoutedByCustomerId = accountsRoutedByCustomerId;
+  }
+
+  protected boolean isAccountsRoutedByCustomerId() {
+    return this.accountsRoutedByCustomerId;
+  }
+
+  protected SemiJoinExecutor getCustomersWithAccountsJoin() {
+
+    return this.customersWithAccountsJoin.get(() -> {
+
+      SemiJoinExecutor customersWithAccountsJoin = new SemiJoinExecutor(getTemplate("/Customers").getRegion(), "id",
+        getTemplate("/Accounts").getRegion(), "customerId");
+
+      customersWithAccountsJoin.setRoutedByJoinProperties(isAccountsRoutedByCustomerId());
+
+      return customersWithAccountsJoin;
+    });
+  }
+
+  @Override
+  public List<Customer> findCustomersWithAccounts() {
+    return findCustomersWithAccounts(DEFAULT_LIMIT);
+  }
+
+  @Override
+  public List<Customer> findCustomersWithAccounts(int limit) {
+    return getCustomersWithAccountsJoin().execute(limit);
+  }
+
+  @Override
+  public <T> List<T> findCustomersWithAccounts(Class<T> projectionType) {
+    return getProjectionFactory().createProjections(projectionType,
+      getCustomersWithAccountsJoin().execute(DEFAULT_LIMIT));
+  }
+
+  @Override
+  public Slice<Customer> findByLastName(String lastName, Pageable pageable) {
+    return getCustomersQueryExecutor().findSlice(LAST_NAME_PREDICATE, pageable, lastName);
+  }
+
+  @Override
+  public Stream<Customer> streamAll(int pageSize) {
+    return getCustomersQueryExecutor().stream(null, pageSize);
+  }
+}
@@ -16,11 +16,23 @@
 
 package org.spring.data.gemfire.app.dao.repo.support;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
+import org.apache.geode.cache.query.SelectResults;
+import org.spring.data.gemfire.app.beans.Comparators;
 import org.spring.data.gemfire.app.beans.Programmer;
 import org.spring.data.gemfire.app.dao.repo.CustomProgrammerRepository;
+import org.spring.data.gemfire.cache.query.CompiledQueryCache;
+import org.spring.data.gemfire.cache.query.KeysetQueryExecutor;
+import org.spring.data.gemfire.cache.query.OrderByPostProcessor;
+import org.spring.data.gemfire.pdx.PdxInstanceProjectionFactory;
+import org.spring.data.gemfire.support.LazyReference;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.gemfire.GemfireTemplate;
 import org.springframework.util.Assert;
 
@@ -28,13 +40,29 @@ import org.springframework.util.Assert;
  * The ProgrammerRepositoryImpl class is an implementation of the CustomProgrammerRepository interface.
  *
  * @author John Blum
+ * @see org.spring.data.gemfire.app.beans.Comparators
  * @see org.spring.data.gemfire.app.dao.repo.CustomProgrammerRepository
+ * @see org.spring.data.gemfire.cache.query.CompiledQueryCache
+ * @see org.spring.data.gemfire.cache.query.KeysetQueryExecutor
+ * @see org.spring.data.gemfire.cache.query.OrderByPostProcessor
+ * @see org.spring.data.gemfire.pdx.PdxInstanceProjectionFactory
  * @link http://en.wikipedia.org/wiki/List_of_JVM_languages#JVM_languages
  * @since 1.0.0
  */
 @SuppressWarnings("unused")
 public class ProgrammerRepositoryImpl implements CustomProgrammerRepository {
 
+  protected static final String JVM_BASED_LANGUAGES_PREDICATE =
+    "programmingLanguage IN SET ('Java', 'Clojure', 'Groovy', 'JRuby', 'Jython', 'Scala')";
+
+  protected static final String PROGRAMMING_LANGUAGE_PREDICATE = "programmingLanguage = $1";
+
+  private final PdxInstanceProjectionFactory projectionFactory = new PdxInstanceProjectionFactory();
+
+  private final LazyReference<CompiledQueryCache> queryCache = new LazyReference<>();
+
+  private final LazyReference<KeysetQueryExecutor> keysetQueryExecutor = new LazyReference<>();
+
   @Autowired
   private GemfireTemplate programmersTemplate;
 
@@ -44,11 +72,76 @@ public class ProgrammerRepositoryImpl implements CustomProgrammerRepository {
     return programmersTemplate;
   }
 
+  protected CompiledQueryCache getQueryCache() {
+    return queryCache.get(() -> CompiledQueryCache.forRegion(getTemplate().getRegion()));
+  }
+
+  protected KeysetQueryExecutor getKeysetQueryExecutor() {
+    return keysetQueryExecutor.get(() -> new KeysetQueryExecutor(getQueryCache(), getTemplate().getRegion(), "id"));
+  }
+
+  protected <T> SelectResults<T> query(String predicate, Object... parameters) {
+    return getQueryCache().execute(CompiledQueryCache.selectWhere(getTemplate().getRegion(), predicate), parameters);
+  }
+
   @Override
   public List<Programmer> findByJvmBasedLanguages() {
-    return getTemplate().<Programmer>query(
-      "programmingLanguage IN SET ('Java', 'Clojure', 'Groovy', 'JRuby', 'Jython', 'Scala')")
-        .asList();
+    return this.<Programmer>query(JVM_BASED_LANGUAGES_PREDICATE).asList();
+  }
+
+  @Override
+  public <T> List<T> findByJvmBasedLanguages(Class<T> projectionType) {
+    return projectionFactory.createProjections(projectionType, query(JVM_BASED_LANGUAGES_PREDICATE));
+  }
+
+  /**
+   * Finds all Programmers programming in the given language, sorted on the client using the Comparators registered
+   * for the application domain beans rather than with an OQL ORDER BY, which requires DISTINCT and sorts
+   * on the server by reflectively resolving the properties of each result.
+   */
+  @Override
+  public List<Programmer> findByProgrammingLanguage(String programmingLanguage, Sort sort) {
+
+    List<Programmer> programmers =
+      new ArrayList<>(this.<Programmer>query(PROGRAMMING_LANGUAGE_PREDICATE, programmingLanguage).asList());
+
+    Comparator<Programmer> comparator = Comparators.forSort(Programmer.class, sort);
+
+    if (comparator != null) {
+      programmers.sort(comparator);
+    }
+
+    return programmers;
+  }
+
+  /**
+   * Finds a page of Programmers programming in the given language in ID order, resuming after the last Programmer
+   * of the previous page when given a {@link org.spring.data.gemfire.cache.query.KeysetPageRequest}.
+   */
+  @Override
+  public Slice<Programmer> findByProgrammingLanguage(String programmingLanguage, Pageable pageable) {
+    return getKeysetQueryExecutor().findSlice(PROGRAMMING_LANGUAGE_PREDICATE, pageable, programmingLanguage);
+  }
+
+  /**
+   * Executes the given OQL statement on the '/Programmers' Region, applying its ORDER BY clause on the client
+   * with the Comparators registered for the application domain beans; an ORDER BY clause on a property
+   * without a registered Comparator is left to the query engine.
+   */
+  @Override
+  public List<Programmer> findByQuery(String query, Object... parameters) {
+
+    OrderByPostProcessor orderBy =
+      OrderByPostProcessor.parse(query, property -> Comparators.hasComparator(Programmer.class, property));
+
+    List<Programmer> programmers =
+      new ArrayList<>(getQueryCache().<SelectResults<Programmer>>execute(orderBy.getQuery(), parameters).asList());
+
+    if (orderBy.isSorted()) {
+      programmers.sort(Comparators.forSort(Programmer.class, orderBy.getSort()));
+    }
+
+    return programmers;
   }
 
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.spring.data.gemfire.pdx.PdxInstanceProjectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * The ProjectingRepositorySupport class is an abstract base class for Repository custom implementations
+ * returning interface-based projections of OQL query results.
+ *
+ * The GemFire cache is resolved lazily, on first query, so that custom implementations extending this class
+ * do not introduce a dependency cycle between the cache, its Regions and the Repositories.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.pdx.PdxInstanceProjectionFactory
+ * @see org.springframework.data.gemfire.GemfireTemplate
+ * @see org.apache.geode.cache.GemFireCache
+ * @since 1.0.0
+ */
+public abstract class ProjectingRepositorySupport {
+
+  private final Map<String, GemfireTemplate> templates = new ConcurrentHashMap<>();
+
+  @Autowired
+  private ObjectProvider<GemFireCache> gemfireCache;
+
+  private final PdxInstanceProjectionFactory projectionFactory = new PdxInstanceProjectionFactory();
+
+  protected GemFireCache getCache() {
+
+    GemFireCache cache = (this.gemfireCache != null ? this.gemfireCache.getIfAvailable() : null);
+
+    Assert.state(cache != null, "The GemFire cache was not properly initialized");
+
+    return cache;
+  }
+
+  protected PdxInstanceProjectionFactory getProjectionFactory() {
+    return this.projectionFactory;
+  }
+
+  protected GemfireTemplate getTemplate(String regionPath) {
+
+    return this.templates.computeIfAbsent(regionPath, path -> {
+
+      Region<Object, Object> region = getCache().getRegion(path);
+
+      Assert.state(region != null, () -> String.format("Region [%s] not found", path));
+
+      return new GemfireTemplate(region);
+    });
+  }
+
+  /**
+   * Executes the given OQL query against the Region at the given path and projects each result onto
+   * the given interface type.
+   *
+   * @param <T> {@link Class} type of the projection.
+   * @param regionPath path of the Region used to resolve the QueryService.
+   * @param projectionType interface type of the projection.
+   * @param query OQL query to execute.
+   * @param arguments bind arguments for the query parameters ($1, $2, ...).
+   * @return a {@link List} of projections of the query results.
+   * @see org.spring.data.gemfire.pdx.PdxInstanceProjectionFactory#createProjections(Class, Iterable)
+   */
+  protected <T> List<T> findProjected(String regionPath, Class<T> projectionType, String query,
+      Object... arguments) {
+
+    return getProjectionFactory().createProjections(projectionType,
+      getTemplate(regionPath).find(query, arguments));
+  }
+}
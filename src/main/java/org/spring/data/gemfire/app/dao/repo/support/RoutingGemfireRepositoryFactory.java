@@ -0,0 +1,141 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.apache.geode.cache.Region;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.function.annotation.Filter;
+import org.springframework.data.gemfire.mapping.GemfirePersistentEntity;
+import org.springframework.data.gemfire.mapping.GemfirePersistentProperty;
+import org.springframework.data.gemfire.repository.query.GemfireQueryMethod;
+import org.springframework.data.gemfire.repository.query.GemfireRepositoryQuery;
+import org.springframework.data.gemfire.repository.query.QueryPostProcessor;
+import org.springframework.data.gemfire.repository.support.GemfireRepositoryFactory;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.query.EvaluationContextProvider;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.repository.query.RepositoryQuery;
+
+/**
+ * The RoutingGemfireRepositoryFactory class is a {@link GemfireRepositoryFactory} creating repositories whose
+ * query methods are routed to the buckets owning the keys constrained by the query.
+ *
+ * Repositories query their Region through a {@link RoutingGemfireTemplate} routing on the identifier of the entity.
+ * The value of a query method parameter annotated with {@link Filter @Filter}, a single key or a {@link Collection}
+ * of keys, is used as the routing keys of the query instead.  The parameter is still bound to the query, so when it
+ * is not referenced by the query, the query must be declared with {@literal @Query} since derived queries bind
+ * every parameter to a criterion.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.support.RoutingGemfireTemplate
+ * @see org.springframework.data.gemfire.function.annotation.Filter
+ * @see org.springframework.data.gemfire.repository.support.GemfireRepositoryFactory
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class RoutingGemfireRepositoryFactory extends GemfireRepositoryFactory {
+
+  public RoutingGemfireRepositoryFactory(Iterable<Region<?, ?>> regions,
+      MappingContext<? extends GemfirePersistentEntity<?>, GemfirePersistentProperty> mappingContext) {
+
+    super(regions, mappingContext);
+  }
+
+  protected static int filterParameterIndex(Method method) {
+
+    Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+
+    for (int index = 0; index < parameterAnnotations.length; index++) {
+      if (Arrays.stream(parameterAnnotations[index]).anyMatch(Filter.class::isInstance)) {
+        return index;
+      }
+    }
+
+    return -1;
+  }
+
+  @Override
+  protected GemfireTemplate newTemplate(RepositoryMetadata metadata) {
+
+    RoutingGemfireTemplate template = new RoutingGemfireTemplate(super.newTemplate(metadata).getRegion());
+
+    Optional.ofNullable(getMappingContext().getPersistentEntity(metadata.getDomainType()))
+      .map(GemfirePersistentEntity::getIdProperty)
+      .ifPresent(idProperty -> template.setRoutingProperties(idProperty.getName()));
+
+    return template;
+  }
+
+  @Override
+  protected Optional<QueryLookupStrategy> getQueryLookupStrategy(QueryLookupStrategy.Key key,
+      EvaluationContextProvider evaluationContextProvider) {
+
+    return super.getQueryLookupStrategy(key, evaluationContextProvider).map(queryLookupStrategy ->
+      (method, metadata, projectionFactory, namedQueries) -> {
+
+        RepositoryQuery query = queryLookupStrategy.resolveQuery(method, metadata, projectionFactory, namedQueries);
+
+        int filterParameterIndex = filterParameterIndex(method);
+
+        return (filterParameterIndex > -1 && query instanceof GemfireRepositoryQuery
+          ? new FilteredRepositoryQuery((GemfireRepositoryQuery) query, filterParameterIndex)
+          : query);
+      });
+  }
+
+  /**
+   * {@link GemfireRepositoryQuery} executing the query with the value of the {@link Filter @Filter} annotated
+   * parameter as the routing keys.
+   */
+  protected static class FilteredRepositoryQuery extends GemfireRepositoryQuery {
+
+    private final GemfireRepositoryQuery delegate;
+
+    private final int filterParameterIndex;
+
+    protected FilteredRepositoryQuery(GemfireRepositoryQuery delegate, int filterParameterIndex) {
+      super((GemfireQueryMethod) delegate.getQueryMethod());
+      this.delegate = delegate;
+      this.filterParameterIndex = filterParameterIndex;
+    }
+
+    @Override
+    public GemfireRepositoryQuery register(QueryPostProcessor<?, String> queryPostProcessor) {
+      this.delegate.register(queryPostProcessor);
+      return this;
+    }
+
+    @Override
+    public Object execute(Object[] parameters) {
+
+      Object filter = parameters[this.filterParameterIndex];
+
+      Collection<?> routingKeys = (filter instanceof Collection ? (Collection<?>) filter
+        : (filter instanceof Object[] ? Arrays.asList((Object[]) filter) : Collections.singleton(filter)));
+
+      return RoutingGemfireTemplate.withRoutingKeys(routingKeys, () -> this.delegate.execute(parameters));
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import org.springframework.data.gemfire.repository.support.GemfireRepositoryFactoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+
+/**
+ * The RoutingGemfireRepositoryFactoryBean class is a {@link GemfireRepositoryFactoryBean} creating repositories
+ * with a {@link RoutingGemfireRepositoryFactory}, for example with
+ * {@literal @EnableGemfireRepositories(repositoryFactoryBeanClass = RoutingGemfireRepositoryFactoryBean.class)}.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.support.RoutingGemfireRepositoryFactory
+ * @see org.springframework.data.gemfire.repository.support.GemfireRepositoryFactoryBean
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class RoutingGemfireRepositoryFactoryBean<T extends Repository<S, ID>, S, ID>
+    extends GemfireRepositoryFactoryBean<T, S, ID> {
+
+  public RoutingGemfireRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+    super(repositoryInterface);
+  }
+
+  @Override
+  protected RepositoryFactorySupport createRepositoryFactory() {
+
+    RoutingGemfireRepositoryFactory repositoryFactory =
+      new RoutingGemfireRepositoryFactory(getRegions(), getGemfireMappingContext());
+
+    getApplicationContext().map(QueryPostProcessorRegistrationOnQueryCreationListener::new)
+      .ifPresent(repositoryFactory::addQueryCreationListener);
+
+    return repositoryFactory;
+  }
+}
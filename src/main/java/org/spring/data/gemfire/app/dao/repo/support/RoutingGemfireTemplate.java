@@ -0,0 +1,255 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.geode.GemFireException;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.Execution;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.cache.query.internal.ResultsCollectionWrapper;
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+import org.apache.geode.cache.query.types.ObjectType;
+import org.spring.data.gemfire.cache.execute.QueryFunctions;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The RoutingGemfireTemplate class is a {@link GemfireTemplate} that executes queries constraining the routing key
+ * of a partitioned {@link Region} on only the buckets owning the keys, rather than on every member and every bucket.
+ *
+ * A query is routed when its {@literal WHERE} clause is a conjunction including an equality ({@literal x.id = $1})
+ * or {@literal IN} ({@literal x.id IN SET $1}) predicate on one of the routing properties, by default the identifier,
+ * or when routing keys are given explicitly with {@link #withRoutingKeys(Collection, Supplier)}, as is done for
+ * repository query method parameters annotated with {@literal @Filter}.  The query is then executed with the
+ * {@link QueryFunctions#ROUTED_QUERY_FUNCTION_ID routed query Function} {@literal onRegion} with the routing keys
+ * as the filter, and the results of each member are merged by the caller.
+ *
+ * Queries joining Regions, ordering, grouping or aggregating results are not routed, since their results
+ * cannot be merged from the results of each member without re-evaluating the query.
+ *
+ * The routed query Function must be registered on every member hosting data for the Region,
+ * e.g. by declaring a {@link QueryFunctions} bean with {@literal @EnableGemfireFunctions}.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.execute.FunctionService#onRegion(Region)
+ * @see org.spring.data.gemfire.cache.execute.QueryFunctions
+ * @see org.springframework.data.gemfire.GemfireTemplate
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class RoutingGemfireTemplate extends GemfireTemplate {
+
+  protected static final String DEFAULT_ROUTING_PROPERTY = "id";
+
+  private static final ThreadLocal<Collection<?>> ROUTING_KEYS = new ThreadLocal<>();
+
+  private static final Pattern QUERY_PATTERN = Pattern.compile(
+    "^\\s*(?:<[^>]*>\\s*)*SELECT\\s+(DISTINCT\\s+)?(.+?)\\s+FROM\\s+(.+?)(?:\\s+WHERE\\s+(.+?))?"
+      + "(?:\\s+(GROUP\\s+BY|ORDER\\s+BY)\\s+.*?)?(?:\\s+LIMIT\\s+(\\d+))?\\s*$",
+    Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  private static final Pattern CONJUNCTION_PATTERN = Pattern.compile("\\s+AND\\s+", Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern DISJUNCTION_PATTERN = Pattern.compile("\\s(?:OR|NOT)\\s", Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern ROUTING_PREDICATE_PATTERN = Pattern.compile(
+    "^\\s*(?:([A-Za-z_]\\w*)\\.)?([A-Za-z_]\\w*)\\s*(?:=\\s*\\$(\\d+)|\\s+IN\\s+(?:SET\\s*)?(?:\\$(\\d+)|\\(([^)]*)\\)))\\s*$",
+    Pattern.CASE_INSENSITIVE);
+
+  private Set<String> routingProperties = Collections.singleton(DEFAULT_ROUTING_PROPERTY);
+
+  public <K, V> RoutingGemfireTemplate(Region<K, V> region) {
+    super(region);
+  }
+
+  /**
+   * Executes the given {@link Supplier} with the given routing keys used as the filter of the queries executed
+   * by any RoutingGemfireTemplate on the current {@link Thread}.
+   *
+   * @param <T> {@link Class} type of the result.
+   * @param routingKeys keys of the buckets to query.
+   * @param supplier {@link Supplier} executing the queries.
+   * @return the result of the {@link Supplier}.
+   */
+  public static <T> T withRoutingKeys(Collection<?> routingKeys, Supplier<T> supplier) {
+
+    Collection<?> currentRoutingKeys = ROUTING_KEYS.get();
+
+    try {
+      ROUTING_KEYS.set(routingKeys);
+      return supplier.get();
+    }
+    finally {
+      ROUTING_KEYS.set(currentRoutingKeys);
+    }
+  }
+
+  /**
+   * Sets the properties constraining the routing key of the Region, such as {@literal id}, or {@literal customerId}
+   * when the Region's {@link org.apache.geode.cache.PartitionResolver} routes on the Customer ID.
+   *
+   * @param routingProperties names of the routing properties.
+   */
+  public void setRoutingProperties(String... routingProperties) {
+    this.routingProperties = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(routingProperties)));
+  }
+
+  public Set<String> getRoutingProperties() {
+    return this.routingProperties;
+  }
+
+  @Override
+  public <E> SelectResults<E> find(String query, Object... parameters) {
+
+    if (PartitionRegionHelper.isPartitionedRegion(getRegion())) {
+
+      Matcher queryMatcher = QUERY_PATTERN.matcher(query);
+
+      if (queryMatcher.find() && isRoutable(queryMatcher)) {
+
+        Collection<?> routingKeys = ROUTING_KEYS.get();
+
+        routingKeys = (routingKeys != null ? routingKeys : resolveRoutingKeys(queryMatcher.group(4), parameters));
+
+        if (routingKeys != null) {
+          return route(query, parameters, routingKeys, queryMatcher.group(1) != null,
+            (queryMatcher.group(6) != null ? Integer.parseInt(queryMatcher.group(6)) : -1));
+        }
+      }
+    }
+
+    return super.find(query, parameters);
+  }
+
+  protected boolean isRoutable(Matcher queryMatcher) {
+
+    String projection = queryMatcher.group(2);
+    String fromClause = queryMatcher.group(3);
+
+    long regionCount = Arrays.stream(fromClause.split(","))
+      .filter(iterator -> iterator.trim().startsWith(Region.SEPARATOR))
+      .count();
+
+    return (!projection.contains("(") && queryMatcher.group(5) == null && regionCount == 1);
+  }
+
+  protected Collection<?> resolveRoutingKeys(String whereClause, Object[] parameters) {
+
+    if (StringUtils.hasText(whereClause) && !DISJUNCTION_PATTERN.matcher(whereClause).find()) {
+      for (String predicate : CONJUNCTION_PATTERN.split(whereClause)) {
+
+        Matcher predicateMatcher = ROUTING_PREDICATE_PATTERN.matcher(predicate.replaceAll("^[\\s(]+|[\\s)]+$", ""));
+
+        if (predicateMatcher.find() && getRoutingProperties().contains(predicateMatcher.group(2))) {
+          if (predicateMatcher.group(3) != null) {
+            return Collections.singleton(parameter(parameters, predicateMatcher.group(3)));
+          }
+          else if (predicateMatcher.group(4) != null) {
+            Object parameter = parameter(parameters, predicateMatcher.group(4));
+            return (parameter instanceof Collection ? (Collection<?>) parameter
+              : (parameter instanceof Object[] ? Arrays.asList((Object[]) parameter) : null));
+          }
+          else {
+            return resolveParameters(predicateMatcher.group(5), parameters);
+          }
+        }
+      }
+    }
+
+    return null;
+  }
+
+  private Object parameter(Object[] parameters, String index) {
+    int parameterIndex = Integer.parseInt(index) - 1;
+    Assert.isTrue(parameters != null && parameterIndex < parameters.length, () -> String.format(
+      "Query parameter [$%s] was not bound", index));
+    return parameters[parameterIndex];
+  }
+
+  private Collection<?> resolveParameters(String elements, Object[] parameters) {
+
+    List<Object> values = new ArrayList<>();
+
+    for (String element : StringUtils.commaDelimitedListToStringArray(elements)) {
+      if (element.trim().startsWith("$")) {
+        values.add(parameter(parameters, element.trim().substring(1)));
+      }
+      else {
+        return null;
+      }
+    }
+
+    return values;
+  }
+
+  @SuppressWarnings("unchecked")
+  protected <E> SelectResults<E> route(String query, Object[] parameters, Collection<?> routingKeys,
+      boolean distinct, int limit) {
+
+    Collection<Object> results = (distinct ? new LinkedHashSet<>() : new ArrayList<>());
+
+    Set<Object> filter = new LinkedHashSet<>(routingKeys);
+
+    filter.remove(null);
+
+    if (!filter.isEmpty()) {
+      try {
+        Execution execution = FunctionService.onRegion(getRegion())
+          .withFilter(filter)
+          .setArguments(new Object[] { query, parameters });
+
+        for (Object memberResults : (List<Object>) execution.execute(QueryFunctions.ROUTED_QUERY_FUNCTION_ID)
+            .getResult()) {
+
+          if (memberResults instanceof Throwable) {
+            throw new IllegalStateException(String.format("Failed to execute query [%s]", query),
+              (Throwable) memberResults);
+          }
+
+          results.addAll((Collection<Object>) memberResults);
+        }
+      }
+      catch (GemFireException e) {
+        throw convertGemFireAccessException(e);
+      }
+    }
+
+    List<Object> limitedResults = new ArrayList<>(results);
+
+    limitedResults = (limit >= 0 && limit < limitedResults.size() ? limitedResults.subList(0, limit) : limitedResults);
+
+    ObjectType elementType = (!limitedResults.isEmpty() && limitedResults.get(0) instanceof Struct
+      ? ((Struct) limitedResults.get(0)).getStructType() : new ObjectTypeImpl(Object.class));
+
+    return new ResultsCollectionWrapper(elementType, limitedResults);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import java.util.List;
+
+import org.apache.geode.cache.query.SelectResults;
+import org.spring.data.gemfire.app.beans.Session;
+import org.spring.data.gemfire.app.dao.repo.CustomSessionRepository;
+import org.spring.data.gemfire.cache.query.CompiledQueryCache;
+import org.spring.data.gemfire.cache.session.SessionIndexes;
+import org.spring.data.gemfire.support.LazyReference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * The SessionRepositoryImpl class is an implementation of the CustomSessionRepository interface.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.CustomSessionRepository
+ * @see org.spring.data.gemfire.cache.query.CompiledQueryCache
+ * @see org.spring.data.gemfire.cache.session.SessionIndexes
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class SessionRepositoryImpl implements CustomSessionRepository {
+
+  protected static final String ATTRIBUTE_PREDICATE = "this.attributes[%s] = $1";
+
+  private final LazyReference<CompiledQueryCache> queryCache = new LazyReference<>();
+
+  @Autowired
+  private GemfireTemplate sessionsTemplate;
+
+  protected GemfireTemplate getTemplate() {
+    Assert.state(sessionsTemplate != null,
+      "the GemfireTemplate for the '/Sessions' Region was not properly initialized");
+    return sessionsTemplate;
+  }
+
+  protected CompiledQueryCache getQueryCache() {
+    return queryCache.get(() -> CompiledQueryCache.forRegion(getTemplate().getRegion()));
+  }
+
+  /**
+   * Finds all Sessions having an attribute with the given name and value.
+   *
+   * The attribute name is written into the OQL as a string literal, rather than bound as a parameter,
+   * since a map index on {@literal s.attributes['name']} is only used for constant keys.  Queries for each
+   * attribute name are compiled once and cached.
+   */
+  @Override
+  public List<Session> findByAttribute(String attributeName, Object attributeValue) {
+
+    Assert.hasText(attributeName, "Attribute name must be specified");
+
+    String predicate = String.format(ATTRIBUTE_PREDICATE, SessionIndexes.toLiteral(attributeName));
+
+    SelectResults<Session> results = getQueryCache().execute(
+      CompiledQueryCache.selectWhere(getTemplate().getRegion(), predicate), attributeValue);
+
+    return results.asList();
+  }
+}
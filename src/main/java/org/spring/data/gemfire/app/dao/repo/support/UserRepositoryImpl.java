@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import java.util.List;
+
+import org.spring.data.gemfire.app.beans.User;
+import org.spring.data.gemfire.app.dao.repo.CustomUserRepository;
+import org.spring.data.gemfire.cache.query.KeysetQueryExecutor;
+import org.spring.data.gemfire.support.LazyReference;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * The UserRepositoryImpl class is an implementation of the CustomUserRepository interface.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.CustomUserRepository
+ * @see org.spring.data.gemfire.app.dao.repo.support.ProjectingRepositorySupport
+ * @see org.spring.data.gemfire.cache.query.KeysetQueryExecutor
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class UserRepositoryImpl extends ProjectingRepositorySupport implements CustomUserRepository {
+
+  protected static final String ACTIVE_PREDICATE = "this.active = true";
+
+  private final LazyReference<KeysetQueryExecutor> usersQueryExecutor = new LazyReference<>();
+
+  protected KeysetQueryExecutor getUsersQueryExecutor() {
+    return this.usersQueryExecutor.get(() -> new KeysetQueryExecutor(getTemplate("/Users").getRegion(), "username"));
+  }
+
+  @Override
+  public Slice<User> findActiveUsers(Pageable pageable) {
+    return getUsersQueryExecutor().findSlice(ACTIVE_PREDICATE, pageable);
+  }
+
+  @Override
+  public <T> List<T> findUsersInCity(String city, Class<T> projectionType) {
+    return findProjected("/Users", projectionType,
+      "SELECT DISTINCT u FROM /Users u, u.addresses a WHERE a.city = $1", city);
+  }
+
+}
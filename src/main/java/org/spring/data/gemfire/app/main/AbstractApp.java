@@ -19,8 +19,8 @@ package org.spring.data.gemfire.app.main;
 import java.util.Scanner;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.spring.data.gemfire.app.context.ParallelBootstrapApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
-import org.springframework.context.support.ClassPathXmlApplicationContext;
 import org.springframework.util.Assert;
 
 /**
@@ -28,7 +28,7 @@ import org.springframework.util.Assert;
  *
  * @author John Blum
  * @see org.springframework.context.ConfigurableApplicationContext
- * @see org.springframework.context.support.ClassPathXmlApplicationContext
+ * @see org.spring.data.gemfire.app.context.ParallelBootstrapApplicationContext
  * @since 1.0.0
  */
 @SuppressWarnings("unused")
@@ -64,7 +64,8 @@ public abstract class AbstractApp implements Runnable {
   protected abstract String[] getDefaultConfigurationFile();
 
   protected ConfigurableApplicationContext initApplicationContext(final String... args) {
-    ConfigurableApplicationContext applicationContext = new ClassPathXmlApplicationContext(getConfigurationFile(args));
+    ConfigurableApplicationContext applicationContext = ParallelBootstrapApplicationContext.newApplicationContext(
+      getConfigurationFile(args));
     applicationContext.registerShutdownHook();
     return applicationContext;
   }
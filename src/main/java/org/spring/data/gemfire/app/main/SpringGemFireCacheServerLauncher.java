@@ -22,18 +22,21 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.geode.cache.Cache;
 import org.codeprimate.process.support.ProcessUtils;
+import org.spring.data.gemfire.app.context.ParallelBootstrapApplicationContext;
 import org.spring.data.gemfire.support.CacheUtils;
 import org.springframework.context.ConfigurableApplicationContext;
-import org.springframework.context.support.ClassPathXmlApplicationContext;
 import org.springframework.util.Assert;
 
 /**
  * The SpringGemFireCacheServerLauncher class is a launcher expecting and using Spring Data GemFire XML namespace
  * configuration meta-data to bootstrap a GemFire Cache Server.
  *
+ * Disk Stores, Regions and Indexes are created (and recovered) in parallel when the
+ * {@value ParallelBootstrapApplicationContext#BOOTSTRAP_PARALLELISM_PROPERTY} System property is set.
+ *
  * @author John Blum
  * @see org.springframework.context.ConfigurableApplicationContext
- * @see org.springframework.context.support.ClassPathXmlApplicationContext
+ * @see org.spring.data.gemfire.app.context.ParallelBootstrapApplicationContext
  * @see org.apache.geode.cache.Cache
  * @since 1.0.0
  * @since 7.0.1 (GemFire)
@@ -97,7 +100,7 @@ public class SpringGemFireCacheServerLauncher implements Runnable {
   }
 
   private void initApplicationContext() {
-    applicationContext = new ClassPathXmlApplicationContext(getConfigLocations());
+    applicationContext = ParallelBootstrapApplicationContext.newApplicationContext(getConfigLocations());
     applicationContext.registerShutdownHook();
   }
 
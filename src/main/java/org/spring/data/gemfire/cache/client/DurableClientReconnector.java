@@ -0,0 +1,335 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.client;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionEvent;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.util.CacheListenerAdapter;
+import org.springframework.util.Assert;
+
+/**
+ * The DurableClientReconnector class re-registers the interests of a durable client on reconnect and brings
+ * the client's {@link Region Regions} up to date faster than registering interest with
+ * {@link InterestResultPolicy#KEYS_VALUES} and calling {@link ClientCache#readyForEvents()} directly.
+ *
+ * Registering a regular expression interest with {@link InterestResultPolicy#KEYS_VALUES} fetches the initial image
+ * of each {@link Region} serially, in a single round trip per {@link Region}.  Instead, the durable interest is
+ * registered without an initial image, the keys of interest are listed on the server and the initial image is pulled
+ * in chunks of keys by the {@link InterestManager}, registering (non-durable) interest in each chunk with
+ * {@link InterestResultPolicy#KEYS_VALUES} in parallel across all {@link Region Regions}.  The chunk interests are
+ * unregistered once loaded, leaving only the durable interest on the server.
+ *
+ * The events queued on the server while the client was offline are delivered after the initial image has loaded,
+ * and {@link #reconnect()} waits until each {@link Region} is live (i.e. its durable queue has been drained).
+ * Only the initial image is parallelized; GemFire applies the queued events to the client {@link Region} one at
+ * a time, as they arrive, and they cannot be batched on the client since a {@link Region#putAll(Map) putAll}
+ * on a client {@link Region} would send the values back to the server.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.InterestResultPolicy
+ * @see org.apache.geode.cache.Region
+ * @see org.apache.geode.cache.client.ClientCache
+ * @see org.spring.data.gemfire.cache.client.InterestManager
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class DurableClientReconnector {
+
+  protected static final long DEFAULT_REPLAY_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+  protected static final String ALL_KEYS = InterestManager.ALL_KEYS;
+
+  private long replayTimeout = DEFAULT_REPLAY_TIMEOUT;
+
+  private final ClientCache clientCache;
+
+  private final InterestManager interestManager = new InterestManager();
+
+  private final List<Registration<?, ?>> registrations = new ArrayList<>();
+
+  public DurableClientReconnector(ClientCache clientCache) {
+    Assert.notNull(clientCache, "ClientCache must not be null");
+    this.clientCache = clientCache;
+    this.interestManager.setValueFetch(InterestManager.ValueFetch.EAGER);
+  }
+
+  protected ClientCache getClientCache() {
+    return this.clientCache;
+  }
+
+  protected InterestManager getInterestManager() {
+    return this.interestManager;
+  }
+
+  public void setChunkSize(int chunkSize) {
+    getInterestManager().setChunkSize(chunkSize);
+  }
+
+  public void setParallelism(int parallelism) {
+    getInterestManager().setParallelism(parallelism);
+  }
+
+  /**
+   * Sets the maximum time, in milliseconds, to wait for the events queued while the client was offline
+   * to be delivered.
+   *
+   * @param replayTimeout timeout in milliseconds.
+   */
+  public void setReplayTimeout(long replayTimeout) {
+    Assert.isTrue(replayTimeout >= 0, "Replay timeout must be greater than or equal to 0");
+    this.replayTimeout = replayTimeout;
+  }
+
+  protected long getReplayTimeout() {
+    return this.replayTimeout;
+  }
+
+  /**
+   * Registers durable interest in all keys of the given {@link Region}.
+   *
+   * @see #register(Region, String)
+   */
+  public <K, V> DurableClientReconnector register(Region<K, V> region) {
+    return register(region, ALL_KEYS);
+  }
+
+  /**
+   * Registers durable interest in the keys of the given {@link Region} matching the regular expression.
+   *
+   * @param <K> {@link Class} type of the {@link Region} key.
+   * @param <V> {@link Class} type of the {@link Region} value.
+   * @param region client {@link Region}.
+   * @param regex regular expression matching the keys of interest.
+   * @return this {@link DurableClientReconnector}.
+   */
+  public <K, V> DurableClientReconnector register(Region<K, V> region, String regex) {
+
+    Assert.notNull(region, "Region must not be null");
+    Assert.hasText(regex, "Regular expression must be specified");
+
+    this.registrations.add(new Registration<>(region, regex));
+
+    return this;
+  }
+
+  /**
+   * Registers the interests, loads the initial image of each {@link Region}, signals the client is ready for events
+   * and waits for the events queued while the client was offline to be delivered.
+   *
+   * @return a {@link ReconnectReport} with the time taken and the number of entries and events received.
+   * @throws IllegalStateException if the initial image of a {@link Region} failed to load.
+   */
+  public ReconnectReport reconnect() {
+
+    Assert.state(!this.registrations.isEmpty(), "No Regions were registered");
+
+    long startTime = System.nanoTime();
+
+    int imageEntries = loadInitialImages();
+
+    long imageLoadedTime = System.nanoTime();
+
+    this.registrations.forEach(Registration::startCounting);
+    getClientCache().readyForEvents();
+
+    long deadline = (System.currentTimeMillis() + getReplayTimeout());
+
+    boolean live = true;
+
+    for (Registration<?, ?> registration : this.registrations) {
+      live &= registration.awaitLive(deadline);
+    }
+
+    int replayedEvents = 0;
+
+    for (Registration<?, ?> registration : this.registrations) {
+      replayedEvents += registration.stopCounting();
+    }
+
+    ReconnectReport report = new ReconnectReport(imageEntries, replayedEvents, (imageLoadedTime - startTime),
+      (System.nanoTime() - imageLoadedTime), live);
+
+    System.out.printf("Durable client reconnected %1$s%n", report);
+
+    return report;
+  }
+
+  private int loadInitialImages() {
+
+    try {
+      Map<Registration<?, ?>, List<Future<Integer>>> chunks = new LinkedHashMap<>();
+
+      for (Registration<?, ?> registration : this.registrations) {
+        chunks.put(registration, getInterestManager().submitInterestRegex(registration.region, registration.regex,
+          true));
+      }
+
+      int imageEntries = 0;
+
+      for (Map.Entry<Registration<?, ?>, List<Future<Integer>>> entry : chunks.entrySet()) {
+        imageEntries += getInterestManager().await(entry.getKey().region, entry.getValue());
+      }
+
+      return imageEntries;
+    }
+    finally {
+      getInterestManager().destroy();
+    }
+  }
+
+  private static final class Registration<K, V> extends CacheListenerAdapter<K, V> {
+
+    private final AtomicInteger events = new AtomicInteger(0);
+
+    private final CountDownLatch live = new CountDownLatch(1);
+
+    private final Region<K, V> region;
+
+    private final String regex;
+
+    private Registration(Region<K, V> region, String regex) {
+      this.region = region;
+      this.regex = regex;
+    }
+
+    private void startCounting() {
+      this.region.getAttributesMutator().addCacheListener(this);
+    }
+
+    private boolean awaitLive(long deadline) {
+
+      try {
+        return this.live.await(Math.max(0L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    private int stopCounting() {
+      this.region.getAttributesMutator().removeCacheListener(this);
+      return this.events.get();
+    }
+
+    @Override
+    public void afterCreate(EntryEvent<K, V> event) {
+      this.events.incrementAndGet();
+    }
+
+    @Override
+    public void afterUpdate(EntryEvent<K, V> event) {
+      this.events.incrementAndGet();
+    }
+
+    @Override
+    public void afterDestroy(EntryEvent<K, V> event) {
+      this.events.incrementAndGet();
+    }
+
+    @Override
+    public void afterInvalidate(EntryEvent<K, V> event) {
+      this.events.incrementAndGet();
+    }
+
+    @Override
+    public void afterRegionLive(RegionEvent<K, V> event) {
+      this.live.countDown();
+    }
+  }
+
+  /**
+   * The ReconnectReport class records the time taken by a reconnect along with the number of initial image entries
+   * loaded and the number of queued events replayed.
+   */
+  public static class ReconnectReport {
+
+    private final boolean live;
+
+    private final int imageEntries;
+    private final int replayedEvents;
+
+    private final long imageLoadTime;
+    private final long replayTime;
+
+    protected ReconnectReport(int imageEntries, int replayedEvents, long imageLoadTime, long replayTime,
+        boolean live) {
+
+      this.imageEntries = imageEntries;
+      this.replayedEvents = replayedEvents;
+      this.imageLoadTime = imageLoadTime;
+      this.replayTime = replayTime;
+      this.live = live;
+    }
+
+    public int getImageEntries() {
+      return this.imageEntries;
+    }
+
+    public long getImageLoadTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.imageLoadTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Determines whether all {@link Region Regions} went live before the replay timeout.
+     */
+    public boolean isLive() {
+      return this.live;
+    }
+
+    public int getReplayedEvents() {
+      return this.replayedEvents;
+    }
+
+    public long getReplayTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.replayTime, TimeUnit.NANOSECONDS);
+    }
+
+    public long getReconnectTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.imageLoadTime + this.replayTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of initial image entries and replayed events received per second of the reconnect.
+     */
+    public double getEventsPerSecond() {
+
+      long reconnectTime = (this.imageLoadTime + this.replayTime);
+
+      return (reconnectTime > 0 ? (this.imageEntries + this.replayedEvents) * 1.0e9d / reconnectTime : 0.0d);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("{ imageEntries = %1$d, replayedEvents = %2$d, imageLoadTime = %3$d ms,"
+          + " replayTime = %4$d ms, eventsPerSecond = %5$.1f, live = %6$s }", getImageEntries(), getReplayedEvents(),
+        getImageLoadTime(TimeUnit.MILLISECONDS), getReplayTime(TimeUnit.MILLISECONDS), getEventsPerSecond(), isLive());
+    }
+  }
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.cache.Region;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * The InterestManager class registers interest in large numbers of keys of client {@link Region Regions}.
+ *
+ * Calling {@link Region#registerInterest(Object)} once per key costs a round trip per key, while registering
+ * interest in all keys at once builds the whole initial result on the server and sends it in one response.
+ * Instead, keys are registered in chunks (a {@link List} of keys per registration) on a pool of threads, so that
+ * the registrations are spread across the connections of the client {@link org.apache.geode.cache.client.Pool}.
+ *
+ * Regular expression interest is registered once, without an initial result, and then sharded the same way:
+ * the matching keys are listed on the server and registered in chunks as non-durable, transient key interests
+ * that are unregistered again as soon as their chunk has loaded, leaving only the regular expression interest.
+ *
+ * How the values are fetched is controlled by the {@link ValueFetch} strategy, which by default registers interest
+ * with {@link InterestResultPolicy#KEYS} and leaves the values to be fetched lazily on first access.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.InterestResultPolicy
+ * @see org.apache.geode.cache.Region
+ * @see org.springframework.beans.factory.DisposableBean
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class InterestManager implements DisposableBean {
+
+  protected static final int DEFAULT_CHUNK_SIZE = 10000;
+  protected static final int DEFAULT_PARALLELISM = (Runtime.getRuntime().availableProcessors() * 2);
+
+  protected static final String ALL_KEYS = ".*";
+
+  private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger(0);
+
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
+  private int parallelism = DEFAULT_PARALLELISM;
+
+  private final Statistics statistics = new Statistics();
+
+  private ValueFetch valueFetch = ValueFetch.LAZY;
+
+  private volatile ExecutorService executor;
+
+  public void setChunkSize(int chunkSize) {
+    Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+    this.chunkSize = chunkSize;
+  }
+
+  protected int getChunkSize() {
+    return this.chunkSize;
+  }
+
+  public void setParallelism(int parallelism) {
+    Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+    this.parallelism = parallelism;
+  }
+
+  protected int getParallelism() {
+    return this.parallelism;
+  }
+
+  public Statistics getStatistics() {
+    return this.statistics;
+  }
+
+  public void setValueFetch(ValueFetch valueFetch) {
+    Assert.notNull(valueFetch, "ValueFetch must not be null");
+    this.valueFetch = valueFetch;
+  }
+
+  protected ValueFetch getValueFetch() {
+    return this.valueFetch;
+  }
+
+  private ExecutorService resolveExecutor() {
+
+    ExecutorService executor = this.executor;
+
+    if (executor == null) {
+      synchronized (this) {
+        executor = this.executor;
+
+        if (executor == null) {
+
+          int instance = INSTANCE_COUNTER.incrementAndGet();
+
+          AtomicInteger threadCounter = new AtomicInteger(0);
+
+          executor = Executors.newFixedThreadPool(getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, String.format("Interest Registration %1$d-%2$d", instance,
+              threadCounter.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+          });
+
+          this.executor = executor;
+        }
+      }
+    }
+
+    return executor;
+  }
+
+  /**
+   * Registers interest in the given keys of the {@link Region}, in chunks.
+   *
+   * @param <K> {@link Class} type of the {@link Region} key.
+   * @param region client {@link Region}.
+   * @param keys keys of interest.
+   * @param durable whether the interest is durable.
+   * @return the number of keys registered.
+   * @throws IllegalStateException if a chunk fails to register.
+   */
+  public <K> int registerInterest(Region<K, ?> region, Collection<? extends K> keys, boolean durable) {
+
+    Assert.notNull(region, "Region must not be null");
+    Assert.notNull(keys, "Keys must not be null");
+
+    List<Future<Integer>> chunks = new ArrayList<>();
+
+    List<K> chunk = new ArrayList<>(Math.min(keys.size(), getChunkSize()));
+
+    for (K key : keys) {
+
+      chunk.add(key);
+
+      if (chunk.size() == getChunkSize()) {
+        chunks.add(submitChunk(region, chunk, durable, false));
+        chunk = new ArrayList<>(getChunkSize());
+      }
+    }
+
+    if (!chunk.isEmpty()) {
+      chunks.add(submitChunk(region, chunk, durable, false));
+    }
+
+    return await(region, chunks);
+  }
+
+  /**
+   * Registers interest in all keys of the {@link Region}.
+   *
+   * @see #registerInterestRegex(Region, String, boolean)
+   */
+  public int registerInterestInAllKeys(Region<?, ?> region, boolean durable) {
+    return registerInterestRegex(region, ALL_KEYS, durable);
+  }
+
+  /**
+   * Registers interest in the keys of the {@link Region} matching the regular expression, loading the keys
+   * currently on the server in chunks.
+   *
+   * @param <K> {@link Class} type of the {@link Region} key.
+   * @param region client {@link Region}.
+   * @param regex regular expression matching the keys of interest.
+   * @param durable whether the interest is durable.
+   * @return the number of keys loaded.
+   * @throws IllegalStateException if a chunk fails to load.
+   */
+  public <K> int registerInterestRegex(Region<K, ?> region, String regex, boolean durable) {
+    return await(region, submitInterestRegex(region, regex, durable));
+  }
+
+  <K> List<Future<Integer>> submitInterestRegex(Region<K, ?> region, String regex, boolean durable) {
+
+    Assert.notNull(region, "Region must not be null");
+    Assert.hasText(regex, "Regular expression must be specified");
+
+    region.registerInterestRegex(regex, InterestResultPolicy.NONE, durable);
+
+    Pattern pattern = (ALL_KEYS.equals(regex) ? null : Pattern.compile(regex));
+
+    List<Future<Integer>> chunks = new ArrayList<>();
+
+    List<K> chunk = new ArrayList<>(getChunkSize());
+
+    for (K key : region.keySetOnServer()) {
+      if (pattern == null || pattern.matcher(String.valueOf(key)).matches()) {
+
+        chunk.add(key);
+
+        if (chunk.size() == getChunkSize()) {
+          chunks.add(submitChunk(region, chunk, false, true));
+          chunk = new ArrayList<>(getChunkSize());
+        }
+      }
+    }
+
+    if (!chunk.isEmpty()) {
+      chunks.add(submitChunk(region, chunk, false, true));
+    }
+
+    return chunks;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <K> Future<Integer> submitChunk(Region<K, ?> region, List<K> keys, boolean durable, boolean transientKeys) {
+
+    return resolveExecutor().submit(() -> {
+
+      long startTime = System.nanoTime();
+
+      // a List key registers interest in each key of the List
+      region.registerInterest((K) keys, getValueFetch().getInterestResultPolicy(), durable);
+
+      if (transientKeys) {
+        region.unregisterInterest((K) keys);
+      }
+
+      getStatistics().recordChunk(keys.size(), System.nanoTime() - startTime);
+
+      if (getValueFetch() == ValueFetch.PARALLEL) {
+        startTime = System.nanoTime();
+        region.getAll(keys);
+        getStatistics().recordValueFetch(keys.size(), System.nanoTime() - startTime);
+      }
+
+      return keys.size();
+    });
+  }
+
+  int await(Region<?, ?> region, List<Future<Integer>> chunks) {
+
+    try {
+      int keys = 0;
+
+      for (Future<Integer> chunk : chunks) {
+        keys += chunk.get();
+      }
+
+      return keys;
+    }
+    catch (ExecutionException e) {
+      chunks.forEach(chunk -> chunk.cancel(false));
+      throw new IllegalStateException(String.format("Failed to register interest in Region [%s]",
+        region.getFullPath()), e.getCause());
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      chunks.forEach(chunk -> chunk.cancel(false));
+      throw new IllegalStateException(String.format("Interrupted while registering interest in Region [%s]",
+        region.getFullPath()), e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+
+    ExecutorService executor = this.executor;
+
+    if (executor != null) {
+      executor.shutdownNow();
+      this.executor = null;
+    }
+  }
+
+  /**
+   * The ValueFetch enum defines how the values of the keys of interest are fetched from the server.
+   */
+  public enum ValueFetch {
+
+    /**
+     * The values are returned with each registered chunk ({@link InterestResultPolicy#KEYS_VALUES}).
+     */
+    EAGER(InterestResultPolicy.KEYS_VALUES),
+
+    /**
+     * Only the keys are returned ({@link InterestResultPolicy#KEYS}); values are fetched from the server
+     * on first access.
+     */
+    LAZY(InterestResultPolicy.KEYS),
+
+    /**
+     * Only the keys are returned ({@link InterestResultPolicy#KEYS}); the values of each chunk are then fetched
+     * with {@link Region#getAll(Collection)} on the registering thread.
+     */
+    PARALLEL(InterestResultPolicy.KEYS);
+
+    private final InterestResultPolicy interestResultPolicy;
+
+    ValueFetch(InterestResultPolicy interestResultPolicy) {
+      this.interestResultPolicy = interestResultPolicy;
+    }
+
+    public InterestResultPolicy getInterestResultPolicy() {
+      return this.interestResultPolicy;
+    }
+  }
+
+  /**
+   * The Statistics class records the number of chunks and keys registered along with the time taken to register
+   * each chunk and to fetch the values.
+   */
+  public static class Statistics {
+
+    private final AtomicLong maxChunkRegistrationTime = new AtomicLong(0L);
+
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder keys = new LongAdder();
+    private final LongAdder registrationTime = new LongAdder();
+    private final LongAdder valueFetchTime = new LongAdder();
+    private final LongAdder valuesFetched = new LongAdder();
+
+    private void recordChunk(int keys, long registrationTime) {
+      this.chunks.increment();
+      this.keys.add(keys);
+      this.registrationTime.add(registrationTime);
+      this.maxChunkRegistrationTime.accumulateAndGet(registrationTime, Math::max);
+    }
+
+    private void recordValueFetch(int values, long valueFetchTime) {
+      this.valuesFetched.add(values);
+      this.valueFetchTime.add(valueFetchTime);
+    }
+
+    public long getChunks() {
+      return this.chunks.sum();
+    }
+
+    public long getKeys() {
+      return this.keys.sum();
+    }
+
+    public long getAverageChunkRegistrationTime(TimeUnit timeUnit) {
+      long chunks = getChunks();
+      return (chunks > 0 ? timeUnit.convert(this.registrationTime.sum() / chunks, TimeUnit.NANOSECONDS) : 0L);
+    }
+
+    public long getMaxChunkRegistrationTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.maxChunkRegistrationTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the sum of the registration times of all chunks, which exceeds the elapsed time
+     * when chunks are registered in parallel.
+     */
+    public long getRegistrationTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.registrationTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getValuesFetched() {
+      return this.valuesFetched.sum();
+    }
+
+    public long getValueFetchTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.valueFetchTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("{ chunks = %1$d, keys = %2$d, averageChunkRegistrationTime = %3$d ms,"
+          + " maxChunkRegistrationTime = %4$d ms, valuesFetched = %5$d, valueFetchTime = %6$d ms }",
+        getChunks(), getKeys(), getAverageChunkRegistrationTime(TimeUnit.MILLISECONDS),
+        getMaxChunkRegistrationTime(TimeUnit.MILLISECONDS), getValuesFetched(),
+        getValueFetchTime(TimeUnit.MILLISECONDS));
+    }
+  }
+}
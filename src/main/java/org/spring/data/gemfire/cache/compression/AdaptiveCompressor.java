@@ -0,0 +1,448 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.compression;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.geode.compression.CompressionException;
+import org.apache.geode.compression.Compressor;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+/**
+ * The AdaptiveCompressor class is a GemFire {@link Compressor} for Regions storing large values, compressing
+ * each value with a pluggable {@link Codec} unless compression does not pay off.
+ *
+ * Values are grouped into size classes (powers of 2).  Every value in a size class is compressed until
+ * the class has been sampled, after which only 1 in {@link #setSampleRate(int) sample rate} values are compressed
+ * to sample the compression ratio when the class's average ratio (compressed size / uncompressed size) is worse than
+ * the {@link #setMaxCompressionRatio(double) maximum compression ratio}; the other values of the class are stored
+ * uncompressed.  Values smaller than the {@link #setMinValueSize(int) minimum value size}, and values that
+ * do not get smaller, are always stored uncompressed.  Each stored value is prefixed with a byte identifying
+ * the Codec that compressed it, or {@literal 0} when stored uncompressed.
+ *
+ * The Codec is either set directly or resolved by name: {@literal snappy} when the {@literal snappy-java} library is
+ * on the classpath and its native code loads, falling back to the pure Java {@literal deflate} Codec otherwise.
+ * The bytes saved and the time spent compressing and decompressing are recorded per compressor, and thereby
+ * per Region, and exported as JMX attributes when the compressor is registered with a Spring
+ * {@link org.springframework.jmx.export.MBeanExporter}.
+ *
+ * @author John Blum
+ * @see org.apache.geode.compression.Compressor
+ * @see org.spring.data.gemfire.cache.compression.Codec
+ * @since 1.0.0
+ */
+@ManagedResource(description = "Compresses Region values adaptively and records the bytes saved")
+@SuppressWarnings("unused")
+public class AdaptiveCompressor implements Compressor {
+
+  public static final double DEFAULT_MAX_COMPRESSION_RATIO = 0.85d;
+
+  public static final int DEFAULT_MIN_VALUE_SIZE = 128;
+  public static final int DEFAULT_SAMPLE_RATE = 64;
+  public static final int DEFAULT_WARMUP_SAMPLES = 16;
+
+  protected static final byte UNCOMPRESSED = 0;
+
+  protected static final int SIZE_CLASSES = Integer.SIZE;
+
+  private volatile Codec codec;
+
+  private double maxCompressionRatio = DEFAULT_MAX_COMPRESSION_RATIO;
+
+  private int minValueSize = DEFAULT_MIN_VALUE_SIZE;
+  private int sampleRate = DEFAULT_SAMPLE_RATE;
+
+  private final Codec[] decoders = new Codec[Byte.MAX_VALUE + 1];
+
+  private final SizeClass[] sizeClasses = new SizeClass[SIZE_CLASSES];
+
+  private final Statistics statistics = new Statistics();
+
+  /**
+   * Resolves the {@link Codec} with the given name, falling back to the {@link DeflateCodec} when the named Codec
+   * is not available.
+   *
+   * @param codecName name of the {@link Codec}, e.g. {@literal snappy} or {@literal deflate}.
+   * @return the resolved {@link Codec}.
+   */
+  public static Codec resolveCodec(String codecName) {
+
+    if (SnappyCodec.NAME.equalsIgnoreCase(codecName) && SnappyCodec.isAvailable()) {
+      return new SnappyCodec();
+    }
+    else if (!DeflateCodec.NAME.equalsIgnoreCase(codecName)) {
+      System.err.printf("Codec [%1$s] is not available; falling back to [%2$s]%n", codecName, DeflateCodec.NAME);
+    }
+
+    return new DeflateCodec();
+  }
+
+  public AdaptiveCompressor() {
+
+    for (int index = 0; index < this.sizeClasses.length; index++) {
+      this.sizeClasses[index] = new SizeClass();
+    }
+  }
+
+  public void setCodec(Codec codec) {
+    Assert.notNull(codec, "Codec must not be null");
+    Assert.isTrue(codec.getId() > UNCOMPRESSED, "Codec ID must be greater than 0");
+    this.codec = codec;
+  }
+
+  public void setCodecName(String codecName) {
+    setCodec(resolveCodec(codecName));
+  }
+
+  protected Codec getCodec() {
+
+    Codec codec = this.codec;
+
+    if (codec == null) {
+      codec = resolveCodec(SnappyCodec.NAME);
+      this.codec = codec;
+    }
+
+    return codec;
+  }
+
+  @ManagedAttribute(description = "Name of the Codec compressing values")
+  public String getCodecName() {
+    return getCodec().getName();
+  }
+
+  public void setMaxCompressionRatio(double maxCompressionRatio) {
+    Assert.isTrue(maxCompressionRatio > 0.0d && maxCompressionRatio <= 1.0d,
+      "Max compression ratio must be greater than 0.0 and less than or equal to 1.0");
+    this.maxCompressionRatio = maxCompressionRatio;
+  }
+
+  protected double getMaxCompressionRatio() {
+    return this.maxCompressionRatio;
+  }
+
+  public void setMinValueSize(int minValueSize) {
+    Assert.isTrue(minValueSize >= 0, "Min value size must be greater than or equal to 0");
+    this.minValueSize = minValueSize;
+  }
+
+  protected int getMinValueSize() {
+    return this.minValueSize;
+  }
+
+  public void setSampleRate(int sampleRate) {
+    Assert.isTrue(sampleRate > 0, "Sample rate must be greater than 0");
+    this.sampleRate = sampleRate;
+  }
+
+  protected int getSampleRate() {
+    return this.sampleRate;
+  }
+
+  public Statistics getStatistics() {
+    return this.statistics;
+  }
+
+  protected SizeClass sizeClassOf(int length) {
+    return this.sizeClasses[SIZE_CLASSES - 1 - Integer.numberOfLeadingZeros(Math.max(1, length))];
+  }
+
+  @Override
+  public byte[] compress(byte[] input) {
+
+    long startTime = System.nanoTime();
+
+    byte[] output = null;
+
+    if (input.length >= getMinValueSize()) {
+
+      SizeClass sizeClass = sizeClassOf(input.length);
+
+      if (sizeClass.isCompressing(getMaxCompressionRatio(), getSampleRate())) {
+
+        Codec codec = getCodec();
+
+        byte[] compressed = codec.compress(input);
+
+        sizeClass.sample(input.length, compressed.length);
+
+        if (compressed.length + 1 < input.length) {
+          output = frame(codec.getId(), compressed);
+        }
+        else {
+          getStatistics().incompressible.increment();
+        }
+      }
+      else {
+        getStatistics().skipped.increment();
+      }
+    }
+
+    if (output == null) {
+      output = frame(UNCOMPRESSED, input);
+    }
+
+    getStatistics().recordCompression(input.length, output.length, output[0] != UNCOMPRESSED,
+      System.nanoTime() - startTime);
+
+    return output;
+  }
+
+  private byte[] frame(byte codecId, byte[] value) {
+
+    byte[] output = new byte[value.length + 1];
+
+    output[0] = codecId;
+    System.arraycopy(value, 0, output, 1, value.length);
+
+    return output;
+  }
+
+  @Override
+  public byte[] decompress(byte[] input) {
+
+    long startTime = System.nanoTime();
+
+    byte codecId = input[0];
+    byte[] value = Arrays.copyOfRange(input, 1, input.length);
+
+    byte[] output = (codecId == UNCOMPRESSED ? value : resolveCodec(codecId).decompress(value));
+
+    getStatistics().recordDecompression(System.nanoTime() - startTime);
+
+    return output;
+  }
+
+  private Codec resolveCodec(byte codecId) {
+
+    Codec codec = getCodec();
+
+    if (codec.getId() != codecId) {
+
+      if (codecId < UNCOMPRESSED) {
+        throw new CompressionException(String.format("Invalid Codec ID [%d]", codecId));
+      }
+
+      // values compressed with a previously configured Codec (e.g. restored from disk)
+      codec = this.decoders[codecId];
+
+      if (codec == null) {
+        if (codecId == DeflateCodec.ID) {
+          codec = new DeflateCodec();
+        }
+        else if (codecId == SnappyCodec.ID && SnappyCodec.isAvailable()) {
+          codec = new SnappyCodec();
+        }
+        else {
+          throw new CompressionException(String.format("No Codec with ID [%d] is available", codecId));
+        }
+
+        this.decoders[codecId] = codec;
+      }
+    }
+
+    return codec;
+  }
+
+  @ManagedAttribute(description = "Uncompressed size of the values compressed in bytes")
+  public long getUncompressedBytes() {
+    return getStatistics().getUncompressedBytes();
+  }
+
+  @ManagedAttribute(description = "Size of the values stored in bytes")
+  public long getStoredBytes() {
+    return getStatistics().getStoredBytes();
+  }
+
+  @ManagedAttribute(description = "Bytes saved by compression")
+  public long getBytesSaved() {
+    return getStatistics().getBytesSaved();
+  }
+
+  @ManagedAttribute(description = "Stored size / uncompressed size of the values")
+  public double getCompressionRatio() {
+    return getStatistics().getCompressionRatio();
+  }
+
+  @ManagedAttribute(description = "Number of values stored compressed")
+  public long getCompressed() {
+    return getStatistics().getCompressed();
+  }
+
+  @ManagedAttribute(description = "Number of values stored uncompressed because of a poor sampled ratio")
+  public long getSkipped() {
+    return getStatistics().getSkipped();
+  }
+
+  @ManagedAttribute(description = "Time spent compressing in nanoseconds")
+  public long getCompressionTime() {
+    return getStatistics().getCompressionTime();
+  }
+
+  @ManagedAttribute(description = "Time spent decompressing in nanoseconds")
+  public long getDecompressionTime() {
+    return getStatistics().getDecompressionTime();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%1$s(codec = %2$s) %3$s", getClass().getSimpleName(), getCodecName(), getStatistics());
+  }
+
+  /**
+   * The SizeClass class tracks the sampled compression ratio of the values in a range of sizes.
+   */
+  protected static class SizeClass {
+
+    private final AtomicLong values = new AtomicLong(0L);
+
+    private long sampledCompressedBytes;
+    private long sampledSamples;
+    private long sampledUncompressedBytes;
+
+    protected synchronized double getSampledRatio() {
+      return (this.sampledUncompressedBytes > 0L
+        ? (double) this.sampledCompressedBytes / this.sampledUncompressedBytes : 0.0d);
+    }
+
+    protected synchronized long getSamples() {
+      return this.sampledSamples;
+    }
+
+    protected boolean isCompressing(double maxCompressionRatio, int sampleRate) {
+
+      long value = this.values.getAndIncrement();
+
+      return (getSamples() < DEFAULT_WARMUP_SAMPLES || getSampledRatio() <= maxCompressionRatio
+        || value % sampleRate == 0);
+    }
+
+    /**
+     * Records a sampled compression, halving the history once it exceeds the warm up to favor recent samples.
+     */
+    protected synchronized void sample(int uncompressedLength, int compressedLength) {
+
+      if (this.sampledSamples >= 2L * DEFAULT_WARMUP_SAMPLES) {
+        this.sampledCompressedBytes /= 2L;
+        this.sampledUncompressedBytes /= 2L;
+        this.sampledSamples /= 2L;
+      }
+
+      this.sampledCompressedBytes += compressedLength;
+      this.sampledUncompressedBytes += uncompressedLength;
+      this.sampledSamples++;
+    }
+  }
+
+  /**
+   * The Statistics class records the bytes saved and the time spent by an {@link AdaptiveCompressor}.
+   */
+  public static class Statistics {
+
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+    private final LongAdder decompressionNanos = new LongAdder();
+    private final LongAdder decompressions = new LongAdder();
+    private final LongAdder incompressible = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder values = new LongAdder();
+
+    protected void recordCompression(int uncompressedLength, int storedLength, boolean compressed,
+        long compressionNanos) {
+
+      this.values.increment();
+      this.uncompressedBytes.add(uncompressedLength);
+      this.storedBytes.add(storedLength);
+      this.compressionNanos.add(compressionNanos);
+
+      if (compressed) {
+        this.compressed.increment();
+      }
+    }
+
+    protected void recordDecompression(long decompressionNanos) {
+      this.decompressions.increment();
+      this.decompressionNanos.add(decompressionNanos);
+    }
+
+    public long getBytesSaved() {
+      return getUncompressedBytes() - getStoredBytes();
+    }
+
+    public long getCompressed() {
+      return this.compressed.sum();
+    }
+
+    public double getCompressionRatio() {
+
+      long uncompressedBytes = getUncompressedBytes();
+
+      return (uncompressedBytes > 0L ? (double) getStoredBytes() / uncompressedBytes : 1.0d);
+    }
+
+    public long getCompressionTime() {
+      return this.compressionNanos.sum();
+    }
+
+    public long getDecompressions() {
+      return this.decompressions.sum();
+    }
+
+    public long getDecompressionTime() {
+      return this.decompressionNanos.sum();
+    }
+
+    /**
+     * Returns the number of values compressed that did not get smaller.
+     */
+    public long getIncompressible() {
+      return this.incompressible.sum();
+    }
+
+    public long getSkipped() {
+      return this.skipped.sum();
+    }
+
+    public long getStoredBytes() {
+      return this.storedBytes.sum();
+    }
+
+    public long getUncompressedBytes() {
+      return this.uncompressedBytes.sum();
+    }
+
+    public long getValues() {
+      return this.values.sum();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("{ values = %1$d, compressed = %2$d, skipped = %3$d, incompressible = %4$d,"
+          + " uncompressedBytes = %5$d, storedBytes = %6$d, bytesSaved = %7$d, ratio = %8$.3f,"
+          + " compressionTime = %9$d us, decompressions = %10$d, decompressionTime = %11$d us }",
+        getValues(), getCompressed(), getSkipped(), getIncompressible(), getUncompressedBytes(), getStoredBytes(),
+        getBytesSaved(), getCompressionRatio(), getCompressionTime() / 1000L, getDecompressions(),
+        getDecompressionTime() / 1000L);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.compression;
+
+/**
+ * The Codec interface defines a compression algorithm plugged into an {@link AdaptiveCompressor}.
+ *
+ * Every Codec has a unique, non-zero {@link #getId() identifier} recorded with each compressed value so that
+ * values are always decompressed with the Codec that compressed them.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.cache.compression.AdaptiveCompressor
+ * @see org.spring.data.gemfire.cache.compression.DeflateCodec
+ * @see org.spring.data.gemfire.cache.compression.SnappyCodec
+ * @since 1.0.0
+ */
+public interface Codec {
+
+  /**
+   * Returns the unique identifier of this Codec, between 1 and 127.
+   */
+  byte getId();
+
+  String getName();
+
+  byte[] compress(byte[] input);
+
+  byte[] decompress(byte[] input);
+
+}
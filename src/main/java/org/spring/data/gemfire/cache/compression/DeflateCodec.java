@@ -0,0 +1,133 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.compression;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.geode.compression.CompressionException;
+
+/**
+ * The DeflateCodec class is a pure Java {@link Codec} using the JDK's {@link Deflater} and {@link Inflater},
+ * available on every platform.
+ *
+ * The compressed form is prefixed with the 4 byte length of the uncompressed value.  Deflaters and Inflaters are
+ * reused per thread.
+ *
+ * @author John Blum
+ * @see java.util.zip.Deflater
+ * @see java.util.zip.Inflater
+ * @see org.spring.data.gemfire.cache.compression.Codec
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class DeflateCodec implements Codec {
+
+  public static final byte ID = 1;
+
+  public static final String NAME = "deflate";
+
+  private final ThreadLocal<Deflater> deflater;
+
+  private final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(Inflater::new);
+
+  public DeflateCodec() {
+    this(Deflater.BEST_SPEED);
+  }
+
+  public DeflateCodec(int level) {
+    this.deflater = ThreadLocal.withInitial(() -> new Deflater(level));
+  }
+
+  @Override
+  public byte getId() {
+    return ID;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public byte[] compress(byte[] input) {
+
+    Deflater deflater = this.deflater.get();
+
+    try {
+      deflater.setInput(input);
+      deflater.finish();
+
+      byte[] output = new byte[Integer.BYTES + input.length + input.length / 1000 + 64];
+
+      ByteBuffer.wrap(output).putInt(input.length);
+
+      int length = Integer.BYTES;
+
+      while (!deflater.finished()) {
+
+        if (length == output.length) {
+          output = Arrays.copyOf(output, output.length * 2);
+        }
+
+        length += deflater.deflate(output, length, output.length - length);
+      }
+
+      return Arrays.copyOf(output, length);
+    }
+    finally {
+      deflater.reset();
+    }
+  }
+
+  @Override
+  public byte[] decompress(byte[] input) {
+
+    Inflater inflater = this.inflater.get();
+
+    try {
+      byte[] output = new byte[ByteBuffer.wrap(input).getInt()];
+
+      inflater.setInput(input, Integer.BYTES, input.length - Integer.BYTES);
+
+      int length = 0;
+
+      while (length < output.length) {
+
+        int inflated = inflater.inflate(output, length, output.length - length);
+
+        if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+          throw new CompressionException(String.format("Truncated deflate value; expected [%1$d] bytes but was [%2$d]",
+            output.length, length));
+        }
+
+        length += inflated;
+      }
+
+      return output;
+    }
+    catch (DataFormatException cause) {
+      throw new CompressionException("Corrupt deflate value", cause);
+    }
+    finally {
+      inflater.reset();
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.compression;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.geode.compression.SnappyCompressor;
+import org.springframework.util.ClassUtils;
+
+/**
+ * The SnappyCodec class is a {@link Codec} delegating to GemFire's {@link SnappyCompressor}, which requires
+ * the (optional) {@literal snappy-java} library and its native code on the classpath.
+ *
+ * @author John Blum
+ * @see org.apache.geode.compression.SnappyCompressor
+ * @see org.spring.data.gemfire.cache.compression.Codec
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class SnappyCodec implements Codec {
+
+  public static final byte ID = 2;
+
+  public static final String NAME = "snappy";
+
+  protected static final String SNAPPY_CLASS_NAME = "org.xerial.snappy.Snappy";
+
+  private static volatile Boolean available;
+
+  private final SnappyCompressor snappyCompressor = new SnappyCompressor();
+
+  /**
+   * Determines whether the {@literal snappy-java} library is on the classpath and its native code loads, by
+   * compressing and decompressing a sample value once.
+   */
+  public static boolean isAvailable() {
+
+    Boolean available = SnappyCodec.available;
+
+    if (available == null) {
+      available = (ClassUtils.isPresent(SNAPPY_CLASS_NAME, SnappyCodec.class.getClassLoader()) && canCompress());
+      SnappyCodec.available = available;
+    }
+
+    return available;
+  }
+
+  /* (non-Javadoc) - snappy-java throws an Error (e.g. SnappyError) when its native library does not load */
+  private static boolean canCompress() {
+
+    try {
+      byte[] sample = SNAPPY_CLASS_NAME.getBytes(StandardCharsets.UTF_8);
+      SnappyCompressor snappyCompressor = new SnappyCompressor();
+
+      return Arrays.equals(sample, snappyCompressor.decompress(snappyCompressor.compress(sample)));
+    }
+    catch (Throwable cause) {
+      System.err.printf("Snappy is not available: %s%n", cause);
+      return false;
+    }
+  }
+
+  @Override
+  public byte getId() {
+    return ID;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public byte[] compress(byte[] input) {
+    return this.snappyCompressor.compress(input);
+  }
+
+  @Override
+  public byte[] decompress(byte[] input) {
+    return this.snappyCompressor.decompress(input);
+  }
+}
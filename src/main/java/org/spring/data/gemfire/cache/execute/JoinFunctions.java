@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.execute;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.LocalDataSet;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.spring.data.gemfire.cache.query.QueryUtils;
+import org.springframework.data.gemfire.function.annotation.GemfireFunction;
+import org.springframework.util.Assert;
+
+/**
+ * The JoinFunctions class is a POJO containing GemFire Functions joining colocated partitioned Regions
+ * on the data local to the executing member.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.cache.query.SemiJoinExecutor
+ * @see org.springframework.data.gemfire.function.annotation.GemfireFunction
+ * @see org.apache.geode.cache.execute.RegionFunctionContext
+ * @see org.apache.geode.cache.partition.PartitionRegionHelper
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class JoinFunctions {
+
+  public static final String COLOCATED_SEMI_JOIN_FUNCTION_ID = "colocatedSemiJoin";
+
+  /**
+   * Returns the values of the Region on which the Function is executed having a matching value in the colocated
+   * Region, joining each local bucket with the colocated bucket of the same ID in parallel.  Each bucket is joined
+   * by hashing the join property values of the colocated bucket, so the join is linear in the size of the buckets.
+   *
+   * @param functionContext {@link RegionFunctionContext} of the function executed {@literal onRegion}.
+   * @param property join property of the values of the Region on which the Function is executed.
+   * @param colocatedRegionPath full path of the colocated Region.
+   * @param colocatedProperty join property of the values of the colocated Region.
+   * @param limit maximum number of values returned by this member.
+   * @return a {@link List} of the joined values.
+   */
+  @GemfireFunction(id = COLOCATED_SEMI_JOIN_FUNCTION_ID, HA = true, hasResult = true, optimizeForWrite = true)
+  public List<Object> colocatedSemiJoin(FunctionContext functionContext, String property, String colocatedRegionPath,
+      String colocatedProperty, int limit) {
+
+    Assert.isInstanceOf(RegionFunctionContext.class, functionContext,
+      "The colocated semi-join Function must be executed on a Region");
+
+    RegionFunctionContext regionFunctionContext = (RegionFunctionContext) functionContext;
+
+    PartitionedRegion region = (PartitionedRegion) regionFunctionContext.getDataSet();
+
+    Region<?, ?> colocatedRegion = PartitionRegionHelper.getColocatedRegions(region).get(colocatedRegionPath);
+
+    Assert.state(colocatedRegion instanceof PartitionedRegion, () -> String.format(
+      "Region [%1$s] is not colocated with Region [%2$s]", colocatedRegionPath, region.getFullPath()));
+
+    Set<Integer> bucketIds =
+      ((LocalDataSet) PartitionRegionHelper.getLocalDataForContext(regionFunctionContext)).getBucketSet();
+
+    return bucketIds.parallelStream()
+      .flatMap(bucketId -> semiJoin(bucket(region, bucketId), property,
+        bucket((PartitionedRegion) colocatedRegion, bucketId), colocatedProperty))
+      .limit(limit)
+      .collect(Collectors.toList());
+  }
+
+  private BucketRegion bucket(PartitionedRegion region, Integer bucketId) {
+
+    BucketRegion bucket = region.getDataStore().getLocalBucketById(bucketId);
+
+    Assert.state(bucket != null, () -> String.format("Bucket [%1$d] of Region [%2$s] is no longer hosted",
+      bucketId, region.getFullPath()));
+
+    return bucket;
+  }
+
+  protected Stream<Object> semiJoin(Region<?, ?> bucket, String property, Region<?, ?> colocatedBucket,
+      String colocatedProperty) {
+
+    Set<Object> joinValues = new HashSet<>();
+
+    for (Object colocatedValue : colocatedBucket.values()) {
+      joinValues.add(QueryUtils.readProperty(colocatedValue, colocatedProperty));
+    }
+
+    joinValues.remove(null);
+
+    return (joinValues.isEmpty() ? Stream.empty() : bucket.values().stream()
+      .filter(value -> joinValues.contains(QueryUtils.readProperty(value, property)))
+      .map(Object.class::cast));
+  }
+}
@@ -20,9 +20,14 @@ import java.util.Collections;
 import java.util.List;
 
 import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.apache.geode.cache.query.SelectResults;
 import org.spring.data.gemfire.app.beans.Programmer;
 import org.spring.data.gemfire.app.dao.repo.ProgrammerRepository;
 import org.spring.data.gemfire.app.dao.repo.support.ProgrammerRepositoryImpl;
+import org.spring.data.gemfire.cache.query.CompiledQueryCache;
+import org.spring.data.gemfire.support.LazyReference;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.gemfire.GemfireTemplate;
 import org.springframework.data.gemfire.function.annotation.GemfireFunction;
@@ -40,6 +45,7 @@ import org.springframework.util.CollectionUtils;
  * @see org.spring.data.gemfire.app.beans.Programmer
  * @see org.spring.data.gemfire.app.dao.repo.ProgrammerRepository
  * @see org.spring.data.gemfire.app.dao.repo.support.ProgrammerRepositoryImpl
+ * @see org.spring.data.gemfire.cache.query.CompiledQueryCache
  * @see org.springframework.data.gemfire.function.annotation.GemfireFunction
  * @see org.springframework.data.gemfire.repository.support.GemfireRepositoryFactory
  * @see org.springframework.stereotype.Component
@@ -52,6 +58,10 @@ import org.springframework.util.CollectionUtils;
 @SuppressWarnings("unused")
 public class ProgrammerFunctions {
 
+  protected static final String PROGRAMMING_LANGUAGE_PREDICATE = "programmingLanguage = $1";
+
+  private final LazyReference<CompiledQueryCache> queryCache = new LazyReference<>();
+
   @Autowired
   private GemfireTemplate programmersTemplate;
 
@@ -62,6 +72,10 @@ public class ProgrammerFunctions {
     return (list != null ? list : Collections.<T>emptyList());
   }
 
+  protected CompiledQueryCache getQueryCache() {
+    return queryCache.get(() -> CompiledQueryCache.forRegion(programmersTemplate.getRegion()));
+  }
+
   protected ProgrammerRepository getProgrammerRepository() {
     Assert.state(programmerRepository != null, "'programmerRepository' was not properly initialized");
     return programmerRepository;
@@ -79,9 +93,10 @@ public class ProgrammerFunctions {
     return getProgrammerRepository();
   }
 
+  // the FunctionContext must follow the @RegionData parameter, the order in which the arguments are injected
   @GemfireFunction
   public List<Programmer> updateReputation(@RegionData Region<Long, Programmer> filteredProgrammers,
-      String programmingLanguage, int reputationDelta) {
+      FunctionContext functionContext, String programmingLanguage, int reputationDelta) {
 
     try {
       ProgrammerRepository localProgrammerRepository = getProgrammerRepository(filteredProgrammers);
@@ -91,9 +106,11 @@ public class ProgrammerFunctions {
         nullSafeList(localProgrammerRepository.findDistinctByProgrammingLanguageOrderByNameAsc(programmingLanguage));
       */
 
-      List<Programmer> programmers = nullSafeList(filteredProgrammers.<Programmer>query(
-        String.format("programmingLanguage = '%s'", programmingLanguage))
-          .asList());
+      SelectResults<Programmer> results = getQueryCache().execute((RegionFunctionContext) functionContext,
+        CompiledQueryCache.selectWhere(programmersTemplate.getRegion(), PROGRAMMING_LANGUAGE_PREDICATE),
+          programmingLanguage);
+
+      List<Programmer> programmers = nullSafeList(results.asList());
 
       if (!CollectionUtils.isEmpty(programmers)) {
         for (Programmer programmer : programmers) {
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.execute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.apache.geode.cache.query.SelectResults;
+import org.spring.data.gemfire.cache.query.CompiledQueryCache;
+import org.spring.data.gemfire.support.LazyReference;
+import org.springframework.data.gemfire.function.annotation.GemfireFunction;
+import org.springframework.util.Assert;
+
+/**
+ * The QueryFunctions class is a POJO containing GemFire Functions executing OQL queries on the data
+ * of a partitioned Region local to the executing member.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.support.RoutingGemfireTemplate
+ * @see org.spring.data.gemfire.cache.query.CompiledQueryCache
+ * @see org.springframework.data.gemfire.function.annotation.GemfireFunction
+ * @see org.apache.geode.cache.execute.FunctionContext
+ * @see org.apache.geode.cache.execute.RegionFunctionContext
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class QueryFunctions {
+
+  public static final String ROUTED_QUERY_FUNCTION_ID = "routedQuery";
+
+  private final LazyReference<CompiledQueryCache> queryCache = new LazyReference<>();
+
+  protected CompiledQueryCache getQueryCache(RegionFunctionContext functionContext) {
+    return queryCache.get(() -> CompiledQueryCache.forRegion(functionContext.getDataSet()));
+  }
+
+  /**
+   * Executes the OQL query on the buckets of the function's filter hosted by this member
+   * and returns the results to be merged by the caller.
+   *
+   * @param functionContext {@link RegionFunctionContext} of the function executed {@literal onRegion}
+   * with a filter.
+   * @param query OQL query to execute.
+   * @param parameters values of the query's bind parameters.
+   * @return a {@link List} of the query results from this member.
+   */
+  @GemfireFunction(id = ROUTED_QUERY_FUNCTION_ID, HA = true, hasResult = true, optimizeForWrite = true)
+  public List<Object> routedQuery(FunctionContext functionContext, String query, Object[] parameters) {
+
+    Assert.isInstanceOf(RegionFunctionContext.class, functionContext,
+      "The routed query Function must be executed on a Region");
+
+    SelectResults<Object> results = getQueryCache((RegionFunctionContext) functionContext)
+      .execute((RegionFunctionContext) functionContext, query, parameters);
+
+    return new ArrayList<>(results.asList());
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.execute;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.spring.data.gemfire.app.beans.Session;
+import org.spring.data.gemfire.cache.session.SessionExpirationSweeper;
+import org.springframework.data.gemfire.function.annotation.GemfireFunction;
+import org.springframework.util.Assert;
+
+/**
+ * The SessionFunctions class is a POJO containing GemFire Functions maintaining the {@link Session Sessions}
+ * of a partitioned Region on the members hosting them.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.beans.Session
+ * @see org.spring.data.gemfire.cache.session.SessionExpirationSweeper
+ * @see org.springframework.data.gemfire.function.annotation.GemfireFunction
+ * @see org.apache.geode.cache.execute.RegionFunctionContext
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class SessionFunctions {
+
+  public static final String SWEEP_EXPIRED_SESSIONS_FUNCTION_ID = "sweepExpiredSessions";
+
+  /**
+   * Removes the expired Sessions of the local primary buckets of this member.
+   *
+   * @param functionContext {@link RegionFunctionContext} of the function executed {@literal onRegion}.
+   * @param now time in milliseconds since the epoch as of which Sessions are expired.
+   * @param maxInactiveIntervalInSeconds default max inactive interval of the Sessions, in seconds.
+   * @param batchSize maximum number of Sessions removed at once.
+   * @return the number of expiration candidates queried and the number of Sessions removed by this member.
+   * @see org.spring.data.gemfire.cache.session.SessionExpirationSweeper#sweep(RegionFunctionContext, long)
+   */
+  @GemfireFunction(id = SWEEP_EXPIRED_SESSIONS_FUNCTION_ID, HA = true, hasResult = true, optimizeForWrite = true)
+  public long[] sweepExpiredSessions(FunctionContext functionContext, long now, int maxInactiveIntervalInSeconds,
+      int batchSize) {
+
+    Assert.isInstanceOf(RegionFunctionContext.class, functionContext,
+      "The sweep expired Sessions Function must be executed on a Region");
+
+    RegionFunctionContext regionFunctionContext = (RegionFunctionContext) functionContext;
+
+    Region<String, Session> sessions = regionFunctionContext.getDataSet();
+
+    SessionExpirationSweeper sweeper = new SessionExpirationSweeper(sessions);
+
+    sweeper.setBatchSize(batchSize);
+    sweeper.setMaxInactiveIntervalInSeconds(maxInactiveIntervalInSeconds);
+    sweeper.sweep(regionFunctionContext, now);
+
+    return new long[] { sweeper.getScanned(), sweeper.getExpired() };
+  }
+}
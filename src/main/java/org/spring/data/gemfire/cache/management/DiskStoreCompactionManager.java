@@ -0,0 +1,652 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.management;
+
+import java.io.File;
+import java.time.Clock;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.DiskStore;
+import org.apache.geode.cache.DiskStoreFactory;
+import org.apache.geode.distributed.DistributedLockService;
+import org.apache.geode.internal.cache.DiskStoreImpl;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.data.gemfire.DiskStoreFactoryBean;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+/**
+ * The DiskStoreCompactionManager class takes over the compaction of GemFire {@link DiskStore Disk Stores} from
+ * GemFire's auto-compaction so that compaction does not compete with foreground writes at peak.
+ *
+ * As a {@link BeanPostProcessor}, the manager turns off {@literal auto-compact} and allows forced compaction on every
+ * {@link DiskStoreFactoryBean} in the Spring context and then manages the created {@link DiskStore}.  Disk Stores
+ * created with the GemFire API are configured with {@link #configure(DiskStoreFactory)} and registered with
+ * {@link #manage(DiskStore)}.
+ *
+ * Every {@link #setCheckInterval(long, TimeUnit) check interval}, a managed Disk Store having oplogs with more
+ * garbage than its {@literal compaction-threshold} is compacted with {@link DiskStore#forceCompaction()} when
+ * the current time is in one of the configured off-peak {@link #setCompactionWindows(String...) compaction windows},
+ * or at any time once the number of compactable oplogs reaches the
+ * {@link #setCompactableOplogThreshold(int) compactable oplog threshold}.
+ *
+ * Compaction is staggered across the cluster with a GemFire {@link DistributedLockService} having
+ * {@link #setMaxConcurrentMembers(int) max concurrent members} lock "slots", so only a subset of the members
+ * compact at once, and within a member, Disk Stores are compacted one at a time.  GemFire compacts all compactable
+ * oplogs of a Disk Store in one pass and does not count the bytes it copies in the Disk Store statistics, so I/O
+ * bandwidth is throttled per Disk Store by delaying its next compaction until the oplog bytes reclaimed by
+ * the previous compaction average out below the {@link #setMaxBytesPerSecond(long) maximum bytes per second}.
+ *
+ * Compaction duration and bytes reclaimed are recorded per Disk Store and exported as JMX attributes
+ * when the manager is registered with a Spring {@link org.springframework.jmx.export.MBeanExporter}.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.DiskStore
+ * @see org.apache.geode.distributed.DistributedLockService
+ * @see org.springframework.beans.factory.config.BeanPostProcessor
+ * @see org.springframework.data.gemfire.DiskStoreFactoryBean
+ * @since 1.0.0
+ */
+@ManagedResource(description = "Compacts GemFire Disk Stores off-peak and staggered across the cluster")
+@SuppressWarnings("unused")
+public class DiskStoreCompactionManager implements BeanPostProcessor, ApplicationListener<ContextRefreshedEvent>,
+    DisposableBean {
+
+  public static final int DEFAULT_COMPACTABLE_OPLOG_THRESHOLD = 10;
+  public static final int DEFAULT_MAX_CONCURRENT_MEMBERS = 1;
+
+  public static final long DEFAULT_CHECK_INTERVAL_IN_MILLISECONDS = TimeUnit.MINUTES.toMillis(1);
+
+  public static final String DEFAULT_LOCK_SERVICE_NAME = "DiskStoreCompactionManager";
+
+  protected static final String OPLOG_FILE_NAME_PREFIX = "BACKUP";
+  protected static final String SLOT_LOCK_NAME_PREFIX = "compaction-slot-";
+
+  private int compactableOplogThreshold = DEFAULT_COMPACTABLE_OPLOG_THRESHOLD;
+  private int maxConcurrentMembers = DEFAULT_MAX_CONCURRENT_MEMBERS;
+
+  private long checkIntervalMillis = DEFAULT_CHECK_INTERVAL_IN_MILLISECONDS;
+  private long maxBytesPerSecond = 0L;
+
+  private Clock clock = Clock.systemDefaultZone();
+
+  private volatile DistributedLockService lockService;
+
+  private List<CompactionWindow> compactionWindows = Collections.emptyList();
+
+  private final Map<String, DiskStore> diskStores = new ConcurrentHashMap<>();
+
+  private final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+
+  private volatile ScheduledExecutorService scheduler;
+
+  private String lockServiceName = DEFAULT_LOCK_SERVICE_NAME;
+
+  /**
+   * Configures the given {@link DiskStoreFactory} for the Disk Store to be compacted by a DiskStoreCompactionManager.
+   *
+   * @param diskStoreFactory {@link DiskStoreFactory} to configure.
+   * @return the given {@link DiskStoreFactory} with auto-compaction turned off and forced compaction allowed.
+   */
+  public static DiskStoreFactory configure(DiskStoreFactory diskStoreFactory) {
+    return diskStoreFactory.setAutoCompact(false).setAllowForceCompaction(true);
+  }
+
+  public void setCheckInterval(long checkInterval, TimeUnit timeUnit) {
+    Assert.isTrue(checkInterval > 0L, "Check interval must be greater than 0");
+    this.checkIntervalMillis = timeUnit.toMillis(checkInterval);
+  }
+
+  protected long getCheckIntervalMillis() {
+    return this.checkIntervalMillis;
+  }
+
+  public void setClock(Clock clock) {
+    Assert.notNull(clock, "Clock must not be null");
+    this.clock = clock;
+  }
+
+  protected Clock getClock() {
+    return this.clock;
+  }
+
+  public void setCompactableOplogThreshold(int compactableOplogThreshold) {
+    Assert.isTrue(compactableOplogThreshold > 0, "Compactable oplog threshold must be greater than 0");
+    this.compactableOplogThreshold = compactableOplogThreshold;
+  }
+
+  protected int getCompactableOplogThreshold() {
+    return this.compactableOplogThreshold;
+  }
+
+  /**
+   * Sets the off-peak compaction windows in the form of {@literal HH:mm-HH:mm} (local time),
+   * e.g. {@literal 01:00-05:00} or {@literal 22:00-02:00}.
+   *
+   * @param compactionWindows compaction windows.
+   */
+  public void setCompactionWindows(String... compactionWindows) {
+
+    List<CompactionWindow> windows = new ArrayList<>();
+
+    for (String compactionWindow : compactionWindows) {
+      windows.add(CompactionWindow.parse(compactionWindow));
+    }
+
+    this.compactionWindows = Collections.unmodifiableList(windows);
+  }
+
+  protected List<CompactionWindow> getCompactionWindows() {
+    return this.compactionWindows;
+  }
+
+  public void setLockServiceName(String lockServiceName) {
+    Assert.hasText(lockServiceName, "Lock service name must be specified");
+    this.lockServiceName = lockServiceName;
+  }
+
+  protected String getLockServiceName() {
+    return this.lockServiceName;
+  }
+
+  /**
+   * Sets the maximum average number of oplog bytes per second reclaimed by compaction per Disk Store;
+   * {@literal 0} disables throttling.
+   *
+   * @param maxBytesPerSecond maximum bytes per second.
+   */
+  public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+    Assert.isTrue(maxBytesPerSecond >= 0L, "Max bytes per second must be greater than or equal to 0");
+    this.maxBytesPerSecond = maxBytesPerSecond;
+  }
+
+  protected long getMaxBytesPerSecond() {
+    return this.maxBytesPerSecond;
+  }
+
+  public void setMaxConcurrentMembers(int maxConcurrentMembers) {
+    Assert.isTrue(maxConcurrentMembers > 0, "Max concurrent members must be greater than 0");
+    this.maxConcurrentMembers = maxConcurrentMembers;
+  }
+
+  protected int getMaxConcurrentMembers() {
+    return this.maxConcurrentMembers;
+  }
+
+  public Statistics getStatistics(String diskStoreName) {
+    return this.statistics.computeIfAbsent(diskStoreName, Statistics::new);
+  }
+
+  @ManagedAttribute(description = "Number of compactions performed by this member")
+  public long getTotalCompactions() {
+    return this.statistics.values().stream().mapToLong(Statistics::getCompactions).sum();
+  }
+
+  @ManagedAttribute(description = "Time spent compacting in milliseconds")
+  public long getTotalCompactionTime() {
+    return TimeUnit.NANOSECONDS.toMillis(this.statistics.values().stream()
+      .mapToLong(Statistics::getCompactionNanos).sum());
+  }
+
+  @ManagedAttribute(description = "Disk space reclaimed by compaction in bytes")
+  public long getTotalBytesReclaimed() {
+    return this.statistics.values().stream().mapToLong(Statistics::getBytesReclaimed).sum();
+  }
+
+  @ManagedAttribute(description = "Compactions skipped while other members held all compaction slots")
+  public long getTotalSkippedCompactions() {
+    return this.statistics.values().stream().mapToLong(Statistics::getSkipped).sum();
+  }
+
+  @ManagedAttribute(description = "Statistics per Disk Store")
+  public String[] getDiskStoreStatistics() {
+    return this.statistics.values().stream().map(Statistics::toString).toArray(String[]::new);
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+
+    if (bean instanceof DiskStoreFactoryBean) {
+      ((DiskStoreFactoryBean) bean).setAutoCompact(false);
+      ((DiskStoreFactoryBean) bean).setAllowForceCompaction(true);
+    }
+
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+
+    if (bean instanceof DiskStoreFactoryBean) {
+      try {
+        manage(((DiskStoreFactoryBean) bean).getObject());
+      }
+      catch (Exception cause) {
+        throw new IllegalStateException(String.format("Failed to manage the compaction of Disk Store [%s]",
+          beanName), cause);
+      }
+    }
+
+    return bean;
+  }
+
+  /**
+   * Manages the compaction of the given {@link DiskStore}.
+   *
+   * @param diskStore {@link DiskStore} to compact.
+   * @throws IllegalArgumentException if the {@link DiskStore} does not allow forced compaction.
+   * @see #configure(DiskStoreFactory)
+   */
+  public void manage(DiskStore diskStore) {
+
+    Assert.notNull(diskStore, "Disk Store must not be null");
+    Assert.isTrue(diskStore.getAllowForceCompaction(), () -> String.format(
+      "Disk Store [%s] must allow forced compaction", diskStore.getName()));
+
+    if (diskStore.getAutoCompact()) {
+      System.err.printf("WARNING: auto-compaction is still enabled for Disk Store [%s]%n", diskStore.getName());
+    }
+
+    this.diskStores.put(diskStore.getName(), diskStore);
+    getStatistics(diskStore.getName());
+  }
+
+  @Override
+  public void onApplicationEvent(ContextRefreshedEvent event) {
+    start();
+  }
+
+  /**
+   * Starts checking the managed {@link DiskStore Disk Stores} periodically.
+   */
+  public synchronized void start() {
+
+    if (this.scheduler == null) {
+
+      ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "Disk Store Compaction Manager");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+      scheduler.scheduleWithFixedDelay(this::checkAll, getCheckIntervalMillis(), getCheckIntervalMillis(),
+        TimeUnit.MILLISECONDS);
+
+      this.scheduler = scheduler;
+    }
+  }
+
+  public synchronized void stop() {
+
+    if (this.scheduler != null) {
+      this.scheduler.shutdownNow();
+      this.scheduler = null;
+    }
+  }
+
+  @Override
+  public void destroy() {
+    stop();
+  }
+
+  protected void checkAll() {
+
+    for (DiskStore diskStore : this.diskStores.values()) {
+      try {
+        check(diskStore);
+      }
+      catch (RuntimeException cause) {
+        getStatistics(diskStore.getName()).failures.increment();
+        System.err.printf("Failed to compact Disk Store [%1$s]: %2$s%n", diskStore.getName(), cause.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Compacts the given {@link DiskStore} if it has compactable oplogs and is either in a compaction window
+   * or has reached the compactable oplog threshold, and is not throttled.
+   *
+   * @param diskStore {@link DiskStore} to check.
+   * @return a boolean indicating whether the {@link DiskStore} was compacted.
+   */
+  protected boolean check(DiskStore diskStore) {
+
+    Statistics statistics = getStatistics(diskStore.getName());
+
+    int compactableOplogs = compactableOplogs(diskStore);
+
+    statistics.compactableOplogs.set(compactableOplogs);
+
+    if (compactableOplogs == 0) {
+      return false;
+    }
+
+    if (!isInCompactionWindow() && (compactableOplogs < 0 || compactableOplogs < getCompactableOplogThreshold())) {
+      statistics.deferred.increment();
+      return false;
+    }
+
+    if (System.nanoTime() < statistics.nextCompactionNanos) {
+      statistics.throttled.increment();
+      return false;
+    }
+
+    return compact(diskStore);
+  }
+
+  protected boolean isInCompactionWindow() {
+
+    LocalTime now = LocalTime.now(getClock());
+
+    return getCompactionWindows().stream().anyMatch(compactionWindow -> compactionWindow.contains(now));
+  }
+
+  /**
+   * Compacts the {@link DiskStore} with the given name now, regardless of compaction windows and throttling,
+   * if a compaction slot is available.
+   *
+   * @param diskStoreName name of the managed {@link DiskStore}.
+   * @return a boolean indicating whether the {@link DiskStore} was compacted.
+   */
+  @ManagedOperation(description = "Compacts the named Disk Store if a compaction slot is available")
+  public boolean compactNow(String diskStoreName) {
+
+    DiskStore diskStore = this.diskStores.get(diskStoreName);
+
+    Assert.notNull(diskStore, () -> String.format("Disk Store [%s] is not managed", diskStoreName));
+
+    return compact(diskStore);
+  }
+
+  /**
+   * Compacts the given {@link DiskStore} while holding a compaction slot.
+   *
+   * @param diskStore {@link DiskStore} to compact.
+   * @return a boolean indicating whether the {@link DiskStore} was compacted; {@literal false} when
+   * no compaction slot was available or there was nothing to compact.
+   */
+  protected boolean compact(DiskStore diskStore) {
+
+    Statistics statistics = getStatistics(diskStore.getName());
+
+    String slot = acquireSlot();
+
+    if (slot == null) {
+      statistics.skipped.increment();
+      return false;
+    }
+
+    try {
+      long bytesOnDiskBefore = bytesOnDisk(diskStore);
+      long startNanos = System.nanoTime();
+
+      boolean compacted = diskStore.forceCompaction();
+
+      long endNanos = System.nanoTime();
+      long compactionNanos = (endNanos - startNanos);
+      long bytesReclaimed = Math.max(0L, bytesOnDiskBefore - bytesOnDisk(diskStore));
+
+      statistics.record(compacted, compactionNanos, bytesReclaimed);
+      statistics.nextCompactionNanos = endNanos + throttleNanos(bytesReclaimed, compactionNanos);
+
+      System.out.printf("Compacted Disk Store [%1$s] in %2$d ms reclaiming %3$d bytes%n", diskStore.getName(),
+        TimeUnit.NANOSECONDS.toMillis(compactionNanos), bytesReclaimed);
+
+      return compacted;
+    }
+    finally {
+      releaseSlot(slot);
+    }
+  }
+
+  /**
+   * Determines how long to wait before the next compaction so that the bytes processed by compaction
+   * average out below the maximum bytes per second.
+   */
+  protected long throttleNanos(long bytes, long compactionNanos) {
+
+    long maxBytesPerSecond = getMaxBytesPerSecond();
+
+    return (maxBytesPerSecond > 0L
+      ? Math.max(0L, (long) (bytes * 1.0e9d / maxBytesPerSecond) - compactionNanos)
+      : 0L);
+  }
+
+  protected int compactableOplogs(DiskStore diskStore) {
+    return (diskStore instanceof DiskStoreImpl ? ((DiskStoreImpl) diskStore).numCompactableOplogs() : -1);
+  }
+
+  protected long bytesOnDisk(DiskStore diskStore) {
+
+    String oplogFileNamePrefix = OPLOG_FILE_NAME_PREFIX + diskStore.getName();
+
+    long bytesOnDisk = 0L;
+
+    for (File diskDirectory : diskStore.getDiskDirs()) {
+
+      File[] oplogFiles = diskDirectory.listFiles((directory, name) -> name.startsWith(oplogFileNamePrefix));
+
+      bytesOnDisk += Arrays.stream(oplogFiles != null ? oplogFiles : new File[0]).mapToLong(File::length).sum();
+    }
+
+    return bytesOnDisk;
+  }
+
+  protected DistributedLockService resolveLockService() {
+
+    DistributedLockService lockService = this.lockService;
+
+    if (lockService == null) {
+      synchronized (this) {
+        lockService = this.lockService;
+
+        if (lockService == null) {
+          lockService = DistributedLockService.getServiceNamed(getLockServiceName());
+
+          if (lockService == null) {
+            try {
+              lockService = DistributedLockService.create(getLockServiceName(),
+                CacheFactory.getAnyInstance().getDistributedSystem());
+            }
+            catch (IllegalArgumentException ignore) {
+              // created concurrently
+              lockService = DistributedLockService.getServiceNamed(getLockServiceName());
+            }
+          }
+
+          this.lockService = lockService;
+        }
+      }
+    }
+
+    return lockService;
+  }
+
+  /**
+   * Tries to acquire one of the cluster-wide compaction slots without waiting.
+   *
+   * @return the name of the acquired slot, or {@literal null} if all slots are held by other members.
+   */
+  protected String acquireSlot() {
+
+    DistributedLockService lockService = resolveLockService();
+
+    for (int slot = 0; slot < getMaxConcurrentMembers(); slot++) {
+
+      String slotName = SLOT_LOCK_NAME_PREFIX + slot;
+
+      if (lockService.lock(slotName, 0L, -1L)) {
+        return slotName;
+      }
+    }
+
+    return null;
+  }
+
+  protected void releaseSlot(String slotName) {
+    resolveLockService().unlock(slotName);
+  }
+
+  /**
+   * The CompactionWindow class is a daily window of local time during which compaction is allowed.
+   */
+  public static class CompactionWindow {
+
+    private final LocalTime end;
+    private final LocalTime start;
+
+    public static CompactionWindow parse(String compactionWindow) {
+
+      Assert.hasText(compactionWindow, "Compaction window must be specified");
+
+      String[] startEnd = compactionWindow.trim().split("\\s*-\\s*");
+
+      Assert.isTrue(startEnd.length == 2, () -> String.format(
+        "Compaction window [%s] must be in the form of HH:mm-HH:mm", compactionWindow));
+
+      return new CompactionWindow(LocalTime.parse(startEnd[0]), LocalTime.parse(startEnd[1]));
+    }
+
+    public CompactionWindow(LocalTime start, LocalTime end) {
+      Assert.notNull(start, "Start must not be null");
+      Assert.notNull(end, "End must not be null");
+      this.start = start;
+      this.end = end;
+    }
+
+    public boolean contains(LocalTime time) {
+      return (this.start.isAfter(this.end)
+        ? !time.isBefore(this.start) || time.isBefore(this.end)
+        : !time.isBefore(this.start) && time.isBefore(this.end));
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%1$s-%2$s", this.start, this.end);
+    }
+  }
+
+  /**
+   * The Statistics class records the compactions of a {@link DiskStore}.
+   */
+  public static class Statistics {
+
+    private final AtomicLong compactableOplogs = new AtomicLong(0L);
+    private final AtomicLong lastBytesReclaimed = new AtomicLong(0L);
+    private final AtomicLong lastCompactionNanos = new AtomicLong(0L);
+
+    private final LongAdder bytesReclaimed = new LongAdder();
+    private final LongAdder compactionNanos = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    private volatile long nextCompactionNanos = System.nanoTime();
+
+    private final String diskStoreName;
+
+    protected Statistics(String diskStoreName) {
+      this.diskStoreName = diskStoreName;
+    }
+
+    protected void record(boolean compacted, long compactionNanos, long bytesReclaimed) {
+
+      if (compacted) {
+        this.compactions.increment();
+      }
+
+      this.compactionNanos.add(compactionNanos);
+      this.bytesReclaimed.add(bytesReclaimed);
+      this.lastCompactionNanos.set(compactionNanos);
+      this.lastBytesReclaimed.set(bytesReclaimed);
+    }
+
+    public String getDiskStoreName() {
+      return this.diskStoreName;
+    }
+
+    public long getBytesReclaimed() {
+      return this.bytesReclaimed.sum();
+    }
+
+    public long getCompactableOplogs() {
+      return this.compactableOplogs.get();
+    }
+
+    public long getCompactionNanos() {
+      return this.compactionNanos.sum();
+    }
+
+    public long getCompactions() {
+      return this.compactions.sum();
+    }
+
+    public long getDeferred() {
+      return this.deferred.sum();
+    }
+
+    public long getFailures() {
+      return this.failures.sum();
+    }
+
+    public long getLastBytesReclaimed() {
+      return this.lastBytesReclaimed.get();
+    }
+
+    public long getLastCompactionNanos() {
+      return this.lastCompactionNanos.get();
+    }
+
+    public long getSkipped() {
+      return this.skipped.sum();
+    }
+
+    public long getThrottled() {
+      return this.throttled.sum();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("{ diskStore = %1$s, compactions = %2$d, compactionTimeMs = %3$d,"
+          + " lastCompactionTimeMs = %4$d, bytesReclaimed = %5$d, lastBytesReclaimed = %6$d,"
+          + " compactableOplogs = %7$d, deferred = %8$d, throttled = %9$d, skipped = %10$d, failures = %11$d }",
+        getDiskStoreName(), getCompactions(), TimeUnit.NANOSECONDS.toMillis(getCompactionNanos()),
+        TimeUnit.NANOSECONDS.toMillis(getLastCompactionNanos()), getBytesReclaimed(), getLastBytesReclaimed(),
+        getCompactableOplogs(), getDeferred(), getThrottled(), getSkipped(), getFailures());
+    }
+  }
+}
@@ -0,0 +1,997 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.management;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.CacheStatistics;
+import org.apache.geode.cache.EvictionAlgorithm;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.ExpirationAttributes;
+import org.apache.geode.cache.PartitionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.StatisticsDisabledException;
+import org.apache.geode.internal.cache.CachedDeserializable;
+import org.apache.geode.internal.cache.DiskRegionStats;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionDataStore;
+import org.apache.geode.internal.util.BlobHelper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+/**
+ * The EvictionTuningAdvisor class samples the statistics of GemFire {@link Region Regions} at runtime and recommends
+ * an LRU memory limit and an entry idle timeout by replaying the recorded accesses against alternative settings.
+ *
+ * Every {@link #setSampleInterval(long, TimeUnit) sample interval}, the advisor walks the Region's local (primary)
+ * data and, for a spatially sampled subset of the keys (1 in {@link #setSamplingModulus(int) sampling modulus},
+ * chosen by key hash), turns the changes of each entry's {@link CacheStatistics} (last accessed time
+ * and hit count) into an access trace, and samples the serialized size of the entry's value without faulting
+ * overflowed values in from disk.  Applications may also record accesses exactly with
+ * {@link #recordAccess(Region, Object)}.  Region hit and miss counts, overflowed entries and disk reads are
+ * read from the Region's statistics.
+ *
+ * The trace is replayed against an LRU cache at a range of memory limits, and against a range of idle timeouts,
+ * scaled by the sampling rate.  The advisor recommends the smallest memory limit that keeps the in-memory
+ * hit ratio within the {@link #setTargetHitRatio(double) target} of the best achievable hit ratio, and
+ * the shortest idle timeout that keeps misses caused by expiration below the
+ * {@link #setMaxExpirationMissRatio(double) maximum expiration miss ratio}.
+ *
+ * The simulations replay the whole trace, so they only run when a recommendation is requested, with
+ * {@link #advise(String)}, {@link #advise()} or {@link #report()}; {@link #getRecommendations()} returns
+ * the summaries of the latest recommendations without running them again.
+ *
+ * Entry statistics require the Region to have {@literal statistics-enabled}.  The {@link #advise()} and
+ * {@link #report()} operations and the {@link #getRecommendations() recommendations} attribute are exported to JMX
+ * when the advisor is registered with a Spring {@link org.springframework.jmx.export.MBeanExporter}.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.CacheStatistics
+ * @see org.apache.geode.cache.EvictionAttributes
+ * @see org.apache.geode.cache.Region
+ * @since 1.0.0
+ */
+@ManagedResource(description = "Recommends eviction and idle expiration settings from sampled Region accesses")
+@SuppressWarnings("unused")
+public class EvictionTuningAdvisor implements ApplicationListener<ContextRefreshedEvent>, DisposableBean {
+
+  public static final double DEFAULT_MAX_EXPIRATION_MISS_RATIO = 0.01d;
+  public static final double DEFAULT_TARGET_HIT_RATIO = 0.95d;
+
+  public static final int DEFAULT_MAX_TRACE_SIZE = 1000000;
+  public static final int DEFAULT_SAMPLING_MODULUS = 16;
+
+  public static final long DEFAULT_SAMPLE_INTERVAL_IN_MILLISECONDS = TimeUnit.SECONDS.toMillis(10);
+
+  public static final long[] DEFAULT_IDLE_TIMEOUT_CANDIDATES_IN_SECONDS = {
+    15L, 30L, 60L, 120L, 300L, 600L, 1800L, 3600L
+  };
+
+  protected static final int MAX_ACCESSES_PER_SAMPLE = 100;
+  protected static final int MEMORY_LIMIT_STEPS = 10;
+
+  protected static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+  private double maxExpirationMissRatio = DEFAULT_MAX_EXPIRATION_MISS_RATIO;
+  private double targetHitRatio = DEFAULT_TARGET_HIT_RATIO;
+
+  private int maxTraceSize = DEFAULT_MAX_TRACE_SIZE;
+  private int samplingModulus = DEFAULT_SAMPLING_MODULUS;
+
+  private long sampleIntervalMillis = DEFAULT_SAMPLE_INTERVAL_IN_MILLISECONDS;
+
+  private long[] idleTimeoutCandidatesSeconds = DEFAULT_IDLE_TIMEOUT_CANDIDATES_IN_SECONDS;
+
+  private final Map<String, RegionSampler> samplers = new LinkedHashMap<>();
+
+  private volatile ScheduledExecutorService scheduler;
+
+  /**
+   * Spreads the bits of a key's hash code so that sampling by modulus is not biased by sequential keys.
+   */
+  protected static int keyId(Object key) {
+
+    int hash = key.hashCode() * 0x9E3779B9;
+
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Replays the given access trace against an LRU cache holding at most the given number of bytes.
+   *
+   * @return the number of accesses that hit the cache.
+   */
+  protected static long simulateLru(AccessTrace trace, long capacityBytes) {
+
+    LinkedHashMap<Integer, Integer> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    long hits = 0L;
+    long residentBytes = 0L;
+
+    for (int index = 0; index < trace.size(); index++) {
+
+      int keyId = trace.keyIdAt(index);
+
+      if (cache.get(keyId) != null) {
+        hits++;
+      }
+      else {
+        int size = trace.sizeOf(keyId);
+
+        cache.put(keyId, size);
+        residentBytes += size;
+
+        for (Iterator<Integer> iterator = cache.values().iterator();
+             residentBytes > capacityBytes && iterator.hasNext(); ) {
+
+          residentBytes -= iterator.next();
+          iterator.remove();
+        }
+      }
+    }
+
+    return hits;
+  }
+
+  /**
+   * Replays the given access trace against an idle timeout.
+   *
+   * @return a two element array of the number of accesses that missed because the entry had expired,
+   * and the time-averaged number of bytes resident in memory.
+   */
+  protected static long[] simulateIdleTimeout(AccessTrace trace, long timeoutMillis) {
+
+    Map<Integer, Long> lastAccessTimes = new HashMap<>();
+
+    long expirationMisses = 0L;
+    long residentByteMillis = 0L;
+
+    for (int index = 0; index < trace.size(); index++) {
+
+      int keyId = trace.keyIdAt(index);
+      long time = trace.timeAt(index);
+
+      Long lastAccessTime = lastAccessTimes.put(keyId, time);
+
+      if (lastAccessTime != null) {
+
+        long idleTime = time - lastAccessTime;
+
+        if (idleTime > timeoutMillis) {
+          expirationMisses++;
+        }
+
+        residentByteMillis += Math.min(idleTime, timeoutMillis) * trace.sizeOf(keyId);
+      }
+    }
+
+    long endTime = trace.endTime();
+
+    for (Map.Entry<Integer, Long> entry : lastAccessTimes.entrySet()) {
+      residentByteMillis += Math.min(endTime - entry.getValue(), timeoutMillis) * trace.sizeOf(entry.getKey());
+    }
+
+    long duration = Math.max(1L, endTime - trace.startTime());
+
+    return new long[] { expirationMisses, residentByteMillis / duration };
+  }
+
+  public void setIdleTimeoutCandidates(long... idleTimeoutCandidatesSeconds) {
+    Assert.isTrue(idleTimeoutCandidatesSeconds.length > 0, "Idle timeout candidates must be specified");
+    this.idleTimeoutCandidatesSeconds = idleTimeoutCandidatesSeconds.clone();
+    Arrays.sort(this.idleTimeoutCandidatesSeconds);
+  }
+
+  protected long[] getIdleTimeoutCandidates() {
+    return this.idleTimeoutCandidatesSeconds;
+  }
+
+  public void setMaxExpirationMissRatio(double maxExpirationMissRatio) {
+    Assert.isTrue(maxExpirationMissRatio >= 0.0d && maxExpirationMissRatio <= 1.0d,
+      "Max expiration miss ratio must be between 0.0 and 1.0");
+    this.maxExpirationMissRatio = maxExpirationMissRatio;
+  }
+
+  protected double getMaxExpirationMissRatio() {
+    return this.maxExpirationMissRatio;
+  }
+
+  public void setMaxTraceSize(int maxTraceSize) {
+    Assert.isTrue(maxTraceSize > 0, "Max trace size must be greater than 0");
+    this.maxTraceSize = maxTraceSize;
+  }
+
+  protected int getMaxTraceSize() {
+    return this.maxTraceSize;
+  }
+
+  public synchronized void setRegions(Region<?, ?>... regions) {
+
+    this.samplers.clear();
+
+    for (Region<?, ?> region : regions) {
+      this.samplers.put(region.getFullPath(), new RegionSampler(region, getMaxTraceSize()));
+    }
+  }
+
+  public void setSampleInterval(long sampleInterval, TimeUnit timeUnit) {
+    Assert.isTrue(sampleInterval > 0L, "Sample interval must be greater than 0");
+    this.sampleIntervalMillis = timeUnit.toMillis(sampleInterval);
+  }
+
+  protected long getSampleIntervalMillis() {
+    return this.sampleIntervalMillis;
+  }
+
+  /**
+   * Sets the key sampling rate to 1 in {@literal samplingModulus} keys.
+   *
+   * @param samplingModulus sampling modulus; {@literal 1} samples every key.
+   */
+  public void setSamplingModulus(int samplingModulus) {
+    Assert.isTrue(samplingModulus > 0, "Sampling modulus must be greater than 0");
+    this.samplingModulus = samplingModulus;
+  }
+
+  protected int getSamplingModulus() {
+    return this.samplingModulus;
+  }
+
+  /**
+   * Sets the fraction of the best achievable in-memory hit ratio that the recommended memory limit must reach.
+   *
+   * @param targetHitRatio fraction between 0.0 and 1.0.
+   */
+  public void setTargetHitRatio(double targetHitRatio) {
+    Assert.isTrue(targetHitRatio > 0.0d && targetHitRatio <= 1.0d, "Target hit ratio must be between 0.0 and 1.0");
+    this.targetHitRatio = targetHitRatio;
+  }
+
+  protected double getTargetHitRatio() {
+    return this.targetHitRatio;
+  }
+
+  protected boolean isSampled(int keyId) {
+    return (Math.floorMod(keyId, getSamplingModulus()) == 0);
+  }
+
+  protected synchronized RegionSampler getSampler(String regionPath) {
+
+    RegionSampler sampler = this.samplers.get(regionPath);
+
+    Assert.notNull(sampler, () -> String.format("Region [%s] is not advised", regionPath));
+
+    return sampler;
+  }
+
+  protected synchronized List<RegionSampler> getSamplers() {
+    return new ArrayList<>(this.samplers.values());
+  }
+
+  /**
+   * Records an access to the entry with the given key in the given {@link Region}.
+   *
+   * @param region {@link Region} accessed.
+   * @param key key of the entry accessed.
+   */
+  public void recordAccess(Region<?, ?> region, Object key) {
+
+    int keyId = keyId(key);
+
+    if (isSampled(keyId)) {
+      getSampler(region.getFullPath()).getTrace().record(System.currentTimeMillis(), keyId, 1);
+    }
+  }
+
+  @Override
+  public void onApplicationEvent(ContextRefreshedEvent event) {
+    start();
+  }
+
+  public synchronized void start() {
+
+    if (this.scheduler == null) {
+
+      ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "Eviction Tuning Advisor");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+      scheduler.scheduleWithFixedDelay(this::sample, getSampleIntervalMillis(), getSampleIntervalMillis(),
+        TimeUnit.MILLISECONDS);
+
+      this.scheduler = scheduler;
+    }
+  }
+
+  public synchronized void stop() {
+
+    if (this.scheduler != null) {
+      this.scheduler.shutdownNow();
+      this.scheduler = null;
+    }
+  }
+
+  @Override
+  public void destroy() {
+    stop();
+  }
+
+  @ManagedOperation(description = "Samples the statistics of the advised Regions now")
+  public void sample() {
+
+    for (RegionSampler sampler : getSamplers()) {
+      try {
+        sampler.sample();
+      }
+      catch (RuntimeException cause) {
+        System.err.printf("Failed to sample Region [%1$s]: %2$s%n", sampler.getRegionPath(), cause.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Recommends eviction and idle expiration settings for the advised {@link Region} with the given path.
+   *
+   * @param regionPath path of the advised {@link Region}.
+   * @return the {@link Recommendation}.
+   */
+  public Recommendation advise(String regionPath) {
+    return getSampler(regionPath).advise();
+  }
+
+  /**
+   * Recommends eviction and idle expiration settings for all advised {@link Region Regions} from the accesses
+   * sampled so far.
+   *
+   * @return the summaries of the recommendations.
+   * @see #getRecommendations()
+   */
+  @ManagedOperation(description = "Simulates the sampled accesses and recommends settings per Region")
+  public String[] advise() {
+
+    for (RegionSampler sampler : getSamplers()) {
+      sampler.advise();
+    }
+
+    return getRecommendations();
+  }
+
+  /**
+   * Returns the summaries of the latest recommendations; Regions not advised since they were sampled are reported
+   * as such.
+   *
+   * @return the summaries of the latest recommendations.
+   * @see #advise()
+   */
+  @ManagedAttribute(description = "Latest recommended eviction and idle expiration settings per Region")
+  public String[] getRecommendations() {
+
+    return getSamplers().stream().map(sampler -> {
+
+      Recommendation recommendation = sampler.getRecommendation();
+
+      return (recommendation != null ? recommendation.toSummary()
+        : String.format("%s: not advised yet", sampler.getRegionPath()));
+
+    }).toArray(String[]::new);
+  }
+
+  @ManagedOperation(description = "Reports the sampled statistics, simulations and recommendations per Region")
+  public String report() {
+
+    StringBuilder report = new StringBuilder();
+
+    for (RegionSampler sampler : getSamplers()) {
+      report.append(sampler.advise()).append(System.lineSeparator());
+    }
+
+    return report.toString();
+  }
+
+  /**
+   * The AccessTrace class is a bounded, time-ordered record of accesses to sampled keys along with
+   * the sampled size of each key's value.
+   */
+  protected static class AccessTrace {
+
+    private int size;
+    private int start;
+
+    private final int[] keyIds;
+
+    private final long[] times;
+
+    private final Map<Integer, Integer> sizes = new HashMap<>();
+
+    protected AccessTrace(int maxSize) {
+      this.keyIds = new int[maxSize];
+      this.times = new long[maxSize];
+    }
+
+    protected synchronized void record(long time, int keyId, int accesses) {
+
+      for (int count = 0; count < accesses; count++) {
+
+        int index = (this.start + this.size) % this.times.length;
+
+        this.times[index] = time;
+        this.keyIds[index] = keyId;
+
+        if (this.size < this.times.length) {
+          this.size++;
+        }
+        else {
+          this.start = (this.start + 1) % this.times.length;
+        }
+      }
+    }
+
+    protected synchronized void recordSize(int keyId, int size) {
+      this.sizes.put(keyId, size);
+    }
+
+    /**
+     * Returns a copy of this trace ordered by time.
+     */
+    protected synchronized AccessTrace sorted() {
+
+      Integer[] order = new Integer[this.size];
+
+      for (int index = 0; index < this.size; index++) {
+        order[index] = (this.start + index) % this.times.length;
+      }
+
+      Arrays.sort(order, (left, right) -> Long.compare(this.times[left], this.times[right]));
+
+      AccessTrace sorted = new AccessTrace(Math.max(1, this.size));
+
+      for (Integer index : order) {
+        sorted.record(this.times[index], this.keyIds[index], 1);
+      }
+
+      sorted.sizes.putAll(this.sizes);
+
+      return sorted;
+    }
+
+    protected int size() {
+      return this.size;
+    }
+
+    protected int keyIdAt(int index) {
+      return this.keyIds[(this.start + index) % this.keyIds.length];
+    }
+
+    protected long timeAt(int index) {
+      return this.times[(this.start + index) % this.times.length];
+    }
+
+    protected long startTime() {
+      return (this.size > 0 ? timeAt(0) : 0L);
+    }
+
+    protected long endTime() {
+      return (this.size > 0 ? timeAt(this.size - 1) : 0L);
+    }
+
+    protected int averageSize() {
+      return (this.sizes.isEmpty() ? 0
+        : (int) this.sizes.values().stream().mapToInt(Integer::intValue).average().orElse(0.0d));
+    }
+
+    protected int sizeOf(int keyId) {
+
+      Integer size = this.sizes.get(keyId);
+
+      return (size != null ? size : averageSize());
+    }
+
+    /**
+     * Returns the total size of the distinct keys in this trace.
+     */
+    protected long footprint() {
+
+      Set<Integer> keyIds = new HashSet<>();
+
+      long footprint = 0L;
+
+      for (int index = 0; index < this.size; index++) {
+        if (keyIds.add(keyIdAt(index))) {
+          footprint += sizeOf(keyIdAt(index));
+        }
+      }
+
+      return footprint;
+    }
+
+    /**
+     * Returns the sampled sizes at the given percentiles.
+     */
+    protected synchronized int[] sizePercentiles(double... percentiles) {
+
+      int[] sortedSizes = this.sizes.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+      int[] result = new int[percentiles.length];
+
+      for (int index = 0; index < percentiles.length && sortedSizes.length > 0; index++) {
+        result[index] = sortedSizes[Math.min(sortedSizes.length - 1,
+          (int) Math.ceil(percentiles[index] * sortedSizes.length) - 1)];
+      }
+
+      return result;
+    }
+  }
+
+  /**
+   * The RegionSampler class samples the statistics of a single {@link Region} and simulates its settings.
+   */
+  protected class RegionSampler {
+
+    private boolean entryStatisticsEnabled = true;
+
+    private final AccessTrace trace;
+
+    private final Map<Object, long[]> lastEntryStatistics = new HashMap<>();
+
+    private volatile Recommendation recommendation;
+
+    private final Region<?, ?> region;
+
+    protected RegionSampler(Region<?, ?> region, int maxTraceSize) {
+      this.region = region;
+      this.trace = new AccessTrace(maxTraceSize);
+    }
+
+    protected Region<?, ?> getRegion() {
+      return this.region;
+    }
+
+    protected String getRegionPath() {
+      return getRegion().getFullPath();
+    }
+
+    protected AccessTrace getTrace() {
+      return this.trace;
+    }
+
+    /**
+     * Returns the latest {@link Recommendation}, or {@literal null} if this Region has not been advised yet.
+     */
+    protected Recommendation getRecommendation() {
+      return this.recommendation;
+    }
+
+    protected List<LocalRegion> resolveLocalData() {
+
+      if (getRegion() instanceof PartitionedRegion) {
+
+        PartitionedRegionDataStore dataStore = ((PartitionedRegion) getRegion()).getDataStore();
+
+        return (dataStore != null ? new ArrayList<>(dataStore.getAllLocalPrimaryBucketRegions())
+          : Collections.emptyList());
+      }
+
+      return (getRegion() instanceof LocalRegion ? Collections.singletonList((LocalRegion) getRegion())
+        : Collections.emptyList());
+    }
+
+    protected synchronized void sample() {
+
+      if (this.entryStatisticsEnabled) {
+
+        Map<Object, long[]> entryStatistics = new HashMap<>();
+
+        try {
+          for (LocalRegion localData : resolveLocalData()) {
+            for (Object object : localData.entrySet(false)) {
+
+              Region.Entry<?, ?> entry = (Region.Entry<?, ?>) object;
+
+              Object key = entry.getKey();
+              int keyId = keyId(key);
+
+              if (isSampled(keyId)) {
+                sampleEntry(localData, entry, key, keyId, entryStatistics);
+              }
+            }
+          }
+        }
+        catch (StatisticsDisabledException ignore) {
+          this.entryStatisticsEnabled = false;
+        }
+
+        this.lastEntryStatistics.clear();
+        this.lastEntryStatistics.putAll(entryStatistics);
+      }
+    }
+
+    private void sampleEntry(LocalRegion localData, Region.Entry<?, ?> entry, Object key, int keyId,
+        Map<Object, long[]> entryStatistics) {
+
+      CacheStatistics statistics = entry.getStatistics();
+
+      long lastAccessedTime = statistics.getLastAccessedTime();
+      long hitCount = statistics.getHitCount();
+
+      long[] previous = this.lastEntryStatistics.get(key);
+
+      if (previous == null) {
+        getTrace().record(lastAccessedTime, keyId, 1);
+        getTrace().recordSize(keyId, sizeOf(localData, key));
+      }
+      else if (lastAccessedTime > previous[0]) {
+        getTrace().record(lastAccessedTime, keyId, (int) Math.min(MAX_ACCESSES_PER_SAMPLE,
+          Math.max(1L, hitCount - previous[1])));
+      }
+
+      entryStatistics.put(key, new long[] { lastAccessedTime, hitCount });
+    }
+
+    protected int sizeOf(LocalRegion localData, Object key) {
+
+      try {
+        Object value = localData.getValueInVMOrDiskWithoutFaultIn(key);
+
+        if (value instanceof CachedDeserializable) {
+          return ((CachedDeserializable) value).getValueSizeInBytes();
+        }
+        else if (value instanceof byte[]) {
+          return ((byte[]) value).length;
+        }
+
+        return (value != null ? BlobHelper.serializeToBlob(value).length : 0);
+      }
+      catch (IOException | RuntimeException ignore) {
+        return 0;
+      }
+    }
+
+    protected long[] regionHitsAndMisses() {
+
+      long hits = 0L;
+      long misses = 0L;
+
+      try {
+        if (getRegion() instanceof PartitionedRegion) {
+          for (LocalRegion bucket : resolveLocalData()) {
+            hits += bucket.getStatistics().getHitCount();
+            misses += bucket.getStatistics().getMissCount();
+          }
+        }
+        else {
+          hits = getRegion().getStatistics().getHitCount();
+          misses = getRegion().getStatistics().getMissCount();
+        }
+
+        return new long[] { hits, misses };
+      }
+      catch (StatisticsDisabledException | UnsupportedOperationException ignore) {
+        return new long[] { -1L, -1L };
+      }
+    }
+
+    protected DiskRegionStats diskRegionStats() {
+
+      if (getRegion() instanceof PartitionedRegion) {
+        return ((PartitionedRegion) getRegion()).getDiskRegionStats();
+      }
+
+      return (getRegion() instanceof LocalRegion && ((LocalRegion) getRegion()).getDiskRegion() != null
+        ? ((LocalRegion) getRegion()).getDiskRegion().getStats() : null);
+    }
+
+    protected Recommendation advise() {
+
+      Recommendation recommendation = new Recommendation(getRegionPath(), getSamplingModulus());
+
+      long[] hitsAndMisses = regionHitsAndMisses();
+
+      recommendation.hitCount = hitsAndMisses[0];
+      recommendation.missCount = hitsAndMisses[1];
+
+      DiskRegionStats diskRegionStats = diskRegionStats();
+
+      if (diskRegionStats != null) {
+        recommendation.entriesInMemory = diskRegionStats.getNumEntriesInVM();
+        recommendation.overflowedEntries = diskRegionStats.getNumOverflowOnDisk();
+        recommendation.overflowedBytes = diskRegionStats.getNumOverflowBytesOnDisk();
+        recommendation.diskReads = diskRegionStats.getReads();
+      }
+
+      describeCurrentSettings(recommendation);
+
+      AccessTrace trace = getTrace().sorted();
+
+      recommendation.accesses = trace.size();
+      recommendation.entrySizePercentiles = trace.sizePercentiles(0.5d, 0.9d, 0.99d, 1.0d);
+
+      if (trace.size() > 0) {
+        simulateMemoryLimits(trace, recommendation);
+        simulateIdleTimeouts(trace, recommendation);
+      }
+
+      this.recommendation = recommendation;
+
+      return recommendation;
+    }
+
+    private void describeCurrentSettings(Recommendation recommendation) {
+
+      EvictionAttributes evictionAttributes = getRegion().getAttributes().getEvictionAttributes();
+
+      if (evictionAttributes != null && !EvictionAlgorithm.NONE.equals(evictionAttributes.getAlgorithm())) {
+        recommendation.currentEviction = String.format("%1$s %2$d %3$s", evictionAttributes.getAlgorithm(),
+          evictionAttributes.getMaximum(), evictionAttributes.getAction());
+      }
+
+      PartitionAttributes<?, ?> partitionAttributes = getRegion().getAttributes().getPartitionAttributes();
+
+      if (partitionAttributes != null) {
+        recommendation.currentLocalMaxMemory = partitionAttributes.getLocalMaxMemory();
+      }
+
+      ExpirationAttributes entryIdleTimeout = getRegion().getAttributes().getEntryIdleTimeout();
+
+      if (entryIdleTimeout != null && entryIdleTimeout.getTimeout() > 0) {
+        recommendation.currentIdleTimeoutSeconds = entryIdleTimeout.getTimeout();
+      }
+    }
+
+    private void simulateMemoryLimits(AccessTrace trace, Recommendation recommendation) {
+
+      long footprint = Math.max(1L, trace.footprint());
+      long bestHits = simulateLru(trace, footprint);
+
+      for (int step = 1; step <= MEMORY_LIMIT_STEPS; step++) {
+
+        long capacity = footprint * step / MEMORY_LIMIT_STEPS;
+        long hits = (step == MEMORY_LIMIT_STEPS ? bestHits : simulateLru(trace, capacity));
+        double hitRatio = (double) hits / trace.size();
+
+        recommendation.memoryLimitHitRatios.put(capacity * getSamplingModulus(), hitRatio);
+
+        if (recommendation.recommendedMemoryBytes < 0L && hits >= bestHits * getTargetHitRatio()) {
+          recommendation.recommendedMemoryBytes = capacity * getSamplingModulus();
+          recommendation.projectedHitRatio = hitRatio;
+          recommendation.projectedDiskReadRatio = (double) (trace.size() - hits) / trace.size();
+        }
+      }
+    }
+
+    private void simulateIdleTimeouts(AccessTrace trace, Recommendation recommendation) {
+
+      for (long timeoutSeconds : getIdleTimeoutCandidates()) {
+
+        long[] result = simulateIdleTimeout(trace, TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        double expirationMissRatio = (double) result[0] / trace.size();
+
+        recommendation.idleTimeoutMissRatios.put(timeoutSeconds, expirationMissRatio);
+
+        if (recommendation.recommendedIdleTimeoutSeconds < 0L && expirationMissRatio <= getMaxExpirationMissRatio()) {
+          recommendation.recommendedIdleTimeoutSeconds = timeoutSeconds;
+          recommendation.projectedExpirationMissRatio = expirationMissRatio;
+          recommendation.projectedResidentBytes = result[1] * getSamplingModulus();
+        }
+      }
+    }
+  }
+
+  /**
+   * The Recommendation class holds the sampled statistics, the simulation results and the recommended settings
+   * for a {@link Region}.
+   */
+  public static class Recommendation {
+
+    private double projectedDiskReadRatio = -1.0d;
+    private double projectedExpirationMissRatio = -1.0d;
+    private double projectedHitRatio = -1.0d;
+
+    private int currentIdleTimeoutSeconds = -1;
+    private int currentLocalMaxMemory = -1;
+
+    private int[] entrySizePercentiles = new int[4];
+
+    private final int samplingModulus;
+
+    private long accesses;
+    private long diskReads = -1L;
+    private long entriesInMemory = -1L;
+    private long hitCount = -1L;
+    private long missCount = -1L;
+    private long overflowedBytes = -1L;
+    private long overflowedEntries = -1L;
+    private long projectedResidentBytes = -1L;
+    private long recommendedIdleTimeoutSeconds = -1L;
+    private long recommendedMemoryBytes = -1L;
+
+    private final Map<Long, Double> idleTimeoutMissRatios = new LinkedHashMap<>();
+    private final Map<Long, Double> memoryLimitHitRatios = new LinkedHashMap<>();
+
+    private String currentEviction = "NONE";
+
+    private final String regionPath;
+
+    protected Recommendation(String regionPath, int samplingModulus) {
+      this.regionPath = regionPath;
+      this.samplingModulus = samplingModulus;
+    }
+
+    public String getRegionPath() {
+      return this.regionPath;
+    }
+
+    /**
+     * Returns the number of sampled accesses replayed by the simulations.
+     */
+    public long getAccesses() {
+      return this.accesses;
+    }
+
+    public String getCurrentEviction() {
+      return this.currentEviction;
+    }
+
+    public int getCurrentIdleTimeoutSeconds() {
+      return this.currentIdleTimeoutSeconds;
+    }
+
+    public int getCurrentLocalMaxMemory() {
+      return this.currentLocalMaxMemory;
+    }
+
+    public long getDiskReads() {
+      return this.diskReads;
+    }
+
+    public long getEntriesInMemory() {
+      return this.entriesInMemory;
+    }
+
+    /**
+     * Returns the 50th, 90th, 99th percentile and maximum sampled entry value sizes in bytes.
+     */
+    public int[] getEntrySizePercentiles() {
+      return this.entrySizePercentiles.clone();
+    }
+
+    public long getHitCount() {
+      return this.hitCount;
+    }
+
+    public double getHitRatio() {
+      return (this.hitCount + this.missCount > 0L ? (double) this.hitCount / (this.hitCount + this.missCount) : -1.0d);
+    }
+
+    /**
+     * Returns the ratio of accesses that missed because of expiration, per idle timeout in seconds.
+     */
+    public Map<Long, Double> getIdleTimeoutMissRatios() {
+      return Collections.unmodifiableMap(this.idleTimeoutMissRatios);
+    }
+
+    /**
+     * Returns the in-memory hit ratio per LRU memory limit in bytes.
+     */
+    public Map<Long, Double> getMemoryLimitHitRatios() {
+      return Collections.unmodifiableMap(this.memoryLimitHitRatios);
+    }
+
+    public long getMissCount() {
+      return this.missCount;
+    }
+
+    public long getOverflowedBytes() {
+      return this.overflowedBytes;
+    }
+
+    public long getOverflowedEntries() {
+      return this.overflowedEntries;
+    }
+
+    public double getProjectedDiskReadRatio() {
+      return this.projectedDiskReadRatio;
+    }
+
+    public double getProjectedExpirationMissRatio() {
+      return this.projectedExpirationMissRatio;
+    }
+
+    public double getProjectedHitRatio() {
+      return this.projectedHitRatio;
+    }
+
+    public long getProjectedResidentBytes() {
+      return this.projectedResidentBytes;
+    }
+
+    public long getRecommendedIdleTimeoutSeconds() {
+      return this.recommendedIdleTimeoutSeconds;
+    }
+
+    public long getRecommendedMemoryBytes() {
+      return this.recommendedMemoryBytes;
+    }
+
+    /**
+     * Returns the recommended LRU memory limit in megabytes, as configured with {@link EvictionAttributes}
+     * or a partition's {@literal local-max-memory}.
+     */
+    public long getRecommendedMemoryMegabytes() {
+      return (this.recommendedMemoryBytes < 0L ? -1L
+        : Math.max(1L, (this.recommendedMemoryBytes + BYTES_PER_MEGABYTE - 1L) / BYTES_PER_MEGABYTE));
+    }
+
+    public int getSamplingModulus() {
+      return this.samplingModulus;
+    }
+
+    public String toSummary() {
+      return String.format("%1$s: eviction [%2$s] -> MEMORY_SIZE %3$d MB (projected hit ratio %4$.3f);"
+          + " idle timeout [%5$d s] -> %6$d s (projected expiration miss ratio %7$.3f)", getRegionPath(),
+        getCurrentEviction(), getRecommendedMemoryMegabytes(), getProjectedHitRatio(),
+        getCurrentIdleTimeoutSeconds(), getRecommendedIdleTimeoutSeconds(), getProjectedExpirationMissRatio());
+    }
+
+    @Override
+    public String toString() {
+
+      StringBuilder buffer = new StringBuilder(String.format("Region [%s]%n", getRegionPath()));
+
+      buffer.append(String.format("  hits = %1$d, misses = %2$d, hitRatio = %3$.3f%n", getHitCount(),
+        getMissCount(), getHitRatio()));
+      buffer.append(String.format("  entriesInMemory = %1$d, overflowedEntries = %2$d, overflowedBytes = %3$d,"
+        + " diskReads = %4$d%n", getEntriesInMemory(), getOverflowedEntries(), getOverflowedBytes(), getDiskReads()));
+      buffer.append(String.format("  entrySize p50 = %1$d, p90 = %2$d, p99 = %3$d, max = %4$d bytes%n",
+        this.entrySizePercentiles[0], this.entrySizePercentiles[1], this.entrySizePercentiles[2],
+        this.entrySizePercentiles[3]));
+      buffer.append(String.format("  sampled accesses = %1$d (1 in %2$d keys)%n", getAccesses(),
+        getSamplingModulus()));
+      buffer.append(String.format("  current eviction = %1$s, localMaxMemory = %2$d MB, idleTimeout = %3$d s%n",
+        getCurrentEviction(), getCurrentLocalMaxMemory(), getCurrentIdleTimeoutSeconds()));
+
+      this.memoryLimitHitRatios.forEach((memoryLimit, hitRatio) -> buffer.append(String.format(
+        "  LRU %1$12d bytes -> hitRatio %2$.3f%n", memoryLimit, hitRatio)));
+
+      this.idleTimeoutMissRatios.forEach((timeout, missRatio) -> buffer.append(String.format(
+        "  idle %1$6d s -> expirationMissRatio %2$.3f%n", timeout, missRatio)));
+
+      buffer.append(String.format("  recommended: %s", toSummary()));
+
+      return buffer.toString();
+    }
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.management;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.control.InternalResourceManager.ResourceType;
+import org.apache.geode.internal.cache.control.MemoryEvent;
+import org.apache.geode.internal.cache.control.ResourceListener;
+import org.apache.geode.internal.offheap.MemoryAllocator;
+import org.apache.geode.internal.offheap.OffHeapMemoryStats;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+/**
+ * The OffHeapMemoryMonitor class monitors the off-heap memory pool of a GemFire cache member, reporting its usage,
+ * fragmentation, allocation failures and the rate of defragmentation (GemFire's off-heap compaction).
+ *
+ * Usage and fragmentation are read from GemFire's off-heap memory statistics.  GemFire refuses operations
+ * allocating off-heap memory once usage crosses the {@literal critical-off-heap-percentage}, so allocation failures
+ * are counted as the local transitions into the critical state reported by GemFire's resource manager, alongside
+ * the transitions into the {@literal eviction-off-heap-percentage} state.  Every
+ * {@link #setSampleInterval(long, TimeUnit) sample interval}, the monitor computes the defragmentation rate since
+ * the previous sample.
+ *
+ * The statistics are exported as JMX attributes when the monitor is registered with a Spring
+ * {@link org.springframework.jmx.export.MBeanExporter}.
+ *
+ * @author John Blum
+ * @see org.apache.geode.internal.offheap.OffHeapMemoryStats
+ * @see org.apache.geode.internal.cache.control.MemoryEvent
+ * @see org.spring.data.gemfire.config.OffHeapBeanPostProcessor
+ * @since 1.0.0
+ */
+@ManagedResource(description = "Monitors the usage and fragmentation of GemFire off-heap memory")
+@SuppressWarnings("unused")
+public class OffHeapMemoryMonitor implements ApplicationListener<ContextRefreshedEvent>, DisposableBean,
+    ResourceListener<MemoryEvent> {
+
+  public static final long DEFAULT_SAMPLE_INTERVAL_IN_MILLISECONDS = TimeUnit.SECONDS.toMillis(10);
+
+  private final GemFireCache gemfireCache;
+
+  private final LongAdder criticalEvents = new LongAdder();
+  private final LongAdder evictionEvents = new LongAdder();
+
+  private long sampleIntervalMillis = DEFAULT_SAMPLE_INTERVAL_IN_MILLISECONDS;
+
+  private volatile double defragmentationsPerMinute = 0.0d;
+
+  private volatile int lastDefragmentations = 0;
+
+  private volatile long lastSampleNanos = System.nanoTime();
+
+  private volatile ScheduledExecutorService scheduler;
+
+  public OffHeapMemoryMonitor(GemFireCache gemfireCache) {
+    Assert.notNull(gemfireCache, "GemFireCache must not be null");
+    this.gemfireCache = gemfireCache;
+  }
+
+  protected GemFireCache getGemFireCache() {
+    return this.gemfireCache;
+  }
+
+  public void setSampleInterval(long sampleInterval, TimeUnit timeUnit) {
+    Assert.isTrue(sampleInterval > 0L, "Sample interval must be greater than 0");
+    this.sampleIntervalMillis = timeUnit.toMillis(sampleInterval);
+  }
+
+  protected long getSampleIntervalMillis() {
+    return this.sampleIntervalMillis;
+  }
+
+  protected MemoryAllocator getOffHeapStore() {
+    return ((InternalCache) getGemFireCache()).getOffHeapStore();
+  }
+
+  protected OffHeapMemoryStats getOffHeapMemoryStats() {
+
+    MemoryAllocator offHeapStore = getOffHeapStore();
+
+    return (offHeapStore != null ? offHeapStore.getStats() : null);
+  }
+
+  @ManagedAttribute(description = "Whether the member has an off-heap memory pool")
+  public boolean isOffHeapEnabled() {
+    return (getOffHeapStore() != null);
+  }
+
+  @Override
+  public void onApplicationEvent(ContextRefreshedEvent event) {
+    start();
+  }
+
+  public synchronized void start() {
+
+    if (this.scheduler == null) {
+
+      if (isOffHeapEnabled()) {
+
+        ((InternalCache) getGemFireCache()).getInternalResourceManager()
+          .addResourceListener(ResourceType.OFFHEAP_MEMORY, this);
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+          Thread thread = new Thread(runnable, "Off-Heap Memory Monitor");
+          thread.setDaemon(true);
+          return thread;
+        });
+
+        sample();
+
+        scheduler.scheduleWithFixedDelay(this::sample, getSampleIntervalMillis(), getSampleIntervalMillis(),
+          TimeUnit.MILLISECONDS);
+
+        this.scheduler = scheduler;
+      }
+      else {
+        System.out.printf("No off-heap memory configured for member [%s]%n",
+          getGemFireCache().getDistributedSystem().getName());
+      }
+    }
+  }
+
+  public synchronized void stop() {
+
+    if (this.scheduler != null) {
+      this.scheduler.shutdownNow();
+      this.scheduler = null;
+
+      if (!getGemFireCache().isClosed()) {
+        ((InternalCache) getGemFireCache()).getInternalResourceManager()
+          .removeResourceListener(ResourceType.OFFHEAP_MEMORY, this);
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    stop();
+  }
+
+  @Override
+  public void onEvent(MemoryEvent event) {
+
+    if (event.isLocal() && !event.getState().equals(event.getPreviousState())) {
+
+      if (event.getState().isCritical() && !event.getPreviousState().isCritical()) {
+        this.criticalEvents.increment();
+        System.err.printf("Off-heap memory is critical with [%d] bytes used; allocations are refused%n",
+          event.getBytesUsed());
+      }
+      else if (event.getState().isEviction() && !event.getPreviousState().isEviction()) {
+        this.evictionEvents.increment();
+      }
+    }
+  }
+
+  /**
+   * Computes the defragmentation rate since the previous sample.
+   */
+  @ManagedOperation(description = "Samples the off-heap memory statistics now")
+  public synchronized void sample() {
+
+    OffHeapMemoryStats stats = getOffHeapMemoryStats();
+
+    if (stats != null) {
+
+      long now = System.nanoTime();
+      int defragmentations = stats.getDefragmentations();
+
+      long elapsedNanos = now - this.lastSampleNanos;
+
+      if (elapsedNanos > 0L) {
+        this.defragmentationsPerMinute = (defragmentations - this.lastDefragmentations)
+          * (double) TimeUnit.MINUTES.toNanos(1) / elapsedNanos;
+      }
+
+      this.lastDefragmentations = defragmentations;
+      this.lastSampleNanos = now;
+    }
+  }
+
+  @ManagedAttribute(description = "Times off-heap memory became critical and allocations were refused")
+  public long getAllocationFailures() {
+    return this.criticalEvents.sum();
+  }
+
+  @ManagedAttribute(description = "Number of defragmentations of off-heap memory")
+  public int getDefragmentations() {
+
+    OffHeapMemoryStats stats = getOffHeapMemoryStats();
+
+    return (stats != null ? stats.getDefragmentations() : 0);
+  }
+
+  @ManagedAttribute(description = "Defragmentations per minute over the last sample interval")
+  public double getDefragmentationsPerMinute() {
+    return this.defragmentationsPerMinute;
+  }
+
+  @ManagedAttribute(description = "Total time spent defragmenting off-heap memory in nanoseconds")
+  public long getDefragmentationTime() {
+
+    OffHeapMemoryStats stats = getOffHeapMemoryStats();
+
+    return (stats != null ? stats.getDefragmentationTime() : 0L);
+  }
+
+  @ManagedAttribute(description = "Times off-heap memory crossed the eviction threshold")
+  public long getEvictionEvents() {
+    return this.evictionEvents.sum();
+  }
+
+  @ManagedAttribute(description = "Percentage of free off-heap memory not in the largest free fragment")
+  public int getFragmentation() {
+
+    OffHeapMemoryStats stats = getOffHeapMemoryStats();
+
+    return (stats != null ? stats.getFragmentation() : 0);
+  }
+
+  @ManagedAttribute(description = "Number of free off-heap memory fragments")
+  public long getFragments() {
+
+    OffHeapMemoryStats stats = getOffHeapMemoryStats();
+
+    return (stats != null ? stats.getFragments() : 0L);
+  }
+
+  @ManagedAttribute(description = "Free off-heap memory in bytes")
+  public long getFreeMemory() {
+
+    OffHeapMemoryStats stats = getOffHeapMemoryStats();
+
+    return (stats != null ? stats.getFreeMemory() : 0L);
+  }
+
+  @ManagedAttribute(description = "Size of the largest free off-heap memory fragment in bytes")
+  public int getLargestFragment() {
+
+    OffHeapMemoryStats stats = getOffHeapMemoryStats();
+
+    return (stats != null ? stats.getLargestFragment() : 0);
+  }
+
+  @ManagedAttribute(description = "Size of the off-heap memory pool in bytes")
+  public long getMaxMemory() {
+
+    OffHeapMemoryStats stats = getOffHeapMemoryStats();
+
+    return (stats != null ? stats.getMaxMemory() : 0L);
+  }
+
+  @ManagedAttribute(description = "Number of objects stored in off-heap memory")
+  public int getObjects() {
+
+    OffHeapMemoryStats stats = getOffHeapMemoryStats();
+
+    return (stats != null ? stats.getObjects() : 0);
+  }
+
+  @ManagedAttribute(description = "Used off-heap memory in bytes")
+  public long getUsedMemory() {
+
+    OffHeapMemoryStats stats = getOffHeapMemoryStats();
+
+    return (stats != null ? stats.getUsedMemory() : 0L);
+  }
+
+  @ManagedAttribute(description = "Percentage of the off-heap memory pool in use")
+  public double getUsedPercentage() {
+
+    long maxMemory = getMaxMemory();
+
+    return (maxMemory > 0L ? getUsedMemory() * 100.0d / maxMemory : 0.0d);
+  }
+
+  @ManagedOperation(description = "Reports the off-heap memory statistics")
+  public String report() {
+
+    return String.format("Off-heap memory: used = %1$d of %2$d bytes (%3$.1f%%), objects = %4$d,"
+        + " fragments = %5$d, largestFragment = %6$d bytes, fragmentation = %7$d%%,"
+        + " defragmentations = %8$d (%9$.2f/min, %10$d ms), allocationFailures = %11$d, evictionEvents = %12$d",
+      getUsedMemory(), getMaxMemory(), getUsedPercentage(), getObjects(), getFragments(), getLargestFragment(),
+      getFragmentation(), getDefragmentations(), getDefragmentationsPerMinute(),
+      TimeUnit.NANOSECONDS.toMillis(getDefragmentationTime()), getAllocationFailures(), getEvictionEvents());
+  }
+}
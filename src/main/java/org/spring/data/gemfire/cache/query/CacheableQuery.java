@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The CacheableQuery annotation marks a Repository query method whose results are cached in the
+ * {@link QueryResultCache} per query and bind parameter values, until a change to the queried Region
+ * affects the results.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.app.dao.repo.support.CachingGemfireRepositoryFactoryBean
+ * @see org.spring.data.gemfire.cache.query.QueryResultCache
+ * @since 1.0.0
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.ANNOTATION_TYPE, ElementType.METHOD })
+@SuppressWarnings("unused")
+public @interface CacheableQuery {
+
+  /**
+   * Maximum number of results cached; larger results are not cached.
+   */
+  int maxResults() default QueryResultCache.DEFAULT_MAXIMUM_RESULTS;
+
+}
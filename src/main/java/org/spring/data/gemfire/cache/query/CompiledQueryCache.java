@@ -0,0 +1,331 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.QueryInvalidException;
+import org.apache.geode.cache.query.QueryService;
+import org.springframework.data.gemfire.GemfireQueryException;
+import org.springframework.util.Assert;
+
+/**
+ * The CompiledQueryCache class is a bounded, concurrent cache of compiled OQL {@link Query Queries}
+ * keyed by the normalized query text.
+ *
+ * Creating a {@link Query} parses and compiles the OQL statement, which for short, frequently executed lookups
+ * can cost as much as executing it.  Queries are meant to be parameterized with bind parameters ({@literal $1},
+ * {@literal $2}, ...) rather than formatting values into the OQL text, which both defeats the cache and invites
+ * OQL injection.  When the cache is full the least recently used query is evicted.
+ *
+ * Compile (parse) time and execution time are recorded separately in the cache {@link Statistics}.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.query.Query
+ * @see org.apache.geode.cache.query.QueryService
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class CompiledQueryCache {
+
+  protected static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+  private final int maximumSize;
+
+  private final AtomicLong clock = new AtomicLong(0L);
+
+  private final Map<String, CachedQuery> queries = new ConcurrentHashMap<>();
+
+  private final QueryService queryService;
+
+  private final Statistics statistics = new Statistics();
+
+  /**
+   * Constructs a CompiledQueryCache for the {@link QueryService} of the given {@link Region}.
+   *
+   * @param region {@link Region} whose {@link QueryService} is used to compile queries.
+   * @return a new CompiledQueryCache.
+   */
+  public static CompiledQueryCache forRegion(Region<?, ?> region) {
+    Assert.notNull(region, "Region must not be null");
+    return new CompiledQueryCache(region.getRegionService().getQueryService());
+  }
+
+  /**
+   * Normalizes the given OQL statement by trimming it and collapsing all runs of whitespace outside
+   * of string literals into a single space.
+   *
+   * @param queryString OQL statement to normalize.
+   * @return the normalized OQL statement.
+   */
+  public static String normalize(String queryString) {
+
+    Assert.hasText(queryString, "Query must be specified");
+
+    StringBuilder normalizedQueryString = new StringBuilder(queryString.length());
+
+    boolean literal = false;
+    boolean whitespace = false;
+
+    for (char character : queryString.trim().toCharArray()) {
+      if (!literal && Character.isWhitespace(character)) {
+        whitespace = true;
+      }
+      else {
+        if (whitespace) {
+          normalizedQueryString.append(' ');
+          whitespace = false;
+        }
+
+        literal ^= (character == '\'');
+        normalizedQueryString.append(character);
+      }
+    }
+
+    return normalizedQueryString.toString();
+  }
+
+  /**
+   * Builds the OQL statement selecting the values of the given {@link Region} matching the predicate,
+   * equivalent to the query executed by {@link Region#query(String)}.
+   *
+   * @param region {@link Region} to query.
+   * @param predicate OQL predicate, which may refer to bind parameters.
+   * @return the OQL statement.
+   */
+  public static String selectWhere(Region<?, ?> region, String predicate) {
+    return String.format("SELECT * FROM %1$s this WHERE %2$s", region.getFullPath(), predicate);
+  }
+
+  public CompiledQueryCache(QueryService queryService) {
+    this(queryService, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  public CompiledQueryCache(QueryService queryService, int maximumSize) {
+
+    Assert.notNull(queryService, "QueryService must not be null");
+    Assert.isTrue(maximumSize > 0, "Maximum size must be greater than 0");
+
+    this.queryService = queryService;
+    this.maximumSize = maximumSize;
+  }
+
+  protected int getMaximumSize() {
+    return this.maximumSize;
+  }
+
+  protected QueryService getQueryService() {
+    return this.queryService;
+  }
+
+  public Statistics getStatistics() {
+    return this.statistics;
+  }
+
+  public int size() {
+    return this.queries.size();
+  }
+
+  /**
+   * Returns the compiled {@link Query} for the given OQL statement, compiling and caching it on a miss.
+   *
+   * @param queryString OQL statement.
+   * @return the compiled {@link Query}.
+   * @throws GemfireQueryException if the OQL statement is invalid.
+   */
+  public Query getQuery(String queryString) {
+
+    String normalizedQueryString = normalize(queryString);
+
+    CachedQuery cachedQuery = this.queries.get(normalizedQueryString);
+
+    if (cachedQuery != null) {
+      this.statistics.hits.increment();
+      cachedQuery.lastAccess = this.clock.incrementAndGet();
+    }
+    else {
+      this.statistics.misses.increment();
+      cachedQuery = this.queries.computeIfAbsent(normalizedQueryString, this::compile);
+      evictIfNecessary();
+    }
+
+    return cachedQuery.query;
+  }
+
+  private CachedQuery compile(String queryString) {
+
+    long t0 = System.nanoTime();
+
+    try {
+      return new CachedQuery(getQueryService().newQuery(queryString), this.clock.incrementAndGet());
+    }
+    catch (QueryInvalidException e) {
+      throw new GemfireQueryException(e);
+    }
+    finally {
+      this.statistics.compileTime.add(System.nanoTime() - t0);
+    }
+  }
+
+  private void evictIfNecessary() {
+
+    while (this.queries.size() > getMaximumSize()) {
+
+      Map.Entry<String, CachedQuery> leastRecentlyUsed = null;
+
+      for (Map.Entry<String, CachedQuery> entry : this.queries.entrySet()) {
+        if (leastRecentlyUsed == null || entry.getValue().lastAccess < leastRecentlyUsed.getValue().lastAccess) {
+          leastRecentlyUsed = entry;
+        }
+      }
+
+      if (leastRecentlyUsed != null && this.queries.remove(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue())) {
+        this.statistics.evictions.increment();
+      }
+    }
+  }
+
+  /**
+   * Executes the given OQL statement with the given bind parameters.
+   *
+   * @param <T> {@link Class} type of the result, typically {@link org.apache.geode.cache.query.SelectResults}.
+   * @param queryString OQL statement.
+   * @param parameters values of the bind parameters ({@literal $1}, {@literal $2}, ...).
+   * @return the query result.
+   * @throws GemfireQueryException if the query is invalid or fails to execute.
+   */
+  public <T> T execute(String queryString, Object... parameters) {
+    return execute(null, queryString, parameters);
+  }
+
+  /**
+   * Executes the given OQL statement with the given bind parameters on the local data set of the given
+   * {@link RegionFunctionContext}.
+   *
+   * @param <T> {@link Class} type of the result, typically {@link org.apache.geode.cache.query.SelectResults}.
+   * @param functionContext {@link RegionFunctionContext} of a Function execution on a partitioned Region;
+   * may be {@literal null} to execute the query on the whole Region.
+   * @param queryString OQL statement.
+   * @param parameters values of the bind parameters ({@literal $1}, {@literal $2}, ...).
+   * @return the query result.
+   * @throws GemfireQueryException if the query is invalid or fails to execute.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T execute(RegionFunctionContext functionContext, String queryString, Object... parameters) {
+
+    Query query = getQuery(queryString);
+
+    Object[] nullSafeParameters = (parameters != null ? parameters : new Object[0]);
+
+    long t0 = System.nanoTime();
+
+    try {
+      return (T) (functionContext != null ? query.execute(functionContext, nullSafeParameters)
+        : query.execute(nullSafeParameters));
+    }
+    catch (QueryException e) {
+      throw new GemfireQueryException(e);
+    }
+    catch (RuntimeException e) {
+      throw new GemfireQueryException(e);
+    }
+    finally {
+      this.statistics.executions.increment();
+      this.statistics.executionTime.add(System.nanoTime() - t0);
+    }
+  }
+
+  /**
+   * Removes all compiled queries from the cache.
+   */
+  public void clear() {
+    this.queries.clear();
+  }
+
+  private static final class CachedQuery {
+
+    private final Query query;
+
+    private volatile long lastAccess;
+
+    private CachedQuery(Query query, long lastAccess) {
+      this.query = query;
+      this.lastAccess = lastAccess;
+    }
+  }
+
+  /**
+   * The Statistics class records the hit rate of the cache along with the time spent compiling
+   * and executing queries.
+   */
+  public static class Statistics {
+
+    private final LongAdder compileTime = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder executionTime = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public long getCompileTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.compileTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getEvictions() {
+      return this.evictions.sum();
+    }
+
+    public long getExecutions() {
+      return this.executions.sum();
+    }
+
+    public long getExecutionTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.executionTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getHits() {
+      return this.hits.sum();
+    }
+
+    public double getHitRate() {
+
+      long hits = getHits();
+      long lookups = (hits + getMisses());
+
+      return (lookups > 0L ? (double) hits / lookups : 0.0d);
+    }
+
+    public long getMisses() {
+      return this.misses.sum();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("{ hits = %1$d, misses = %2$d, hitRate = %3$.2f, evictions = %4$d, compileTime = %5$d us,"
+        + " executions = %6$d, executionTime = %7$d us }", getHits(), getMisses(), getHitRate(), getEvictions(),
+          getCompileTime(TimeUnit.MICROSECONDS), getExecutions(), getExecutionTime(TimeUnit.MICROSECONDS));
+    }
+  }
+}
@@ -0,0 +1,475 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.geode.cache.query.CqEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.gemfire.listener.ContinuousQueryListener;
+import org.springframework.util.Assert;
+
+/**
+ * The DispatchingContinuousQueryListener class is a {@link ContinuousQueryListener} handing {@link CqEvent CqEvents}
+ * off the CQ delivery thread to a fixed number of stripes, each dispatching its events to the application listener
+ * in micro-batches on its own thread, so that a slow listener does not stall the subscription queue.
+ *
+ * Events are assigned to a stripe by key, which preserves the order of the events for each key while different keys
+ * are processed in parallel.  Each stripe queues at most {@link #setQueueCapacity(int) queue capacity} events; when
+ * a stripe is full, the delivery thread blocks until the stripe catches up, pushing back on the server's subscription
+ * queue rather than growing without bound.  A batch is made of the events queued when the stripe thread becomes idle,
+ * up to the {@link #setBatchSize(int) batch size}, so batches grow with the load without delaying any event.
+ *
+ * When {@link #setConflate(boolean) conflation} is enabled, an event for a key still queued in its stripe is replaced
+ * by the newer event for that key, keeping its place in the queue, so only the latest event of a frequently updated
+ * key is dispatched.
+ *
+ * The number of events received, conflated and dispatched, the queue depth and the lag between receiving
+ * and dispatching an event are recorded per CQ in {@link Metrics}.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.query.CqEvent
+ * @see org.springframework.data.gemfire.listener.ContinuousQueryListener
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class DispatchingContinuousQueryListener implements ContinuousQueryListener, DisposableBean {
+
+  protected static final int DEFAULT_BATCH_SIZE = 100;
+  protected static final int DEFAULT_QUEUE_CAPACITY = 10000;
+  protected static final int DEFAULT_STRIPES = Runtime.getRuntime().availableProcessors();
+
+  protected static final long DEFAULT_SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+  private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger(0);
+
+  private boolean conflate = false;
+
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+  private int stripeCount = DEFAULT_STRIPES;
+
+  private final BatchListener listener;
+
+  private final Map<String, Metrics> metrics = new ConcurrentHashMap<>();
+
+  private volatile Stripe[] stripes;
+
+  /**
+   * Constructs a DispatchingContinuousQueryListener dispatching each event of a batch, in order, to the given
+   * {@link ContinuousQueryListener}.
+   *
+   * @param listener application {@link ContinuousQueryListener}.
+   */
+  public DispatchingContinuousQueryListener(ContinuousQueryListener listener) {
+    this(toBatchListener(listener));
+  }
+
+  /**
+   * Constructs a DispatchingContinuousQueryListener dispatching batches of events to the given {@link BatchListener}.
+   *
+   * @param listener application {@link BatchListener}.
+   */
+  public DispatchingContinuousQueryListener(BatchListener listener) {
+    Assert.notNull(listener, "Listener must not be null");
+    this.listener = listener;
+  }
+
+  private static BatchListener toBatchListener(ContinuousQueryListener listener) {
+    Assert.notNull(listener, "Listener must not be null");
+    return events -> events.forEach(listener::onEvent);
+  }
+
+  protected BatchListener getListener() {
+    return this.listener;
+  }
+
+  public void setBatchSize(int batchSize) {
+    Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+    this.batchSize = batchSize;
+  }
+
+  protected int getBatchSize() {
+    return this.batchSize;
+  }
+
+  public void setConflate(boolean conflate) {
+    this.conflate = conflate;
+  }
+
+  protected boolean isConflate() {
+    return this.conflate;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+    this.queueCapacity = queueCapacity;
+  }
+
+  protected int getQueueCapacity() {
+    return this.queueCapacity;
+  }
+
+  public void setStripes(int stripes) {
+    Assert.isTrue(stripes > 0, "Stripes must be greater than 0");
+    this.stripeCount = stripes;
+  }
+
+  protected int getStripes() {
+    return this.stripeCount;
+  }
+
+  /**
+   * Returns the {@link Metrics} of the given CQ.
+   *
+   * @param cqName name of the CQ.
+   * @return the {@link Metrics} of the CQ, or {@literal null} if no event of the CQ was received.
+   */
+  public Metrics getMetrics(String cqName) {
+    return this.metrics.get(cqName);
+  }
+
+  /**
+   * Returns the {@link Metrics} of all CQs keyed by CQ name.
+   *
+   * @return an unmodifiable {@link Map} of CQ name to {@link Metrics}.
+   */
+  public Map<String, Metrics> getMetrics() {
+    return Collections.unmodifiableMap(this.metrics);
+  }
+
+  private Stripe[] resolveStripes() {
+
+    Stripe[] stripes = this.stripes;
+
+    if (stripes == null) {
+      synchronized (this) {
+        stripes = this.stripes;
+
+        if (stripes == null) {
+
+          int instance = INSTANCE_COUNTER.incrementAndGet();
+
+          stripes = new Stripe[getStripes()];
+
+          for (int index = 0; index < stripes.length; index++) {
+            stripes[index] = new Stripe(String.format("CQ Dispatcher %1$d-%2$d", instance, index));
+          }
+
+          this.stripes = stripes;
+        }
+      }
+    }
+
+    return stripes;
+  }
+
+  private Metrics resolveMetrics(CqEvent event) {
+
+    String cqName = (event.getCq() != null ? event.getCq().getName() : null);
+
+    return this.metrics.computeIfAbsent(String.valueOf(cqName), Metrics::new);
+  }
+
+  @Override
+  public void onEvent(CqEvent event) {
+
+    Stripe[] stripes = resolveStripes();
+
+    Object key = event.getKey();
+
+    int index = (key != null ? (key.hashCode() & Integer.MAX_VALUE) % stripes.length : 0);
+
+    stripes[index].enqueue(key, event, resolveMetrics(event));
+  }
+
+  /**
+   * Stops accepting events and waits for the queued events to be dispatched.
+   */
+  @Override
+  public void destroy() throws InterruptedException {
+
+    Stripe[] stripes = this.stripes;
+
+    if (stripes != null) {
+
+      for (Stripe stripe : stripes) {
+        stripe.shutdown();
+      }
+
+      long deadline = (System.currentTimeMillis() + DEFAULT_SHUTDOWN_TIMEOUT);
+
+      for (Stripe stripe : stripes) {
+        stripe.thread.join(Math.max(1L, deadline - System.currentTimeMillis()));
+      }
+    }
+  }
+
+  /**
+   * The BatchListener interface is implemented by application listeners processing {@link CqEvent CqEvents}
+   * in batches.
+   */
+  @FunctionalInterface
+  public interface BatchListener {
+
+    /**
+     * Processes a batch of {@link CqEvent CqEvents}, ordered by arrival for each key.
+     *
+     * @param events {@link List} of {@link CqEvent CqEvents}.
+     */
+    void onEvents(List<CqEvent> events);
+
+  }
+
+  private static final class QueuedEvent {
+
+    private volatile CqEvent event;
+
+    private final long enqueuedTime = System.nanoTime();
+
+    private final Metrics metrics;
+
+    private final Object key;
+
+    private QueuedEvent(Object key, CqEvent event, Metrics metrics) {
+      this.key = key;
+      this.event = event;
+      this.metrics = metrics;
+    }
+  }
+
+  private final class Stripe implements Runnable {
+
+    private volatile boolean running = true;
+
+    private final Condition notEmpty;
+    private final Condition notFull;
+
+    private final Deque<QueuedEvent> queue = new ArrayDeque<>();
+
+    private final Map<Object, QueuedEvent> queuedKeys = new HashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Thread thread;
+
+    private Stripe(String name) {
+
+      this.notEmpty = this.lock.newCondition();
+      this.notFull = this.lock.newCondition();
+      this.thread = new Thread(this, name);
+      this.thread.setDaemon(true);
+      this.thread.start();
+    }
+
+    private void enqueue(Object key, CqEvent event, Metrics metrics) {
+
+      metrics.received.increment();
+
+      this.lock.lock();
+
+      try {
+        Assert.state(this.running, "DispatchingContinuousQueryListener has been destroyed");
+
+        QueuedEvent queuedEvent = (isConflate() && key != null ? this.queuedKeys.get(key) : null);
+
+        if (queuedEvent != null && queuedEvent.metrics == metrics) {
+          queuedEvent.event = event;
+          metrics.conflated.increment();
+        }
+        else {
+          while (this.queue.size() >= getQueueCapacity()) {
+            this.notFull.awaitUninterruptibly();
+          }
+
+          queuedEvent = new QueuedEvent(key, event, metrics);
+
+          this.queue.add(queuedEvent);
+
+          if (isConflate() && key != null) {
+            this.queuedKeys.put(key, queuedEvent);
+          }
+
+          metrics.queueDepth.increment();
+          this.notEmpty.signal();
+        }
+      }
+      finally {
+        this.lock.unlock();
+      }
+    }
+
+    private List<QueuedEvent> take() throws InterruptedException {
+
+      this.lock.lock();
+
+      try {
+        while (this.queue.isEmpty()) {
+          if (!this.running) {
+            return Collections.emptyList();
+          }
+
+          this.notEmpty.await();
+        }
+
+        List<QueuedEvent> batch = new ArrayList<>(Math.min(this.queue.size(), getBatchSize()));
+
+        while (!this.queue.isEmpty() && batch.size() < getBatchSize()) {
+
+          QueuedEvent queuedEvent = this.queue.poll();
+
+          if (queuedEvent.key != null) {
+            this.queuedKeys.remove(queuedEvent.key, queuedEvent);
+          }
+
+          queuedEvent.metrics.queueDepth.decrement();
+          batch.add(queuedEvent);
+        }
+
+        this.notFull.signalAll();
+
+        return batch;
+      }
+      finally {
+        this.lock.unlock();
+      }
+    }
+
+    private void shutdown() {
+
+      this.lock.lock();
+
+      try {
+        this.running = false;
+        this.notEmpty.signalAll();
+      }
+      finally {
+        this.lock.unlock();
+      }
+    }
+
+    @Override
+    public void run() {
+
+      try {
+        for (List<QueuedEvent> batch = take(); !batch.isEmpty(); batch = take()) {
+
+          List<CqEvent> events = new ArrayList<>(batch.size());
+
+          long now = System.nanoTime();
+
+          for (QueuedEvent queuedEvent : batch) {
+            events.add(queuedEvent.event);
+            queuedEvent.metrics.recordLag(now - queuedEvent.enqueuedTime);
+          }
+
+          try {
+            getListener().onEvents(events);
+          }
+          catch (RuntimeException e) {
+            System.err.printf("Failed to dispatch %1$d CQ events on thread [%2$s]: %3$s%n", events.size(),
+              Thread.currentThread().getName(), e);
+          }
+
+          for (QueuedEvent queuedEvent : batch) {
+            queuedEvent.metrics.dispatched.increment();
+          }
+        }
+      }
+      catch (InterruptedException ignore) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * The Metrics class records the events received, conflated and dispatched for a CQ along with the number of events
+   * queued and the lag between receiving an event and dispatching it to the application listener.
+   */
+  public static class Metrics {
+
+    private final AtomicLong lastLag = new AtomicLong(0L);
+    private final AtomicLong maxLag = new AtomicLong(0L);
+
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder queueDepth = new LongAdder();
+    private final LongAdder received = new LongAdder();
+
+    private final String cqName;
+
+    protected Metrics(String cqName) {
+      this.cqName = cqName;
+    }
+
+    private void recordLag(long lag) {
+      this.lastLag.set(lag);
+      this.maxLag.accumulateAndGet(lag, Math::max);
+    }
+
+    public String getCqName() {
+      return this.cqName;
+    }
+
+    public long getConflated() {
+      return this.conflated.sum();
+    }
+
+    public long getDispatched() {
+      return this.dispatched.sum();
+    }
+
+    /**
+     * Returns the lag of the most recently dispatched event, from receipt to dispatch.
+     */
+    public long getLag(TimeUnit timeUnit) {
+      return timeUnit.convert(this.lastLag.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxLag(TimeUnit timeUnit) {
+      return timeUnit.convert(this.maxLag.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getQueueDepth() {
+      return this.queueDepth.sum();
+    }
+
+    public long getReceived() {
+      return this.received.sum();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("CQ [%1$s] { received = %2$d, conflated = %3$d, dispatched = %4$d, queueDepth = %5$d,"
+          + " lag = %6$d us, maxLag = %7$d us }", getCqName(), getReceived(), getConflated(), getDispatched(),
+        getQueueDepth(), getLag(TimeUnit.MICROSECONDS), getMaxLag(TimeUnit.MICROSECONDS));
+    }
+  }
+}
@@ -0,0 +1,489 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.springframework.data.gemfire.mapping.GemfirePersistentProperty;
+import org.springframework.data.gemfire.repository.query.GemfireQueryMethod;
+import org.springframework.data.gemfire.repository.query.QueryPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The IndexAdvisor class is a Spring Data {@link QueryPostProcessor} that traces the OQL query of every Repository
+ * query method when it is executed and recommends, and optionally creates, the GemFire {@link Index Indexes}
+ * that would avoid full {@link Region} scans.
+ *
+ * Declared as a bean in the same Spring context as the Repositories, it records each query method's OQL
+ * (derived or {@literal @Query} annotated) and last arguments.  When {@link #advise()} is called, each traced query
+ * is re-executed and timed; a query that did not use any existing {@link Index} (according to the
+ * {@link org.apache.geode.cache.query.IndexStatistics#getTotalUses() index use counts}) performed a full scan.
+ * For each path compared in its {@literal WHERE} clause an {@link Index} is recommended on the iterator
+ * (and its {@literal FROM} clause) the path belongs to, for example {@literal a.city} on
+ * {@literal /Users u, u.addresses a}, or a key {@link Index} for the entity identifier.  The estimated improvement
+ * is the ratio of the number of entries scanned to the number of results.
+ *
+ * The advisor requires a peer cache, where the {@link Index Indexes} and their statistics are local.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.query.Index
+ * @see org.apache.geode.cache.query.QueryService
+ * @see org.springframework.data.gemfire.repository.query.QueryPostProcessor
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class IndexAdvisor implements QueryPostProcessor<Repository, String> {
+
+  private static final Pattern HINTS_PATTERN = Pattern.compile("^\\s*(<[^>]*>\\s*)+");
+
+  private static final Pattern QUERY_PATTERN = Pattern.compile(
+    "\\bFROM\\s+(.+?)(?:\\s+WHERE\\s+(.+?))?(?:\\s+ORDER\\s+BY\\s+.*?)?(?:\\s+LIMIT\\s+\\d+)?\\s*$",
+      Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  private static final Pattern ITERATOR_PATTERN = Pattern.compile(
+    "^\\s*(\\S+?)(?:\\s+(?:AS\\s+)?([A-Za-z_]\\w*))?(?:\\s+TYPE\\s+\\S+)?\\s*$", Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern CONJUNCTION_PATTERN = Pattern.compile("\\s+(?:AND|OR)\\s+", Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern PREDICATE_PATTERN = Pattern.compile(
+    "^[\\s(]*(?:NOT\\s+)?([A-Za-z_][\\w.]*)\\s*(?:=|<>|!=|<=|>=|<|>|\\s(?:IN\\s+SET|LIKE)\\s)\\s*\\(?\\s*([A-Za-z_][\\w.]*)?",
+      Pattern.CASE_INSENSITIVE);
+
+  private static final Set<String> KEYWORDS = new LinkedHashSet<>(Arrays.asList("false", "nil", "null", "true",
+    "undefined"));
+
+  private boolean createIndexes = false;
+
+  private int executions = 3;
+
+  private final Map<String, QueryTrace> queryTraces = new ConcurrentHashMap<>();
+
+  private final GemFireCache gemfireCache;
+
+  public IndexAdvisor(GemFireCache gemfireCache) {
+    Assert.notNull(gemfireCache, "GemFireCache must not be null");
+    this.gemfireCache = gemfireCache;
+  }
+
+  protected GemFireCache getGemFireCache() {
+    return this.gemfireCache;
+  }
+
+  protected QueryService getQueryService() {
+    return getGemFireCache().getQueryService();
+  }
+
+  /**
+   * Sets whether the recommended {@link Index Indexes} are created by {@link #advise()}.  Defaults to
+   * {@literal false}.
+   *
+   * @param createIndexes boolean value indicating whether to create the recommended {@link Index Indexes}.
+   */
+  public void setCreateIndexes(boolean createIndexes) {
+    this.createIndexes = createIndexes;
+  }
+
+  protected boolean isCreateIndexes() {
+    return this.createIndexes;
+  }
+
+  /**
+   * Sets the number of times each traced query is executed when timing it.  Defaults to 3.
+   *
+   * @param executions number of timed executions per query.
+   */
+  public void setExecutions(int executions) {
+    Assert.isTrue(executions > 0, "Executions must be greater than 0");
+    this.executions = executions;
+  }
+
+  protected int getExecutions() {
+    return this.executions;
+  }
+
+  /**
+   * Returns the OQL queries traced so far keyed by query method name.
+   *
+   * @return a {@link Map} of query method name to OQL query.
+   */
+  public Map<String, String> getTracedQueries() {
+
+    Map<String, String> tracedQueries = new LinkedHashMap<>();
+
+    this.queryTraces.values().forEach(queryTrace -> tracedQueries.put(queryTrace.methodName, queryTrace.query));
+
+    return tracedQueries;
+  }
+
+  @Override
+  public String postProcess(QueryMethod queryMethod, String query, Object... arguments) {
+
+    this.queryTraces.compute(queryMethod.toString(), (key, queryTrace) -> {
+
+      QueryTrace resolvedQueryTrace = (queryTrace != null && queryTrace.query.equals(query) ? queryTrace
+        : new QueryTrace(queryMethod, query));
+
+      resolvedQueryTrace.arguments = (arguments != null ? arguments : EMPTY_ARGUMENTS);
+      resolvedQueryTrace.invocations++;
+
+      return resolvedQueryTrace;
+    });
+
+    return query;
+  }
+
+  /**
+   * Re-executes and times each traced query, recommending an {@link Index} for each path compared in the
+   * {@literal WHERE} clause of the queries that scanned their {@link Region Regions}.  The recommended
+   * {@link Index Indexes} are created if {@link #setCreateIndexes(boolean) enabled}.
+   *
+   * @return the {@link Recommendation Recommendations}, one per {@link Index}.
+   */
+  public List<Recommendation> advise() {
+
+    Map<String, Recommendation> recommendations = new LinkedHashMap<>();
+
+    for (QueryTrace queryTrace : this.queryTraces.values()) {
+
+      Execution execution = execute(queryTrace);
+
+      if (execution != null && !execution.usedIndex) {
+        for (Recommendation recommendation : recommend(queryTrace, execution)) {
+          recommendations.merge(recommendation.getIndexName(), recommendation, Recommendation::merge);
+        }
+      }
+    }
+
+    if (isCreateIndexes()) {
+      recommendations.values().forEach(this::create);
+    }
+
+    recommendations.values().forEach(recommendation ->
+      System.out.printf("Index Advisor recommends %s%n", recommendation));
+
+    return new ArrayList<>(recommendations.values());
+  }
+
+  private Execution execute(QueryTrace queryTrace) {
+
+    try {
+      Query query = getQueryService().newQuery(queryTrace.query);
+
+      Collection<Index> indexes = getQueryService().getIndexes();
+      long indexUses = totalUses(indexes);
+      long elapsedTime = Long.MAX_VALUE;
+
+      Object result = null;
+
+      for (int count = 0; count < getExecutions(); count++) {
+        long t0 = System.nanoTime();
+        result = query.execute(queryTrace.arguments);
+        elapsedTime = Math.min(elapsedTime, System.nanoTime() - t0);
+      }
+
+      int resultSize = (result instanceof SelectResults ? ((SelectResults<?>) result).size() : 1);
+
+      return new Execution(elapsedTime, resultSize, totalUses(indexes) > indexUses);
+    }
+    catch (QueryException | RuntimeException e) {
+      System.err.printf("Failed to execute query [%1$s] traced for [%2$s]: %3$s%n", queryTrace.query,
+        queryTrace.methodName, e.getMessage());
+
+      return null;
+    }
+  }
+
+  private long totalUses(Collection<Index> indexes) {
+    return indexes.stream().mapToLong(index -> index.getStatistics().getTotalUses()).sum();
+  }
+
+  private List<Recommendation> recommend(QueryTrace queryTrace, Execution execution) {
+
+    List<Recommendation> recommendations = new ArrayList<>();
+
+    Matcher queryMatcher = QUERY_PATTERN.matcher(HINTS_PATTERN.matcher(queryTrace.query).replaceFirst(""));
+
+    if (queryMatcher.find() && StringUtils.hasText(queryMatcher.group(2))) {
+
+      Map<String, String> fromClauses = new LinkedHashMap<>();
+      Map<String, String> regionPaths = new LinkedHashMap<>();
+
+      resolveIterators(queryMatcher.group(1), fromClauses, regionPaths);
+
+      for (String predicate : CONJUNCTION_PATTERN.split(queryMatcher.group(2))) {
+
+        Matcher predicateMatcher = PREDICATE_PATTERN.matcher(predicate);
+
+        if (predicateMatcher.find()) {
+          for (int group = 1; group <= 2; group++) {
+
+            Recommendation recommendation = recommend(queryTrace, execution, predicateMatcher.group(group),
+              fromClauses, regionPaths);
+
+            if (recommendation != null) {
+              recommendations.add(recommendation);
+            }
+          }
+        }
+      }
+    }
+
+    return recommendations;
+  }
+
+  private void resolveIterators(String fromClause, Map<String, String> fromClauses, Map<String, String> regionPaths) {
+
+    List<String> iterators = new ArrayList<>();
+
+    for (String iterator : fromClause.split(",")) {
+
+      Matcher iteratorMatcher = ITERATOR_PATTERN.matcher(iterator);
+
+      if (iteratorMatcher.find()) {
+
+        String collection = iteratorMatcher.group(1);
+        String alias = iteratorMatcher.group(2);
+        String owner = collection.split("\\.")[0];
+
+        if (collection.startsWith("/")) {
+          iterators.clear();
+          regionPaths.put(String.valueOf(alias), collection);
+        }
+        else if (regionPaths.containsKey(owner)) {
+          regionPaths.put(String.valueOf(alias), regionPaths.get(owner));
+        }
+
+        iterators.add(iterator.trim());
+        fromClauses.put(String.valueOf(alias), StringUtils.collectionToDelimitedString(iterators, ", "));
+      }
+    }
+  }
+
+  private Recommendation recommend(QueryTrace queryTrace, Execution execution, String path,
+      Map<String, String> fromClauses, Map<String, String> regionPaths) {
+
+    if (path == null || path.startsWith("$") || KEYWORDS.contains(path.toLowerCase())) {
+      return null;
+    }
+
+    String[] pathElements = path.split("\\.", 2);
+
+    boolean qualified = (pathElements.length > 1 && fromClauses.containsKey(pathElements[0]));
+
+    String alias = (qualified ? pathElements[0] : fromClauses.keySet().iterator().next());
+    String property = (qualified ? pathElements[1] : path);
+    String fromClause = fromClauses.get(alias);
+    String regionPath = regionPaths.get(alias);
+
+    if (fromClause == null || regionPath == null) {
+      return null;
+    }
+
+    Region<?, ?> region = getGemFireCache().getRegion(regionPath);
+
+    if (region == null || isIndexed(region, property)) {
+      return null;
+    }
+
+    boolean key = (property.equals(queryTrace.idPropertyName) && !fromClause.contains(","));
+
+    return new Recommendation(regionPath, fromClause, path, key, region.size(), execution.resultSize,
+      execution.elapsedTime, queryTrace.methodName);
+  }
+
+  private boolean isIndexed(Region<?, ?> region, String property) {
+
+    Collection<Index> indexes = getQueryService().getIndexes(region);
+
+    for (Index index : (indexes != null ? indexes : Collections.<Index>emptyList())) {
+
+      String indexedExpression = index.getIndexedExpression();
+
+      if (indexedExpression.equals(property) || indexedExpression.endsWith("." + property)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private void create(Recommendation recommendation) {
+
+    try {
+      Index index = (recommendation.isKey()
+        ? getQueryService().createKeyIndex(recommendation.getIndexName(), recommendation.getExpression(),
+            recommendation.getFromClause())
+        : getQueryService().createIndex(recommendation.getIndexName(), recommendation.getExpression(),
+            recommendation.getFromClause()));
+
+      recommendation.created = (index != null);
+    }
+    catch (Exception e) {
+      System.err.printf("Failed to create %1$s: %2$s%n", recommendation, e.getMessage());
+    }
+  }
+
+  private static final class Execution {
+
+    private final boolean usedIndex;
+    private final int resultSize;
+    private final long elapsedTime;
+
+    private Execution(long elapsedTime, int resultSize, boolean usedIndex) {
+      this.elapsedTime = elapsedTime;
+      this.resultSize = resultSize;
+      this.usedIndex = usedIndex;
+    }
+  }
+
+  private static final class QueryTrace {
+
+    private final String idPropertyName;
+    private final String methodName;
+    private final String query;
+
+    private volatile Object[] arguments = EMPTY_ARGUMENTS;
+
+    private volatile long invocations;
+
+    private QueryTrace(QueryMethod queryMethod, String query) {
+
+      this.methodName = queryMethod.getName();
+      this.query = query;
+
+      GemfirePersistentProperty idProperty = (queryMethod instanceof GemfireQueryMethod
+        ? ((GemfireQueryMethod) queryMethod).getPersistentEntity().getIdProperty() : null);
+
+      this.idPropertyName = (idProperty != null ? idProperty.getName() : null);
+    }
+  }
+
+  /**
+   * The Recommendation class describes an {@link Index} recommended by the {@link IndexAdvisor} along with
+   * the query methods that would use it and its estimated improvement.
+   */
+  public static class Recommendation {
+
+    private boolean created;
+
+    private final boolean key;
+
+    private final int regionSize;
+    private final int resultSize;
+
+    private final long scanTime;
+
+    private final Set<String> queryMethods = new LinkedHashSet<>();
+
+    private final String expression;
+    private final String fromClause;
+    private final String regionPath;
+
+    private Recommendation(String regionPath, String fromClause, String expression, boolean key, int regionSize,
+        int resultSize, long scanTime, String queryMethod) {
+
+      this.regionPath = regionPath;
+      this.fromClause = fromClause;
+      this.expression = expression;
+      this.key = key;
+      this.regionSize = regionSize;
+      this.resultSize = resultSize;
+      this.scanTime = scanTime;
+      this.queryMethods.add(queryMethod);
+    }
+
+    private Recommendation merge(Recommendation recommendation) {
+      this.queryMethods.addAll(recommendation.queryMethods);
+      return this;
+    }
+
+    public boolean isCreated() {
+      return this.created;
+    }
+
+    /**
+     * Returns the estimated speedup of the queries using the {@link Index}, which is the number of entries scanned
+     * without the {@link Index} divided by the number of results.
+     */
+    public double getEstimatedImprovement() {
+      return Math.max(1.0d, (double) this.regionSize / Math.max(1, this.resultSize));
+    }
+
+    public String getExpression() {
+      return this.expression;
+    }
+
+    public String getFromClause() {
+      return this.fromClause;
+    }
+
+    public String getIndexName() {
+
+      String property = this.expression.substring(this.expression.lastIndexOf('.') + 1);
+
+      return String.format("%1$s%2$sIdx", this.regionPath.substring(this.regionPath.lastIndexOf('/') + 1),
+        StringUtils.capitalize(property));
+    }
+
+    public boolean isKey() {
+      return this.key;
+    }
+
+    public Set<String> getQueryMethods() {
+      return Collections.unmodifiableSet(this.queryMethods);
+    }
+
+    public String getRegionPath() {
+      return this.regionPath;
+    }
+
+    public long getScanTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.scanTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%1$s Index [%2$s] on [%3$s] FROM [%4$s] for %5$s; full scan of [%6$d] entries took"
+        + " [%7$d] us for [%8$d] result(s); estimated improvement [%9$.1fx]%10$s", (isKey() ? "Key" : "Functional"),
+          getIndexName(), getExpression(), getFromClause(), getQueryMethods(), this.regionSize,
+            getScanTime(TimeUnit.MICROSECONDS), this.resultSize, getEstimatedImprovement(),
+              (isCreated() ? " (created)" : ""));
+    }
+  }
+}
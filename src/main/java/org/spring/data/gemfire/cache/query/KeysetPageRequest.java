@@ -0,0 +1,183 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import java.util.Objects;
+
+import org.springframework.data.domain.AbstractPageRequest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+/**
+ * The KeysetPageRequest class is a {@link Pageable} resuming a query after the key of the last result
+ * of the previous page (the resume token) rather than skipping the results of all previous pages.
+ *
+ * The request for the next page is obtained from the {@link KeysetSlice#nextPageable() Slice} returned for
+ * the current page, whose {@link KeysetSlice#getPageable() Pageable} also knows the key of its last result.
+ * Without that key, {@link #next()} and {@link #previous()} fall back to an offset-based {@link PageRequest}
+ * for the adjacent page, which is correct but skips the results of all previous pages.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.cache.query.KeysetQueryExecutor
+ * @see org.spring.data.gemfire.cache.query.KeysetSlice
+ * @see org.springframework.data.domain.Pageable
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class KeysetPageRequest extends AbstractPageRequest {
+
+  private final Object afterKey;
+  private final Object lastKey;
+
+  private final Sort sort;
+
+  /**
+   * Requests the first page of the given size, ordered by the key.
+   *
+   * @param size number of results per page.
+   * @return a KeysetPageRequest for the first page.
+   */
+  public static KeysetPageRequest of(int size) {
+    return of(size, Sort.unsorted());
+  }
+
+  /**
+   * Requests the first page of the given size, sorted on the key in the direction of the given {@link Sort}.
+   *
+   * @param size number of results per page.
+   * @param sort {@link Sort} on the key.
+   * @return a KeysetPageRequest for the first page.
+   */
+  public static KeysetPageRequest of(int size, Sort sort) {
+    return new KeysetPageRequest(0, size, sort, null);
+  }
+
+  protected KeysetPageRequest(int page, int size, Sort sort, Object afterKey) {
+    this(page, size, sort, afterKey, null);
+  }
+
+  protected KeysetPageRequest(int page, int size, Sort sort, Object afterKey, Object lastKey) {
+
+    super(page, size);
+
+    Assert.notNull(sort, "Sort must not be null");
+
+    this.afterKey = afterKey;
+    this.lastKey = lastKey;
+    this.sort = sort;
+  }
+
+  /**
+   * Returns the key of the last result of the previous page, or {@literal null} for the first page.
+   *
+   * @return the resume token of this page.
+   */
+  public Object getAfterKey() {
+    return this.afterKey;
+  }
+
+  /**
+   * Returns the key of the last result of this page, if this page has been queried.
+   *
+   * @return the resume token of the next page, or {@literal null} if unknown.
+   */
+  public Object getLastKey() {
+    return this.lastKey;
+  }
+
+  @Override
+  public Sort getSort() {
+    return this.sort;
+  }
+
+  /**
+   * Requests the page following the page whose last result has the given key.
+   *
+   * @param lastKey key of the last result of this page.
+   * @return a KeysetPageRequest for the next page.
+   */
+  public KeysetPageRequest after(Object lastKey) {
+    Assert.notNull(lastKey, "Last key must not be null");
+    return new KeysetPageRequest(getPageNumber() + 1, getPageSize(), getSort(), lastKey);
+  }
+
+  /* (non-Javadoc) - records the key of the last result of this page once queried */
+  KeysetPageRequest withLastKey(Object lastKey) {
+    return new KeysetPageRequest(getPageNumber(), getPageSize(), getSort(), getAfterKey(), lastKey);
+  }
+
+  @Override
+  public Pageable first() {
+    return of(getPageSize(), getSort());
+  }
+
+  /**
+   * Requests the next page, resuming after the last key of this page when known.
+   *
+   * @return a KeysetPageRequest after the last key of this page, or an offset-based {@link PageRequest}
+   * for the next page if this page has not been queried.
+   */
+  @Override
+  public Pageable next() {
+    return (getLastKey() != null ? after(getLastKey())
+      : PageRequest.of(getPageNumber() + 1, getPageSize(), getSort()));
+  }
+
+  /**
+   * Requests the previous page, which cannot be resumed from a key and is therefore offset-based.
+   *
+   * @return an offset-based {@link PageRequest} for the previous page, or the {@link #first() first} page.
+   */
+  @Override
+  public Pageable previous() {
+    return (hasPrevious() ? PageRequest.of(getPageNumber() - 1, getPageSize(), getSort()) : first());
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+
+    if (obj == this) {
+      return true;
+    }
+
+    if (!(obj instanceof KeysetPageRequest)) {
+      return false;
+    }
+
+    KeysetPageRequest that = (KeysetPageRequest) obj;
+
+    return super.equals(that) && this.sort.equals(that.sort) && Objects.equals(this.afterKey, that.afterKey)
+      && Objects.equals(this.lastKey, that.lastKey);
+  }
+
+  @Override
+  public int hashCode() {
+    int hashValue = super.hashCode();
+    hashValue = 37 * hashValue + this.sort.hashCode();
+    hashValue = 37 * hashValue + Objects.hashCode(this.afterKey);
+    hashValue = 37 * hashValue + Objects.hashCode(this.lastKey);
+    return hashValue;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Keyset page request [number: %1$d, size: %2$d, sort: %3$s, after: %4$s]",
+      getPageNumber(), getPageSize(), getSort(), getAfterKey());
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.SelectResults;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The KeysetQueryExecutor class executes OQL queries on a {@link Region} one page at a time, ordered by a unique
+ * key property (e.g. the ID) and limited to the page size, so that only a page of results is materialized,
+ * serialized and sent by the server at once.
+ *
+ * Given a {@link KeysetPageRequest}, the query resumes after the key of the last result of the previous page
+ * ({@literal WHERE this.id > $n ORDER BY this.id LIMIT size}), which with an index on the key costs the same for
+ * every page.  Any other {@link Pageable} is served by limiting the query to the end of the requested page and
+ * skipping the results of the previous pages, which grows with the page number.  One more result than the page size
+ * is queried to determine whether there is a next page.
+ *
+ * The limit is a bind parameter, like the resume key, so every page of a query, whatever its size and number,
+ * shares the same compiled {@link org.apache.geode.cache.query.Query} in the {@link CompiledQueryCache}.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.cache.query.CompiledQueryCache
+ * @see org.spring.data.gemfire.cache.query.KeysetPageRequest
+ * @see org.spring.data.gemfire.cache.query.KeysetSlice
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class KeysetQueryExecutor {
+
+  protected static final String KEYSET_QUERY = "SELECT DISTINCT * FROM %1$s this%2$s ORDER BY this.%3$s %4$s LIMIT $%5$d";
+
+  private final CompiledQueryCache queryCache;
+
+  private final Region<?, ?> region;
+
+  private final String keyProperty;
+
+  public KeysetQueryExecutor(Region<?, ?> region, String keyProperty) {
+    this(CompiledQueryCache.forRegion(region), region, keyProperty);
+  }
+
+  public KeysetQueryExecutor(CompiledQueryCache queryCache, Region<?, ?> region, String keyProperty) {
+
+    Assert.notNull(queryCache, "CompiledQueryCache must not be null");
+    Assert.notNull(region, "Region must not be null");
+    Assert.hasText(keyProperty, "Key property must be specified");
+
+    this.queryCache = queryCache;
+    this.region = region;
+    this.keyProperty = keyProperty;
+  }
+
+  protected CompiledQueryCache getQueryCache() {
+    return this.queryCache;
+  }
+
+  protected Region<?, ?> getRegion() {
+    return this.region;
+  }
+
+  protected String getKeyProperty() {
+    return this.keyProperty;
+  }
+
+  /**
+   * Finds the requested page of the values of the {@link Region} matching the given predicate.
+   *
+   * @param <T> {@link Class} type of the {@link Region} values.
+   * @param predicate OQL predicate on the {@literal this} iterator, which may refer to the bind parameters;
+   * may be {@literal null} to page through all values.
+   * @param pageable requested page; the {@link Sort}, if any, must be on the key property.
+   * @param parameters values of the bind parameters ({@literal $1}, {@literal $2}, ...) of the predicate.
+   * @return a {@link KeysetSlice} of the values.
+   * @throws IllegalArgumentException if the {@link Pageable} is sorted on a property other than the key.
+   */
+  public <T> Slice<T> findSlice(String predicate, Pageable pageable, Object... parameters) {
+
+    Assert.notNull(pageable, "Pageable must not be null");
+    Assert.isTrue(pageable.isPaged(), "Pageable must be paged");
+
+    Object afterKey = (pageable instanceof KeysetPageRequest ? ((KeysetPageRequest) pageable).getAfterKey() : null);
+
+    int skip = (pageable instanceof KeysetPageRequest ? 0 : Math.toIntExact(pageable.getOffset()));
+    int pageSize = pageable.getPageSize();
+
+    Object[] arguments = (afterKey != null ? append(parameters, afterKey) : parameters);
+
+    arguments = append(arguments, skip + pageSize + 1);
+
+    String query = newQuery(predicate, afterKey != null, resolveDirection(pageable.getSort()), parameters.length);
+
+    List<T> results = getQueryCache().<SelectResults<T>>execute(query, arguments).asList();
+
+    List<T> content = new ArrayList<>(results.subList(Math.min(skip, results.size()),
+      Math.min(skip + pageSize, results.size())));
+
+    Object lastKey = (content.isEmpty() ? afterKey
+      : QueryUtils.readProperty(content.get(content.size() - 1), getKeyProperty()));
+
+    Pageable resolvedPageable = (pageable instanceof KeysetPageRequest && !content.isEmpty()
+      ? ((KeysetPageRequest) pageable).withLastKey(lastKey) : pageable);
+
+    return new KeysetSlice<>(content, resolvedPageable, results.size() > skip + pageSize, lastKey);
+  }
+
+  /**
+   * Streams the values of the {@link Region} matching the given predicate in key order, querying the next page
+   * of the given size only once the results of the current page have been consumed.
+   *
+   * @param <T> {@link Class} type of the {@link Region} values.
+   * @param predicate OQL predicate on the {@literal this} iterator; may be {@literal null}.
+   * @param pageSize number of values queried at once.
+   * @param parameters values of the bind parameters of the predicate.
+   * @return a lazy, sequential {@link Stream} of the values.
+   * @see #findSlice(String, Pageable, Object...)
+   */
+  public <T> Stream<T> stream(String predicate, int pageSize, Object... parameters) {
+    return StreamSupport.stream(new KeysetSpliterator<T>(predicate, KeysetPageRequest.of(pageSize), parameters),
+      false);
+  }
+
+  private Object[] append(Object[] parameters, Object parameter) {
+
+    Object[] arguments = Arrays.copyOf(parameters, parameters.length + 1);
+
+    arguments[parameters.length] = parameter;
+
+    return arguments;
+  }
+
+  protected String newQuery(String predicate, boolean resume, Sort.Direction direction, int parameterCount) {
+
+    List<String> conjuncts = new ArrayList<>(2);
+
+    if (StringUtils.hasText(predicate)) {
+      conjuncts.add(String.format("(%s)", predicate));
+    }
+
+    if (resume) {
+      conjuncts.add(String.format("this.%1$s %2$s $%3$d", getKeyProperty(), (direction.isAscending() ? ">" : "<"),
+        parameterCount + 1));
+    }
+
+    String where = (conjuncts.isEmpty() ? "" : " WHERE " + String.join(" AND ", conjuncts));
+
+    int limitParameter = parameterCount + (resume ? 2 : 1);
+
+    return String.format(KEYSET_QUERY, getRegion().getFullPath(), where, getKeyProperty(), direction,
+      limitParameter);
+  }
+
+  protected Sort.Direction resolveDirection(Sort sort) {
+
+    Sort.Direction direction = Sort.Direction.ASC;
+
+    int orderCount = 0;
+
+    for (Sort.Order order : sort) {
+
+      Assert.isTrue(++orderCount == 1 && getKeyProperty().equals(order.getProperty()), () -> String.format(
+        "Keyset queries can only be sorted on the key property [%1$s]; was [%2$s]", getKeyProperty(), sort));
+
+      direction = order.getDirection();
+    }
+
+    return direction;
+  }
+
+  protected class KeysetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private Iterator<T> page = Collections.emptyIterator();
+
+    private final Object[] parameters;
+
+    private Pageable pageable;
+
+    private final String predicate;
+
+    protected KeysetSpliterator(String predicate, Pageable pageable, Object[] parameters) {
+
+      super(Long.MAX_VALUE, Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.ORDERED);
+
+      this.predicate = predicate;
+      this.pageable = pageable;
+      this.parameters = parameters;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+
+      while (!this.page.hasNext()) {
+
+        if (this.pageable.isUnpaged()) {
+          return false;
+        }
+
+        Slice<T> slice = findSlice(this.predicate, this.pageable, this.parameters);
+
+        this.page = slice.iterator();
+        this.pageable = slice.nextPageable();
+      }
+
+      action.accept(this.page.next());
+
+      return true;
+    }
+  }
+}
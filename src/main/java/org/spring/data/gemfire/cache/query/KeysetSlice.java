@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * The KeysetSlice class is a {@link Slice} of keyset query results carrying the key of its last result,
+ * from which the request for the next page is created.
+ *
+ * @author John Blum
+ * @see org.spring.data.gemfire.cache.query.KeysetPageRequest
+ * @see org.springframework.data.domain.Slice
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class KeysetSlice<T> extends SliceImpl<T> {
+
+  private final Object lastKey;
+
+  public KeysetSlice(List<T> content, Pageable pageable, boolean hasNext, Object lastKey) {
+    super(content, pageable, hasNext);
+    this.lastKey = lastKey;
+  }
+
+  /**
+   * Returns the key of the last result of this {@link Slice}, the resume token of the next page.
+   *
+   * @return the key of the last result, or {@literal null} if this {@link Slice} is empty.
+   */
+  public Object getLastKey() {
+    return this.lastKey;
+  }
+
+  @Override
+  public Pageable nextPageable() {
+
+    return (hasNext() ? new KeysetPageRequest(getNumber() + 1, getSize(), getSort(), getLastKey())
+      : Pageable.unpaged());
+  }
+
+  @Override
+  public <U> Slice<U> map(Function<? super T, ? extends U> converter) {
+    return new KeysetSlice<>(getConvertedContent(converter), getPageable(), hasNext(), getLastKey());
+  }
+}
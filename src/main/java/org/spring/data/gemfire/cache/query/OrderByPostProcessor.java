@@ -0,0 +1,172 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The OrderByPostProcessor class splits the ORDER BY clause off of an OQL SELECT statement so the results can be
+ * sorted on the client, with {@link java.util.Comparator Comparators} resolved from the returned {@link Sort},
+ * rather than by the query engine, which requires DISTINCT and resolves the ordered properties of each result
+ * reflectively.
+ *
+ * A statement whose ORDER BY is followed by a LIMIT is left unchanged since the limit must apply to the sorted results,
+ * as is a statement ordered by a property that cannot be sorted on the client (e.g. has no registered
+ * {@link java.util.Comparator}).
+ *
+ * @author John Blum
+ * @see org.springframework.data.domain.Sort
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class OrderByPostProcessor {
+
+  private static final String LIMIT = "LIMIT";
+  private static final String ORDER_BY = "ORDER BY";
+
+  private final Sort sort;
+
+  private final String query;
+
+  private OrderByPostProcessor(String query, Sort sort) {
+    this.query = query;
+    this.sort = sort;
+  }
+
+  /**
+   * Parses the given OQL statement.
+   *
+   * @param query OQL SELECT statement, possibly ending with an ORDER BY clause.
+   * @return an OrderByPostProcessor for the given OQL statement.
+   * @throws IllegalArgumentException if the OQL statement is {@literal null} or empty.
+   */
+  public static OrderByPostProcessor parse(String query) {
+    return parse(query, property -> true);
+  }
+
+  /**
+   * Parses the given OQL statement, leaving the ORDER BY clause in the statement unless every ordered property
+   * can be sorted on the client.
+   *
+   * @param query OQL SELECT statement, possibly ending with an ORDER BY clause.
+   * @param sortable {@link Predicate} determining whether the named property can be sorted on the client.
+   * @return an OrderByPostProcessor for the given OQL statement.
+   * @throws IllegalArgumentException if the OQL statement is {@literal null} or empty.
+   */
+  public static OrderByPostProcessor parse(String query, Predicate<String> sortable) {
+
+    Assert.hasText(query, "Query is required");
+    Assert.notNull(sortable, "Sortable predicate must not be null");
+
+    String normalizedQuery = CompiledQueryCache.normalize(query);
+    String upperCaseQuery = maskLiterals(normalizedQuery).toUpperCase(Locale.ENGLISH);
+
+    int orderByIndex = upperCaseQuery.lastIndexOf(" " + ORDER_BY + " ");
+
+    if (orderByIndex < 0 || upperCaseQuery.indexOf(" " + LIMIT + " ", orderByIndex) > -1) {
+      return new OrderByPostProcessor(normalizedQuery, Sort.unsorted());
+    }
+
+    String orderByClause = normalizedQuery.substring(orderByIndex + ORDER_BY.length() + 2);
+
+    Sort sort = toSort(orderByClause);
+
+    for (Sort.Order order : sort) {
+      if (!sortable.test(order.getProperty())) {
+        return new OrderByPostProcessor(normalizedQuery, Sort.unsorted());
+      }
+    }
+
+    return new OrderByPostProcessor(normalizedQuery.substring(0, orderByIndex), sort);
+  }
+
+  /* (non-Javadoc) - blanks out string literals so keywords inside of them are not matched */
+  private static String maskLiterals(String query) {
+
+    char[] chars = query.toCharArray();
+
+    boolean inLiteral = false;
+
+    for (int index = 0; index < chars.length; index++) {
+      if (chars[index] == '\'') {
+        inLiteral = !inLiteral;
+      }
+      else if (inLiteral) {
+        chars[index] = '_';
+      }
+    }
+
+    return new String(chars);
+  }
+
+  /* (non-Javadoc) - converts "this.lastName ASC, firstName DESC" into Sort orders, dropping the iterator alias */
+  private static Sort toSort(String orderByClause) {
+
+    List<Sort.Order> orders = new ArrayList<>();
+
+    for (String expression : StringUtils.commaDelimitedListToStringArray(orderByClause)) {
+
+      String[] tokens = StringUtils.tokenizeToStringArray(expression, " ");
+
+      Assert.isTrue(tokens.length == 1 || tokens.length == 2,
+        String.format("Invalid ORDER BY expression [%s]", expression));
+
+      String property = tokens[0].substring(tokens[0].lastIndexOf('.') + 1);
+
+      boolean descending = (tokens.length == 2 && "DESC".equalsIgnoreCase(tokens[1]));
+
+      orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+    }
+
+    return Sort.by(orders);
+  }
+
+  /**
+   * Returns the OQL statement to execute, without the ORDER BY clause if the results are to be sorted on the client.
+   */
+  public String getQuery() {
+    return this.query;
+  }
+
+  /**
+   * Returns the {@link Sort} order of the ORDER BY clause removed from the OQL statement.
+   *
+   * @return the {@link Sort} to apply to the results; {@link Sort#unsorted()} if the OQL statement was left unchanged.
+   */
+  public Sort getSort() {
+    return this.sort;
+  }
+
+  /**
+   * Determines whether the results must be sorted on the client.
+   */
+  public boolean isSorted() {
+    return this.sort.isSorted();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("{ query = %1$s, sort = %2$s }", getQuery(), getSort());
+  }
+}
@@ -0,0 +1,796 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.geode.CopyException;
+import org.apache.geode.CopyHelper;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.InterestPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionEvent;
+import org.apache.geode.cache.RegionService;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.query.CqAttributesFactory;
+import org.apache.geode.cache.query.CqEvent;
+import org.apache.geode.cache.query.CqException;
+import org.apache.geode.cache.query.CqListener;
+import org.apache.geode.cache.query.CqQuery;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.RegionNotFoundException;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.util.CacheListenerAdapter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The QueryResultCache class caches the results of OQL queries per query and bind parameter values, invalidating
+ * only the cached results affected by a change to the queried Region.
+ *
+ * Every cached query is watched the way a continuous query (CQ) is evaluated on the server: the WHERE clause of the
+ * query is evaluated against the old and the new value of each entry event on the Region, and the cached results are
+ * invalidated if either value matches, i.e. if the entry was or is part of the results.  On a peer, the predicates
+ * are evaluated by a {@link org.apache.geode.cache.CacheListener} on each watched Region, binding the event value as
+ * the iterated collection ({@literal SELECT * FROM $n x WHERE <predicate>}).  A listener only observes every change
+ * to a replicated Region, or to a partitioned Region subscribed to all events ({@link InterestPolicy#ALL}); the
+ * listener on any other Region only receives the operations originating on, or the buckets hosted by, this member,
+ * so the results of queries on such Regions are not cached.
+ *
+ * On a client, the query is watched by a CQ registered with the server through the pool of the client Region.
+ * Since CQs do not support bind parameters, the bind parameter values are inlined in the CQ as OQL literals; the
+ * results of queries with values that have no literal form (e.g. enums), or that a CQ cannot express (e.g. joins),
+ * are not cached, and neither are those of queries on Regions of pools without subscriptions enabled.
+ *
+ * The query (and the Region it queries) is identified while the query is executed, with {@link #watch(String,
+ * Object...)}, which registers the watch before the query runs so that no change is missed.  Results of queries that
+ * cannot be watched (e.g. queries on a Region collection such as {@literal /Users.entrySet}) or having more than
+ * the maximum number of results are not cached.  When the cache is full the least recently used results are evicted.
+ *
+ * The results are cached as copies, and returned as copies, of the values returned by the query (with
+ * {@link CopyHelper#copy(Object)}), so that callers modifying the returned entities do not modify the cached results
+ * or each other's results.  Results that cannot be copied are not cached.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.util.CacheListenerAdapter
+ * @see org.spring.data.gemfire.cache.query.CacheableQuery
+ * @see org.spring.data.gemfire.cache.query.CompiledQueryCache
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class QueryResultCache implements DisposableBean {
+
+  protected static final int DEFAULT_MAXIMUM_RESULTS = 1000;
+  protected static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+  private static final Pattern QUERY_PATTERN = Pattern.compile(
+    "^\\s*(?:<[^>]*>\\s*)*SELECT\\s+.+?\\s+FROM\\s+(/[\\w/]+)(.*?)(?:\\s+WHERE\\s+(.+?))?"
+      + "(?:\\s+(?:GROUP\\s+BY|ORDER\\s+BY)\\s+.*?)?(?:\\s+LIMIT\\s+\\S+)?\\s*$",
+    Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+  private static final String MATCH_QUERY = "SELECT * FROM $%1$d%2$s%3$s";
+
+  private static final Object UNCACHEABLE = new Object();
+
+  private final int maximumSize;
+
+  private final AtomicLong clock = new AtomicLong(0L);
+
+  private final Map<Key, CachedResult> results = new ConcurrentHashMap<>();
+
+  private final Map<String, RegionWatch> regionWatches = new ConcurrentHashMap<>();
+
+  private final RegionService regionService;
+
+  private final Statistics statistics = new Statistics();
+
+  private final ThreadLocal<CachedResult> executingResult = new ThreadLocal<>();
+
+  /**
+   * Builds the key of the results of a query from the given components, such as the query method
+   * and its arguments; array components are compared by their elements.
+   *
+   * @param components components of the key.
+   * @return the key.
+   */
+  public static Object key(Object... components) {
+    return new Key(components);
+  }
+
+  public QueryResultCache(RegionService regionService) {
+    this(regionService, DEFAULT_MAXIMUM_SIZE);
+  }
+
+  public QueryResultCache(RegionService regionService, int maximumSize) {
+
+    Assert.notNull(regionService, "RegionService must not be null");
+    Assert.isTrue(maximumSize > 0, "Maximum size must be greater than 0");
+
+    this.regionService = regionService;
+    this.maximumSize = maximumSize;
+  }
+
+  protected int getMaximumSize() {
+    return this.maximumSize;
+  }
+
+  protected RegionService getRegionService() {
+    return this.regionService;
+  }
+
+  public Statistics getStatistics() {
+    return this.statistics;
+  }
+
+  public int size() {
+    return this.results.size();
+  }
+
+  /**
+   * Returns the cached results for the given key, or executes the query and caches its results.
+   *
+   * The query must call {@link #watch(String, Object...)} with the OQL statement and bind parameters it executes,
+   * otherwise its results are not cached.
+   *
+   * @param <T> {@link Class} type of the results: a {@link List}, a {@link Set} or a single value.
+   * @param key key of the results, see {@link #key(Object...)}.
+   * @param maximumResults maximum number of results cached.
+   * @param query {@link Supplier} executing the query.
+   * @return the (cached) query results; cached results are returned as copies.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T execute(Object key, int maximumResults, Supplier<T> query) {
+
+    Assert.isInstanceOf(Key.class, key, "Key must be created with QueryResultCache.key(..)");
+
+    CachedResult cachedResult = this.results.get(key);
+
+    if (cachedResult != null && cachedResult.isCompleted()) {
+      this.statistics.hits.increment();
+      cachedResult.lastAccess = this.clock.incrementAndGet();
+      return (T) copy(cachedResult.value);
+    }
+
+    this.statistics.misses.increment();
+
+    CachedResult executingResult = new CachedResult((Key) key);
+    CachedResult previousExecutingResult = this.executingResult.get();
+
+    this.results.put(executingResult.key, executingResult);
+    this.executingResult.set(executingResult);
+
+    T value;
+
+    try {
+      value = query.get();
+    }
+    catch (RuntimeException e) {
+      unwatch(executingResult);
+      throw e;
+    }
+    finally {
+      this.executingResult.set(previousExecutingResult);
+    }
+
+    Object cachedValue = (executingResult.isWatched() && isCacheable(value, maximumResults) ? copyIfPossible(value)
+      : UNCACHEABLE);
+
+    if (cachedValue != UNCACHEABLE) {
+
+      executingResult.complete(cachedValue, this.clock.incrementAndGet());
+
+      // the results were invalidated, or superseded by a concurrent execution, while executing the query
+      if (this.results.get(executingResult.key) != executingResult) {
+        unwatch(executingResult);
+      }
+      else {
+        evictIfNecessary();
+      }
+    }
+    else {
+      this.statistics.uncacheable.increment();
+      unwatch(executingResult);
+    }
+
+    return value;
+  }
+
+  /**
+   * Watches the Region queried by the given OQL statement for changes affecting the results of the query executed
+   * by the current thread in {@link #execute(Object, int, Supplier)}; has no effect outside of such an execution.
+   *
+   * @param queryString OQL statement about to be executed.
+   * @param parameters values of the bind parameters of the query.
+   */
+  public void watch(String queryString, Object... parameters) {
+
+    CachedResult executingResult = this.executingResult.get();
+
+    if (executingResult != null && !executingResult.isWatched() && queryString != null) {
+
+      Matcher queryMatcher = QUERY_PATTERN.matcher(queryString);
+
+      if (queryMatcher.find() && !queryMatcher.group(2).startsWith(".")) {
+
+        Region<?, ?> region = getRegionService().getRegion(queryMatcher.group(1));
+
+        Object[] arguments = (parameters != null ? parameters : new Object[0]);
+
+        String predicate = queryMatcher.group(3);
+
+        if (isClientRegion(region)) {
+
+          String continuousQuery = toContinuousQuery(queryMatcher.group(1), queryMatcher.group(2), predicate,
+            arguments);
+
+          if (continuousQuery != null) {
+            executingResult.continuousQuery = registerContinuousQuery(region, continuousQuery, executingResult);
+          }
+        }
+        else if (isWatchable(region)) {
+
+          executingResult.matchQuery = (predicate != null ? String.format(MATCH_QUERY, arguments.length + 1,
+            queryMatcher.group(2), " WHERE " + predicate) : null);
+
+          executingResult.arguments = Arrays.copyOf(arguments, arguments.length + 1);
+
+          executingResult.regionWatch = this.regionWatches.computeIfAbsent(region.getFullPath(),
+            regionPath -> new RegionWatch(region));
+
+          executingResult.regionWatch.cachedResults.add(executingResult);
+        }
+
+        if (executingResult.isWatched() && this.results.get(executingResult.key) != executingResult) {
+          unwatch(executingResult);
+        }
+      }
+    }
+  }
+
+  /**
+   * Determines whether the {@link Region} is a client Region, i.e. has a pool of connections to the servers.
+   *
+   * @param region queried {@link Region}.
+   * @return a boolean value indicating whether the {@link Region} is a client Region.
+   */
+  protected boolean isClientRegion(Region<?, ?> region) {
+    return (region != null && StringUtils.hasText(region.getAttributes().getPoolName()));
+  }
+
+  /**
+   * Determines whether the (peer) {@link Region} notifies this member of every change to its entries, i.e. it is
+   * replicated, or it is partitioned and subscribes to the events of all buckets.
+   *
+   * @param region queried {@link Region}.
+   * @return a boolean value indicating whether the results of queries on the {@link Region} can be cached.
+   */
+  protected boolean isWatchable(Region<?, ?> region) {
+
+    DataPolicy dataPolicy = (region != null ? region.getAttributes().getDataPolicy() : null);
+
+    return (dataPolicy != null && (dataPolicy.withReplication() || (dataPolicy.withPartitioning()
+      && region.getAttributes().getSubscriptionAttributes().getInterestPolicy().isAll())));
+  }
+
+  /**
+   * Registers a CQ invalidating the given results on every event of the client {@link Region} matching the query.
+   *
+   * @param region queried client {@link Region}.
+   * @param continuousQuery OQL statement of the CQ.
+   * @param cachedResult results watched by the CQ.
+   * @return the executing {@link CqQuery}, or {@literal null} if the CQ could not be registered, e.g. because
+   * the pool of the {@link Region} does not have subscriptions enabled.
+   */
+  protected CqQuery registerContinuousQuery(Region<?, ?> region, String continuousQuery, CachedResult cachedResult) {
+
+    RegionService regionService = region.getRegionService();
+
+    QueryService queryService = (regionService instanceof ClientCache
+      ? ((ClientCache) regionService).getQueryService(region.getAttributes().getPoolName())
+      : regionService.getQueryService());
+
+    CqAttributesFactory cqAttributesFactory = new CqAttributesFactory();
+
+    cqAttributesFactory.addCqListener(new ContinuousQueryWatch(cachedResult));
+
+    CqQuery cq = null;
+
+    try {
+      cq = queryService.newCq(continuousQuery, cqAttributesFactory.create());
+      cq.execute();
+      return cq;
+    }
+    catch (CqException | RegionNotFoundException | RuntimeException e) {
+      close(cq);
+      return null;
+    }
+  }
+
+  /**
+   * Converts the query into a CQ, inlining the bind parameter values as OQL literals.
+   *
+   * @param regionPath path of the queried Region.
+   * @param iterators iterator definitions following the Region path in the FROM clause of the query.
+   * @param predicate WHERE clause of the query, or {@literal null} if the query has no WHERE clause.
+   * @param arguments values of the bind parameters of the query.
+   * @return the OQL statement of the CQ, or {@literal null} if the query cannot be expressed as a CQ.
+   */
+  static String toContinuousQuery(String regionPath, String iterators, String predicate, Object[] arguments) {
+
+    // CQs only support a single iterator over the Region
+    if (iterators.contains(",")) {
+      return null;
+    }
+
+    StringBuilder continuousQuery = new StringBuilder("SELECT * FROM ").append(regionPath).append(iterators);
+
+    if (predicate != null) {
+
+      continuousQuery.append(" WHERE ");
+
+      boolean quoted = false;
+
+      for (int index = 0; index < predicate.length(); index++) {
+
+        char character = predicate.charAt(index);
+
+        if (character == '\'') {
+          quoted = !quoted;
+        }
+
+        if (!quoted && character == '$' && index + 1 < predicate.length()
+            && Character.isDigit(predicate.charAt(index + 1))) {
+
+          int end = index + 1;
+
+          while (end < predicate.length() && Character.isDigit(predicate.charAt(end))) {
+            end++;
+          }
+
+          int parameter = Integer.parseInt(predicate.substring(index + 1, end));
+
+          String literal = (parameter > 0 && parameter <= arguments.length ? toLiteral(arguments[parameter - 1])
+            : null);
+
+          if (literal == null) {
+            return null;
+          }
+
+          continuousQuery.append(literal);
+          index = end - 1;
+        }
+        else {
+          continuousQuery.append(character);
+        }
+      }
+    }
+
+    return continuousQuery.toString();
+  }
+
+  /**
+   * Converts the value of a bind parameter into an OQL literal.
+   *
+   * @param value value of the bind parameter.
+   * @return the OQL literal, or {@literal null} if the value has no literal form.
+   */
+  static String toLiteral(Object value) {
+
+    if (value == null) {
+      return "NULL";
+    }
+    else if (value instanceof String) {
+      return "'" + ((String) value).replace("'", "''") + "'";
+    }
+    else if (value instanceof Character) {
+      return "CHAR '" + (value.equals('\'') ? "''" : value) + "'";
+    }
+    else if (value instanceof Boolean || value instanceof Integer || value instanceof Short
+        || value instanceof Byte) {
+
+      return String.valueOf(value);
+    }
+    else if (value instanceof Long) {
+      return value + "L";
+    }
+    else if (value instanceof Float || value instanceof Double) {
+      double doubleValue = ((Number) value).doubleValue();
+      return (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue) ? null
+        : value + (value instanceof Float ? "F" : "D"));
+    }
+    else if (value instanceof java.sql.Date) {
+      return "DATE '" + value + "'";
+    }
+    else if (value instanceof java.sql.Time) {
+      return "TIME '" + value + "'";
+    }
+    else if (value instanceof java.sql.Timestamp) {
+      return "TIMESTAMP '" + value + "'";
+    }
+    else if (value instanceof Collection) {
+
+      StringBuilder literal = new StringBuilder("SET(");
+
+      for (Object element : (Collection<?>) value) {
+
+        String elementLiteral = toLiteral(element);
+
+        if (elementLiteral == null) {
+          return null;
+        }
+
+        literal.append(literal.length() > 4 ? ", " : "").append(elementLiteral);
+      }
+
+      return literal.append(")").toString();
+    }
+
+    return null;
+  }
+
+  private boolean isCacheable(Object value, int maximumResults) {
+    return (value instanceof List || value instanceof Set ? ((Collection<?>) value).size() <= maximumResults
+      : !(value instanceof Collection));
+  }
+
+  private Object copy(Object value) {
+
+    if (value instanceof List || value instanceof Set) {
+
+      Collection<Object> copy = (value instanceof List ? new ArrayList<>(((List<?>) value).size())
+        : new LinkedHashSet<>(((Set<?>) value).size()));
+
+      for (Object element : (Collection<?>) value) {
+        copy.add(CopyHelper.copy(element));
+      }
+
+      return copy;
+    }
+
+    return CopyHelper.copy(value);
+  }
+
+  /* (non-Javadoc) - values that cannot be copied are not cached */
+  private Object copyIfPossible(Object value) {
+
+    try {
+      return copy(value);
+    }
+    catch (CopyException e) {
+      return UNCACHEABLE;
+    }
+  }
+
+  private void evictIfNecessary() {
+
+    while (this.results.size() > getMaximumSize()) {
+
+      CachedResult leastRecentlyUsed = null;
+
+      for (CachedResult cachedResult : this.results.values()) {
+        if (leastRecentlyUsed == null || cachedResult.lastAccess < leastRecentlyUsed.lastAccess) {
+          leastRecentlyUsed = cachedResult;
+        }
+      }
+
+      if (leastRecentlyUsed != null && unwatch(leastRecentlyUsed)) {
+        this.statistics.evictions.increment();
+      }
+    }
+  }
+
+  private void invalidate(CachedResult cachedResult) {
+    if (unwatch(cachedResult)) {
+      this.statistics.invalidations.increment();
+    }
+  }
+
+  private boolean unwatch(CachedResult cachedResult) {
+
+    if (cachedResult.regionWatch != null) {
+      cachedResult.regionWatch.cachedResults.remove(cachedResult);
+    }
+
+    boolean removed = this.results.remove(cachedResult.key, cachedResult);
+
+    close(cachedResult.continuousQuery);
+
+    return removed;
+  }
+
+  /* (non-Javadoc) - the CQ of results invalidated while executing the query is closed more than once */
+  private void close(CqQuery cq) {
+
+    try {
+      if (cq != null && !cq.isClosed()) {
+        cq.close();
+      }
+    }
+    catch (CqException | RuntimeException ignore) {
+    }
+  }
+
+  /**
+   * Invalidates all cached query results.
+   */
+  public void clear() {
+    this.results.values().forEach(this::invalidate);
+  }
+
+  /**
+   * Invalidates all cached query results and stops watching the Regions.
+   */
+  @Override
+  public void destroy() {
+
+    for (RegionWatch regionWatch : this.regionWatches.values()) {
+      if (!regionWatch.region.isDestroyed()) {
+        regionWatch.region.getAttributesMutator().removeCacheListener(regionWatch);
+      }
+    }
+
+    this.regionWatches.clear();
+    clear();
+  }
+
+  private static final class Key {
+
+    private final Object[] components;
+
+    private final int hashCode;
+
+    private Key(Object[] components) {
+      this.components = components;
+      this.hashCode = Arrays.deepHashCode(components);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return (obj == this || (obj instanceof Key && Arrays.deepEquals(this.components, ((Key) obj).components)));
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+  }
+
+  private static final class CachedResult {
+
+    private volatile boolean completed;
+
+    private volatile CqQuery continuousQuery;
+
+    private final Key key;
+
+    private volatile long lastAccess;
+
+    private Object[] arguments;
+
+    private volatile Object value;
+
+    private volatile RegionWatch regionWatch;
+
+    private String matchQuery;
+
+    private CachedResult(Key key) {
+      this.key = key;
+    }
+
+    private boolean isCompleted() {
+      return this.completed;
+    }
+
+    private boolean isWatched() {
+      return (this.regionWatch != null || this.continuousQuery != null);
+    }
+
+    private void complete(Object value, long lastAccess) {
+      this.value = value;
+      this.lastAccess = lastAccess;
+      this.completed = true;
+    }
+  }
+
+  /**
+   * {@link CqListener} invalidating the results of a query on a client Region on every event of its CQ,
+   * i.e. on every change to an entry that was or is part of the results.
+   */
+  protected class ContinuousQueryWatch implements CqListener {
+
+    private final CachedResult cachedResult;
+
+    protected ContinuousQueryWatch(CachedResult cachedResult) {
+      this.cachedResult = cachedResult;
+    }
+
+    @Override
+    public void onEvent(CqEvent event) {
+      invalidate(this.cachedResult);
+    }
+
+    @Override
+    public void onError(CqEvent event) {
+      invalidate(this.cachedResult);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  /**
+   * {@link org.apache.geode.cache.CacheListener} evaluating the predicates of the cached queries of a Region
+   * against the values of each entry event.
+   */
+  protected class RegionWatch extends CacheListenerAdapter<Object, Object> {
+
+    private final CompiledQueryCache queryCache;
+
+    private final Region<Object, Object> region;
+
+    private final Set<CachedResult> cachedResults = ConcurrentHashMap.newKeySet();
+
+    @SuppressWarnings("unchecked")
+    protected RegionWatch(Region<?, ?> region) {
+      this.region = (Region<Object, Object>) region;
+      this.queryCache = CompiledQueryCache.forRegion(region);
+      this.region.getAttributesMutator().addCacheListener(this);
+    }
+
+    @Override
+    public void afterCreate(EntryEvent<Object, Object> event) {
+      onEvent(event);
+    }
+
+    @Override
+    public void afterDestroy(EntryEvent<Object, Object> event) {
+      onEvent(event);
+    }
+
+    @Override
+    public void afterInvalidate(EntryEvent<Object, Object> event) {
+      onEvent(event);
+    }
+
+    @Override
+    public void afterUpdate(EntryEvent<Object, Object> event) {
+      onEvent(event);
+    }
+
+    @Override
+    public void afterRegionClear(RegionEvent<Object, Object> event) {
+      this.cachedResults.forEach(QueryResultCache.this::invalidate);
+    }
+
+    @Override
+    public void afterRegionDestroy(RegionEvent<Object, Object> event) {
+      regionWatches.remove(this.region.getFullPath(), this);
+      this.cachedResults.forEach(QueryResultCache.this::invalidate);
+    }
+
+    @Override
+    public void afterRegionInvalidate(RegionEvent<Object, Object> event) {
+      this.cachedResults.forEach(QueryResultCache.this::invalidate);
+    }
+
+    protected void onEvent(EntryEvent<Object, Object> event) {
+
+      boolean oldValueUnknown = (event.getOperation().isUpdate() && !event.isOldValueAvailable());
+
+      for (CachedResult cachedResult : this.cachedResults) {
+        if (oldValueUnknown || matches(cachedResult, event.getOldValue())
+            || matches(cachedResult, event.getNewValue())) {
+
+          invalidate(cachedResult);
+        }
+      }
+    }
+
+    protected boolean matches(CachedResult cachedResult, Object value) {
+
+      if (cachedResult.matchQuery == null) {
+        return true;
+      }
+      else if (value == null) {
+        return false;
+      }
+
+      statistics.evaluations.increment();
+
+      Object[] arguments = cachedResult.arguments.clone();
+
+      arguments[arguments.length - 1] = Collections.singletonList(value);
+
+      try {
+        SelectResults<?> results = this.queryCache.execute(cachedResult.matchQuery, arguments);
+        return !results.isEmpty();
+      }
+      catch (RuntimeException e) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * The Statistics class records the cache hits and misses along with the number of invalidated and evicted results,
+   * of results that could not be cached and of predicate evaluations.
+   */
+  public static class Statistics {
+
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder uncacheable = new LongAdder();
+
+    public long getEvaluations() {
+      return this.evaluations.sum();
+    }
+
+    public long getEvictions() {
+      return this.evictions.sum();
+    }
+
+    public long getHits() {
+      return this.hits.sum();
+    }
+
+    public double getHitRate() {
+
+      long hits = getHits();
+      long requests = (hits + getMisses());
+
+      return (requests > 0 ? (double) hits / requests : 0.0d);
+    }
+
+    public long getInvalidations() {
+      return this.invalidations.sum();
+    }
+
+    public long getMisses() {
+      return this.misses.sum();
+    }
+
+    public long getUncacheable() {
+      return this.uncacheable.sum();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("{ hits = %1$d, misses = %2$d, invalidations = %3$d, evictions = %4$d,"
+          + " uncacheable = %5$d, evaluations = %6$d }", getHits(), getMisses(), getInvalidations(),
+        getEvictions(), getUncacheable(), getEvaluations());
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import org.apache.geode.pdx.PdxInstance;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+/**
+ * The QueryUtils class is a utility class for working with the results of GemFire OQL queries and Functions.
+ *
+ * @author John Blum
+ * @see org.apache.geode.pdx.PdxInstance
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public abstract class QueryUtils {
+
+  /**
+   * Reads the named property of the given Region value, which may be a {@link PdxInstance} when the cache
+   * is configured to read PDX serialized values.
+   *
+   * @param value Region value.
+   * @param propertyName name of the property to read.
+   * @return the value of the property, or {@literal null} if the value has no such property.
+   */
+  public static Object readProperty(Object value, String propertyName) {
+
+    if (value instanceof PdxInstance) {
+      return ((PdxInstance) value).getField(propertyName);
+    }
+    else if (value != null) {
+      BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(value);
+      return (beanWrapper.isReadableProperty(propertyName) ? beanWrapper.getPropertyValue(propertyName) : null);
+    }
+
+    return null;
+  }
+}
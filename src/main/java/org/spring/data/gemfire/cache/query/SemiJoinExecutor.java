@@ -0,0 +1,211 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.geode.GemFireException;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.cache.query.SelectResults;
+import org.spring.data.gemfire.cache.execute.JoinFunctions;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * The SemiJoinExecutor class executes an equi-join of two Regions selecting the distinct values of one Region
+ * having at least one matching value in the other, such as {@literal SELECT DISTINCT c FROM /Customers c,
+ * /Accounts a WHERE c.id = a.customerId}.
+ *
+ * Evaluated by the query engine, the join compares every pair of values, O(N*M), and is only supported on
+ * partitioned Regions inside a Function.  When the Regions are colocated partitioned Regions routed by their join
+ * properties, the join is instead executed with the {@link JoinFunctions#COLOCATED_SEMI_JOIN_FUNCTION_ID colocated
+ * semi-join Function}, which joins each bucket with its colocated bucket on the members hosting them, in parallel.
+ * Otherwise the join is executed as a hash join by the caller: the distinct join values of the other Region are
+ * queried and the values of the Region matching them are selected with a single {@literal IN} query.  Either way
+ * the join is O(N+M).
+ *
+ * Colocation alone does not guarantee that matching values are in buckets with the same ID; that only holds when
+ * the join property of each Region is its routing object, i.e. the key or the value returned by its
+ * {@link org.apache.geode.cache.PartitionResolver}.  As the routing of a Region cannot be inspected, the caller
+ * declares it with {@link #setRoutedByJoinProperties(boolean)}.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.partition.PartitionRegionHelper#getColocatedRegions(Region)
+ * @see org.spring.data.gemfire.cache.execute.JoinFunctions
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class SemiJoinExecutor {
+
+  private static final Pattern PROPERTY_PATTERN = Pattern.compile("[A-Za-z_][\\w.]*");
+
+  protected static final String JOIN_VALUES_QUERY = "SELECT DISTINCT r.%1$s FROM %2$s r";
+  protected static final String LIMIT_CLAUSE = " LIMIT %d";
+  protected static final String SEMI_JOIN_QUERY = "SELECT * FROM %1$s l WHERE l.%2$s IN $1";
+
+  private final GemfireTemplate joinedTemplate;
+  private final GemfireTemplate template;
+
+  private final String joinedProperty;
+  private final String property;
+
+  private volatile boolean routedByJoinProperties;
+
+  /**
+   * Constructs a SemiJoinExecutor selecting the values of the given {@link Region} whose property value matches
+   * the property value of at least one value of the joined {@link Region}.
+   *
+   * @param region {@link Region} whose values are selected.
+   * @param property join property of the values of the {@link Region}.
+   * @param joinedRegion joined {@link Region}.
+   * @param joinedProperty join property of the values of the joined {@link Region}.
+   */
+  public SemiJoinExecutor(Region<?, ?> region, String property, Region<?, ?> joinedRegion, String joinedProperty) {
+
+    Assert.notNull(region, "Region must not be null");
+    Assert.notNull(joinedRegion, "Joined Region must not be null");
+    Assert.isTrue(PROPERTY_PATTERN.matcher(String.valueOf(property)).matches(), () -> String.format(
+      "Property [%s] is not valid", property));
+    Assert.isTrue(PROPERTY_PATTERN.matcher(String.valueOf(joinedProperty)).matches(), () -> String.format(
+      "Joined property [%s] is not valid", joinedProperty));
+
+    this.template = new GemfireTemplate(region);
+    this.property = property;
+    this.joinedTemplate = new GemfireTemplate(joinedRegion);
+    this.joinedProperty = joinedProperty;
+  }
+
+  protected Region<?, ?> getJoinedRegion() {
+    return this.joinedTemplate.getRegion();
+  }
+
+  protected Region<?, ?> getRegion() {
+    return this.template.getRegion();
+  }
+
+  /**
+   * Declares whether the join property of each Region is its routing object, so that matching values of
+   * colocated Regions are stored in buckets with the same ID.  Defaults to {@literal false}.
+   *
+   * @param routedByJoinProperties whether both Regions are partitioned on their join property.
+   */
+  public void setRoutedByJoinProperties(boolean routedByJoinProperties) {
+    this.routedByJoinProperties = routedByJoinProperties;
+  }
+
+  protected boolean isRoutedByJoinProperties() {
+    return this.routedByJoinProperties;
+  }
+
+  /**
+   * Determines whether the joined {@link Region} is colocated with the {@link Region}, both are
+   * {@link #setRoutedByJoinProperties(boolean) routed by their join properties} and the colocated semi-join
+   * Function is registered, in which case the join is executed on the members hosting the data.
+   *
+   * @return a boolean value indicating whether the join is executed on colocated buckets.
+   */
+  public boolean isColocated() {
+    return (isRoutedByJoinProperties()
+      && PartitionRegionHelper.isPartitionedRegion(getRegion())
+      && PartitionRegionHelper.getColocatedRegions(getRegion()).containsKey(getJoinedRegion().getFullPath())
+      && FunctionService.isRegistered(JoinFunctions.COLOCATED_SEMI_JOIN_FUNCTION_ID));
+  }
+
+  /**
+   * Executes the join.
+   *
+   * @param <T> {@link Class} type of the values of the {@link Region}.
+   * @return the distinct values of the {@link Region} having a match in the joined {@link Region}.
+   */
+  public <T> List<T> execute() {
+    return execute(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Executes the join, returning at most the given number of values.
+   *
+   * @param <T> {@link Class} type of the values of the {@link Region}.
+   * @param limit maximum number of values to return.
+   * @return the distinct values of the {@link Region} having a match in the joined {@link Region}.
+   * @throws IllegalArgumentException if the limit is less than 1.
+   */
+  public <T> List<T> execute(int limit) {
+
+    Assert.isTrue(limit > 0, "Limit must be greater than 0");
+
+    return (isColocated() ? executeColocated(limit) : executeHashJoin(limit));
+  }
+
+  @SuppressWarnings("unchecked")
+  protected <T> List<T> executeColocated(int limit) {
+
+    Set<T> results = new LinkedHashSet<>();
+
+    try {
+      Object memberResults = FunctionService.onRegion(getRegion())
+        .setArguments(new Object[] { this.property, getJoinedRegion().getFullPath(), this.joinedProperty, limit })
+        .execute(JoinFunctions.COLOCATED_SEMI_JOIN_FUNCTION_ID)
+        .getResult();
+
+      for (Object memberResult : (Collection<Object>) memberResults) {
+        if (memberResult instanceof Throwable) {
+          throw new IllegalStateException(String.format("Failed to join Region [%1$s] with Region [%2$s]",
+            getRegion().getFullPath(), getJoinedRegion().getFullPath()), (Throwable) memberResult);
+        }
+        else if (memberResult instanceof Collection) {
+          results.addAll((Collection<T>) memberResult);
+        }
+      }
+    }
+    catch (GemFireException e) {
+      throw this.template.convertGemFireAccessException(e);
+    }
+
+    return results.stream().limit(limit).collect(Collectors.toList());
+  }
+
+  protected <T> List<T> executeHashJoin(int limit) {
+
+    SelectResults<Object> joinValues = this.joinedTemplate.find(String.format(JOIN_VALUES_QUERY,
+      this.joinedProperty, getJoinedRegion().getFullPath()));
+
+    Set<Object> joinValueSet = new HashSet<>(joinValues.asList());
+
+    joinValueSet.remove(null);
+
+    if (joinValueSet.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    String semiJoinQuery = String.format(SEMI_JOIN_QUERY, getRegion().getFullPath(), this.property)
+      + (limit < Integer.MAX_VALUE ? String.format(LIMIT_CLAUSE, limit) : "");
+
+    SelectResults<T> results = this.template.find(semiJoinQuery, joinValueSet);
+
+    return new ArrayList<>(new LinkedHashSet<>(results.asList()));
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.SelectResults;
+import org.spring.data.gemfire.app.beans.Session;
+import org.spring.data.gemfire.cache.execute.SessionFunctions;
+import org.springframework.data.gemfire.GemfireQueryException;
+import org.springframework.util.Assert;
+
+/**
+ * The SessionExpirationSweeper class removes expired {@link Session Sessions} from the Sessions {@link Region}
+ * in batches, on the members hosting them.
+ *
+ * Per-entry idle-timeout expiration schedules and tracks an expiry task for every entry, which at millions of
+ * Sessions costs both heap and CPU, and destroys expired entries one at a time.  Instead, the sweeper is run
+ * periodically (e.g. by a {@link java.util.concurrent.ScheduledExecutorService}) on one member and executes
+ * the {@link SessionFunctions#SWEEP_EXPIRED_SESSIONS_FUNCTION_ID sweep Function} on the members hosting
+ * the Sessions.  The Function is optimized for write, so each member queries its local primary data, i.e. the data
+ * set of the Function, with {@link Query#execute(RegionFunctionContext, Object[])} for the expiration candidates,
+ * using the {@link SessionIndexes#getLastAccessedTimeIndexName() lastAccessedTime} and
+ * {@link SessionIndexes#getMaxInactiveIntervalIndexName() maxInactiveIntervalInSeconds} indexes, and removes
+ * the expired Sessions with {@link Region#removeAll(java.util.Collection)} in batches, so that the removal of each
+ * batch is a single message per bucket to the redundant copies of the bucket.
+ *
+ * The candidates are the Sessions last accessed before the {@link #setMaxInactiveIntervalInSeconds(int) default
+ * max inactive interval} along with the (few) Sessions having another interval, whose expiration is checked
+ * individually.  When the sweep Function is not registered, or the Region is not partitioned, the candidates
+ * are found with a single query on the Region.
+ *
+ * Expired Sessions are re-checked immediately before each batch is removed, so that a Session accessed
+ * during the sweep is kept.
+ *
+ * @author John Blum
+ * @see java.lang.Runnable
+ * @see org.apache.geode.cache.Region#removeAll(java.util.Collection)
+ * @see org.apache.geode.cache.partition.PartitionRegionHelper#getLocalPrimaryData(Region)
+ * @see org.apache.geode.cache.query.Query#execute(RegionFunctionContext, Object[])
+ * @see org.spring.data.gemfire.app.beans.Session
+ * @see org.spring.data.gemfire.cache.execute.SessionFunctions
+ * @see org.spring.data.gemfire.cache.session.SessionIndexes
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class SessionExpirationSweeper implements Runnable {
+
+  protected static final int DEFAULT_BATCH_SIZE = 500;
+
+  protected static final String EXPIRATION_CANDIDATES_QUERY =
+    "SELECT * FROM %s s WHERE s.lastAccessedTime <= $1 OR s.maxInactiveIntervalInSeconds <> $2";
+
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private int maxInactiveIntervalInSeconds = Session.DEFAULT_MAX_INACTIVE_INTERVAL_IN_SECONDS;
+
+  private final LongAdder expired = new LongAdder();
+  private final LongAdder scanned = new LongAdder();
+  private final LongAdder sweeps = new LongAdder();
+
+  private final Region<String, Session> sessions;
+
+  public SessionExpirationSweeper(Region<String, Session> sessions) {
+    Assert.notNull(sessions, "Sessions Region must not be null");
+    this.sessions = sessions;
+  }
+
+  protected Region<String, Session> getSessions() {
+    return this.sessions;
+  }
+
+  /**
+   * Sets the maximum number of expired Sessions removed with a single {@link Region#removeAll} operation.
+   *
+   * @param batchSize maximum number of Sessions removed at once.
+   */
+  public void setBatchSize(int batchSize) {
+    Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+    this.batchSize = batchSize;
+  }
+
+  protected int getBatchSize() {
+    return this.batchSize;
+  }
+
+  /**
+   * Sets the max inactive interval of most Sessions, which bounds the {@literal lastAccessedTime} of the expiration
+   * candidates queried.  Sessions with another interval are always candidates.
+   *
+   * @param maxInactiveIntervalInSeconds default max inactive interval of the Sessions, in seconds.
+   */
+  public void setMaxInactiveIntervalInSeconds(int maxInactiveIntervalInSeconds) {
+    this.maxInactiveIntervalInSeconds = maxInactiveIntervalInSeconds;
+  }
+
+  protected int getMaxInactiveIntervalInSeconds() {
+    return this.maxInactiveIntervalInSeconds;
+  }
+
+  public long getExpired() {
+    return this.expired.sum();
+  }
+
+  /**
+   * Returns the number of expiration candidates returned by the queries.
+   */
+  public long getScanned() {
+    return this.scanned.sum();
+  }
+
+  public long getSweeps() {
+    return this.sweeps.sum();
+  }
+
+  @Override
+  public void run() {
+    try {
+      sweep();
+    }
+    catch (RuntimeException e) {
+      System.err.printf("Failed to sweep expired Sessions from Region [%1$s]: %2$s%n",
+        getSessions().getFullPath(), e.getMessage());
+    }
+  }
+
+  public int sweep() {
+    return sweep(System.currentTimeMillis());
+  }
+
+  /**
+   * Removes the Sessions that have expired as of the given time, on the members hosting the Sessions
+   * if the sweep Function is registered.
+   *
+   * @param now time in milliseconds since the epoch.
+   * @return the number of Sessions removed.
+   */
+  public int sweep(long now) {
+
+    int expiredCount = (isDistributed() ? sweepOnMembers(now) : sweep(getSessions(), now));
+
+    this.sweeps.increment();
+
+    return expiredCount;
+  }
+
+  /**
+   * Determines whether the Sessions {@link Region} is partitioned and the sweep Function is registered,
+   * in which case each member sweeps its own buckets.
+   */
+  protected boolean isDistributed() {
+    return (PartitionRegionHelper.isPartitionedRegion(getSessions())
+      && FunctionService.isRegistered(SessionFunctions.SWEEP_EXPIRED_SESSIONS_FUNCTION_ID));
+  }
+
+  @SuppressWarnings("unchecked")
+  protected int sweepOnMembers(long now) {
+
+    Object memberResults = FunctionService.onRegion(getSessions())
+      .setArguments(new Object[] { now, getMaxInactiveIntervalInSeconds(), getBatchSize() })
+      .execute(SessionFunctions.SWEEP_EXPIRED_SESSIONS_FUNCTION_ID)
+      .getResult();
+
+    int expiredCount = 0;
+
+    for (Object memberResult : (Collection<Object>) memberResults) {
+      if (memberResult instanceof Throwable) {
+        throw new IllegalStateException(String.format("Failed to sweep expired Sessions from Region [%s]",
+          getSessions().getFullPath()), (Throwable) memberResult);
+      }
+      else if (memberResult instanceof long[]) {
+        this.scanned.add(((long[]) memberResult)[0]);
+        this.expired.add(((long[]) memberResult)[1]);
+        expiredCount += (int) ((long[]) memberResult)[1];
+      }
+    }
+
+    return expiredCount;
+  }
+
+  /**
+   * Removes the expired Sessions of the local data set of the sweep Function, i.e. the local primary data of
+   * this member since the Function is optimized for write.
+   *
+   * @param functionContext {@link RegionFunctionContext} of the sweep Function executed on the Sessions.
+   * @param now time in milliseconds since the epoch.
+   * @return the number of Sessions removed.
+   */
+  public int sweep(RegionFunctionContext functionContext, long now) {
+
+    Assert.state(PartitionRegionHelper.isPartitionedRegion(functionContext.getDataSet()),
+      () -> String.format("Region [%s] is not partitioned", getSessions().getFullPath()));
+
+    Region<?, ?> localPrimaryData = PartitionRegionHelper.getLocalPrimaryData(functionContext.getDataSet());
+
+    // members hosting only redundant copies of the buckets have nothing to sweep
+    int expiredCount = (localPrimaryData.isEmpty() ? 0
+      : removeExpired(findExpirationCandidates(functionContext.getDataSet(), functionContext, now), now));
+
+    this.sweeps.increment();
+
+    return expiredCount;
+  }
+
+  protected int sweep(Region<?, ?> data, long now) {
+    return removeExpired(findExpirationCandidates(data, null, now), now);
+  }
+
+  protected int removeExpired(Collection<?> expirationCandidates, long now) {
+
+    List<String> batch = new ArrayList<>(getBatchSize());
+
+    int expiredCount = 0;
+
+    for (Object value : expirationCandidates) {
+
+      this.scanned.increment();
+
+      if (isExpired(value, now)) {
+
+        batch.add(((Session) value).getId());
+
+        if (batch.size() >= getBatchSize()) {
+          expiredCount += remove(batch, now);
+        }
+      }
+    }
+
+    return expiredCount + remove(batch, now);
+  }
+
+  /**
+   * Queries the expiration candidates of the local data set of the given Function, or of the whole {@link Region}
+   * when no {@link RegionFunctionContext} is given.
+   *
+   * @param data Sessions {@link Region} to query.
+   * @param functionContext {@link RegionFunctionContext} of the sweep Function; may be {@literal null}.
+   * @param now time in milliseconds since the epoch.
+   * @return the expiration candidates.
+   */
+  protected Collection<?> findExpirationCandidates(Region<?, ?> data, RegionFunctionContext functionContext,
+      long now) {
+
+    Query query = data.getRegionService().getQueryService()
+      .newQuery(String.format(EXPIRATION_CANDIDATES_QUERY, data.getFullPath()));
+
+    Object[] parameters = { now - TimeUnit.SECONDS.toMillis(getMaxInactiveIntervalInSeconds()),
+      getMaxInactiveIntervalInSeconds() };
+
+    try {
+      Object results = (functionContext != null ? query.execute(functionContext, parameters)
+        : query.execute(parameters));
+
+      return ((SelectResults<?>) results).asList();
+    }
+    catch (QueryException e) {
+      throw new GemfireQueryException(e);
+    }
+  }
+
+  protected boolean isExpired(Object value, long now) {
+    return (value instanceof Session && ((Session) value).isExpired(now));
+  }
+
+  protected int remove(List<String> batch, long now) {
+
+    batch.removeIf(key -> {
+      Region.Entry<String, Session> entry = getSessions().getEntry(key);
+      return (entry == null || !isExpired(entry.getValue(), now));
+    });
+
+    int expiredCount = batch.size();
+
+    if (expiredCount > 0) {
+      getSessions().removeAll(batch);
+      this.expired.add(expiredCount);
+      batch.clear();
+    }
+
+    return expiredCount;
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.session;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.IndexExistsException;
+import org.apache.geode.cache.query.IndexNameConflictException;
+import org.apache.geode.cache.query.QueryService;
+import org.spring.data.gemfire.app.beans.Session;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.gemfire.GemfireIndexException;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The SessionIndexes class creates the {@link Index Indexes} backing {@link Session} lookups when the bean
+ * is initialized, before any Sessions are stored.
+ *
+ * A hash index on {@literal principalName} serves the lookup of a user's Sessions on login.  A map index on the
+ * selected session attribute names ({@literal s.attributes['a', 'b']}) serves queries on those attributes.
+ * Only the selected keys are indexed; indexing every key with {@literal s.attributes[*]} maintains an index entry
+ * for every attribute of every Session on each update, most of which are never queried.
+ *
+ * Range indexes on {@literal lastAccessedTime} and {@literal maxInactiveIntervalInSeconds} serve the queries of
+ * the {@link SessionExpirationSweeper} for the Sessions that may have expired.  Like every index, they are only
+ * kept current if the Sessions stored in the Region are not modified in place, so a Session read from the Region
+ * must be a copy (e.g. with {@literal copy-on-read} enabled) when it is modified before being saved.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.query.Index
+ * @see org.apache.geode.cache.query.QueryService
+ * @see org.spring.data.gemfire.app.beans.Session
+ * @see org.springframework.beans.factory.InitializingBean
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class SessionIndexes implements InitializingBean {
+
+  public static final String ATTRIBUTES_INDEX_NAME_SUFFIX = "AttributesIdx";
+  public static final String LAST_ACCESSED_TIME_INDEX_NAME_SUFFIX = "LastAccessedTimeIdx";
+  public static final String MAX_INACTIVE_INTERVAL_INDEX_NAME_SUFFIX = "MaxInactiveIntervalIdx";
+  public static final String PRINCIPAL_NAME_INDEX_NAME_SUFFIX = "PrincipalNameIdx";
+
+  private final Region<String, Session> sessions;
+
+  private Set<String> indexedAttributeNames = Collections.emptySet();
+
+  public SessionIndexes(Region<String, Session> sessions) {
+    Assert.notNull(sessions, "Sessions Region must not be null");
+    this.sessions = sessions;
+  }
+
+  protected Region<String, Session> getSessions() {
+    return this.sessions;
+  }
+
+  protected QueryService getQueryService() {
+    return getSessions().getRegionService().getQueryService();
+  }
+
+  /**
+   * Sets the names of the session attributes to index.
+   *
+   * @param indexedAttributeNames names of the session attributes queried by the application.
+   */
+  public void setIndexedAttributeNames(String... indexedAttributeNames) {
+    Set<String> attributeNames = Arrays.stream(indexedAttributeNames)
+      .filter(StringUtils::hasText)
+      .collect(Collectors.toCollection(TreeSet::new));
+
+    this.indexedAttributeNames = Collections.unmodifiableSet(attributeNames);
+  }
+
+  public Set<String> getIndexedAttributeNames() {
+    return this.indexedAttributeNames;
+  }
+
+  public String getAttributesIndexName() {
+    return getSessions().getName() + ATTRIBUTES_INDEX_NAME_SUFFIX;
+  }
+
+  public String getLastAccessedTimeIndexName() {
+    return getSessions().getName() + LAST_ACCESSED_TIME_INDEX_NAME_SUFFIX;
+  }
+
+  public String getMaxInactiveIntervalIndexName() {
+    return getSessions().getName() + MAX_INACTIVE_INTERVAL_INDEX_NAME_SUFFIX;
+  }
+
+  public String getPrincipalNameIndexName() {
+    return getSessions().getName() + PRINCIPAL_NAME_INDEX_NAME_SUFFIX;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    createIndexes();
+  }
+
+  /**
+   * Creates the principal name, session attributes and expiration {@link Index Indexes}, or returns
+   * the existing ones.
+   *
+   * @return the {@link List} of {@link Index Indexes} on the Sessions {@link Region}.
+   * @throws GemfireIndexException if an {@link Index} could not be created.
+   */
+  public List<Index> createIndexes() {
+
+    List<Index> indexes = new ArrayList<>(4);
+
+    String fromClause = String.format("%1$s s", getSessions().getFullPath());
+
+    indexes.add(createIndex(getPrincipalNameIndexName(), "s.principalName", fromClause, true));
+    indexes.add(createIndex(getLastAccessedTimeIndexName(), "s.lastAccessedTime", fromClause, false));
+    indexes.add(createIndex(getMaxInactiveIntervalIndexName(), "s.maxInactiveIntervalInSeconds", fromClause,
+      false));
+
+    if (!getIndexedAttributeNames().isEmpty()) {
+
+      String attributeNames = getIndexedAttributeNames().stream()
+        .map(SessionIndexes::toLiteral)
+        .collect(Collectors.joining(", "));
+
+      indexes.add(createIndex(getAttributesIndexName(), String.format("s.attributes[%s]", attributeNames),
+        fromClause, false));
+    }
+
+    return indexes;
+  }
+
+  /**
+   * Quotes the given value as an OQL string literal, escaping single quotes.
+   *
+   * @param value {@link String} to quote.
+   * @return the OQL string literal.
+   */
+  public static String toLiteral(String value) {
+    return String.format("'%s'", value.replace("'", "''"));
+  }
+
+  protected Optional<Index> findIndex(String expression) {
+
+    Collection<Index> indexes = getQueryService().getIndexes(getSessions());
+
+    return (indexes != null ? indexes : Collections.<Index>emptyList()).stream()
+      .filter(index -> expression.equals(index.getIndexedExpression()))
+      .findFirst();
+  }
+
+  @SuppressWarnings("deprecation")
+  protected Index createIndex(String name, String expression, String fromClause, boolean hash) {
+
+    try {
+      return (hash ? getQueryService().createHashIndex(name, expression, fromClause)
+        : getQueryService().createIndex(name, expression, fromClause));
+    }
+    catch (IndexExistsException | IndexNameConflictException e) {
+
+      return findIndex(expression).orElseThrow(() -> new GemfireIndexException(String.format(
+        "Failed to create Index [%1$s] on [%2$s]", name, expression), e));
+    }
+    catch (Exception e) {
+      throw new GemfireIndexException(String.format("Failed to create Index [%1$s] on [%2$s]", name, expression), e);
+    }
+  }
+}
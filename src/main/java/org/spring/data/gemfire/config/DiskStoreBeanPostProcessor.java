@@ -18,69 +18,115 @@ package org.spring.data.gemfire.config;
 
 import java.io.File;
 import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.spring.data.gemfire.support.DiskDirectoryProvisioner;
+import org.spring.data.gemfire.support.DiskDirectoryProvisioner.DiskDirectoryReport;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.gemfire.DiskStoreFactoryBean;
 import org.springframework.data.gemfire.DiskStoreFactoryBean.DiskDir;
 import org.springframework.util.Assert;
-import org.springframework.util.ObjectUtils;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * The DiskStoreBeanPostProcessor class post processes any GemFire Disk Store Spring beans in the application context
- * to ensure that the Disk Store directory (disk-dir) actually exists before creating the Disk Store.
+ * to ensure that the Disk Store directories (disk-dir) actually exist, have enough space and are on healthy devices
+ * before creating the Disk Store.
+ *
+ * All directories of a Disk Store are provisioned in parallel by a {@link DiskDirectoryProvisioner}, which is
+ * configured through this BeanPostProcessor's properties.
  *
  * @author John Blum
+ * @see org.spring.data.gemfire.support.DiskDirectoryProvisioner
  * @see org.springframework.beans.factory.config.BeanPostProcessor
+ * @see org.springframework.data.gemfire.DiskStoreFactoryBean
  * @since 7.5
  */
 @SuppressWarnings("unused")
 public class DiskStoreBeanPostProcessor implements BeanPostProcessor {
 
-  @Override
-  public Object postProcessBeforeInitialization(final Object bean, final String beanName) throws BeansException {
-    System.out.printf("Post Processing Bean (%1$s) of Type (%2$s) with Name (%3$s)...%n", bean,
-      ObjectUtils.nullSafeClassName(bean), beanName);
+  // DiskStoreFactoryBean and DiskDir do not expose their configuration
+  private static final Field DISK_DIR_LOCATION_FIELD = resolveField(DiskDir.class, "location");
+  private static final Field DISK_DIR_MAX_SIZE_FIELD = resolveField(DiskDir.class, "maxSize");
+  private static final Field DISK_DIRS_FIELD = resolveField(DiskStoreFactoryBean.class, "diskDirs");
+  private static final Field MAX_OPLOG_SIZE_FIELD = resolveField(DiskStoreFactoryBean.class, "maxOplogSize");
 
-    if (bean instanceof DiskDir) {
-      createIfNotExists((DiskDir) bean);
-    }
+  private final DiskDirectoryProvisioner diskDirectoryProvisioner = new DiskDirectoryProvisioner();
 
-    return bean;
-  }
+  private static Field resolveField(Class<?> type, String fieldName) {
 
-  private void createIfNotExists(final DiskDir diskDirectory) {
-    String location = readField(diskDirectory, "location");
-    File diskDirectoryFile = new File(location);
+    Field field = ReflectionUtils.findField(type, fieldName);
 
-    Assert.isTrue(diskDirectoryFile.isDirectory() || diskDirectoryFile.mkdirs(),
-      String.format("Failed to create Disk Directory (%1$s)%n!", location));
+    Assert.state(field != null, () -> String.format("Field [%1$s] does not exist on Class type [%2$s]",
+      fieldName, type.getName()));
 
-    System.out.printf("The Disk Directory exists @ Location (%1$s).%n", location);
+    ReflectionUtils.makeAccessible(field);
+
+    return field;
   }
 
   @SuppressWarnings("unchecked")
-  private <T> T readField(final Object obj, final String fieldName) {
-    try {
-      Class type = obj.getClass();
-      Field field;
-
-      do {
-        field = type.getDeclaredField(fieldName);
-        type = type.getSuperclass();
-      }
-      while (field == null && !Object.class.equals(type));
+  private static <T> T readField(Field field, Object target) {
+    return (T) ReflectionUtils.getField(field, target);
+  }
 
-      if (field == null) {
-        throw new NoSuchFieldException(String.format("Field (%1$s) does not exist on Object of Class type (%2$s)!",
-          fieldName, ObjectUtils.nullSafeClassName(obj)));
-      }
+  protected DiskDirectoryProvisioner getDiskDirectoryProvisioner() {
+    return this.diskDirectoryProvisioner;
+  }
+
+  public void setFsyncProbeCount(int fsyncProbeCount) {
+    getDiskDirectoryProvisioner().setFsyncProbeCount(fsyncProbeCount);
+  }
+
+  public void setParallelism(int parallelism) {
+    getDiskDirectoryProvisioner().setParallelism(parallelism);
+  }
+
+  public void setPreallocate(boolean preallocate) {
+    getDiskDirectoryProvisioner().setPreallocate(preallocate);
+  }
+
+  public void setSlowFsyncThresholdMillis(long slowFsyncThresholdMillis) {
+    getDiskDirectoryProvisioner().setSlowFsyncThreshold(slowFsyncThresholdMillis, TimeUnit.MILLISECONDS);
+  }
+
+  public void setValidateFreeSpace(boolean validateFreeSpace) {
+    getDiskDirectoryProvisioner().setValidateFreeSpace(validateFreeSpace);
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(final Object bean, final String beanName) throws BeansException {
+    if (bean instanceof DiskStoreFactoryBean) {
+      provision((DiskStoreFactoryBean) bean, beanName);
+    }
+
+    return bean;
+  }
 
-      field.setAccessible(true);
+  private void provision(final DiskStoreFactoryBean diskStoreFactoryBean, final String diskStoreName) {
+    List<DiskDir> diskDirs = readField(DISK_DIRS_FIELD, diskStoreFactoryBean);
+    Map<File, Integer> directories = new LinkedHashMap<>();
 
-      return (T) field.get(obj);
+    if (CollectionUtils.isEmpty(diskDirs)) {
+      // GemFire defaults to the current working directory
+      directories.put(new File(System.getProperty("user.dir")), null);
     }
-    catch (Exception e) {
-      throw new RuntimeException(e);
+    else {
+      for (DiskDir diskDir : diskDirs) {
+        directories.put(new File(DiskStoreBeanPostProcessor.<String>readField(DISK_DIR_LOCATION_FIELD, diskDir)),
+          readField(DISK_DIR_MAX_SIZE_FIELD, diskDir));
+      }
+    }
+
+    for (DiskDirectoryReport report : getDiskDirectoryProvisioner().provision(diskStoreName, directories,
+        readField(MAX_OPLOG_SIZE_FIELD, diskStoreFactoryBean))) {
+
+      System.out.printf("%s%n", report);
     }
   }
 
@@ -0,0 +1,461 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.config;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionService;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.IndexExistsException;
+import org.apache.geode.cache.query.IndexNameConflictException;
+import org.apache.geode.cache.query.MultiIndexCreationException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.internal.cache.InternalCache;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.data.gemfire.GemfireIndexException;
+import org.springframework.data.gemfire.IndexFactoryBean;
+import org.springframework.data.gemfire.IndexType;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * The IndexBootstrapBeanPostProcessor class defers the creation of the GemFire {@link Index Indexes} declared with
+ * {@link IndexFactoryBean IndexFactoryBeans} until the Spring context is refreshed, and then creates all Indexes
+ * of a {@link Region} together, in one pass over the Region's data, and the Indexes of different Regions
+ * in parallel.
+ *
+ * Creating Indexes one at a time with {@link QueryService#createIndex(String, String, String)} scans the Region
+ * once per Index, which after recovering a large persistent Region means one full scan for each Index.
+ * Instead, each {@link IndexFactoryBean} is set to {@link IndexFactoryBean#setDefine(boolean) define} its Index
+ * with a {@link QueryService} dedicated to the Index's Region, and {@link QueryService#createDefinedIndexes()}
+ * is called on each of those QueryServices when the context is refreshed.
+ *
+ * Index name and definition conflicts, between the declared Indexes as well as with the Indexes that already exist
+ * in the cache, are detected when the {@link IndexFactoryBean} is initialized, before any Region is scanned.
+ * IndexFactoryBeans configured to {@literal ignore-if-exists} or {@literal override} an existing Index, and Indexes
+ * of a {@link ClientCache}, are left to be created by the IndexFactoryBean.
+ *
+ * Deferred Indexes are not available to other beans until the context is refreshed.
+ *
+ * @author John Blum
+ * @see org.apache.geode.cache.query.QueryService#defineIndex(String, String, String)
+ * @see org.apache.geode.cache.query.QueryService#createDefinedIndexes()
+ * @see org.springframework.beans.factory.config.BeanPostProcessor
+ * @see org.springframework.data.gemfire.IndexFactoryBean
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class IndexBootstrapBeanPostProcessor implements BeanPostProcessor, ApplicationListener<ContextRefreshedEvent> {
+
+  public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+  public static final String INDEX_BOOTSTRAP_THREAD_NAME_PREFIX = "Index Bootstrap-";
+
+  // IndexFactoryBean does not expose its configuration
+  private static final Field CACHE_FIELD = resolveField("cache");
+  private static final Field DEFINE_FIELD = resolveField("define");
+  private static final Field EXPRESSION_FIELD = resolveField("expression");
+  private static final Field FROM_FIELD = resolveField("from");
+  private static final Field IGNORE_IF_EXISTS_FIELD = resolveField("ignoreIfExists");
+  private static final Field INDEX_TYPE_FIELD = resolveField("indexType");
+  private static final Field NAME_FIELD = resolveField("name");
+  private static final Field OVERRIDE_FIELD = resolveField("override");
+
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
+
+  private int parallelism = DEFAULT_PARALLELISM;
+
+  private final Map<String, IndexDefinition> indexDefinitions = new LinkedHashMap<>();
+
+  private final Map<String, RegionIndexes> regionIndexes = new LinkedHashMap<>();
+
+  private static Field resolveField(String fieldName) {
+
+    Field field = ReflectionUtils.findField(IndexFactoryBean.class, fieldName);
+
+    Assert.state(field != null, () -> String.format("Field [%1$s] does not exist on Class type [%2$s]",
+      fieldName, IndexFactoryBean.class.getName()));
+
+    ReflectionUtils.makeAccessible(field);
+
+    return field;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T readField(Field field, Object target) {
+    return (T) ReflectionUtils.getField(field, target);
+  }
+
+  /**
+   * Resolves the path of the {@link Region} in an Index's {@literal from} clause, e.g. {@literal /Customers} for
+   * {@literal /Customers.entrySet e}.
+   */
+  protected static String resolveRegionPath(String from) {
+
+    String regionReference = from.trim().split("\\s+")[0];
+
+    int dotIndex = regionReference.indexOf('.', Math.max(regionReference.lastIndexOf(Region.SEPARATOR), 0));
+
+    String regionPath = (dotIndex > -1 ? regionReference.substring(0, dotIndex) : regionReference);
+
+    return (regionPath.startsWith(Region.SEPARATOR) ? regionPath : Region.SEPARATOR + regionPath);
+  }
+
+  public void setParallelism(int parallelism) {
+    Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+    this.parallelism = parallelism;
+  }
+
+  protected int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Returns the names of the Indexes deferred for the {@link Region} with the given path, in definition order.
+   */
+  public synchronized List<String> getIndexNames(String regionPath) {
+
+    RegionIndexes regionIndexes = this.regionIndexes.get(regionPath);
+
+    return (regionIndexes != null ? regionIndexes.getIndexNames() : Collections.emptyList());
+  }
+
+  public synchronized RegionIndexes getRegionIndexes(String regionPath) {
+    return this.regionIndexes.get(regionPath);
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+
+    if (bean instanceof IndexFactoryBean) {
+      defer((IndexFactoryBean) bean, beanName);
+    }
+
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+    return bean;
+  }
+
+  protected synchronized void defer(IndexFactoryBean indexFactoryBean, String beanName) {
+
+    boolean define = readField(DEFINE_FIELD, indexFactoryBean);
+    boolean ignoreIfExists = readField(IGNORE_IF_EXISTS_FIELD, indexFactoryBean);
+    boolean override = readField(OVERRIDE_FIELD, indexFactoryBean);
+
+    RegionService cache = resolveCache(indexFactoryBean);
+
+    if (define || ignoreIfExists || override || isClient(cache)) {
+      return;
+    }
+
+    IndexDefinition indexDefinition = new IndexDefinition(indexFactoryBean, beanName);
+
+    RegionIndexes regionIndexes = this.regionIndexes.computeIfAbsent(indexDefinition.getRegionPath(),
+      regionPath -> new RegionIndexes(regionPath, cache.getQueryService()));
+
+    assertNoConflicts(indexDefinition, regionIndexes.getQueryService());
+
+    indexFactoryBean.setDefine(true);
+    indexFactoryBean.setQueryService(regionIndexes.getQueryService());
+
+    this.indexDefinitions.put(indexDefinition.getName(), indexDefinition);
+    regionIndexes.add(indexDefinition);
+  }
+
+  // the GemFire cache implementation implements both Cache and ClientCache
+  protected boolean isClient(RegionService cache) {
+    return (cache instanceof InternalCache ? ((InternalCache) cache).isClient() : cache instanceof ClientCache);
+  }
+
+  protected RegionService resolveCache(IndexFactoryBean indexFactoryBean) {
+
+    RegionService cache = readField(CACHE_FIELD, indexFactoryBean);
+
+    return (cache != null ? cache : CacheFactory.getAnyInstance());
+  }
+
+  /**
+   * Asserts that the given {@link IndexDefinition} neither has the name of another Index nor duplicates
+   * the definition of another Index on the same {@link Region}.
+   *
+   * @throws GemfireIndexException if the Index conflicts with a deferred or an existing Index.
+   */
+  protected void assertNoConflicts(IndexDefinition indexDefinition, QueryService queryService) {
+
+    IndexDefinition namesake = this.indexDefinitions.get(indexDefinition.getName());
+
+    if (namesake != null) {
+      throw new GemfireIndexException(new IndexNameConflictException(String.format(
+        "Index [%1$s] conflicts with the name of Index %2$s", indexDefinition, namesake)));
+    }
+
+    for (IndexDefinition deferredIndexDefinition : this.indexDefinitions.values()) {
+      if (indexDefinition.isSimilarTo(deferredIndexDefinition)) {
+        throw new GemfireIndexException(new IndexExistsException(String.format(
+          "Index [%1$s] duplicates the definition of Index %2$s", indexDefinition, deferredIndexDefinition)));
+      }
+    }
+
+    for (Index index : queryService.getIndexes()) {
+
+      IndexDefinition existingIndexDefinition = new IndexDefinition(index);
+
+      if (indexDefinition.getName().equals(existingIndexDefinition.getName())) {
+        throw new GemfireIndexException(new IndexNameConflictException(String.format(
+          "Index [%1$s] conflicts with the name of existing Index %2$s", indexDefinition,
+            existingIndexDefinition)));
+      }
+
+      if (indexDefinition.isSimilarTo(existingIndexDefinition)) {
+        throw new GemfireIndexException(new IndexExistsException(String.format(
+          "Index [%1$s] duplicates the definition of existing Index %2$s", indexDefinition,
+            existingIndexDefinition)));
+      }
+    }
+  }
+
+  @Override
+  public void onApplicationEvent(ContextRefreshedEvent event) {
+    createDefinedIndexes();
+  }
+
+  /**
+   * Creates the deferred Indexes, one pass per {@link Region} and the {@link Region Regions} in parallel.
+   *
+   * @throws GemfireIndexException if any Index could not be created.
+   */
+  public void createDefinedIndexes() {
+
+    List<RegionIndexes> pendingRegionIndexes = new ArrayList<>();
+
+    synchronized (this) {
+      for (RegionIndexes regionIndexes : this.regionIndexes.values()) {
+        if (!regionIndexes.isCreated()) {
+          pendingRegionIndexes.add(regionIndexes);
+        }
+      }
+    }
+
+    if (!pendingRegionIndexes.isEmpty()) {
+
+      ExecutorService executor = Executors.newFixedThreadPool(Math.min(getParallelism(),
+        pendingRegionIndexes.size()), runnable -> {
+          Thread thread = new Thread(runnable, INDEX_BOOTSTRAP_THREAD_NAME_PREFIX
+            + THREAD_COUNTER.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+
+      try {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(pendingRegionIndexes.size());
+
+        for (RegionIndexes regionIndexes : pendingRegionIndexes) {
+          futures.add(CompletableFuture.runAsync(regionIndexes::create, executor));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+      }
+      catch (CompletionException cause) {
+        throw (cause.getCause() instanceof RuntimeException ? (RuntimeException) cause.getCause() : cause);
+      }
+      finally {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * The IndexDefinition class captures the name, {@link Region} and definition of an Index.
+   */
+  protected static class IndexDefinition {
+
+    private final IndexType type;
+
+    private final String expression;
+    private final String from;
+    private final String name;
+    private final String regionPath;
+
+    protected IndexDefinition(IndexFactoryBean indexFactoryBean, String beanName) {
+
+      String name = readField(NAME_FIELD, indexFactoryBean);
+      IndexType type = readField(INDEX_TYPE_FIELD, indexFactoryBean);
+
+      this.name = (StringUtils.hasText(name) ? name : beanName);
+      this.expression = readField(EXPRESSION_FIELD, indexFactoryBean);
+      this.from = readField(FROM_FIELD, indexFactoryBean);
+      this.type = (type != null ? type : IndexType.FUNCTIONAL);
+
+      Assert.hasText(this.expression, () -> String.format("Index [%s] expression is required", this.name));
+      Assert.hasText(this.from, () -> String.format("Index [%s] from clause is required", this.name));
+
+      this.regionPath = resolveRegionPath(this.from);
+    }
+
+    protected IndexDefinition(Index index) {
+      this.name = index.getName();
+      this.expression = index.getIndexedExpression();
+      this.from = index.getFromClause();
+      this.type = IndexType.valueOf(index.getType());
+      this.regionPath = (index.getRegion() != null ? index.getRegion().getFullPath() : resolveRegionPath(this.from));
+    }
+
+    public String getExpression() {
+      return this.expression;
+    }
+
+    public String getFrom() {
+      return this.from;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public String getRegionPath() {
+      return this.regionPath;
+    }
+
+    public IndexType getType() {
+      return this.type;
+    }
+
+    private static String normalize(String value) {
+      return value.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Determines whether this Index would be rejected by GemFire as similar to the given Index,
+     * i.e. an Index of the same type on the same expression and {@literal from} clause.
+     */
+    public boolean isSimilarTo(IndexDefinition indexDefinition) {
+      return (getRegionPath().equals(indexDefinition.getRegionPath())
+        && getType().getGemfireIndexType().equals(indexDefinition.getType().getGemfireIndexType())
+        && normalize(getExpression()).equals(normalize(indexDefinition.getExpression()))
+        && normalize(getFrom()).equals(normalize(indexDefinition.getFrom())));
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%1$s { type = %2$s, expression = %3$s, from = %4$s }", getName(), getType(),
+        getExpression(), getFrom());
+    }
+  }
+
+  /**
+   * The RegionIndexes class holds the Indexes deferred for a single {@link Region} along with the
+   * {@link QueryService} they were defined with.
+   */
+  public static class RegionIndexes {
+
+    private volatile boolean created;
+
+    private final List<IndexDefinition> indexDefinitions = new ArrayList<>();
+
+    private volatile long creationNanos;
+
+    private final QueryService queryService;
+
+    private final String regionPath;
+
+    private volatile String threadName;
+
+    protected RegionIndexes(String regionPath, QueryService queryService) {
+      this.regionPath = regionPath;
+      this.queryService = queryService;
+    }
+
+    protected synchronized void add(IndexDefinition indexDefinition) {
+      this.indexDefinitions.add(indexDefinition);
+    }
+
+    protected void create() {
+
+      long t0 = System.nanoTime();
+
+      try {
+        List<Index> indexes = getQueryService().createDefinedIndexes();
+
+        this.creationNanos = System.nanoTime() - t0;
+        this.threadName = Thread.currentThread().getName();
+        this.created = true;
+
+        System.out.printf("Created %1$d Indexes %2$s on Region [%3$s] in %4$d ms%n", indexes.size(),
+          getIndexNames(), getRegionPath(), getCreationTime(TimeUnit.MILLISECONDS));
+      }
+      catch (MultiIndexCreationException cause) {
+        throw new GemfireIndexException(String.format("Failed to create Indexes %1$s on Region [%2$s]: %3$s",
+          cause.getFailedIndexNames(), getRegionPath(), cause.getExceptionsMap()), cause);
+      }
+    }
+
+    public boolean isCreated() {
+      return this.created;
+    }
+
+    public long getCreationTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.creationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized List<String> getIndexNames() {
+
+      List<String> indexNames = new ArrayList<>(this.indexDefinitions.size());
+
+      for (IndexDefinition indexDefinition : this.indexDefinitions) {
+        indexNames.add(indexDefinition.getName());
+      }
+
+      return indexNames;
+    }
+
+    protected QueryService getQueryService() {
+      return this.queryService;
+    }
+
+    public String getRegionPath() {
+      return this.regionPath;
+    }
+
+    /**
+     * Returns the name of the Thread that created the Indexes of the {@link Region}.
+     */
+    public String getThreadName() {
+      return this.threadName;
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.gemfire.CacheFactoryBean;
+import org.springframework.data.gemfire.RegionFactoryBean;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The OffHeapBeanPostProcessor class post processes the GemFire Cache and Region Spring beans in the application
+ * context to store the values of the chosen Regions in off-heap memory, keeping large values out of
+ * the Java heap and away from the garbage collector.
+ *
+ * The chosen Regions are identified by bean name.  Unless an explicit {@link #setOffHeapMemorySize(String) size}
+ * is configured, the off-heap memory pool is sized from the Region estimates, expressed as
+ * {@literal <entries>*<average value size in bytes>}, plus a per-object header and
+ * a {@link #setHeadroomPercentage(int) headroom} for fragmentation.  An {@literal off-heap-memory-size}
+ * already present in the GemFire properties is left as is.
+ *
+ * @author John Blum
+ * @see org.springframework.beans.factory.config.BeanPostProcessor
+ * @see org.springframework.data.gemfire.CacheFactoryBean
+ * @see org.springframework.data.gemfire.RegionFactoryBean
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class OffHeapBeanPostProcessor implements BeanPostProcessor {
+
+  public static final int DEFAULT_HEADROOM_PERCENTAGE = 30;
+
+  // every off-heap object is prefixed by an 8 byte header (size and reference count)
+  protected static final int OFF_HEAP_OBJECT_HEADER_SIZE = 8;
+
+  protected static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+  protected static final String OFF_HEAP_MEMORY_SIZE_PROPERTY = "off-heap-memory-size";
+
+  private Float criticalOffHeapPercentage;
+  private Float evictionOffHeapPercentage;
+
+  private int headroomPercentage = DEFAULT_HEADROOM_PERCENTAGE;
+
+  private final Map<String, long[]> regionSizeEstimates = new LinkedHashMap<>();
+
+  private final Set<String> regionNames = new LinkedHashSet<>();
+
+  private String offHeapMemorySize;
+
+  /**
+   * Parses a Region size estimate of the form {@literal <entries>*<average value size in bytes>}.
+   */
+  protected static long[] parseRegionSizeEstimate(String regionName, String estimate) {
+
+    String[] parts = StringUtils.delimitedListToStringArray(StringUtils.trimAllWhitespace(estimate), "*");
+
+    Assert.isTrue(parts.length == 2, () -> String.format(
+      "Size estimate [%1$s] for Region [%2$s] must be of the form <entries>*<average value size>",
+        estimate, regionName));
+
+    try {
+      return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) };
+    }
+    catch (NumberFormatException cause) {
+      throw new IllegalArgumentException(String.format("Size estimate [%1$s] for Region [%2$s] is not numeric",
+        estimate, regionName), cause);
+    }
+  }
+
+  public void setCriticalOffHeapPercentage(Float criticalOffHeapPercentage) {
+    this.criticalOffHeapPercentage = criticalOffHeapPercentage;
+  }
+
+  protected Float getCriticalOffHeapPercentage() {
+    return this.criticalOffHeapPercentage;
+  }
+
+  public void setEvictionOffHeapPercentage(Float evictionOffHeapPercentage) {
+    this.evictionOffHeapPercentage = evictionOffHeapPercentage;
+  }
+
+  protected Float getEvictionOffHeapPercentage() {
+    return this.evictionOffHeapPercentage;
+  }
+
+  public void setHeadroomPercentage(int headroomPercentage) {
+    Assert.isTrue(headroomPercentage >= 0, "Headroom percentage must be greater than or equal to 0");
+    this.headroomPercentage = headroomPercentage;
+  }
+
+  protected int getHeadroomPercentage() {
+    return this.headroomPercentage;
+  }
+
+  /**
+   * Sets an explicit off-heap memory pool size (e.g. {@literal 4096m} or {@literal 32g}) in place of
+   * the size computed from the Region estimates.
+   */
+  public void setOffHeapMemorySize(String offHeapMemorySize) {
+    this.offHeapMemorySize = offHeapMemorySize;
+  }
+
+  protected String getOffHeapMemorySize() {
+    return (StringUtils.hasText(this.offHeapMemorySize) ? this.offHeapMemorySize
+      : (this.regionSizeEstimates.isEmpty() ? null : String.format("%dm", computeOffHeapMemorySizeInMegabytes())));
+  }
+
+  public void setRegionNames(String... regionNames) {
+    this.regionNames.addAll(Arrays.asList(regionNames));
+  }
+
+  /**
+   * Returns the names of the Regions stored off-heap, including the Regions with a size estimate.
+   */
+  public Set<String> getRegionNames() {
+
+    Set<String> regionNames = new LinkedHashSet<>(this.regionNames);
+
+    regionNames.addAll(this.regionSizeEstimates.keySet());
+
+    return Collections.unmodifiableSet(regionNames);
+  }
+
+  /**
+   * Sets the size estimates of the off-heap Regions, keyed by Region bean name, each of the form
+   * {@literal <entries>*<average value size in bytes>}.
+   */
+  public void setRegionSizeEstimates(Map<String, String> regionSizeEstimates) {
+
+    regionSizeEstimates.forEach((regionName, estimate) ->
+      this.regionSizeEstimates.put(regionName, parseRegionSizeEstimate(regionName, estimate)));
+  }
+
+  /**
+   * Computes the off-heap memory pool size from the Region estimates, rounded up to whole megabytes.
+   */
+  public long computeOffHeapMemorySizeInMegabytes() {
+
+    long estimatedBytes = 0L;
+
+    for (long[] estimate : this.regionSizeEstimates.values()) {
+      estimatedBytes += estimate[0] * (estimate[1] + OFF_HEAP_OBJECT_HEADER_SIZE);
+    }
+
+    long pooledBytes = estimatedBytes + estimatedBytes * getHeadroomPercentage() / 100L;
+
+    return Math.max(1L, (pooledBytes + BYTES_PER_MEGABYTE - 1L) / BYTES_PER_MEGABYTE);
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+
+    if (bean instanceof CacheFactoryBean) {
+      configureOffHeapMemory((CacheFactoryBean) bean);
+    }
+    else if (bean instanceof RegionFactoryBean && getRegionNames().contains(beanName)) {
+      ((RegionFactoryBean<?, ?>) bean).setOffHeap(true);
+      System.out.printf("Storing values of Region [%s] off-heap%n", beanName);
+    }
+
+    return bean;
+  }
+
+  private void configureOffHeapMemory(CacheFactoryBean cacheFactoryBean) {
+
+    Properties gemfireProperties = cacheFactoryBean.getProperties();
+
+    String offHeapMemorySize = getOffHeapMemorySize();
+
+    if (offHeapMemorySize != null) {
+
+      if (gemfireProperties == null) {
+        gemfireProperties = new Properties();
+        cacheFactoryBean.setProperties(gemfireProperties);
+      }
+
+      if (gemfireProperties.containsKey(OFF_HEAP_MEMORY_SIZE_PROPERTY)) {
+        System.out.printf("Keeping configured %1$s [%2$s] in place of [%3$s]%n", OFF_HEAP_MEMORY_SIZE_PROPERTY,
+          gemfireProperties.getProperty(OFF_HEAP_MEMORY_SIZE_PROPERTY), offHeapMemorySize);
+      }
+      else {
+        gemfireProperties.setProperty(OFF_HEAP_MEMORY_SIZE_PROPERTY, offHeapMemorySize);
+        System.out.printf("Sized off-heap memory to [%s]%n", offHeapMemorySize);
+      }
+    }
+
+    if (getCriticalOffHeapPercentage() != null) {
+      cacheFactoryBean.setCriticalOffHeapPercentage(getCriticalOffHeapPercentage());
+    }
+
+    if (getEvictionOffHeapPercentage() != null) {
+      cacheFactoryBean.setEvictionOffHeapPercentage(getEvictionOffHeapPercentage());
+    }
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+    return bean;
+  }
+}
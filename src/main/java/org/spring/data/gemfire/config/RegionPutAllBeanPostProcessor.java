@@ -18,10 +18,16 @@ package org.spring.data.gemfire.config;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.apache.geode.cache.Region;
+import org.spring.data.gemfire.support.RegionSeeder;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -29,20 +35,68 @@ import org.springframework.util.StringUtils;
  * The RegionPutAllBeanPostProcessor class is a Spring BeanPostProcessor that enables a GemFire Cache Region to be
  * initialized with data (key/values) in Spring XML configuration meta-data.
  *
+ * Besides the {@link #setRegionData(Map) region data} declared in the Spring context, the Region can be seeded
+ * from a streaming {@link #setSource(Supplier) source} (e.g. a CSV or JSON Resource, or a JDBC query, see
+ * {@link org.spring.data.gemfire.support.RegionDataSources}), which is loaded in chunks by a {@link RegionSeeder}.
+ * When {@link #setAsync(boolean) async} is enabled, the Region is seeded on a background thread once the Spring
+ * context has been refreshed so that seeding does not block startup, and entries that failed to load are only
+ * reported.  Otherwise, the Region bean fails to initialize if any entries failed to load.
+ *
  * @author John Blum
  * @see java.util.Map
  * @see org.apache.geode.cache.Region
+ * @see org.spring.data.gemfire.support.RegionSeeder
  * @see org.springframework.beans.factory.config.BeanPostProcessor
+ * @see org.springframework.context.ApplicationListener
  * @since 1.3.3 (Spring Data GemFire)
  * @since 7.0.1 (GemFire)
  */
 @SuppressWarnings("unused")
-public class RegionPutAllBeanPostProcessor implements BeanPostProcessor {
+public class RegionPutAllBeanPostProcessor implements BeanPostProcessor, ApplicationListener<ContextRefreshedEvent> {
+
+  private boolean async = false;
+
+  private volatile boolean refreshed = false;
+
+  private int chunkSize = RegionSeeder.DEFAULT_CHUNK_SIZE;
+  private int parallelism = RegionSeeder.DEFAULT_PARALLELISM;
+
+  private volatile CompletableFuture<RegionSeeder.Statistics> seeding;
 
   private Map regionData;
 
+  private volatile Region pendingRegion;
+
   private String targetBeanName;
 
+  private Supplier<? extends Stream<? extends Map.Entry>> source;
+
+  public void setAsync(final boolean async) {
+    this.async = async;
+  }
+
+  protected boolean isAsync() {
+    return async;
+  }
+
+  public void setChunkSize(final int chunkSize) {
+    Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+    this.chunkSize = chunkSize;
+  }
+
+  protected int getChunkSize() {
+    return chunkSize;
+  }
+
+  public void setParallelism(final int parallelism) {
+    Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+    this.parallelism = parallelism;
+  }
+
+  protected int getParallelism() {
+    return parallelism;
+  }
+
   protected Map getRegionData() {
     return (regionData != null ? regionData : Collections.emptyMap());
   }
@@ -51,6 +105,24 @@ public class RegionPutAllBeanPostProcessor implements BeanPostProcessor {
     this.regionData = regionData;
   }
 
+  /**
+   * Returns the seeding of the target Region, which completes with the {@link RegionSeeder.Statistics} once
+   * all data has been loaded.
+   *
+   * @return the seeding of the target Region, or {@literal null} if seeding has not started.
+   */
+  public CompletableFuture<RegionSeeder.Statistics> getSeeding() {
+    return seeding;
+  }
+
+  protected Supplier<? extends Stream<? extends Map.Entry>> getSource() {
+    return source;
+  }
+
+  public void setSource(final Supplier<? extends Stream<? extends Map.Entry>> source) {
+    this.source = source;
+  }
+
   protected String getTargetBeanName() {
     Assert.state(StringUtils.hasText(targetBeanName), "The target Spring context bean name was not properly specified!");
     return targetBeanName;
@@ -67,13 +139,64 @@ public class RegionPutAllBeanPostProcessor implements BeanPostProcessor {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public Object postProcessAfterInitialization(final Object bean, final String beanName) throws BeansException {
     if (beanName.equals(getTargetBeanName()) && bean instanceof Region) {
-      ((Region) bean).putAll(getRegionData());
+      if (isAsync()) {
+        pendingRegion = (Region) bean;
+
+        // the Region may be created by its FactoryBean after the Spring context was refreshed
+        if (refreshed) {
+          seedAsync();
+        }
+      }
+      else {
+        seeding = CompletableFuture.completedFuture(newRegionSeeder((Region) bean).seed(newSeedSource()));
+      }
     }
 
     return bean;
   }
 
+  @Override
+  public void onApplicationEvent(final ContextRefreshedEvent event) {
+    refreshed = true;
+    seedAsync();
+  }
+
+  protected synchronized void seedAsync() {
+    Region region = pendingRegion;
+
+    if (region != null) {
+      pendingRegion = null;
+      seeding = newRegionSeeder(region).seedAsync(newSeedSource());
+      seeding.whenComplete((statistics, cause) -> {
+        if (cause != null) {
+          System.err.printf("Failed to seed Region [%1$s]: %2$s%n", region.getFullPath(), cause);
+        }
+      });
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected RegionSeeder<Object, Object> newRegionSeeder(final Region region) {
+    RegionSeeder<Object, Object> regionSeeder = new RegionSeeder<>((Region<Object, Object>) region);
+
+    regionSeeder.setChunkSize(getChunkSize());
+    regionSeeder.setParallelism(getParallelism());
+
+    return regionSeeder;
+  }
+
+  @SuppressWarnings("unchecked")
+  protected Supplier<Stream<Map.Entry<Object, Object>>> newSeedSource() {
+    Map<Object, Object> regionData = getRegionData();
+    Supplier<? extends Stream<? extends Map.Entry>> source = getSource();
+
+    return () -> {
+      Stream<Map.Entry<Object, Object>> entries = regionData.entrySet().stream();
+
+      return (source != null ? Stream.concat(entries, (Stream<Map.Entry<Object, Object>>) source.get()) : entries);
+    };
+  }
+
 }
@@ -0,0 +1,567 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.apache.geode.cache.DiskStore;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.Index;
+import org.codeprimate.process.support.ProcessUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.data.gemfire.CacheFactoryBean;
+import org.springframework.data.gemfire.DiskStoreFactoryBean;
+import org.springframework.data.gemfire.IndexFactoryBean;
+import org.springframework.data.gemfire.RegionLookupFactoryBean;
+import org.springframework.data.gemfire.wan.AsyncEventQueueFactoryBean;
+import org.springframework.data.gemfire.wan.GatewayReceiverFactoryBean;
+import org.springframework.data.gemfire.wan.GatewaySenderFactoryBean;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * The StartupTimelineBeanPostProcessor class is a Spring {@link InstantiationAwareBeanPostProcessor} profiling
+ * the startup of a Spring GemFire context.
+ *
+ * The wall-clock time, CPU time, allocated bytes and thread of every bean's instantiation, property population
+ * (including the beans created to satisfy its dependencies) and initialization are recorded.  The initialization
+ * of GemFire beans is broken out into the GemFire phases it actually performs: cache creation, Disk Store recovery,
+ * Region creation (recovery from disk and GII), Index build, AEQ creation and Gateway start.
+ *
+ * Once the context has been refreshed, the timeline is written as a Chrome trace ({@literal chrome://tracing},
+ * Perfetto or speedscope) JSON file, where nested bean creation on a thread shows up as a flame graph,
+ * and the slowest GemFire phases are printed.
+ *
+ * This BeanPostProcessor is {@link PriorityOrdered} with the highest precedence so it is registered before,
+ * and observes the creation of, the other BeanPostProcessors.
+ *
+ * @author John Blum
+ * @see org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor
+ * @see org.springframework.context.ApplicationListener
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class StartupTimelineBeanPostProcessor implements InstantiationAwareBeanPostProcessor,
+    ApplicationContextAware, ApplicationListener<ContextRefreshedEvent>, PriorityOrdered {
+
+  public static final String DEFAULT_TRACE_FILE_NAME = "gemfire-startup-trace.json";
+
+  public static final int DEFAULT_REPORT_SIZE = 10;
+
+  protected static final String CATEGORY_BEAN = "bean";
+  protected static final String CATEGORY_INITIALIZATION = "initialization";
+  protected static final String CATEGORY_INSTANTIATION = "instantiation";
+  protected static final String CATEGORY_POPULATION = "population";
+  protected static final String CATEGORY_STARTUP = "startup";
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  private int reportSize = DEFAULT_REPORT_SIZE;
+
+  private final long startNanos = System.nanoTime();
+
+  private final Measurement startMeasurement = Measurement.now();
+
+  private volatile boolean refreshed = false;
+
+  private ApplicationContext applicationContext;
+
+  private File traceFile = new File(System.getProperty("user.dir"), DEFAULT_TRACE_FILE_NAME);
+
+  private final ConcurrentLinkedQueue<TimelineEvent> timeline = new ConcurrentLinkedQueue<>();
+
+  private final ThreadLocal<Map<String, BeanProgress>> beansInProgress = ThreadLocal.withInitial(HashMap::new);
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+
+  @Override
+  public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+    this.applicationContext = applicationContext;
+  }
+
+  public void setReportSize(int reportSize) {
+    Assert.isTrue(reportSize >= 0, "Report size must be greater than or equal to 0");
+    this.reportSize = reportSize;
+  }
+
+  protected int getReportSize() {
+    return this.reportSize;
+  }
+
+  /**
+   * Sets the file the Chrome trace JSON is written to; {@literal null} disables writing the trace.
+   *
+   * @param traceFile {@link File} to write the trace to.
+   */
+  public void setTraceFile(File traceFile) {
+    this.traceFile = traceFile;
+  }
+
+  protected File getTraceFile() {
+    return this.traceFile;
+  }
+
+  /**
+   * Returns the recorded {@link TimelineEvent TimelineEvents} ordered by start time.
+   *
+   * @return a {@link List} of the recorded {@link TimelineEvent TimelineEvents}.
+   */
+  public List<TimelineEvent> getTimeline() {
+
+    List<TimelineEvent> timeline = new ArrayList<>(this.timeline);
+
+    timeline.sort(Comparator.comparingLong(TimelineEvent::getStartNanos));
+
+    return Collections.unmodifiableList(timeline);
+  }
+
+  @Override
+  public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+
+    if (!this.refreshed) {
+      this.beansInProgress.get().put(beanName, new BeanProgress(beanName));
+    }
+
+    return null;
+  }
+
+  @Override
+  public boolean postProcessAfterInstantiation(Object bean, String beanName) throws BeansException {
+
+    BeanProgress beanProgress = this.beansInProgress.get().get(beanName);
+
+    if (beanProgress != null) {
+      beanProgress.endPhase(String.format("%s instantiation", beanName), CATEGORY_INSTANTIATION);
+    }
+
+    return true;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+
+    BeanProgress beanProgress = this.beansInProgress.get().get(beanName);
+
+    if (beanProgress != null) {
+      beanProgress.endPhase(String.format("%s population", beanName), CATEGORY_POPULATION);
+    }
+
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+
+    BeanProgress beanProgress = this.beansInProgress.get().remove(beanName);
+
+    if (beanProgress != null) {
+
+      GemFirePhase phase = GemFirePhase.of(bean);
+
+      Map<String, Object> args = (phase != null ? describe(bean) : Collections.emptyMap());
+
+      if (phase != null) {
+        beanProgress.endPhase(String.format("%1$s %2$s", beanName, phase.getDescription()), phase.getCategory(),
+          args);
+      }
+      else {
+        beanProgress.endPhase(String.format("%s initialization", beanName), CATEGORY_INITIALIZATION);
+      }
+
+      Map<String, Object> beanArgs = new LinkedHashMap<>(args);
+
+      beanArgs.put("type", ClassUtils.getUserClass(bean).getName());
+
+      record(beanName, CATEGORY_BEAN, beanProgress.getStart(), Measurement.now(), beanArgs);
+    }
+
+    return bean;
+  }
+
+  /**
+   * Describes the GemFire object created by a GemFire {@link FactoryBean}.
+   */
+  protected Map<String, Object> describe(Object bean) {
+
+    Map<String, Object> args = new LinkedHashMap<>();
+
+    try {
+      Object object = (bean instanceof FactoryBean ? ((FactoryBean<?>) bean).getObject() : bean);
+
+      if (object instanceof Region) {
+        Region<?, ?> region = (Region<?, ?>) object;
+        args.put("regionPath", region.getFullPath());
+        args.put("dataPolicy", String.valueOf(region.getAttributes().getDataPolicy()));
+        args.put("diskStoreName", region.getAttributes().getDiskStoreName());
+      }
+      else if (object instanceof DiskStore) {
+        DiskStore diskStore = (DiskStore) object;
+        args.put("diskStoreName", diskStore.getName());
+        args.put("diskDirs", Arrays.toString(diskStore.getDiskDirs()));
+      }
+      else if (object instanceof Index) {
+        Index index = (Index) object;
+        args.put("indexName", index.getName());
+        args.put("fromClause", index.getFromClause());
+      }
+    }
+    catch (Exception ignore) {
+      // the GemFire object is only described on a best effort basis
+    }
+
+    return args;
+  }
+
+  @Override
+  public void onApplicationEvent(ContextRefreshedEvent event) {
+
+    if (!this.refreshed && (this.applicationContext == null
+        || this.applicationContext.equals(event.getApplicationContext()))) {
+
+      this.refreshed = true;
+
+      record("Spring GemFire context startup", CATEGORY_STARTUP, this.startMeasurement, Measurement.now(),
+        Collections.emptyMap());
+
+      writeTrace();
+      report();
+    }
+  }
+
+  protected void record(String name, String category, Measurement start, Measurement end, Map<String, Object> args) {
+    this.timeline.add(new TimelineEvent(name, category, Thread.currentThread(), start, end, args));
+  }
+
+  protected void writeTrace() {
+
+    File traceFile = getTraceFile();
+
+    if (traceFile != null) {
+      try {
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(traceFile, toChromeTrace());
+        System.out.printf("Wrote startup timeline to [%s]%n", traceFile.getAbsolutePath());
+      }
+      catch (IOException cause) {
+        System.err.printf("Failed to write startup timeline to [%1$s]: %2$s%n", traceFile, cause.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Converts the timeline into the Chrome Trace Event Format, using complete ({@literal X}) events
+   * with timestamps and durations in microseconds along with the names of the threads as metadata
+   * ({@literal M}) events.
+   *
+   * @return a {@link Map} representing the Chrome trace JSON object.
+   */
+  protected Map<String, Object> toChromeTrace() {
+
+    int processId = ProcessUtils.currentProcessId();
+
+    List<Map<String, Object>> traceEvents = new ArrayList<>();
+    Map<Long, String> threadNames = new LinkedHashMap<>();
+
+    for (TimelineEvent timelineEvent : getTimeline()) {
+
+      Map<String, Object> args = new LinkedHashMap<>(timelineEvent.getArgs());
+
+      args.put("cpuTimeMs", toMillis(timelineEvent.getCpuNanos()));
+      args.put("allocatedBytes", timelineEvent.getAllocatedBytes());
+
+      Map<String, Object> traceEvent = new LinkedHashMap<>();
+
+      traceEvent.put("name", timelineEvent.getName());
+      traceEvent.put("cat", timelineEvent.getCategory());
+      traceEvent.put("ph", "X");
+      traceEvent.put("ts", TimeUnit.NANOSECONDS.toMicros(timelineEvent.getStartNanos() - this.startNanos));
+      traceEvent.put("dur", TimeUnit.NANOSECONDS.toMicros(timelineEvent.getDurationNanos()));
+      traceEvent.put("pid", processId);
+      traceEvent.put("tid", timelineEvent.getThreadId());
+      traceEvent.put("args", args);
+
+      traceEvents.add(traceEvent);
+      threadNames.putIfAbsent(timelineEvent.getThreadId(), timelineEvent.getThreadName());
+    }
+
+    threadNames.forEach((threadId, threadName) -> {
+
+      Map<String, Object> metadataEvent = new LinkedHashMap<>();
+
+      metadataEvent.put("name", "thread_name");
+      metadataEvent.put("ph", "M");
+      metadataEvent.put("pid", processId);
+      metadataEvent.put("tid", threadId);
+      metadataEvent.put("args", Collections.singletonMap("name", threadName));
+
+      traceEvents.add(metadataEvent);
+    });
+
+    Map<String, Object> chromeTrace = new LinkedHashMap<>();
+
+    chromeTrace.put("traceEvents", traceEvents);
+    chromeTrace.put("displayTimeUnit", "ms");
+
+    return chromeTrace;
+  }
+
+  protected void report() {
+
+    System.out.printf("Spring GemFire context started in %d ms; slowest GemFire phases:%n",
+      toMillis(System.nanoTime() - this.startNanos));
+
+    this.timeline.stream()
+      .filter(timelineEvent -> GemFirePhase.isGemFireCategory(timelineEvent.getCategory()))
+      .sorted(Comparator.comparingLong(TimelineEvent::getDurationNanos).reversed())
+      .limit(getReportSize())
+      .forEach(timelineEvent -> System.out.printf("  %s%n", timelineEvent));
+  }
+
+  private static long toMillis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  /**
+   * The GemFirePhase enum classifies the initialization of GemFire beans.
+   */
+  public enum GemFirePhase {
+
+    CACHE_CREATION(CacheFactoryBean.class, "cache-creation", "cache creation"),
+    DISK_STORE_RECOVERY(DiskStoreFactoryBean.class, "disk-store-recovery", "disk store creation and recovery"),
+    REGION_CREATION(RegionLookupFactoryBean.class, "region-creation", "region creation, recovery and GII"),
+    INDEX_BUILD(IndexFactoryBean.class, "index-build", "index build"),
+    ASYNC_EVENT_QUEUE_CREATION(AsyncEventQueueFactoryBean.class, "async-event-queue-creation", "AEQ creation"),
+    GATEWAY_RECEIVER_START(GatewayReceiverFactoryBean.class, "gateway-start", "gateway receiver start"),
+    GATEWAY_SENDER_START(GatewaySenderFactoryBean.class, "gateway-start", "gateway sender start");
+
+    private final Class<?> beanType;
+
+    private final String category;
+    private final String description;
+
+    GemFirePhase(Class<?> beanType, String category, String description) {
+      this.beanType = beanType;
+      this.category = category;
+      this.description = description;
+    }
+
+    public static GemFirePhase of(Object bean) {
+
+      for (GemFirePhase phase : values()) {
+        if (phase.getBeanType().isInstance(bean)) {
+          return phase;
+        }
+      }
+
+      return null;
+    }
+
+    public static boolean isGemFireCategory(String category) {
+      return Arrays.stream(values()).anyMatch(phase -> phase.getCategory().equals(category));
+    }
+
+    public Class<?> getBeanType() {
+      return this.beanType;
+    }
+
+    public String getCategory() {
+      return this.category;
+    }
+
+    public String getDescription() {
+      return this.description;
+    }
+  }
+
+  /**
+   * The Measurement class is a snapshot of the wall-clock time, CPU time and allocated bytes of the current thread.
+   */
+  protected static class Measurement {
+
+    private final long allocatedBytes;
+    private final long cpuNanos;
+    private final long nanos;
+
+    protected static Measurement now() {
+      return new Measurement(System.nanoTime(), currentThreadCpuNanos(), currentThreadAllocatedBytes());
+    }
+
+    private static long currentThreadAllocatedBytes() {
+
+      if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+
+        com.sun.management.ThreadMXBean threadMxBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+
+        if (threadMxBean.isThreadAllocatedMemorySupported() && threadMxBean.isThreadAllocatedMemoryEnabled()) {
+          return threadMxBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+      }
+
+      return 0L;
+    }
+
+    private static long currentThreadCpuNanos() {
+      return (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0L);
+    }
+
+    protected Measurement(long nanos, long cpuNanos, long allocatedBytes) {
+      this.nanos = nanos;
+      this.cpuNanos = cpuNanos;
+      this.allocatedBytes = allocatedBytes;
+    }
+  }
+
+  /**
+   * The BeanProgress class tracks the phases of a bean being created on the current thread.
+   */
+  protected class BeanProgress {
+
+    private final Measurement start;
+
+    private Measurement phaseStart;
+
+    private final String beanName;
+
+    protected BeanProgress(String beanName) {
+      this.beanName = beanName;
+      this.start = Measurement.now();
+      this.phaseStart = this.start;
+    }
+
+    protected Measurement getStart() {
+      return this.start;
+    }
+
+    protected void endPhase(String name, String category) {
+      endPhase(name, category, Collections.emptyMap());
+    }
+
+    protected void endPhase(String name, String category, Map<String, Object> args) {
+
+      Measurement now = Measurement.now();
+
+      record(name, category, this.phaseStart, now, args);
+
+      this.phaseStart = now;
+    }
+  }
+
+  /**
+   * The TimelineEvent class is a recorded span of the startup timeline.
+   */
+  public static class TimelineEvent {
+
+    private final long allocatedBytes;
+    private final long cpuNanos;
+    private final long endNanos;
+    private final long startNanos;
+    private final long threadId;
+
+    private final Map<String, Object> args;
+
+    private final String category;
+    private final String name;
+    private final String threadName;
+
+    protected TimelineEvent(String name, String category, Thread thread, Measurement start, Measurement end,
+        Map<String, Object> args) {
+
+      this.name = name;
+      this.category = category;
+      this.threadId = thread.getId();
+      this.threadName = thread.getName();
+      this.startNanos = start.nanos;
+      this.endNanos = end.nanos;
+      this.cpuNanos = (end.cpuNanos - start.cpuNanos);
+      this.allocatedBytes = (end.allocatedBytes - start.allocatedBytes);
+      this.args = args;
+    }
+
+    public long getAllocatedBytes() {
+      return this.allocatedBytes;
+    }
+
+    public Map<String, Object> getArgs() {
+      return this.args;
+    }
+
+    public String getCategory() {
+      return this.category;
+    }
+
+    public long getCpuNanos() {
+      return this.cpuNanos;
+    }
+
+    public long getDurationNanos() {
+      return (this.endNanos - this.startNanos);
+    }
+
+    public long getEndNanos() {
+      return this.endNanos;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public long getStartNanos() {
+      return this.startNanos;
+    }
+
+    public long getThreadId() {
+      return this.threadId;
+    }
+
+    public String getThreadName() {
+      return this.threadName;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%1$s [%2$s] took %3$d ms (CPU %4$d ms, %5$d bytes allocated) on [%6$s]",
+        getName(), getCategory(), toMillis(getDurationNanos()), toMillis(getCpuNanos()), getAllocatedBytes(),
+        getThreadName());
+    }
+  }
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.pdx;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.apache.geode.cache.PartitionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.pdx.JSONFormatter;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.PdxInstanceFactory;
+import org.springframework.util.Assert;
+
+/**
+ * The JsonToPdxIngester class bulk loads newline-delimited JSON documents into a GemFire {@link Region}
+ * as {@link PdxInstance PdxInstances}.
+ *
+ * The file is read through a {@link FileChannel} into a reusable buffer and each line is parsed in place with
+ * Jackson's streaming {@link JsonParser}, building the {@link PdxInstance} directly with a {@link PdxInstanceFactory}
+ * rather than materializing a JSON {@link String} per document as {@link JSONFormatter#fromJSON(String)} requires.
+ * Documents are grouped by the bucket their key hashes to (for a {@link Region} with a {@link PartitionAttributes
+ * partition} resolved by key) and written with {@link Region#putAll(Map)} in batches, of which at most the configured
+ * number are in-flight at once.
+ *
+ * Integral numbers are written as {@literal long}, decimal numbers as {@literal double}, arrays as {@link List Lists}
+ * and nested objects as nested {@link PdxInstance PdxInstances} of the {@link JSONFormatter#JSON_CLASSNAME JSON type}
+ * so that each field has a single PDX type across all documents.  Malformed documents, documents that cannot be
+ * converted to PDX (e.g. with a duplicate field) and documents without a key are counted and skipped.
+ *
+ * @author John Blum
+ * @see com.fasterxml.jackson.core.JsonParser
+ * @see org.apache.geode.cache.Region#putAll(Map)
+ * @see org.apache.geode.pdx.PdxInstanceFactory
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class JsonToPdxIngester {
+
+  protected static final int DEFAULT_BATCH_SIZE = 1000;
+  protected static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  protected static final int DEFAULT_MAX_IN_FLIGHT = Runtime.getRuntime().availableProcessors();
+
+  protected static final String DEFAULT_KEY_FIELD = "id";
+
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private int bufferSize = DEFAULT_BUFFER_SIZE;
+  private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  private final Region<Object, Object> region;
+
+  private String className = JSONFormatter.JSON_CLASSNAME;
+  private String keyField = DEFAULT_KEY_FIELD;
+
+  @SuppressWarnings("unchecked")
+  public JsonToPdxIngester(Region<?, ?> region) {
+    Assert.notNull(region, "Region must not be null");
+    this.region = (Region<Object, Object>) region;
+  }
+
+  protected Region<Object, Object> getRegion() {
+    return this.region;
+  }
+
+  public void setBatchSize(int batchSize) {
+    Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+    this.batchSize = batchSize;
+  }
+
+  protected int getBatchSize() {
+    return this.batchSize;
+  }
+
+  public void setBufferSize(int bufferSize) {
+    Assert.isTrue(bufferSize > 0, "Buffer size must be greater than 0");
+    this.bufferSize = bufferSize;
+  }
+
+  protected int getBufferSize() {
+    return this.bufferSize;
+  }
+
+  /**
+   * Sets the PDX type name of the top-level documents, for example the name of an application domain class
+   * to which the {@link PdxInstance PdxInstances} can be deserialized.  Defaults to the JSON type.
+   *
+   * @param className PDX type name of the documents.
+   */
+  public void setClassName(String className) {
+    Assert.hasText(className, "Class name must be specified");
+    this.className = className;
+  }
+
+  protected String getClassName() {
+    return this.className;
+  }
+
+  public void setKeyField(String keyField) {
+    Assert.hasText(keyField, "Key field must be specified");
+    this.keyField = keyField;
+  }
+
+  protected String getKeyField() {
+    return this.keyField;
+  }
+
+  public void setMaxInFlight(int maxInFlight) {
+    Assert.isTrue(maxInFlight > 0, "Max in-flight must be greater than 0");
+    this.maxInFlight = maxInFlight;
+  }
+
+  protected int getMaxInFlight() {
+    return this.maxInFlight;
+  }
+
+  /**
+   * Loads all JSON documents in the given newline-delimited JSON file into the {@link Region}.
+   *
+   * @param file {@link Path} to the newline-delimited JSON file.
+   * @return the {@link Statistics} of the ingest.
+   * @throws IOException if the file cannot be read.
+   */
+  public Statistics ingest(Path file) throws IOException {
+
+    Assert.notNull(file, "File must not be null");
+
+    Ingest ingest = new Ingest();
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+      ByteBuffer buffer = ByteBuffer.allocate(getBufferSize());
+
+      int start = 0;
+      boolean endOfFile = false;
+
+      while (!endOfFile) {
+
+        int position = buffer.position();
+
+        endOfFile = (channel.read(buffer) < 0);
+
+        byte[] bytes = buffer.array();
+
+        for (int index = position, end = buffer.position(); index < end; index++) {
+          if (bytes[index] == '\n') {
+            ingest.accept(bytes, start, index - start);
+            start = index + 1;
+          }
+        }
+
+        if (endOfFile) {
+          ingest.accept(bytes, start, buffer.position() - start);
+        }
+        else if (start > 0) {
+          System.arraycopy(bytes, start, bytes, 0, buffer.position() - start);
+          buffer.position(buffer.position() - start);
+          start = 0;
+        }
+        else if (!buffer.hasRemaining()) {
+          int length = buffer.position();
+          buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length * 2));
+          buffer.position(length);
+        }
+      }
+    }
+    finally {
+      ingest.complete();
+    }
+
+    System.out.printf("Ingested [%1$s] into Region [%2$s]: %3$s%n", file, getRegion().getFullPath(),
+      ingest.statistics);
+
+    return ingest.statistics;
+  }
+
+  protected int getTotalNumberOfBuckets() {
+
+    PartitionAttributes<?, ?> partitionAttributes = getRegion().getAttributes().getPartitionAttributes();
+
+    return (partitionAttributes != null && partitionAttributes.getPartitionResolver() == null
+      ? partitionAttributes.getTotalNumBuckets() : 1);
+  }
+
+  protected PdxInstance readDocument(JsonParser parser) throws IOException {
+
+    JsonToken token = parser.nextToken();
+
+    if (token == null) {
+      return null;
+    }
+    else if (token != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, String.format("Expected a JSON object but was [%s]", token));
+    }
+
+    PdxInstance document = readObject(parser, getClassName());
+
+    if (parser.nextToken() != null) {
+      throw new JsonParseException(parser, "Expected one JSON object per line");
+    }
+
+    return document;
+  }
+
+  protected PdxInstance readObject(JsonParser parser, String className) throws IOException {
+
+    PdxInstanceFactory pdxInstanceFactory = getRegion().getRegionService().createPdxInstanceFactory(className);
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+      String fieldName = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+
+      switch (token) {
+        case VALUE_STRING:
+          pdxInstanceFactory.writeString(fieldName, parser.getText());
+          break;
+        case VALUE_NUMBER_INT:
+          if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+            pdxInstanceFactory.writeObject(fieldName, parser.getBigIntegerValue());
+          }
+          else {
+            pdxInstanceFactory.writeLong(fieldName, parser.getLongValue());
+          }
+          break;
+        case VALUE_NUMBER_FLOAT:
+          pdxInstanceFactory.writeDouble(fieldName, parser.getDoubleValue());
+          break;
+        case VALUE_TRUE:
+        case VALUE_FALSE:
+          pdxInstanceFactory.writeBoolean(fieldName, parser.getBooleanValue());
+          break;
+        default:
+          pdxInstanceFactory.writeObject(fieldName, readValue(parser, token));
+      }
+    }
+
+    return pdxInstanceFactory.create();
+  }
+
+  protected Object readValue(JsonParser parser, JsonToken token) throws IOException {
+
+    switch (token) {
+      case START_OBJECT:
+        return readObject(parser, JSONFormatter.JSON_CLASSNAME);
+      case START_ARRAY:
+        List<Object> list = new ArrayList<>();
+        for (JsonToken elementToken = parser.nextToken(); elementToken != JsonToken.END_ARRAY;
+            elementToken = parser.nextToken()) {
+          list.add(readValue(parser, elementToken));
+        }
+        return list;
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+        return (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER ? parser.getBigIntegerValue()
+          : parser.getLongValue());
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        return parser.getBooleanValue();
+      case VALUE_NULL:
+        return null;
+      default:
+        throw new JsonParseException(parser, String.format("Unexpected JSON token [%s]", token));
+    }
+  }
+
+  /**
+   * The Statistics class records the throughput and error counts of an ingest.
+   */
+  public static class Statistics {
+
+    private final AtomicLong batches = new AtomicLong(0L);
+    private final AtomicLong documents = new AtomicLong(0L);
+    private final AtomicLong failedBatches = new AtomicLong(0L);
+    private final AtomicLong failedDocuments = new AtomicLong(0L);
+    private final AtomicLong loadedDocuments = new AtomicLong(0L);
+
+    private volatile long elapsedNanos;
+
+    /**
+     * Returns the number of {@link Region#putAll(Map)} batches that were issued.
+     */
+    public long getBatches() {
+      return this.batches.get();
+    }
+
+    /**
+     * Returns the number of documents (non-blank lines) read from the file.
+     */
+    public long getDocuments() {
+      return this.documents.get();
+    }
+
+    public long getElapsedTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getFailedBatches() {
+      return this.failedBatches.get();
+    }
+
+    /**
+     * Returns the number of documents that were malformed, had no key or were in a failed batch.
+     */
+    public long getFailedDocuments() {
+      return this.failedDocuments.get();
+    }
+
+    public long getLoadedDocuments() {
+      return this.loadedDocuments.get();
+    }
+
+    /**
+     * Returns the number of documents loaded per second.
+     */
+    public double getThroughput() {
+      return (this.elapsedNanos > 0L
+        ? (getLoadedDocuments() * (double) TimeUnit.SECONDS.toNanos(1) / this.elapsedNanos) : 0.0d);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("{ documents = %1$d, loaded = %2$d, failed = %3$d, batches = %4$d, failedBatches = %5$d,"
+        + " elapsedTime = %6$d ms, throughput = %7$.2f documents/s }", getDocuments(), getLoadedDocuments(),
+          getFailedDocuments(), getBatches(), getFailedBatches(), getElapsedTime(TimeUnit.MILLISECONDS),
+            getThroughput());
+    }
+  }
+
+  private class Ingest {
+
+    private final long t0 = System.nanoTime();
+
+    private final int totalNumberOfBuckets = getTotalNumberOfBuckets();
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(getMaxInFlight());
+
+    private final Map<Integer, Map<Object, Object>> batches = new HashMap<>();
+
+    private final Semaphore inFlight = new Semaphore(getMaxInFlight());
+
+    private final Statistics statistics = new Statistics();
+
+    private void accept(byte[] bytes, int offset, int length) throws IOException {
+
+      if (!isBlank(bytes, offset, length)) {
+
+        try (JsonParser parser = jsonFactory.createParser(bytes, offset, length)) {
+
+          PdxInstance document = readDocument(parser);
+
+          if (document != null) {
+
+            this.statistics.documents.incrementAndGet();
+
+            Object key = (document.hasField(getKeyField()) ? document.getField(getKeyField()) : null);
+
+            if (key != null) {
+              add(key, document);
+            }
+            else {
+              this.statistics.failedDocuments.incrementAndGet();
+            }
+          }
+        }
+        catch (JsonParseException | RuntimeException e) {
+          // a malformed document, or one PDX rejects (e.g. PdxFieldAlreadyExistsException for a duplicate key),
+          // must not abort the ingest
+          this.statistics.documents.incrementAndGet();
+          this.statistics.failedDocuments.incrementAndGet();
+        }
+      }
+    }
+
+    private boolean isBlank(byte[] bytes, int offset, int length) {
+
+      for (int index = offset, end = offset + length; index < end; index++) {
+        if (!Character.isWhitespace(bytes[index])) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    private void add(Object key, PdxInstance document) {
+
+      Integer bucket = (this.totalNumberOfBuckets > 1 ? Math.abs(key.hashCode() % this.totalNumberOfBuckets) : 0);
+
+      Map<Object, Object> batch = this.batches.computeIfAbsent(bucket, it -> new HashMap<>(getBatchSize()));
+
+      batch.put(key, document);
+
+      if (batch.size() >= getBatchSize()) {
+        this.batches.remove(bucket);
+        submit(batch);
+      }
+    }
+
+    private void submit(Map<Object, Object> batch) {
+
+      this.inFlight.acquireUninterruptibly();
+      this.statistics.batches.incrementAndGet();
+
+      CompletableFuture.runAsync(() -> getRegion().putAll(batch), this.executorService)
+        .whenComplete((result, cause) -> {
+          if (cause != null) {
+            this.statistics.failedBatches.incrementAndGet();
+            this.statistics.failedDocuments.addAndGet(batch.size());
+            System.err.printf("Failed to put batch of [%1$d] document(s): %2$s%n", batch.size(), cause.getMessage());
+          }
+          else {
+            this.statistics.loadedDocuments.addAndGet(batch.size());
+          }
+
+          this.inFlight.release();
+        });
+    }
+
+    private void complete() {
+
+      try {
+        this.batches.values().forEach(this::submit);
+        this.batches.clear();
+        this.inFlight.acquireUninterruptibly(getMaxInFlight());
+        this.inFlight.release(getMaxInFlight());
+      }
+      finally {
+        this.executorService.shutdown();
+        this.statistics.elapsedNanos = (System.nanoTime() - this.t0);
+      }
+    }
+  }
+}
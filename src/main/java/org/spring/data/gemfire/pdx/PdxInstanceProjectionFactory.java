@@ -0,0 +1,259 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.pdx;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.pdx.PdxInstance;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * The PdxInstanceProjectionFactory class creates lazily bound, interface-based projections over query results.
+ *
+ * When the cache is configured with {@literal pdx-read-serialized} set to {@literal true}, query results are
+ * {@link PdxInstance PdxInstances} and each projection accessor reads only its field from the serialized bytes
+ * the first time it is called, so the full application domain object is never deserialized.  Note that GemFire
+ * keeps values implementing {@link org.apache.geode.Delta} deserialized, so their projections read the domain object
+ * regardless of the PDX configuration.  {@link Struct} results and plain objects (e.g. when PDX read-serialized
+ * is off) are supported as well, the latter by reading bean properties.
+ *
+ * Accessor methods follow the JavaBeans naming convention ({@literal getName()} or {@literal isActive()}) and
+ * map to the field (property) of the same name.  Accessors returning an interface type are projected in turn when
+ * the field value is itself a {@link PdxInstance}.  Values not assignable to the accessor's return type are converted
+ * with a {@link ConversionService}.
+ *
+ * @author John Blum
+ * @see java.lang.reflect.Proxy
+ * @see org.apache.geode.cache.query.Struct
+ * @see org.apache.geode.pdx.PdxInstance
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class PdxInstanceProjectionFactory {
+
+  private static final Object NULL = new Object();
+
+  private final ConversionService conversionService;
+
+  public PdxInstanceProjectionFactory() {
+    this(new DefaultConversionService());
+  }
+
+  public PdxInstanceProjectionFactory(ConversionService conversionService) {
+    Assert.notNull(conversionService, "ConversionService must not be null");
+    this.conversionService = conversionService;
+  }
+
+  protected ConversionService getConversionService() {
+    return this.conversionService;
+  }
+
+  /**
+   * Creates a projection of the given source object.
+   *
+   * @param <T> {@link Class} type of the projection.
+   * @param projectionType interface type of the projection.
+   * @param source {@link PdxInstance}, {@link Struct} or object to project.
+   * @return a projection of the source, or {@literal null} if the source is {@literal null}.
+   * @throws IllegalArgumentException if the projection type is not an interface.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T createProjection(Class<T> projectionType, Object source) {
+
+    Assert.notNull(projectionType, "Projection type must not be null");
+    Assert.isTrue(projectionType.isInterface(), () -> String.format("Projection type [%s] must be an interface",
+      projectionType.getName()));
+
+    if (source == null) {
+      return null;
+    }
+
+    if (projectionType.isInstance(source)) {
+      return projectionType.cast(source);
+    }
+
+    return (T) Proxy.newProxyInstance(projectionType.getClassLoader(), new Class<?>[] { projectionType },
+      new ProjectionInvocationHandler(projectionType, source));
+  }
+
+  /**
+   * Creates a projection for each of the given source objects, for example the results of a query.
+   *
+   * @param <T> {@link Class} type of the projection.
+   * @param projectionType interface type of the projection.
+   * @param sources {@link Iterable} of objects to project.
+   * @return a {@link List} of projections in the iteration order of the sources.
+   * @see #createProjection(Class, Object)
+   */
+  public <T> List<T> createProjections(Class<T> projectionType, Iterable<?> sources) {
+
+    List<T> projections = new ArrayList<>();
+
+    if (sources != null) {
+      for (Object source : sources) {
+        projections.add(createProjection(projectionType, source));
+      }
+    }
+
+    return projections;
+  }
+
+  protected static String toPropertyName(Method method) {
+
+    String methodName = method.getName();
+
+    if (methodName.startsWith("get") && methodName.length() > 3) {
+      return StringUtils.uncapitalize(methodName.substring(3));
+    }
+    else if (methodName.startsWith("is") && methodName.length() > 2) {
+      return StringUtils.uncapitalize(methodName.substring(2));
+    }
+
+    return methodName;
+  }
+
+  protected Object readProperty(Object source, String propertyName) {
+
+    if (source instanceof PdxInstance) {
+      PdxInstance pdxInstance = (PdxInstance) source;
+      return (pdxInstance.hasField(propertyName) ? pdxInstance.getField(propertyName) : null);
+    }
+    else if (source instanceof Struct) {
+      Struct struct = (Struct) source;
+      String[] fieldNames = struct.getStructType().getFieldNames();
+      return (ObjectUtils.containsElement(fieldNames, propertyName) ? struct.get(propertyName) : null);
+    }
+    else {
+      BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(source);
+      return (beanWrapper.isReadableProperty(propertyName) ? beanWrapper.getPropertyValue(propertyName) : null);
+    }
+  }
+
+  protected Object adapt(Object value, Method accessor) {
+
+    Class<?> returnType = ClassUtils.resolvePrimitiveIfNecessary(accessor.getReturnType());
+
+    if (value == null) {
+      Assert.state(!accessor.getReturnType().isPrimitive(), () -> String.format(
+        "Cannot return null for primitive accessor [%s]", accessor));
+
+      return null;
+    }
+    else if (returnType.isInstance(value)) {
+      return value;
+    }
+    else if (value instanceof PdxInstance) {
+      return (returnType.isInterface() ? createProjection(returnType, value)
+        : adapt(((PdxInstance) value).getObject(), accessor));
+    }
+
+    return getConversionService().convert(value, returnType);
+  }
+
+  protected class ProjectionInvocationHandler implements InvocationHandler {
+
+    private final Class<?> projectionType;
+
+    private final Map<Method, Object> values = new ConcurrentHashMap<>();
+
+    private final Object source;
+
+    protected ProjectionInvocationHandler(Class<?> projectionType, Object source) {
+      this.projectionType = projectionType;
+      this.source = source;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+      if (ReflectionUtils.isEqualsMethod(method)) {
+        return (proxy == args[0] || (args[0] != null && Proxy.isProxyClass(args[0].getClass())
+          && equals(Proxy.getInvocationHandler(args[0]))));
+      }
+      else if (ReflectionUtils.isHashCodeMethod(method)) {
+        return hashCode();
+      }
+      else if (ReflectionUtils.isToStringMethod(method)) {
+        return toString();
+      }
+
+      Assert.state(ObjectUtils.isEmpty(args), () -> String.format("Projection method [%s] must not have arguments",
+        method));
+
+      Object value = this.values.computeIfAbsent(method, accessor -> {
+        Object adaptedValue = adapt(readProperty(this.source, toPropertyName(accessor)), accessor);
+        return (adaptedValue != null ? adaptedValue : NULL);
+      });
+
+      return (value != NULL ? value : null);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+      if (obj == this) {
+        return true;
+      }
+
+      if (!(obj instanceof ProjectionInvocationHandler)) {
+        return false;
+      }
+
+      ProjectionInvocationHandler that = (ProjectionInvocationHandler) obj;
+
+      return this.projectionType.equals(that.projectionType) && this.source.equals(that.source);
+    }
+
+    @Override
+    public int hashCode() {
+      int hashValue = 17;
+      hashValue = 37 * hashValue + this.projectionType.hashCode();
+      hashValue = 37 * hashValue + this.source.hashCode();
+      return hashValue;
+    }
+
+    @Override
+    public String toString() {
+
+      List<String> propertyNames = new ArrayList<>();
+
+      Arrays.stream(this.projectionType.getMethods())
+        .filter(method -> method.getParameterCount() == 0 && !method.isDefault())
+        .forEach(method -> propertyNames.add(toPropertyName(method)));
+
+      return String.format("%1$s projection %2$s of [%3$s]", this.projectionType.getSimpleName(), propertyNames,
+        (this.source instanceof PdxInstance ? ((PdxInstance) this.source).getClassName()
+          : this.source.getClass().getName()));
+    }
+  }
+}
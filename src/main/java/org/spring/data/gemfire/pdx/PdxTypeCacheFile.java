@@ -0,0 +1,248 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.pdx;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.pdx.internal.EnumInfo;
+import org.apache.geode.pdx.internal.PdxType;
+import org.springframework.util.Assert;
+
+/**
+ * The PdxTypeCacheFile class is a compact, memory-mapped file recording the names of the application domain types
+ * found by a classpath scan, along with the PDX type (and enum) definitions of the PDX type registry, so that
+ * on the next start the scan is skipped and the types are imported into the registry rather than defined again,
+ * including the types of nested objects (e.g. an {@link org.spring.data.gemfire.app.beans.Address}).
+ *
+ * The file layout is a 4 byte magic number, the 8 byte fingerprint of the scanned classpath, a 4 byte entry count
+ * followed by each class name encoded as a 2 byte length and its UTF-8 bytes, then a 4 byte length followed by the
+ * PDX type and enum definitions, keyed by ID and written with {@link DataSerializer#writeHashMap}.  The recorded
+ * contents are only returned while the fingerprint is unchanged.
+ *
+ * @author John Blum
+ * @see java.nio.MappedByteBuffer
+ * @see java.nio.channels.FileChannel
+ * @see org.apache.geode.pdx.internal.PdxType
+ * @see org.spring.data.gemfire.pdx.PdxTypeRegistryWarmer
+ * @since 1.0.0
+ */
+public class PdxTypeCacheFile {
+
+  // "PDX3"; files written by earlier versions, without type definitions, are ignored
+  protected static final int MAGIC_NUMBER = 0x50445833;
+
+  private final File file;
+
+  public PdxTypeCacheFile(File file) {
+    Assert.notNull(file, "File must not be null");
+    this.file = file;
+  }
+
+  public File getFile() {
+    return this.file;
+  }
+
+  public boolean exists() {
+    return getFile().isFile();
+  }
+
+  /**
+   * Reads the class names recorded in this PDX type cache file for the classpath with the given fingerprint.
+   *
+   * @param fingerprint fingerprint of the classpath that would otherwise be scanned.
+   * @return a {@link List} of class names, or an empty {@link List} if the file does not exist, is not
+   * a valid PDX type cache file or was written for a different fingerprint.
+   * @throws IOException if the file cannot be read.
+   */
+  public List<String> read(long fingerprint) throws IOException {
+    return readContents(fingerprint).classNames;
+  }
+
+  /**
+   * Reads the PDX enum definitions recorded in this PDX type cache file for the classpath with the given fingerprint.
+   *
+   * @param fingerprint fingerprint of the classpath that would otherwise be scanned.
+   * @return a {@link Map} of enum ID to {@link EnumInfo}, or an empty {@link Map} if the file does not exist,
+   * is not a valid PDX type cache file or was written for a different fingerprint.
+   * @throws IOException if the file cannot be read.
+   */
+  public Map<Integer, EnumInfo> readEnums(long fingerprint) throws IOException {
+    return readContents(fingerprint).enums;
+  }
+
+  /**
+   * Reads the PDX type definitions recorded in this PDX type cache file for the classpath with the given fingerprint.
+   *
+   * @param fingerprint fingerprint of the classpath that would otherwise be scanned.
+   * @return a {@link Map} of type ID to {@link PdxType}, or an empty {@link Map} if the file does not exist,
+   * is not a valid PDX type cache file or was written for a different fingerprint.
+   * @throws IOException if the file cannot be read.
+   */
+  public Map<Integer, PdxType> readTypes(long fingerprint) throws IOException {
+    return readContents(fingerprint).types;
+  }
+
+  private Contents readContents(long fingerprint) throws IOException {
+
+    if (!exists()) {
+      return Contents.EMPTY;
+    }
+
+    try (FileChannel channel = FileChannel.open(getFile().toPath(), StandardOpenOption.READ)) {
+
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+      if (buffer.remaining() < 16 || buffer.getInt() != MAGIC_NUMBER || buffer.getLong() != fingerprint) {
+        return Contents.EMPTY;
+      }
+
+      int count = buffer.getInt();
+
+      List<String> classNames = new ArrayList<>(count);
+
+      for (int index = 0; index < count; index++) {
+
+        byte[] classNameBytes = new byte[buffer.getShort() & 0xFFFF];
+
+        buffer.get(classNameBytes);
+        classNames.add(new String(classNameBytes, StandardCharsets.UTF_8));
+      }
+
+      byte[] definitions = new byte[buffer.getInt()];
+
+      buffer.get(definitions);
+
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(definitions));
+
+      HashMap<Integer, PdxType> types = DataSerializer.readHashMap(in);
+      HashMap<Integer, EnumInfo> enums = DataSerializer.readHashMap(in);
+
+      return new Contents(classNames, types, enums);
+    }
+    catch (BufferUnderflowException | ClassNotFoundException ignore) {
+      return Contents.EMPTY;
+    }
+  }
+
+  /**
+   * Writes the given class names to this PDX type cache file, without any PDX type definitions,
+   * replacing any existing content.
+   *
+   * @param classNames {@link Collection} of class names to record.
+   * @param fingerprint fingerprint of the scanned classpath.
+   * @throws IOException if the file cannot be written.
+   */
+  public void write(Collection<String> classNames, long fingerprint) throws IOException {
+    write(classNames, Collections.emptyMap(), Collections.emptyMap(), fingerprint);
+  }
+
+  /**
+   * Writes the given class names and PDX type and enum definitions to this PDX type cache file,
+   * replacing any existing content.
+   *
+   * @param classNames {@link Collection} of class names to record.
+   * @param types {@link Map} of type ID to the {@link PdxType} definitions to record.
+   * @param enums {@link Map} of enum ID to the {@link EnumInfo} definitions to record.
+   * @param fingerprint fingerprint of the scanned classpath.
+   * @throws IOException if the file cannot be written.
+   */
+  public void write(Collection<String> classNames, Map<Integer, PdxType> types, Map<Integer, EnumInfo> enums,
+      long fingerprint) throws IOException {
+
+    List<byte[]> encodedClassNames = new ArrayList<>(classNames.size());
+
+    long size = 20;
+
+    for (String className : classNames) {
+      byte[] classNameBytes = className.getBytes(StandardCharsets.UTF_8);
+      encodedClassNames.add(classNameBytes);
+      size += (2 + classNameBytes.length);
+    }
+
+    ByteArrayOutputStream definitions = new ByteArrayOutputStream();
+
+    try (DataOutputStream out = new DataOutputStream(definitions)) {
+      DataSerializer.writeHashMap(new HashMap<>(types), out);
+      DataSerializer.writeHashMap(new HashMap<>(enums), out);
+    }
+
+    size += definitions.size();
+
+    File parentDirectory = getFile().getAbsoluteFile().getParentFile();
+
+    Assert.state(parentDirectory.isDirectory() || parentDirectory.mkdirs(),
+      () -> String.format("Failed to create directory [%s]", parentDirectory));
+
+    try (FileChannel channel = FileChannel.open(getFile().toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+      buffer.putInt(MAGIC_NUMBER);
+      buffer.putLong(fingerprint);
+      buffer.putInt(encodedClassNames.size());
+
+      for (byte[] classNameBytes : encodedClassNames) {
+        buffer.putShort((short) classNameBytes.length);
+        buffer.put(classNameBytes);
+      }
+
+      buffer.putInt(definitions.size());
+      buffer.put(definitions.toByteArray());
+      buffer.force();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getFile().getAbsolutePath();
+  }
+
+  private static final class Contents {
+
+    private static final Contents EMPTY =
+      new Contents(Collections.emptyList(), Collections.emptyMap(), Collections.emptyMap());
+
+    private final List<String> classNames;
+
+    private final Map<Integer, EnumInfo> enums;
+    private final Map<Integer, PdxType> types;
+
+    private Contents(List<String> classNames, Map<Integer, PdxType> types, Map<Integer, EnumInfo> enums) {
+      this.classNames = classNames;
+      this.types = types;
+      this.enums = enums;
+    }
+  }
+}
@@ -0,0 +1,501 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.pdx;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.pdx.internal.EnumInfo;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.TypeRegistry;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.gemfire.mapping.annotation.Region;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * The PdxTypeRegistryWarmer class is a Spring {@link ApplicationListener} that registers the PDX types of
+ * the application domain model with the PDX type registry when the Spring context is refreshed, rather than lazily,
+ * on the first serialization of each type while serving a request.
+ *
+ * Domain types are the classes annotated with {@link Region @Region} in the configured base packages
+ * ({@literal org.spring.data.gemfire.app.beans} by default) along with any explicitly configured types.
+ * The optional {@link PdxTypeCacheFile} records the names of the scanned types, and the PDX type definitions of
+ * the registry once the types are registered, so that on the next start, unless the classes in the base packages
+ * have changed since, the classpath scan is skipped and the definitions, including those of nested objects, are
+ * imported into the registry rather than defined again.  Each type is then instantiated with its default constructor
+ * and serialized once, in parallel, which defines any PDX type not yet in the registry locally and, in a client,
+ * with the servers.  The registry is warmed up once, on the first refresh of the Spring context.
+ *
+ * The {@link GemFireCache} is required on construction so that the cache, and its PDX configuration, is created
+ * before any type is registered.
+ *
+ * @author John Blum
+ * @see org.apache.geode.DataSerializer
+ * @see org.apache.geode.cache.GemFireCache
+ * @see org.spring.data.gemfire.pdx.PdxTypeCacheFile
+ * @see org.springframework.context.ApplicationListener
+ * @see org.springframework.context.event.ContextRefreshedEvent
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class PdxTypeRegistryWarmer implements ApplicationListener<ContextRefreshedEvent> {
+
+  protected static final String DEFAULT_BASE_PACKAGE = "org.spring.data.gemfire.app.beans";
+
+  // first byte written for a PDX serialized object (see org.apache.geode.internal.DSCODE.PDX)
+  protected static final byte PDX_HEADER = 93;
+
+  private ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+
+  private final AtomicBoolean warmedUp = new AtomicBoolean(false);
+
+  private volatile boolean typeCacheFileHit;
+
+  private volatile int importedTypeCount;
+
+  private final Map<String, Long> registeredTypes = new ConcurrentHashMap<>();
+  private final Map<String, Throwable> failedTypes = new ConcurrentHashMap<>();
+
+  private final GemFireCache gemfireCache;
+
+  private PdxTypeCacheFile typeCacheFile;
+
+  private Set<Class<?>> types = Collections.emptySet();
+
+  private String[] basePackages = { DEFAULT_BASE_PACKAGE };
+
+  public PdxTypeRegistryWarmer(GemFireCache gemfireCache) {
+    Assert.notNull(gemfireCache, "GemFireCache must not be null");
+    this.gemfireCache = gemfireCache;
+  }
+
+  protected GemFireCache getGemFireCache() {
+    return this.gemfireCache;
+  }
+
+  public void setBasePackages(String... basePackages) {
+    this.basePackages = (basePackages != null ? basePackages : new String[0]);
+  }
+
+  protected String[] getBasePackages() {
+    return this.basePackages;
+  }
+
+  public void setClassLoader(ClassLoader classLoader) {
+    this.classLoader = classLoader;
+  }
+
+  protected ClassLoader getClassLoader() {
+    return this.classLoader;
+  }
+
+  public void setParallelism(int parallelism) {
+    Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+    this.parallelism = parallelism;
+  }
+
+  protected int getParallelism() {
+    return this.parallelism;
+  }
+
+  public void setTypeCacheFile(File typeCacheFile) {
+    this.typeCacheFile = (typeCacheFile != null ? new PdxTypeCacheFile(typeCacheFile) : null);
+  }
+
+  protected PdxTypeCacheFile getTypeCacheFile() {
+    return this.typeCacheFile;
+  }
+
+  public void setTypes(Class<?>... types) {
+    this.types = new LinkedHashSet<>(Arrays.asList(types != null ? types : new Class<?>[0]));
+  }
+
+  protected Set<Class<?>> getTypes() {
+    return this.types;
+  }
+
+  /**
+   * Returns the types that failed to register, for example because they have no default constructor
+   * or are not PDX serializable, mapped to the cause.
+   *
+   * @return a {@link Map} of class name to the cause of the failure.
+   */
+  public Map<String, Throwable> getFailedTypes() {
+    return Collections.unmodifiableMap(this.failedTypes);
+  }
+
+  /**
+   * Returns the types that were registered mapped to the time, in nanoseconds, it took to register each type.
+   *
+   * @return a {@link Map} of class name to registration time in nanoseconds.
+   */
+  public Map<String, Long> getRegisteredTypes() {
+    return Collections.unmodifiableMap(this.registeredTypes);
+  }
+
+  /**
+   * Returns the number of PDX type and enum definitions imported from the PDX type cache file by the last warm up.
+   */
+  public int getImportedTypeCount() {
+    return this.importedTypeCount;
+  }
+
+  /**
+   * Determines whether the types of the last warm up were read from the PDX type cache file
+   * rather than found by a classpath scan.
+   */
+  public boolean isTypeCacheFileHit() {
+    return this.typeCacheFileHit;
+  }
+
+  /**
+   * Warms up the PDX type registry on the first {@link ContextRefreshedEvent} only; the event is published again
+   * when the context is refreshed or a child context is refreshed.
+   */
+  @Override
+  public void onApplicationEvent(ContextRefreshedEvent event) {
+    if (this.warmedUp.compareAndSet(false, true)) {
+      warmUp();
+    }
+  }
+
+  /**
+   * Registers all resolved application domain types with the PDX type registry.
+   *
+   * @see #resolveDomainTypes(Long)
+   */
+  public void warmUp() {
+
+    long t0 = System.nanoTime();
+
+    Long fingerprint = fingerprint();
+
+    Set<Class<?>> domainTypes = resolveDomainTypes(fingerprint);
+    Set<Class<?>> resolvedTypes = new LinkedHashSet<>(getTypes());
+
+    resolvedTypes.addAll(domainTypes);
+
+    if (!resolvedTypes.isEmpty()) {
+
+      ExecutorService executorService =
+        Executors.newFixedThreadPool(Math.min(getParallelism(), resolvedTypes.size()));
+
+      try {
+        List<Future<?>> registrations = new ArrayList<>(resolvedTypes.size());
+
+        for (Class<?> type : resolvedTypes) {
+          registrations.add(executorService.submit((Callable<Object>) () -> register(type)));
+        }
+
+        for (Future<?> registration : registrations) {
+          registration.get();
+        }
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      catch (ExecutionException e) {
+        throw new IllegalStateException("Failed to warm up the PDX type registry", e.getCause());
+      }
+      finally {
+        executorService.shutdownNow();
+      }
+    }
+
+    if (!isTypeCacheFileHit()) {
+      writeTypeCacheFile(domainTypes, fingerprint);
+    }
+
+    System.out.printf("Registered [%1$d] PDX type(s) in [%2$d] ms; [%3$d] type(s) failed %4$s%n",
+      this.registeredTypes.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0), this.failedTypes.size(),
+        this.failedTypes.keySet());
+  }
+
+  /**
+   * Resolves the domain types recorded in the PDX type cache file, importing the recorded PDX type definitions,
+   * or scans the base packages when the file is not configured, missing or stale.
+   *
+   * @param fingerprint current fingerprint of the base packages; may be {@literal null}.
+   * @return the domain types to register.
+   */
+  protected Set<Class<?>> resolveDomainTypes(Long fingerprint) {
+
+    Set<Class<?>> domainTypes = readTypeCacheFile(fingerprint);
+
+    this.typeCacheFileHit = (domainTypes != null);
+    this.importedTypeCount = 0;
+
+    if (domainTypes != null) {
+      importTypeDefinitions(fingerprint);
+    }
+    else {
+      domainTypes = scan();
+    }
+
+    return domainTypes;
+  }
+
+  protected TypeRegistry resolvePdxRegistry() {
+    return (getGemFireCache() instanceof InternalCache ? ((InternalCache) getGemFireCache()).getPdxRegistry() : null);
+  }
+
+  /**
+   * Computes a fingerprint of the base packages and of the classpath locations they are scanned from, which changes
+   * when a class file is added, removed or recompiled in a directory or when a jar file is replaced.
+   *
+   * @return the fingerprint, or {@literal null} if a location cannot be fingerprinted.
+   */
+  protected Long fingerprint() {
+
+    ClassLoader classLoader = (getClassLoader() != null ? getClassLoader() : ClassUtils.getDefaultClassLoader());
+
+    try {
+      long fingerprint = 17L;
+
+      for (String basePackage : getBasePackages()) {
+
+        fingerprint = 31L * fingerprint + basePackage.hashCode();
+
+        Enumeration<URL> locations = classLoader.getResources(ClassUtils.convertClassNameToResourcePath(basePackage));
+
+        while (locations.hasMoreElements()) {
+
+          URL location = locations.nextElement();
+
+          fingerprint = 31L * fingerprint + location.toString().hashCode();
+          fingerprint = 31L * fingerprint + fingerprint(location);
+        }
+      }
+
+      return fingerprint;
+    }
+    catch (IOException e) {
+      return null;
+    }
+  }
+
+  private long fingerprint(URL location) throws IOException {
+
+    if (ResourceUtils.isJarURL(location)) {
+
+      File jarFile = ResourceUtils.getFile(ResourceUtils.extractJarFileURL(location));
+
+      return 31L * jarFile.lastModified() + jarFile.length();
+    }
+    else if (ResourceUtils.isFileURL(location)) {
+      try (Stream<Path> paths = Files.walk(ResourceUtils.getFile(location).toPath())) {
+        return paths.filter(path -> path.toString().endsWith(ClassUtils.CLASS_FILE_SUFFIX))
+          .mapToLong(path -> 31L * path.toString().hashCode() + path.toFile().lastModified())
+          .sum();
+      }
+    }
+
+    throw new IOException(String.format("Cannot fingerprint classpath location [%s]", location));
+  }
+
+  protected Set<Class<?>> scan() {
+
+    Set<Class<?>> scannedTypes = new LinkedHashSet<>();
+
+    if (!ObjectUtils.isEmpty(getBasePackages())) {
+
+      ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+
+      scanner.addIncludeFilter(new AnnotationTypeFilter(Region.class));
+
+      for (String basePackage : getBasePackages()) {
+        for (BeanDefinition beanDefinition : scanner.findCandidateComponents(basePackage)) {
+          resolveType(beanDefinition.getBeanClassName(), scannedTypes);
+        }
+      }
+    }
+
+    return scannedTypes;
+  }
+
+  /**
+   * Reads the domain types recorded in the PDX type cache file.
+   *
+   * @param fingerprint current fingerprint of the base packages; may be {@literal null}.
+   * @return the recorded types, or {@literal null} if the file is not configured, missing, empty or stale,
+   * including when a recorded class no longer exists.
+   */
+  protected Set<Class<?>> readTypeCacheFile(Long fingerprint) {
+
+    if (getTypeCacheFile() != null && fingerprint != null) {
+      try {
+        Set<Class<?>> cachedTypes = new LinkedHashSet<>();
+
+        for (String className : getTypeCacheFile().read(fingerprint)) {
+          cachedTypes.add(ClassUtils.forName(className, getClassLoader()));
+        }
+
+        return (cachedTypes.isEmpty() ? null : cachedTypes);
+      }
+      catch (ClassNotFoundException | LinkageError ignore) {
+        // stale; scan
+      }
+      catch (IOException e) {
+        System.err.printf("Failed to read PDX type cache file [%1$s]: %2$s%n", getTypeCacheFile(), e.getMessage());
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Imports the PDX type and enum definitions recorded in the PDX type cache file into the PDX type registry.
+   * A definition conflicting with a different type already registered with the same ID (e.g. by another member)
+   * is skipped, leaving the type to be defined again when it is registered.
+   *
+   * @param fingerprint current fingerprint of the base packages.
+   */
+  protected void importTypeDefinitions(Long fingerprint) {
+
+    TypeRegistry pdxRegistry = resolvePdxRegistry();
+
+    if (pdxRegistry != null) {
+      try {
+        int importedTypeCount = 0;
+
+        for (Map.Entry<Integer, PdxType> type : getTypeCacheFile().readTypes(fingerprint).entrySet()) {
+          try {
+            pdxRegistry.addImportedType(type.getKey(), type.getValue());
+            importedTypeCount++;
+          }
+          catch (RuntimeException e) {
+            System.err.printf("Failed to import PDX type [%1$s]: %2$s%n", type.getValue().getClassName(),
+              e.getMessage());
+          }
+        }
+
+        for (Map.Entry<Integer, EnumInfo> enumInfo : getTypeCacheFile().readEnums(fingerprint).entrySet()) {
+          try {
+            pdxRegistry.addImportedEnum(enumInfo.getKey(), enumInfo.getValue());
+            importedTypeCount++;
+          }
+          catch (RuntimeException e) {
+            System.err.printf("Failed to import PDX enum [%1$s]: %2$s%n", enumInfo.getValue(), e.getMessage());
+          }
+        }
+
+        this.importedTypeCount = importedTypeCount;
+      }
+      catch (IOException e) {
+        System.err.printf("Failed to read PDX type cache file [%1$s]: %2$s%n", getTypeCacheFile(), e.getMessage());
+      }
+    }
+  }
+
+  private void resolveType(String className, Set<Class<?>> types) {
+    try {
+      types.add(ClassUtils.forName(className, getClassLoader()));
+    }
+    catch (ClassNotFoundException | LinkageError e) {
+      this.failedTypes.put(className, e);
+    }
+  }
+
+  protected Object register(Class<?> type) {
+
+    try {
+      Assert.isTrue(!type.isInterface() && !Modifier.isAbstract(type.getModifiers()),
+        () -> String.format("Type [%s] cannot be instantiated", type.getName()));
+
+      long t0 = System.nanoTime();
+
+      ByteArrayOutputStream serializedBytes = new ByteArrayOutputStream();
+
+      DataSerializer.writeObject(BeanUtils.instantiateClass(type), new DataOutputStream(serializedBytes));
+
+      Assert.state(serializedBytes.toByteArray()[0] == PDX_HEADER, () -> String.format(
+        "Type [%s] was not PDX serialized; configure a PdxSerializer or implement PdxSerializable", type.getName()));
+
+      this.registeredTypes.put(type.getName(), System.nanoTime() - t0);
+    }
+    catch (Exception e) {
+      this.failedTypes.put(type.getName(), e);
+    }
+
+    return type;
+  }
+
+  /**
+   * Records the scanned types, along with all PDX type and enum definitions of the PDX type registry fetched at once,
+   * in the PDX type cache file.
+   *
+   * @param scannedTypes domain types found by the classpath scan.
+   * @param fingerprint current fingerprint of the base packages; may be {@literal null}.
+   */
+  protected void writeTypeCacheFile(Set<Class<?>> scannedTypes, Long fingerprint) {
+
+    if (getTypeCacheFile() != null && fingerprint != null) {
+      try {
+        List<String> classNames = new ArrayList<>(scannedTypes.size());
+
+        for (Class<?> type : scannedTypes) {
+          classNames.add(type.getName());
+        }
+
+        TypeRegistry pdxRegistry = resolvePdxRegistry();
+
+        getTypeCacheFile().write(classNames,
+          (pdxRegistry != null ? pdxRegistry.typeMap() : Collections.emptyMap()),
+          (pdxRegistry != null ? pdxRegistry.enumMap() : Collections.emptyMap()), fingerprint);
+      }
+      catch (IOException e) {
+        System.err.printf("Failed to write PDX type cache file [%1$s]: %2$s%n", getTypeCacheFile(), e.getMessage());
+      }
+    }
+  }
+}
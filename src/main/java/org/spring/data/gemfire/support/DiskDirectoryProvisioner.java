@@ -0,0 +1,385 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.geode.cache.DiskStoreFactory;
+import org.springframework.util.Assert;
+
+/**
+ * The DiskDirectoryProvisioner class provisions the directories of a GemFire Disk Store before the Disk Store
+ * is created.
+ *
+ * All directories are provisioned in parallel.  Each directory is created when it does not exist and its usable
+ * space is validated against the space required by an oplog ({@literal max-oplog-size}, capped by the directory's
+ * own maximum size).  Optionally, the required space is pre-allocated by writing (and syncing) zeroed blocks with
+ * a {@link FileChannel}, which proves the space is actually available (e.g. on thin-provisioned or quota limited
+ * volumes) and initializes lazily loaded blocks (e.g. on cloud volumes restored from snapshots) before GemFire
+ * creates, and pre-allocates, its oplogs.  Finally, a short fsync latency probe is run on every directory and
+ * a warning is printed when a directory sits on a slow device, since a single slow disk stalls the writes
+ * of every persistent Region using the Disk Store, and in turn of the cluster.
+ *
+ * @author John Blum
+ * @see java.nio.channels.FileChannel
+ * @see org.apache.geode.cache.DiskStoreFactory
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class DiskDirectoryProvisioner {
+
+  public static final int DEFAULT_FSYNC_PROBE_BLOCK_SIZE = 4096;
+  public static final int DEFAULT_FSYNC_PROBE_COUNT = 16;
+  public static final int DEFAULT_PARALLELISM = 8;
+
+  public static final long DEFAULT_MAX_OPLOG_SIZE_IN_MEGABYTES = DiskStoreFactory.DEFAULT_MAX_OPLOG_SIZE;
+  public static final long DEFAULT_SLOW_FSYNC_THRESHOLD_IN_MILLISECONDS = 20L;
+
+  protected static final int PREALLOCATION_BLOCK_SIZE = 1024 * 1024;
+
+  protected static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+  protected static final String FSYNC_PROBE_FILE_NAME = ".fsync-probe";
+  protected static final String PREALLOCATION_FILE_NAME = ".preallocation";
+
+  private boolean preallocate = false;
+  private boolean validateFreeSpace = true;
+
+  private int fsyncProbeCount = DEFAULT_FSYNC_PROBE_COUNT;
+  private int parallelism = DEFAULT_PARALLELISM;
+
+  private long slowFsyncThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_FSYNC_THRESHOLD_IN_MILLISECONDS);
+
+  public void setFsyncProbeCount(int fsyncProbeCount) {
+    Assert.isTrue(fsyncProbeCount >= 0, "Fsync probe count must be greater than or equal to 0");
+    this.fsyncProbeCount = fsyncProbeCount;
+  }
+
+  protected int getFsyncProbeCount() {
+    return this.fsyncProbeCount;
+  }
+
+  public void setParallelism(int parallelism) {
+    Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+    this.parallelism = parallelism;
+  }
+
+  protected int getParallelism() {
+    return this.parallelism;
+  }
+
+  public void setPreallocate(boolean preallocate) {
+    this.preallocate = preallocate;
+  }
+
+  protected boolean isPreallocate() {
+    return this.preallocate;
+  }
+
+  public void setSlowFsyncThreshold(long threshold, TimeUnit timeUnit) {
+    Assert.isTrue(threshold >= 0L, "Slow fsync threshold must be greater than or equal to 0");
+    this.slowFsyncThresholdNanos = timeUnit.toNanos(threshold);
+  }
+
+  protected long getSlowFsyncThresholdNanos() {
+    return this.slowFsyncThresholdNanos;
+  }
+
+  public void setValidateFreeSpace(boolean validateFreeSpace) {
+    this.validateFreeSpace = validateFreeSpace;
+  }
+
+  protected boolean isValidateFreeSpace() {
+    return this.validateFreeSpace;
+  }
+
+  /**
+   * Provisions the given directories of the named Disk Store in parallel.
+   *
+   * @param diskStoreName name of the Disk Store.
+   * @param directories {@link Map} of directories to the maximum size (in megabytes) of the directory,
+   * or {@literal null} when the directory size is not limited.
+   * @param maxOplogSize maximum size of an oplog in megabytes, or {@literal null} for the GemFire default.
+   * @return a {@link DiskDirectoryReport} for each directory.
+   * @throws IllegalStateException if a directory could not be created, lacks space or fails to be provisioned.
+   */
+  public List<DiskDirectoryReport> provision(String diskStoreName, Map<File, Integer> directories,
+      Long maxOplogSize) {
+
+    Assert.notNull(directories, "Directories must not be null");
+
+    if (directories.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    long maxOplogSizeInBytes = (maxOplogSize != null ? maxOplogSize : DEFAULT_MAX_OPLOG_SIZE_IN_MEGABYTES)
+      * BYTES_PER_MEGABYTE;
+
+    ExecutorService executor = newExecutor(Math.min(getParallelism(), directories.size()));
+
+    try {
+      List<CompletableFuture<DiskDirectoryReport>> reports = directories.entrySet().stream()
+        .map(entry -> CompletableFuture.supplyAsync(() -> provision(diskStoreName, entry.getKey(),
+          requiredBytes(maxOplogSizeInBytes, entry.getValue())), executor))
+        .collect(Collectors.toList());
+
+      CompletableFuture.allOf(reports.toArray(new CompletableFuture[reports.size()])).join();
+
+      return reports.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+    catch (CompletionException cause) {
+      throw (cause.getCause() instanceof RuntimeException ? (RuntimeException) cause.getCause()
+        : new IllegalStateException(cause.getCause()));
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Provisions a single directory of the named Disk Store.
+   *
+   * @param diskStoreName name of the Disk Store.
+   * @param directory directory to provision.
+   * @param requiredBytes space required in the directory.
+   * @return the {@link DiskDirectoryReport} for the directory.
+   * @throws IllegalStateException if the directory could not be created, lacks space or fails to be provisioned.
+   */
+  public DiskDirectoryReport provision(String diskStoreName, File directory, long requiredBytes) {
+
+    DiskDirectoryReport report = new DiskDirectoryReport(diskStoreName, directory, requiredBytes);
+
+    report.created = createIfNotExists(directory);
+    report.usableBytes = directory.getUsableSpace();
+
+    Assert.state(!isValidateFreeSpace() || report.usableBytes >= requiredBytes, () -> String.format(
+      "Disk Directory [%1$s] of Disk Store [%2$s] has %3$d MB of usable space but requires %4$d MB",
+        directory, diskStoreName, report.usableBytes / BYTES_PER_MEGABYTE, requiredBytes / BYTES_PER_MEGABYTE));
+
+    try {
+      if (isPreallocate()) {
+        long startNanos = System.nanoTime();
+        report.preallocatedBytes = preallocate(directory, requiredBytes);
+        report.preallocationNanos = (System.nanoTime() - startNanos);
+      }
+
+      if (getFsyncProbeCount() > 0) {
+        report.fsyncLatencyNanos = probeFsyncLatency(directory);
+        report.slow = (report.getMedianFsyncLatencyNanos() > getSlowFsyncThresholdNanos());
+      }
+    }
+    catch (IOException cause) {
+      throw new IllegalStateException(String.format("Failed to provision Disk Directory [%1$s] of Disk Store [%2$s]",
+        directory, diskStoreName), cause);
+    }
+
+    if (report.isSlow()) {
+      System.err.printf("WARNING: Disk Directory [%1$s] of Disk Store [%2$s] is on a slow device;"
+        + " median fsync latency (%3$d us) exceeds %4$d us; writes to the Disk Store will stall%n",
+          directory, diskStoreName, TimeUnit.NANOSECONDS.toMicros(report.getMedianFsyncLatencyNanos()),
+          TimeUnit.NANOSECONDS.toMicros(getSlowFsyncThresholdNanos()));
+    }
+
+    return report;
+  }
+
+  protected ExecutorService newExecutor(int threads) {
+
+    AtomicInteger threadCount = new AtomicInteger(0);
+
+    return Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "Disk Directory Provisioner-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  protected long requiredBytes(long maxOplogSizeInBytes, Integer directorySize) {
+    return (directorySize != null ? Math.min(maxOplogSizeInBytes, directorySize * BYTES_PER_MEGABYTE)
+      : maxOplogSizeInBytes);
+  }
+
+  private boolean createIfNotExists(File directory) {
+
+    boolean created = (!directory.isDirectory() && directory.mkdirs());
+
+    Assert.state(directory.isDirectory(), () -> String.format("Failed to create Disk Directory [%s]", directory));
+
+    return created;
+  }
+
+  /**
+   * Writes, syncs and then removes a file of the required size in the directory.
+   */
+  protected long preallocate(File directory, long requiredBytes) throws IOException {
+
+    Path preallocationFile = directory.toPath().resolve(PREALLOCATION_FILE_NAME);
+
+    ByteBuffer zeros = ByteBuffer.allocateDirect(PREALLOCATION_BLOCK_SIZE);
+
+    long position = 0L;
+
+    try (FileChannel fileChannel = FileChannel.open(preallocationFile, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+      while (position < requiredBytes) {
+        zeros.clear();
+        zeros.limit((int) Math.min(PREALLOCATION_BLOCK_SIZE, requiredBytes - position));
+        position += fileChannel.write(zeros, position);
+      }
+
+      fileChannel.force(true);
+    }
+    finally {
+      Files.deleteIfExists(preallocationFile);
+    }
+
+    return position;
+  }
+
+  /**
+   * Measures the latency of writing and syncing a block to the directory {@link #getFsyncProbeCount()} times.
+   *
+   * @return the sorted fsync latencies in nanoseconds.
+   */
+  protected long[] probeFsyncLatency(File directory) throws IOException {
+
+    Path probeFile = directory.toPath().resolve(FSYNC_PROBE_FILE_NAME);
+
+    long[] latencies = new long[getFsyncProbeCount()];
+
+    ByteBuffer block = ByteBuffer.allocateDirect(DEFAULT_FSYNC_PROBE_BLOCK_SIZE);
+
+    try (FileChannel fileChannel = FileChannel.open(probeFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DELETE_ON_CLOSE)) {
+
+      for (int index = 0; index < latencies.length; index++) {
+
+        block.clear();
+
+        long startNanos = System.nanoTime();
+
+        fileChannel.write(block, (long) index * DEFAULT_FSYNC_PROBE_BLOCK_SIZE);
+        fileChannel.force(false);
+
+        latencies[index] = (System.nanoTime() - startNanos);
+      }
+    }
+    finally {
+      Files.deleteIfExists(probeFile);
+    }
+
+    Arrays.sort(latencies);
+
+    return latencies;
+  }
+
+  /**
+   * The DiskDirectoryReport class is the outcome of provisioning a Disk Store directory.
+   */
+  public static class DiskDirectoryReport {
+
+    private boolean created;
+    private boolean slow;
+
+    private long preallocatedBytes;
+    private long preallocationNanos;
+    private long usableBytes;
+
+    private long[] fsyncLatencyNanos = new long[0];
+
+    private final File directory;
+
+    private final long requiredBytes;
+
+    private final String diskStoreName;
+
+    protected DiskDirectoryReport(String diskStoreName, File directory, long requiredBytes) {
+      this.diskStoreName = diskStoreName;
+      this.directory = directory;
+      this.requiredBytes = requiredBytes;
+    }
+
+    public boolean isCreated() {
+      return this.created;
+    }
+
+    public File getDirectory() {
+      return this.directory;
+    }
+
+    public String getDiskStoreName() {
+      return this.diskStoreName;
+    }
+
+    public long getMaxFsyncLatencyNanos() {
+      return (this.fsyncLatencyNanos.length > 0 ? this.fsyncLatencyNanos[this.fsyncLatencyNanos.length - 1] : 0L);
+    }
+
+    public long getMedianFsyncLatencyNanos() {
+      return (this.fsyncLatencyNanos.length > 0 ? this.fsyncLatencyNanos[this.fsyncLatencyNanos.length / 2] : 0L);
+    }
+
+    public long getPreallocatedBytes() {
+      return this.preallocatedBytes;
+    }
+
+    public long getPreallocationNanos() {
+      return this.preallocationNanos;
+    }
+
+    public long getRequiredBytes() {
+      return this.requiredBytes;
+    }
+
+    public boolean isSlow() {
+      return this.slow;
+    }
+
+    public long getUsableBytes() {
+      return this.usableBytes;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("Disk Directory [%1$s] of Disk Store [%2$s] {created = %3$s, usable MB = %4$d,"
+          + " required MB = %5$d, preallocated MB = %6$d in %7$d ms, median fsync us = %8$d, max fsync us = %9$d,"
+          + " slow = %10$s}", getDirectory(), getDiskStoreName(), isCreated(), getUsableBytes() / BYTES_PER_MEGABYTE,
+        getRequiredBytes() / BYTES_PER_MEGABYTE, getPreallocatedBytes() / BYTES_PER_MEGABYTE,
+        TimeUnit.NANOSECONDS.toMillis(getPreallocationNanos()),
+        TimeUnit.NANOSECONDS.toMicros(getMedianFsyncLatencyNanos()),
+        TimeUnit.NANOSECONDS.toMicros(getMaxFsyncLatencyNanos()), isSlow());
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.support;
+
+import java.util.function.Supplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * The LazyReference class holds a value that is initialized once, on first use, by whichever thread gets it first,
+ * for collaborators (e.g. a {@link org.spring.data.gemfire.cache.query.CompiledQueryCache}) that depend on a
+ * {@link org.apache.geode.cache.Region} injected after construction.
+ *
+ * @author John Blum
+ * @see java.util.function.Supplier
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public final class LazyReference<T> {
+
+  private volatile T value;
+
+  /**
+   * Returns the value, initializing it with the given {@link Supplier} if this is the first call.
+   *
+   * @param initializer {@link Supplier} of the value, called at most once.
+   * @return the value.
+   * @throws IllegalStateException if the {@link Supplier} returns {@literal null}.
+   */
+  public T get(Supplier<? extends T> initializer) {
+
+    T value = this.value;
+
+    if (value == null) {
+      synchronized (this) {
+        value = this.value;
+
+        if (value == null) {
+          value = initializer.get();
+          Assert.state(value != null, "Initializer must not return null");
+          this.value = value;
+        }
+      }
+    }
+
+    return value;
+  }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.sql.DataSource;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.apache.geode.cache.Region;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+/**
+ * The RegionDataSources class is a collection of factory methods for streaming sources of {@link Region} entries,
+ * to be loaded with the {@link RegionSeeder}.
+ *
+ * Each source reads its data lazily, one entry at a time, every time the {@link Supplier} is called, and releases
+ * the underlying file or database resources when the {@link Stream} is closed.  Values are either {@link Map Maps}
+ * of column (field) name to value, or instances of an application domain type populated by property name, in which
+ * case the key is read back from the converted property of the same name.
+ *
+ * @author John Blum
+ * @see java.util.stream.Stream
+ * @see org.spring.data.gemfire.support.RegionSeeder
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public abstract class RegionDataSources {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  /**
+   * Streams the rows of a CSV {@link Resource}, the first line of which names the columns, as {@link Map Maps}.
+   *
+   * @see #csv(Resource, String, Class)
+   */
+  public static Supplier<Stream<Map.Entry<Object, Object>>> csv(Resource resource, String keyColumn) {
+    return csv(resource, keyColumn, Object.class);
+  }
+
+  /**
+   * Streams the rows of a CSV {@link Resource}, the first line of which names the columns.  Fields may be quoted
+   * with double quotes (escaped by doubling them) but must not span lines.  Empty fields are {@literal null}.
+   *
+   * @param <V> {@link Class} type of the values.
+   * @param resource CSV {@link Resource}.
+   * @param keyColumn name of the column containing the key.
+   * @param valueType {@link Class} type of the values; {@link Map} or {@link Object} for {@link Map Maps}.
+   * @return a {@link Supplier} of the {@link Stream} of entries.
+   */
+  public static <V> Supplier<Stream<Map.Entry<Object, V>>> csv(Resource resource, String keyColumn,
+      Class<V> valueType) {
+
+    Assert.notNull(resource, "Resource must not be null");
+    Assert.hasText(keyColumn, "Key column must be specified");
+    Assert.notNull(valueType, "Value type must not be null");
+
+    return () -> {
+
+      BufferedReader reader = open(resource);
+
+      try {
+        String header = reader.readLine();
+
+        List<String> columns = (header != null ? parseCsvLine(header) : new ArrayList<>());
+
+        Stream<Map.Entry<Object, V>> entries = reader.lines()
+          .filter(line -> !line.trim().isEmpty())
+          .map(line -> {
+
+            List<String> fields = parseCsvLine(line);
+
+            Map<String, Object> row = new LinkedHashMap<>(columns.size());
+
+            for (int index = 0; index < columns.size(); index++) {
+              String value = (index < fields.size() ? fields.get(index) : null);
+              row.put(columns.get(index), (value == null || value.isEmpty() ? null : value));
+            }
+
+            return toEntry(row, keyColumn, valueType);
+          });
+
+        return entries.onClose(() -> close(reader));
+      }
+      catch (IOException | RuntimeException e) {
+        close(reader);
+        throw (e instanceof IOException ? new UncheckedIOException((IOException) e) : (RuntimeException) e);
+      }
+    };
+  }
+
+  /**
+   * Streams the JSON objects of a {@link Resource}, either a JSON array or a sequence of root-level objects
+   * (e.g. one per line), as {@link Map Maps}.
+   *
+   * @see #json(Resource, String, Class)
+   */
+  public static Supplier<Stream<Map.Entry<Object, Object>>> json(Resource resource, String keyField) {
+    return json(resource, keyField, Object.class);
+  }
+
+  /**
+   * Streams the JSON objects of a {@link Resource}, either a JSON array or a sequence of root-level objects
+   * (e.g. one per line).  Objects are read as {@link Map Maps} and bound to the value type by property name,
+   * the same as CSV rows, so only top-level properties are converted.
+   *
+   * @param <V> {@link Class} type of the values.
+   * @param resource JSON {@link Resource}.
+   * @param keyField name of the field containing the key.
+   * @param valueType {@link Class} type of the values; {@link Map} or {@link Object} for {@link Map Maps}.
+   * @return a {@link Supplier} of the {@link Stream} of entries.
+   */
+  public static <V> Supplier<Stream<Map.Entry<Object, V>>> json(Resource resource, String keyField,
+      Class<V> valueType) {
+
+    Assert.notNull(resource, "Resource must not be null");
+    Assert.hasText(keyField, "Key field must be specified");
+    Assert.notNull(valueType, "Value type must not be null");
+
+    return () -> {
+
+      BufferedReader reader = open(resource);
+
+      try {
+        MappingIterator<Object> values = OBJECT_MAPPER.readerFor(LinkedHashMap.class).readValues(reader);
+
+        Spliterator<Object> spliterator = Spliterators.spliteratorUnknownSize(values, Spliterator.ORDERED);
+
+        return StreamSupport.stream(spliterator, false)
+          .map(value -> toEntry(value, keyField, valueType))
+          .onClose(() -> close(reader));
+      }
+      catch (IOException e) {
+        close(reader);
+        throw new UncheckedIOException(e);
+      }
+    };
+  }
+
+  /**
+   * Streams the rows of a SQL query as {@link Map Maps} of column label to value.
+   *
+   * @see #jdbc(DataSource, String, String, RowMapper)
+   */
+  public static Supplier<Stream<Map.Entry<Object, Object>>> jdbc(DataSource dataSource, String sql,
+      String keyColumn) {
+
+    return jdbc(dataSource, sql, keyColumn, resultSet -> {
+
+      ResultSetMetaData metaData = resultSet.getMetaData();
+
+      Map<String, Object> row = new LinkedHashMap<>(metaData.getColumnCount());
+
+      for (int column = 1; column <= metaData.getColumnCount(); column++) {
+        row.put(metaData.getColumnLabel(column), resultSet.getObject(column));
+      }
+
+      return row;
+    });
+  }
+
+  /**
+   * Streams the rows of a SQL query on a forward-only, read-only {@link ResultSet}, mapping each row
+   * with the given {@link RowMapper}.  The {@link Connection} is held until the {@link Stream} is closed.
+   *
+   * @param <V> {@link Class} type of the values.
+   * @param dataSource {@link DataSource} to query.
+   * @param sql SQL query.
+   * @param keyColumn label of the column containing the key.
+   * @param rowMapper {@link RowMapper} mapping the current row to a value.
+   * @return a {@link Supplier} of the {@link Stream} of entries.
+   */
+  public static <V> Supplier<Stream<Map.Entry<Object, V>>> jdbc(DataSource dataSource, String sql, String keyColumn,
+      RowMapper<V> rowMapper) {
+
+    Assert.notNull(dataSource, "DataSource must not be null");
+    Assert.hasText(sql, "SQL must be specified");
+    Assert.hasText(keyColumn, "Key column must be specified");
+    Assert.notNull(rowMapper, "RowMapper must not be null");
+
+    return () -> {
+
+      Connection connection = null;
+
+      try {
+        connection = dataSource.getConnection();
+
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+          ResultSet.CONCUR_READ_ONLY);
+
+        statement.setFetchSize(RegionSeeder.DEFAULT_CHUNK_SIZE);
+
+        ResultSet resultSet = statement.executeQuery();
+
+        Spliterator<Map.Entry<Object, V>> spliterator =
+          new Spliterators.AbstractSpliterator<Map.Entry<Object, V>>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Map.Entry<Object, V>> action) {
+
+              try {
+                if (resultSet.next()) {
+                  action.accept(new AbstractMap.SimpleImmutableEntry<>(resultSet.getObject(keyColumn),
+                    rowMapper.mapRow(resultSet)));
+
+                  return true;
+                }
+
+                return false;
+              }
+              catch (SQLException e) {
+                throw new IllegalStateException(String.format("Failed to read row of query [%s]", sql), e);
+              }
+            }
+          };
+
+        Connection openConnection = connection;
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> close(openConnection));
+      }
+      catch (SQLException e) {
+        close(connection);
+        throw new IllegalStateException(String.format("Failed to execute query [%s]", sql), e);
+      }
+    };
+  }
+
+  protected static boolean isMapType(Class<?> valueType) {
+    return (Object.class.equals(valueType) || Map.class.isAssignableFrom(valueType));
+  }
+
+  @SuppressWarnings("unchecked")
+  protected static <V> Map.Entry<Object, V> toEntry(Object source, String keyProperty, Class<V> valueType) {
+
+    if (source instanceof Map && isMapType(valueType)) {
+      return new AbstractMap.SimpleImmutableEntry<>(((Map<?, ?>) source).get(keyProperty), (V) source);
+    }
+    else if (source instanceof Map) {
+
+      BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(BeanUtils.instantiateClass(valueType));
+
+      ((Map<String, ?>) source).forEach((propertyName, value) -> {
+        if (value != null && beanWrapper.isWritableProperty(propertyName)) {
+          beanWrapper.setPropertyValue(propertyName, value);
+        }
+      });
+
+      source = beanWrapper.getWrappedInstance();
+    }
+
+    BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(source);
+
+    Object key = (beanWrapper.isReadableProperty(keyProperty) ? beanWrapper.getPropertyValue(keyProperty) : null);
+
+    return new AbstractMap.SimpleImmutableEntry<>(key, (V) source);
+  }
+
+  /**
+   * Splits a line of CSV into fields.
+   */
+  protected static List<String> parseCsvLine(String line) {
+
+    List<String> fields = new ArrayList<>();
+
+    StringBuilder field = new StringBuilder();
+
+    boolean quoted = false;
+
+    for (int index = 0, length = line.length(); index < length; index++) {
+
+      char character = line.charAt(index);
+
+      if (quoted) {
+        if (character == '"') {
+          if (index + 1 < length && line.charAt(index + 1) == '"') {
+            field.append('"');
+            index++;
+          }
+          else {
+            quoted = false;
+          }
+        }
+        else {
+          field.append(character);
+        }
+      }
+      else if (character == '"') {
+        quoted = true;
+      }
+      else if (character == ',') {
+        fields.add(field.toString().trim());
+        field.setLength(0);
+      }
+      else {
+        field.append(character);
+      }
+    }
+
+    fields.add(field.toString().trim());
+
+    return fields;
+  }
+
+  private static BufferedReader open(Resource resource) {
+
+    try {
+      return new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(String.format("Failed to open Resource [%s]", resource.getDescription()), e);
+    }
+  }
+
+  private static void close(AutoCloseable closeable) {
+
+    if (closeable != null) {
+      try {
+        closeable.close();
+      }
+      catch (Exception ignore) {
+      }
+    }
+  }
+
+  /**
+   * The RowMapper interface maps the current row of a {@link ResultSet} to a value.
+   *
+   * @param <V> {@link Class} type of the value.
+   */
+  @FunctionalInterface
+  public interface RowMapper<V> {
+
+    V mapRow(ResultSet resultSet) throws SQLException;
+
+  }
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.support;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.geode.cache.PartitionAttributes;
+import org.apache.geode.cache.Region;
+import org.springframework.util.Assert;
+
+/**
+ * The RegionSeeder class loads a {@link Stream} of entries into a GemFire {@link Region} in chunks, without
+ * materializing the whole data set in memory first.
+ *
+ * Entries are read from the source one at a time and grouped by the bucket their key hashes to (for a {@link Region}
+ * with a {@link PartitionAttributes partition} resolved by key), so that each {@link Region#putAll(Map)} of
+ * {@link #setChunkSize(int) chunk size} entries is sent to a single primary, and the chunks are written
+ * in parallel, with at most {@link #setParallelism(int) parallelism} chunks in-flight at once.  Progress is reported
+ * every {@link #setProgressInterval(long) progress interval} entries, and {@link Statistics} are returned
+ * at the end.  Entries with a {@literal null} key are counted and skipped.  The entries of a failed chunk are counted
+ * as well, and once all chunks have been written, {@link #seed(Supplier)} fails with a {@link SeedingException}
+ * while {@link #seedAsync(Supplier)}, a best-effort background load, completes with the {@link Statistics}.
+ *
+ * @author John Blum
+ * @see java.util.stream.Stream
+ * @see org.apache.geode.cache.Region#putAll(Map)
+ * @see org.spring.data.gemfire.support.RegionDataSources
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class RegionSeeder<K, V> {
+
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+  public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+  public static final long DEFAULT_PROGRESS_INTERVAL = 100000L;
+
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
+
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
+  private int parallelism = DEFAULT_PARALLELISM;
+
+  private long progressInterval = DEFAULT_PROGRESS_INTERVAL;
+
+  private final Region<K, V> region;
+
+  public RegionSeeder(Region<K, V> region) {
+    Assert.notNull(region, "Region must not be null");
+    this.region = region;
+  }
+
+  protected Region<K, V> getRegion() {
+    return this.region;
+  }
+
+  public void setChunkSize(int chunkSize) {
+    Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+    this.chunkSize = chunkSize;
+  }
+
+  protected int getChunkSize() {
+    return this.chunkSize;
+  }
+
+  public void setParallelism(int parallelism) {
+    Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+    this.parallelism = parallelism;
+  }
+
+  protected int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Sets the number of entries loaded between progress reports; {@literal 0} disables progress reporting.
+   *
+   * @param progressInterval number of entries.
+   */
+  public void setProgressInterval(long progressInterval) {
+    Assert.isTrue(progressInterval >= 0, "Progress interval must be greater than or equal to 0");
+    this.progressInterval = progressInterval;
+  }
+
+  protected long getProgressInterval() {
+    return this.progressInterval;
+  }
+
+  protected int getTotalNumberOfBuckets() {
+
+    PartitionAttributes<?, ?> partitionAttributes = getRegion().getAttributes().getPartitionAttributes();
+
+    return (partitionAttributes != null && partitionAttributes.getPartitionResolver() == null
+      ? partitionAttributes.getTotalNumBuckets() : 1);
+  }
+
+  /**
+   * Loads the entries of the given {@link Map}.
+   *
+   * @see #seed(Supplier)
+   */
+  public Statistics seed(Map<? extends K, ? extends V> data) {
+    Assert.notNull(data, "Data must not be null");
+    return seed(() -> data.entrySet().stream());
+  }
+
+  /**
+   * Loads the entries of the {@link Stream} returned by the given source, closing the {@link Stream} when done.
+   *
+   * @param source {@link Supplier} of the {@link Stream} of entries.
+   * @return the {@link Statistics} of the seeding.
+   * @throws SeedingException if a chunk of entries failed to be put into the {@link Region}.
+   * @see org.spring.data.gemfire.support.RegionDataSources
+   */
+  public Statistics seed(Supplier<? extends Stream<? extends Map.Entry<? extends K, ? extends V>>> source) {
+
+    Statistics statistics = doSeed(source);
+
+    if (statistics.getFailedChunks() > 0L) {
+      throw new SeedingException(String.format("Failed to put [%1$d] of [%2$d] chunks into Region [%3$s]",
+        statistics.getFailedChunks(), statistics.getChunks(), getRegion().getFullPath()), statistics,
+        statistics.firstFailure.get());
+    }
+
+    return statistics;
+  }
+
+  protected Statistics doSeed(Supplier<? extends Stream<? extends Map.Entry<? extends K, ? extends V>>> source) {
+
+    Assert.notNull(source, "Source must not be null");
+
+    Seeding seeding = new Seeding();
+
+    try (Stream<? extends Map.Entry<? extends K, ? extends V>> entries = source.get()) {
+
+      Iterator<? extends Map.Entry<? extends K, ? extends V>> iterator = entries.iterator();
+
+      while (iterator.hasNext()) {
+        seeding.add(iterator.next());
+      }
+    }
+    finally {
+      seeding.complete();
+    }
+
+    System.out.printf("Seeded Region [%1$s]: %2$s%n", getRegion().getFullPath(), seeding.statistics);
+
+    return seeding.statistics;
+  }
+
+  /**
+   * Loads the entries of the {@link Stream} returned by the given source on a background thread; failed chunks
+   * are only counted in the {@link Statistics}.
+   *
+   * @see #seed(Supplier)
+   */
+  public CompletableFuture<Statistics> seedAsync(
+      Supplier<? extends Stream<? extends Map.Entry<? extends K, ? extends V>>> source) {
+
+    return CompletableFuture.supplyAsync(() -> doSeed(source), runnable -> {
+      Thread thread = new Thread(runnable, String.format("Region Seeder [%1$s]-%2$d", getRegion().getName(),
+        THREAD_COUNTER.incrementAndGet()));
+      thread.setDaemon(true);
+      thread.start();
+    });
+  }
+
+  /**
+   * The SeedingException class is thrown when chunks of entries failed to be put into the {@link Region}, with
+   * the {@link Statistics} of the seeding.
+   */
+  public static class SeedingException extends IllegalStateException {
+
+    private final Statistics statistics;
+
+    public SeedingException(String message, Statistics statistics, Throwable cause) {
+      super(message, cause);
+      this.statistics = statistics;
+    }
+
+    public Statistics getStatistics() {
+      return this.statistics;
+    }
+  }
+
+  /**
+   * The Statistics class records the progress and throughput of a seeding.
+   */
+  public static class Statistics {
+
+    private final AtomicLong chunks = new AtomicLong(0L);
+    private final AtomicLong entries = new AtomicLong(0L);
+    private final AtomicLong failedChunks = new AtomicLong(0L);
+
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    private final AtomicLong failedEntries = new AtomicLong(0L);
+    private final AtomicLong loadedEntries = new AtomicLong(0L);
+
+    private final long t0 = System.nanoTime();
+
+    private volatile long elapsedNanos;
+
+    /**
+     * Returns the number of {@link Region#putAll(Map)} chunks that were issued.
+     */
+    public long getChunks() {
+      return this.chunks.get();
+    }
+
+    /**
+     * Returns the number of entries read from the source.
+     */
+    public long getEntries() {
+      return this.entries.get();
+    }
+
+    public long getElapsedTime(TimeUnit timeUnit) {
+      return timeUnit.convert((this.elapsedNanos > 0L ? this.elapsedNanos : System.nanoTime() - this.t0),
+        TimeUnit.NANOSECONDS);
+    }
+
+    public long getFailedChunks() {
+      return this.failedChunks.get();
+    }
+
+    /**
+     * Returns the number of entries that had a {@literal null} key or were in a failed chunk.
+     */
+    public long getFailedEntries() {
+      return this.failedEntries.get();
+    }
+
+    public long getLoadedEntries() {
+      return this.loadedEntries.get();
+    }
+
+    /**
+     * Returns the number of entries loaded per second.
+     */
+    public double getThroughput() {
+
+      long elapsedNanos = getElapsedTime(TimeUnit.NANOSECONDS);
+
+      return (elapsedNanos > 0L ? (getLoadedEntries() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos) : 0.0d);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("{ entries = %1$d, loaded = %2$d, failed = %3$d, chunks = %4$d, failedChunks = %5$d,"
+        + " elapsedTime = %6$d ms, throughput = %7$.2f entries/s }", getEntries(), getLoadedEntries(),
+          getFailedEntries(), getChunks(), getFailedChunks(), getElapsedTime(TimeUnit.MILLISECONDS),
+            getThroughput());
+    }
+  }
+
+  private class Seeding {
+
+    private final AtomicLong lastReported = new AtomicLong(0L);
+
+    private final int totalNumberOfBuckets = getTotalNumberOfBuckets();
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(getParallelism());
+
+    private final Map<Integer, Map<K, V>> chunks = new HashMap<>();
+
+    private final Semaphore inFlight = new Semaphore(getParallelism());
+
+    private final Statistics statistics = new Statistics();
+
+    private void add(Map.Entry<? extends K, ? extends V> entry) {
+
+      this.statistics.entries.incrementAndGet();
+
+      K key = entry.getKey();
+
+      if (key == null) {
+        this.statistics.failedEntries.incrementAndGet();
+        return;
+      }
+
+      Integer bucket = (this.totalNumberOfBuckets > 1 ? Math.abs(key.hashCode() % this.totalNumberOfBuckets) : 0);
+
+      Map<K, V> chunk = this.chunks.computeIfAbsent(bucket, it -> new HashMap<>(getChunkSize()));
+
+      chunk.put(key, entry.getValue());
+
+      if (chunk.size() >= getChunkSize()) {
+        this.chunks.remove(bucket);
+        submit(chunk);
+      }
+    }
+
+    private void submit(Map<K, V> chunk) {
+
+      this.inFlight.acquireUninterruptibly();
+      this.statistics.chunks.incrementAndGet();
+
+      CompletableFuture.runAsync(() -> getRegion().putAll(chunk), this.executorService)
+        .whenComplete((result, cause) -> {
+          if (cause != null) {
+
+            Throwable failure = (cause instanceof CompletionException && cause.getCause() != null
+              ? cause.getCause() : cause);
+
+            this.statistics.failedChunks.incrementAndGet();
+            this.statistics.firstFailure.compareAndSet(null, failure);
+            this.statistics.failedEntries.addAndGet(chunk.size());
+            System.err.printf("Failed to put chunk of [%1$d] entries into Region [%2$s]: %3$s%n", chunk.size(),
+              getRegion().getFullPath(), failure.getMessage());
+          }
+          else {
+            reportProgress(this.statistics.loadedEntries.addAndGet(chunk.size()));
+          }
+
+          this.inFlight.release();
+        });
+    }
+
+    private void reportProgress(long loadedEntries) {
+
+      long interval = getProgressInterval();
+
+      if (interval > 0L) {
+
+        long reported = this.lastReported.get();
+
+        if (loadedEntries - reported >= interval && this.lastReported.compareAndSet(reported, loadedEntries)) {
+          System.out.printf("Seeding Region [%1$s]: loaded [%2$d] entries at %3$.2f entries/s%n",
+            getRegion().getFullPath(), loadedEntries, this.statistics.getThroughput());
+        }
+      }
+    }
+
+    private void complete() {
+
+      try {
+        this.chunks.values().forEach(this::submit);
+        this.chunks.clear();
+        this.inFlight.acquireUninterruptibly(getParallelism());
+        this.inFlight.release(getParallelism());
+      }
+      finally {
+        this.executorService.shutdown();
+        this.statistics.elapsedNanos = (System.nanoTime() - this.statistics.t0);
+      }
+    }
+  }
+}
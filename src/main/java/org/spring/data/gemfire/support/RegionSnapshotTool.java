@@ -0,0 +1,1035 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionDataStore;
+import org.apache.geode.pdx.internal.EnumInfo;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.TypeRegistry;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The RegionSnapshotTool class exports the data of a GemFire {@link Region} to a snapshot directory and imports
+ * a snapshot directory into a {@link Region}, without replaying the data through the application.
+ *
+ * The data is split into segments, one per local primary bucket of a {@link PartitionedRegion} hosting data,
+ * or one per {@link #setShardCount(int) shard} of the keys otherwise (e.g. a replicate or client Region),
+ * and the segments are written and read in parallel.  Each segment file is a sequence of length-prefixed blocks
+ * of {@link DataSerializer serialized} keys and values, written through a {@link FileChannel}, optionally compressed
+ * with a fast block compression, and read back through memory-mapped buffers.  PDX types and enums are exported
+ * alongside the data so the snapshot can be imported into a different cluster.
+ *
+ * Each member exports to its own manifest ({@literal snapshot-<member>.properties}), PDX types file
+ * ({@literal pdx-types-<member>.dat}) and segment files ({@literal <member>-<segment>.snap}), so the data members
+ * of a partitioned Region can export to the same (shared) directory concurrently.  Exporting a partitioned Region
+ * writes the primary buckets of this member; export on each data member to capture the whole Region.
+ *
+ * Both export and import record completed segments in the snapshot directory, so an interrupted run
+ * resumes with the segments that were not completed.  An export started after the previous export of the member
+ * completed is a new export, and deletes the segments of the previous one first.  Importing reads the snapshots
+ * of all members, taking a bucket exported by more than one member (e.g. after a rebalance) from the latest export,
+ * and writes each block with chunked {@link Region#putAll(Map)} calls; the segments of a partitioned snapshot
+ * are buckets, so each chunk targets a single primary.
+ *
+ * @author John Blum
+ * @see java.nio.channels.FileChannel
+ * @see org.apache.geode.DataSerializer
+ * @see org.apache.geode.cache.Region
+ * @see org.spring.data.gemfire.support.RegionSeeder
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class RegionSnapshotTool<K, V> {
+
+  public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+  public static final int DEFAULT_CHUNK_SIZE = RegionSeeder.DEFAULT_CHUNK_SIZE;
+  public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+  public static final int DEFAULT_SHARD_COUNT = 16;
+
+  public static final String IMPORT_MANIFEST_FILE_NAME = "import.properties";
+  public static final String MANIFEST_FILE_EXTENSION = ".properties";
+  public static final String MANIFEST_FILE_PREFIX = "snapshot-";
+  public static final String PDX_TYPES_FILE_EXTENSION = ".dat";
+  public static final String PDX_TYPES_FILE_PREFIX = "pdx-types-";
+  public static final String SEGMENT_FILE_EXTENSION = ".snap";
+
+  protected static final byte FORMAT_VERSION = 1;
+
+  protected static final int BLOCK_HEADER_LENGTH = 12;
+  protected static final int FILE_HEADER_LENGTH = 6;
+  protected static final int MAGIC = 0x53444753;
+
+  protected static final long MAPPED_REGION_SIZE = 64L * 1024L * 1024L;
+
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
+
+  private boolean compress = false;
+
+  private int blockSize = DEFAULT_BLOCK_SIZE;
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
+  private int parallelism = DEFAULT_PARALLELISM;
+  private int shardCount = DEFAULT_SHARD_COUNT;
+
+  private final Region<K, V> region;
+
+  private String memberName;
+
+  public RegionSnapshotTool(Region<K, V> region) {
+    Assert.notNull(region, "Region must not be null");
+    this.region = region;
+  }
+
+  protected Region<K, V> getRegion() {
+    return this.region;
+  }
+
+  public void setBlockSize(int blockSize) {
+    Assert.isTrue(blockSize > 0, "Block size must be greater than 0");
+    this.blockSize = blockSize;
+  }
+
+  protected int getBlockSize() {
+    return this.blockSize;
+  }
+
+  public void setChunkSize(int chunkSize) {
+    Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+    this.chunkSize = chunkSize;
+  }
+
+  protected int getChunkSize() {
+    return this.chunkSize;
+  }
+
+  /**
+   * Sets the name identifying the snapshot files of this member in the snapshot directory; defaults to the name,
+   * or ID, of the {@link DistributedMember}.
+   *
+   * @param memberName name of this member in the snapshot directory.
+   */
+  public void setMemberName(String memberName) {
+    this.memberName = memberName;
+  }
+
+  protected String getMemberName() {
+
+    String memberName = this.memberName;
+
+    if (!StringUtils.hasText(memberName)) {
+
+      DistributedMember member = ((GemFireCache) getRegion().getRegionService()).getDistributedSystem()
+        .getDistributedMember();
+
+      memberName = (StringUtils.hasText(member.getName()) ? member.getName() : member.getId());
+    }
+
+    return memberName.replaceAll("[^A-Za-z0-9._]", "_");
+  }
+
+  public void setCompress(boolean compress) {
+    this.compress = compress;
+  }
+
+  protected boolean isCompress() {
+    return this.compress;
+  }
+
+  public void setParallelism(int parallelism) {
+    Assert.isTrue(parallelism > 0, "Parallelism must be greater than 0");
+    this.parallelism = parallelism;
+  }
+
+  protected int getParallelism() {
+    return this.parallelism;
+  }
+
+  /**
+   * Sets the number of segments the keys of a Region without local buckets are split into on export.
+   *
+   * @param shardCount number of segments.
+   */
+  public void setShardCount(int shardCount) {
+    Assert.isTrue(shardCount > 0, "Shard count must be greater than 0");
+    this.shardCount = shardCount;
+  }
+
+  protected int getShardCount() {
+    return this.shardCount;
+  }
+
+  /**
+   * Exports the data of the {@link Region} to the given snapshot directory, resuming the export of this member
+   * if the previous one was interrupted, or replacing the segments of the previous export of this member otherwise.
+   *
+   * @param directory snapshot directory.
+   * @return the {@link Statistics} of the export.
+   */
+  public Statistics exportTo(File directory) {
+
+    Assert.notNull(directory, "Directory must not be null");
+    Assert.state(directory.isDirectory() || directory.mkdirs(), () -> String.format(
+      "Failed to create snapshot directory [%s]", directory));
+
+    String memberName = getMemberName();
+
+    Manifest manifest = Manifest.load(newManifestFile(directory, memberName));
+
+    String regionPath = manifest.getProperty("region", getRegion().getFullPath());
+
+    Assert.isTrue(regionPath.equals(getRegion().getFullPath()), () -> String.format(
+      "Snapshot directory [%1$s] contains a snapshot of Region [%2$s]", directory, regionPath));
+
+    if (!manifest.isInProgress()) {
+      deleteSegments(directory, memberName, manifest.getSegmentNames());
+      deleteImportManifest(directory);
+      manifest.clear();
+      manifest.setProperty("started", String.valueOf(System.currentTimeMillis()));
+    }
+
+    manifest.setProperty("region", regionPath);
+    manifest.setProperty("member", memberName);
+    manifest.setProperty("compressed", String.valueOf(isCompress()));
+    manifest.setProperty("version", String.valueOf(FORMAT_VERSION));
+    manifest.setProperty("status", Manifest.IN_PROGRESS);
+
+    List<Segment> segments = resolveSegments(manifest);
+
+    deleteStaleSegments(directory, memberName, manifest, segments);
+
+    manifest.save();
+
+    Statistics statistics = new Statistics();
+
+    runInParallel(segments, segment -> {
+
+      File file = newSegmentFile(directory, memberName, segment.getName());
+
+      if (manifest.isComplete(segment.getName()) && file.length() == manifest.getBytes(segment.getName())) {
+        statistics.skippedSegments.incrementAndGet();
+      }
+      else {
+        long entries = write(segment, file);
+
+        manifest.complete(segment.getName(), entries, file.length());
+        statistics.record(entries, file.length());
+      }
+    }, "Export");
+
+    exportPdxTypes(newPdxTypesFile(directory, memberName));
+
+    manifest.setProperty("status", Manifest.COMPLETE);
+    manifest.save();
+
+    statistics.complete();
+
+    System.out.printf("Exported Region [%1$s] of member [%2$s] to [%3$s]: %4$s%n", regionPath, memberName,
+      directory, statistics);
+
+    return statistics;
+  }
+
+  /**
+   * Imports the snapshots of all members in the given directory into the {@link Region}, skipping the segments
+   * already imported by a previous, interrupted import.
+   *
+   * @param directory snapshot directory.
+   * @return the {@link Statistics} of the import.
+   */
+  public Statistics importFrom(File directory) {
+
+    Assert.notNull(directory, "Directory must not be null");
+
+    List<Manifest> manifests = loadManifests(directory);
+
+    Assert.isTrue(!manifests.isEmpty(), () -> String.format("No snapshot found in directory [%s]", directory));
+
+    Manifest importManifest = Manifest.load(new File(directory, IMPORT_MANIFEST_FILE_NAME));
+
+    Map<String, File> segmentFiles = new TreeMap<>();
+
+    for (Manifest manifest : manifests) {
+
+      String memberName = manifest.getProperty("member", "");
+
+      Assert.state(!manifest.isInProgress(), () -> String.format(
+        "The snapshot of member [%1$s] in directory [%2$s] is incomplete", memberName, directory));
+
+      importPdxTypes(newPdxTypesFile(directory, memberName));
+
+      // the shards of a Region without buckets (e.g. a replicate) are a complete copy of the Region
+      if (!Boolean.parseBoolean(manifest.getProperty("partitioned", "true"))) {
+        segmentFiles.clear();
+      }
+
+      // the bucket of a later export replaces the same bucket of an earlier export from a different member
+      for (String segmentName : manifest.getCompletedSegmentNames()) {
+        segmentFiles.put(segmentName, newSegmentFile(directory, memberName, segmentName));
+      }
+    }
+
+    Statistics statistics = new Statistics();
+
+    runInParallel(new ArrayList<>(segmentFiles.values()), file -> {
+
+      String importedSegmentName = file.getName().substring(0,
+        file.getName().length() - SEGMENT_FILE_EXTENSION.length());
+
+      if (importManifest.isComplete(importedSegmentName)) {
+        statistics.skippedSegments.incrementAndGet();
+      }
+      else {
+        long entries = read(file);
+
+        importManifest.complete(importedSegmentName, entries, file.length());
+        statistics.record(entries, file.length());
+      }
+    }, "Import");
+
+    statistics.complete();
+
+    System.out.printf("Imported [%1$s] into Region [%2$s]: %3$s%n", directory, getRegion().getFullPath(),
+      statistics);
+
+    return statistics;
+  }
+
+  protected static File newManifestFile(File directory, String memberName) {
+    return new File(directory, MANIFEST_FILE_PREFIX + memberName + MANIFEST_FILE_EXTENSION);
+  }
+
+  protected static File newPdxTypesFile(File directory, String memberName) {
+    return new File(directory, PDX_TYPES_FILE_PREFIX + memberName + PDX_TYPES_FILE_EXTENSION);
+  }
+
+  protected static File newSegmentFile(File directory, String memberName, String segmentName) {
+    return new File(directory, memberName + "-" + segmentName + SEGMENT_FILE_EXTENSION);
+  }
+
+  /* (non-Javadoc) - the manifests of all members, in the order the members started exporting */
+  protected static List<Manifest> loadManifests(File directory) {
+
+    File[] manifestFiles = directory.listFiles((parent, name) -> name.startsWith(MANIFEST_FILE_PREFIX)
+      && name.endsWith(MANIFEST_FILE_EXTENSION));
+
+    List<Manifest> manifests = new ArrayList<>();
+
+    for (File manifestFile : (manifestFiles != null ? manifestFiles : new File[0])) {
+      manifests.add(Manifest.load(manifestFile));
+    }
+
+    manifests.sort(Comparator.comparingLong(manifest -> Long.parseLong(manifest.getProperty("started", "0"))));
+
+    return manifests;
+  }
+
+  protected void deleteSegments(File directory, String memberName, Iterable<String> segmentNames) {
+
+    for (String segmentName : segmentNames) {
+
+      File file = newSegmentFile(directory, memberName, segmentName);
+
+      Assert.state(!file.exists() || file.delete(), () -> String.format("Failed to delete segment [%s]", file));
+    }
+  }
+
+  /* (non-Javadoc) - the progress of an import of the previous export does not apply to the new export */
+  protected void deleteImportManifest(File directory) {
+
+    File file = new File(directory, IMPORT_MANIFEST_FILE_NAME);
+
+    Assert.state(!file.exists() || file.delete(), () -> String.format("Failed to delete manifest [%s]", file));
+  }
+
+  /* (non-Javadoc) - removes the segments of a resumed export no longer hosted here (e.g. after a rebalance) */
+  protected void deleteStaleSegments(File directory, String memberName, Manifest manifest, List<Segment> segments) {
+
+    Set<String> staleSegmentNames = new HashSet<>(manifest.getSegmentNames());
+
+    for (Segment segment : segments) {
+      staleSegmentNames.remove(segment.getName());
+    }
+
+    deleteSegments(directory, memberName, staleSegmentNames);
+
+    staleSegmentNames.forEach(manifest::remove);
+  }
+
+  protected List<Segment> resolveSegments(Manifest manifest) {
+
+    List<Segment> segments = new ArrayList<>();
+
+    PartitionedRegionDataStore dataStore = (getRegion() instanceof PartitionedRegion
+      ? ((PartitionedRegion) getRegion()).getDataStore() : null);
+
+    manifest.setProperty("partitioned", String.valueOf(dataStore != null));
+
+    if (dataStore != null) {
+      for (Integer bucketId : new TreeSet<>(dataStore.getAllLocalPrimaryBucketIds())) {
+
+        BucketRegion bucket = dataStore.getLocalBucketById(bucketId);
+
+        if (bucket != null) {
+          segments.add(new BucketSegment(bucket));
+        }
+      }
+    }
+    else {
+      int shardCount = Integer.parseInt(manifest.getProperty("shards", String.valueOf(getShardCount())));
+
+      manifest.setProperty("shards", String.valueOf(shardCount));
+
+      List<K> keys = new ArrayList<>(isClientRegion() ? getRegion().keySetOnServer() : getRegion().keySet());
+
+      for (int shard = 0; shard < shardCount; shard++) {
+        segments.add(new KeyShardSegment(keys, shard, shardCount));
+      }
+    }
+
+    return segments;
+  }
+
+  protected boolean isClientRegion() {
+    return (getRegion().getAttributes().getPoolName() != null
+      && !PartitionRegionHelper.isPartitionedRegion(getRegion()));
+  }
+
+  protected <T> void runInParallel(List<T> items, ThrowingConsumer<T> action, String operation) {
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(getParallelism(), items.size())),
+      runnable -> {
+        Thread thread = new Thread(runnable, String.format("Region Snapshot %1$s [%2$s]-%3$d", operation,
+          getRegion().getName(), THREAD_COUNTER.incrementAndGet()));
+        thread.setDaemon(true);
+        return thread;
+      });
+
+    try {
+      List<CompletableFuture<Void>> futures = new ArrayList<>(items.size());
+
+      for (T item : items) {
+        futures.add(CompletableFuture.runAsync(() -> {
+          try {
+            action.accept(item);
+          }
+          catch (IOException cause) {
+            throw new UncheckedIOException(cause);
+          }
+        }, executor));
+      }
+
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+    catch (CompletionException cause) {
+      throw (cause.getCause() instanceof RuntimeException ? (RuntimeException) cause.getCause() : cause);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  protected long write(Segment segment, File file) throws IOException {
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+      ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_LENGTH);
+
+      fileHeader.putInt(MAGIC).put(FORMAT_VERSION).put((byte) (isCompress() ? 1 : 0)).flip();
+      writeFully(channel, fileHeader);
+
+      BlockWriter blockWriter = new BlockWriter(channel);
+
+      long entries = segment.forEach(blockWriter::append);
+
+      blockWriter.flush();
+      channel.force(false);
+
+      return entries;
+    }
+  }
+
+  protected long read(File file) throws IOException {
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+      long size = channel.size();
+
+      Assert.state(size >= FILE_HEADER_LENGTH, () -> String.format("Segment [%s] is truncated", file));
+
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, Math.min(size, MAPPED_REGION_SIZE));
+
+      Assert.state(buffer.getInt(0) == MAGIC && buffer.get(4) == FORMAT_VERSION, () -> String.format(
+        "Segment [%s] is not a Region snapshot", file));
+
+      boolean compressed = (buffer.get(5) == 1);
+
+      long bufferPosition = 0L;
+      long position = FILE_HEADER_LENGTH;
+      long entries = 0L;
+
+      Inflater inflater = new Inflater();
+      Map<K, V> chunk = new HashMap<>(getChunkSize());
+
+      try {
+        while (position < size) {
+
+          Assert.state(position + BLOCK_HEADER_LENGTH <= size, () -> String.format(
+            "Segment [%s] is truncated", file));
+
+          if (position + BLOCK_HEADER_LENGTH > bufferPosition + buffer.limit()) {
+            bufferPosition = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position,
+              MAPPED_REGION_SIZE));
+          }
+
+          int offset = (int) (position - bufferPosition);
+          int entryCount = buffer.getInt(offset);
+          int rawLength = buffer.getInt(offset + 4);
+          int storedLength = buffer.getInt(offset + 8);
+
+          long blockEnd = position + BLOCK_HEADER_LENGTH + storedLength;
+
+          Assert.state(blockEnd <= size, () -> String.format("Segment [%s] is truncated", file));
+
+          if (blockEnd > bufferPosition + buffer.limit()) {
+            bufferPosition = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.max(blockEnd - position,
+              Math.min(size - position, MAPPED_REGION_SIZE)));
+            offset = 0;
+          }
+
+          byte[] block = new byte[storedLength];
+
+          ByteBuffer view = buffer.duplicate();
+
+          view.position(offset + BLOCK_HEADER_LENGTH);
+          view.get(block);
+
+          if (compressed) {
+            block = inflate(inflater, block, rawLength);
+          }
+
+          DataInputStream in = new DataInputStream(new ByteArrayInputStream(block));
+
+          for (int index = 0; index < entryCount; index++) {
+
+            K key = DataSerializer.readObject(in);
+            V value = DataSerializer.readObject(in);
+
+            chunk.put(key, value);
+
+            if (chunk.size() >= getChunkSize()) {
+              getRegion().putAll(chunk);
+              chunk.clear();
+            }
+          }
+
+          entries += entryCount;
+          position = blockEnd;
+        }
+
+        if (!chunk.isEmpty()) {
+          getRegion().putAll(chunk);
+        }
+
+        return entries;
+      }
+      catch (ClassNotFoundException | DataFormatException cause) {
+        throw new IOException(String.format("Failed to read segment [%s]", file), cause);
+      }
+      finally {
+        inflater.end();
+      }
+    }
+  }
+
+  protected static void writeFully(FileChannel channel, ByteBuffer... buffers) throws IOException {
+
+    long remaining = 0L;
+
+    for (ByteBuffer buffer : buffers) {
+      remaining += buffer.remaining();
+    }
+
+    while (remaining > 0L) {
+      remaining -= channel.write(buffers);
+    }
+  }
+
+  protected static byte[] inflate(Inflater inflater, byte[] block, int rawLength) throws DataFormatException {
+
+    byte[] raw = new byte[rawLength];
+
+    inflater.reset();
+    inflater.setInput(block);
+
+    int length = 0;
+
+    while (length < rawLength && !inflater.finished()) {
+      length += inflater.inflate(raw, length, rawLength - length);
+    }
+
+    return raw;
+  }
+
+  protected TypeRegistry resolvePdxRegistry() {
+    return (getRegion().getRegionService() instanceof InternalCache
+      ? ((InternalCache) getRegion().getRegionService()).getPdxRegistry() : null);
+  }
+
+  protected void exportPdxTypes(File file) {
+
+    TypeRegistry pdxRegistry = resolvePdxRegistry();
+
+    if (pdxRegistry != null) {
+      try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+        DataSerializer.writeHashMap(new HashMap<>(pdxRegistry.typeMap()), out);
+        DataSerializer.writeHashMap(new HashMap<>(pdxRegistry.enumMap()), out);
+      }
+      catch (IOException cause) {
+        throw new UncheckedIOException(String.format("Failed to export PDX types to [%s]", file), cause);
+      }
+    }
+  }
+
+  protected void importPdxTypes(File file) {
+
+    TypeRegistry pdxRegistry = resolvePdxRegistry();
+
+    if (pdxRegistry != null && file.isFile()) {
+      try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+
+        HashMap<Integer, PdxType> types = DataSerializer.readHashMap(in);
+        HashMap<Integer, EnumInfo> enums = DataSerializer.readHashMap(in);
+
+        types.forEach(pdxRegistry::addImportedType);
+        enums.forEach(pdxRegistry::addImportedEnum);
+      }
+      catch (IOException | ClassNotFoundException cause) {
+        throw new IllegalStateException(String.format("Failed to import PDX types from [%s]", file), cause);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  protected interface ThrowingConsumer<T> {
+    void accept(T target) throws IOException;
+  }
+
+  @FunctionalInterface
+  protected interface ThrowingBiConsumer<T, U> {
+    void accept(T t, U u) throws IOException;
+  }
+
+  /**
+   * A Segment is a subset of the {@link Region Region's} data written to a single snapshot file.
+   */
+  protected abstract class Segment {
+
+    protected abstract String getName();
+
+    protected abstract long forEach(ThrowingBiConsumer<Object, Object> consumer) throws IOException;
+  }
+
+  protected class BucketSegment extends Segment {
+
+    private final BucketRegion bucket;
+
+    protected BucketSegment(BucketRegion bucket) {
+      this.bucket = bucket;
+    }
+
+    @Override
+    protected String getName() {
+      return String.format("bucket-%04d", this.bucket.getId());
+    }
+
+    @Override
+    protected long forEach(ThrowingBiConsumer<Object, Object> consumer) throws IOException {
+
+      long entries = 0L;
+
+      for (Object object : this.bucket.entrySet()) {
+
+        Region.Entry<?, ?> entry = (Region.Entry<?, ?>) object;
+
+        if (!entry.isDestroyed()) {
+          consumer.accept(entry.getKey(), entry.getValue());
+          entries++;
+        }
+      }
+
+      return entries;
+    }
+  }
+
+  protected class KeyShardSegment extends Segment {
+
+    private final int shard;
+    private final int shardCount;
+
+    private final List<K> keys;
+
+    protected KeyShardSegment(List<K> keys, int shard, int shardCount) {
+      this.keys = keys;
+      this.shard = shard;
+      this.shardCount = shardCount;
+    }
+
+    @Override
+    protected String getName() {
+      return String.format("shard-%04d", this.shard);
+    }
+
+    @Override
+    protected long forEach(ThrowingBiConsumer<Object, Object> consumer) throws IOException {
+
+      List<K> batch = new ArrayList<>(getChunkSize());
+
+      long entries = 0L;
+
+      for (K key : this.keys) {
+        if (Math.floorMod(key.hashCode(), this.shardCount) == this.shard) {
+
+          batch.add(key);
+
+          if (batch.size() >= getChunkSize()) {
+            entries += writeBatch(batch, consumer);
+            batch.clear();
+          }
+        }
+      }
+
+      return entries + writeBatch(batch, consumer);
+    }
+
+    private long writeBatch(List<K> batch, ThrowingBiConsumer<Object, Object> consumer) throws IOException {
+
+      long entries = 0L;
+
+      if (!batch.isEmpty()) {
+        for (Map.Entry<K, V> entry : getRegion().getAll(batch).entrySet()) {
+          if (entry.getValue() != null) {
+            consumer.accept(entry.getKey(), entry.getValue());
+            entries++;
+          }
+        }
+      }
+
+      return entries;
+    }
+  }
+
+  /**
+   * The BlockWriter class buffers serialized entries and writes them to the segment file in blocks.
+   */
+  protected class BlockWriter {
+
+    private int entryCount = 0;
+
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream(getBlockSize() + 1024);
+
+    private final DataOutputStream out = new DataOutputStream(this.block);
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    private final FileChannel channel;
+
+    protected BlockWriter(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    protected void append(Object key, Object value) throws IOException {
+
+      DataSerializer.writeObject(key, this.out);
+      DataSerializer.writeObject(value, this.out);
+
+      this.entryCount++;
+
+      if (this.block.size() >= getBlockSize()) {
+        flush();
+      }
+    }
+
+    protected void flush() throws IOException {
+
+      if (this.entryCount > 0) {
+
+        this.out.flush();
+
+        byte[] raw = this.block.toByteArray();
+        byte[] stored = (isCompress() ? deflate(raw) : raw);
+
+        ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_LENGTH);
+
+        blockHeader.putInt(this.entryCount).putInt(raw.length).putInt(stored.length).flip();
+
+        writeFully(this.channel, blockHeader, ByteBuffer.wrap(stored));
+
+        this.block.reset();
+        this.entryCount = 0;
+      }
+    }
+
+    private byte[] deflate(byte[] raw) {
+
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2 + 64);
+
+      byte[] buffer = new byte[64 * 1024];
+
+      this.deflater.reset();
+      this.deflater.setInput(raw);
+      this.deflater.finish();
+
+      while (!this.deflater.finished()) {
+        compressed.write(buffer, 0, this.deflater.deflate(buffer));
+      }
+
+      return compressed.toByteArray();
+    }
+  }
+
+  /**
+   * The Manifest class records the completed segments of a snapshot, or of an import, in a properties file
+   * that is replaced atomically every time a segment completes.
+   */
+  protected static class Manifest {
+
+    protected static final String COMPLETE = "COMPLETE";
+    protected static final String IN_PROGRESS = "IN_PROGRESS";
+
+    private final File file;
+
+    private final Properties properties = new Properties();
+
+    protected static Manifest load(File file) {
+
+      Manifest manifest = new Manifest(file);
+
+      if (file.isFile()) {
+        try (InputStream in = new FileInputStream(file)) {
+          manifest.properties.load(in);
+        }
+        catch (IOException cause) {
+          throw new UncheckedIOException(String.format("Failed to load manifest [%s]", file), cause);
+        }
+      }
+
+      return manifest;
+    }
+
+    protected Manifest(File file) {
+      this.file = file;
+    }
+
+    protected synchronized String getProperty(String name, String defaultValue) {
+      return this.properties.getProperty(name, defaultValue);
+    }
+
+    protected synchronized void setProperty(String name, String value) {
+      this.properties.setProperty(name, value);
+    }
+
+    protected synchronized long getBytes(String segmentName) {
+      return Long.parseLong(this.properties.getProperty("segment." + segmentName + ".bytes", "-1"));
+    }
+
+    protected synchronized List<String> getCompletedSegmentNames() {
+
+      List<String> segmentNames = new ArrayList<>();
+
+      for (String segmentName : getSegmentNames()) {
+        if (isComplete(segmentName)) {
+          segmentNames.add(segmentName);
+        }
+      }
+
+      return segmentNames;
+    }
+
+    /**
+     * Returns the names of all segments recorded in this manifest, whether completed or not.
+     */
+    protected synchronized List<String> getSegmentNames() {
+
+      List<String> segmentNames = new ArrayList<>();
+
+      for (String name : new TreeSet<>(this.properties.stringPropertyNames())) {
+        if (name.startsWith("segment.") && name.endsWith(".status")) {
+          segmentNames.add(name.substring("segment.".length(), name.length() - ".status".length()));
+        }
+      }
+
+      return segmentNames;
+    }
+
+    protected synchronized boolean isComplete(String segmentName) {
+      return COMPLETE.equals(this.properties.getProperty("segment." + segmentName + ".status"));
+    }
+
+    /**
+     * Determines whether the export recorded in this manifest was started, but not completed.
+     */
+    protected synchronized boolean isInProgress() {
+      return IN_PROGRESS.equals(this.properties.getProperty("status"));
+    }
+
+    protected synchronized void clear() {
+      this.properties.clear();
+    }
+
+    protected synchronized void complete(String segmentName, long entries, long bytes) {
+      this.properties.setProperty("segment." + segmentName + ".entries", String.valueOf(entries));
+      this.properties.setProperty("segment." + segmentName + ".bytes", String.valueOf(bytes));
+      this.properties.setProperty("segment." + segmentName + ".status", COMPLETE);
+      save();
+    }
+
+    protected synchronized void remove(String segmentName) {
+      for (String suffix : Arrays.asList(".entries", ".bytes", ".status")) {
+        this.properties.remove("segment." + segmentName + suffix);
+      }
+    }
+
+    protected synchronized void save() {
+
+      File temporaryFile = new File(this.file.getParentFile(), this.file.getName() + ".tmp");
+
+      try {
+        try (OutputStream out = new FileOutputStream(temporaryFile)) {
+          this.properties.store(out, null);
+        }
+
+        Files.move(temporaryFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      }
+      catch (IOException cause) {
+        throw new UncheckedIOException(String.format("Failed to save manifest [%s]", this.file), cause);
+      }
+    }
+  }
+
+  /**
+   * The Statistics class records the segments, entries and bytes of an export or import.
+   */
+  public static class Statistics {
+
+    private final AtomicLong bytes = new AtomicLong(0L);
+    private final AtomicLong entries = new AtomicLong(0L);
+    private final AtomicLong segments = new AtomicLong(0L);
+    private final AtomicLong skippedSegments = new AtomicLong(0L);
+
+    private final long t0 = System.nanoTime();
+
+    private volatile long elapsedNanos;
+
+    protected void record(long entries, long bytes) {
+      this.segments.incrementAndGet();
+      this.entries.addAndGet(entries);
+      this.bytes.addAndGet(bytes);
+    }
+
+    protected void complete() {
+      this.elapsedNanos = System.nanoTime() - this.t0;
+    }
+
+    /**
+     * Returns the number of bytes of the segment files written or read.
+     */
+    public long getBytes() {
+      return this.bytes.get();
+    }
+
+    public long getElapsedTime(TimeUnit timeUnit) {
+      return timeUnit.convert(this.elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getEntries() {
+      return this.entries.get();
+    }
+
+    public long getSegments() {
+      return this.segments.get();
+    }
+
+    /**
+     * Returns the number of segments skipped because a previous run had already completed them.
+     */
+    public long getSkippedSegments() {
+      return this.skippedSegments.get();
+    }
+
+    public double getThroughput() {
+      return (this.elapsedNanos > 0L ? getEntries() * 1.0e9d / this.elapsedNanos : 0.0d);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("{ segments = %1$d, skippedSegments = %2$d, entries = %3$d, bytes = %4$d,"
+          + " elapsedMs = %5$d, entriesPerSecond = %6$.1f }", getSegments(), getSkippedSegments(), getEntries(),
+        getBytes(), getElapsedTime(TimeUnit.MILLISECONDS), getThroughput());
+    }
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.beans;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Calendar;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.Delta;
+import org.apache.geode.InvalidDeltaException;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.springframework.util.SerializationUtils;
+
+/**
+ * Performance test comparing the bytes written to the wire when updating the {@link Programmer#getReputation()}
+ * of a {@link DeltaProgrammer} by sending the full value compared to sending a {@link Delta}.
+ *
+ * @author John Blum
+ * @see org.apache.geode.Delta
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.beans.DeltaProgrammer
+ * @see org.spring.data.gemfire.app.beans.DeltaUser
+ * @see org.spring.data.gemfire.app.beans.Deltas
+ * @since 1.0.0
+ */
+public class DeltaPropagationPerformanceTest {
+
+  private static final int TEST_ITERATIONS = 10000;
+
+  private static double deltaBytesPerUpdate = Double.NaN;
+  private static double fullValueBytesPerUpdate = Double.NaN;
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+
+    System.out.printf("Full Value Bytes per Reputation Update (%1$.2f)%n", fullValueBytesPerUpdate);
+    System.out.printf("Delta Bytes per Reputation Update (%1$.2f)%n", deltaBytesPerUpdate);
+
+    // only compare when both measurements were taken, e.g. not when a single test method is run from the IDE
+    if (Double.isNaN(deltaBytesPerUpdate) || Double.isNaN(fullValueBytesPerUpdate)) {
+      return;
+    }
+
+    assertThat(deltaBytesPerUpdate)
+      .describedAs("Expected a Delta (%1$.2f) to be smaller than the full value (%2$.2f)!",
+        deltaBytesPerUpdate, fullValueBytesPerUpdate)
+      .isLessThan(fullValueBytesPerUpdate);
+  }
+
+  private static DeltaProgrammer newProgrammer() {
+
+    Calendar birthDate = Calendar.getInstance();
+
+    birthDate.clear();
+    birthDate.set(1974, Calendar.MAY, 27);
+
+    DeltaProgrammer programmer = new DeltaProgrammer(1L);
+
+    programmer.setFirstName("Jon");
+    programmer.setLastName("Doe");
+    programmer.setBirthDate(birthDate);
+    programmer.setGender(Gender.MALE);
+    programmer.setProgrammingLanguage("Java");
+    programmer.setReputation(1);
+
+    return copy(programmer);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T copy(T obj) {
+    return (T) SerializationUtils.deserialize(SerializationUtils.serialize(obj));
+  }
+
+  private static byte[] toDelta(Delta delta) throws IOException {
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    delta.toDelta(new DataOutputStream(bytes));
+
+    return bytes.toByteArray();
+  }
+
+  private static byte[] toFullValue(Object value) throws IOException {
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    DataSerializer.writeObject(value, new DataOutputStream(bytes));
+
+    return bytes.toByteArray();
+  }
+
+  private static void fromDelta(Delta delta, byte[] bytes) throws IOException {
+    delta.fromDelta(new DataInputStream(new ByteArrayInputStream(bytes)));
+  }
+
+  @Test
+  public void deltaIsAppliedToCopyAtSameVersion() throws IOException {
+
+    DeltaProgrammer programmer = newProgrammer();
+    DeltaProgrammer copy = copy(programmer);
+
+    assertThat(programmer.hasDelta()).isFalse();
+
+    programmer.setReputation(10);
+
+    assertThat(programmer.hasDelta()).isTrue();
+
+    fromDelta(copy, toDelta(programmer));
+
+    assertThat(programmer.hasDelta()).isFalse();
+    assertThat(copy.hasDelta()).isFalse();
+    assertThat(copy.getReputation()).isEqualTo(10);
+    assertThat(copy.getProgrammingLanguage()).isEqualTo("Java");
+    assertThat(copy).isEqualTo(programmer);
+    assertThat(copy.getDeltaVersion()).isEqualTo(programmer.getDeltaVersion()).isEqualTo(1L);
+  }
+
+  @Test
+  public void deltaAtDifferentVersionIsRejected() throws IOException {
+
+    DeltaProgrammer programmer = newProgrammer();
+    DeltaProgrammer staleCopy = copy(programmer);
+
+    programmer.setReputation(5);
+    fromDelta(copy(programmer), toDelta(programmer));
+    programmer.setReputation(10);
+
+    byte[] delta = toDelta(programmer);
+
+    assertThatThrownBy(() -> fromDelta(staleCopy, delta)).isInstanceOf(InvalidDeltaException.class);
+    assertThat(staleCopy.getReputation()).isEqualTo(1);
+  }
+
+  @Test
+  public void userDeltaContainsOnlyChangedFields() throws IOException {
+
+    DeltaUser user = new DeltaUser("jonDoe");
+    DeltaUser copy = new DeltaUser("jonDoe");
+
+    user.setEmail("jonDoe@home.com");
+    user.setActive(false);
+
+    fromDelta(copy, toDelta(user));
+
+    assertThat(copy.getEmail()).isEqualTo("jonDoe@home.com");
+    assertThat(copy.isActive()).isFalse();
+    assertThat(copy.getSince()).isNull();
+    assertThat(copy.getDeltaVersion()).isEqualTo(user.getDeltaVersion()).isEqualTo(1L);
+  }
+
+  @Test
+  public void userAddressChangesAreTracked() throws IOException {
+
+    DeltaUser user = new DeltaUser("jonDoe");
+
+    Address address = new Address("100 Main St.", "Portland", State.OREGON, "97205");
+
+    assertThat(user.add(address)).isTrue();
+    assertThat(user.hasDelta()).isTrue();
+    assertThatThrownBy(() -> user.getAddresses().clear()).isInstanceOf(UnsupportedOperationException.class);
+
+    // Address is serialized with PDX by the cache, so only the emptied Set is written here
+    user.setEmail("jonDoe@home.com");
+    user.remove(address);
+    toDelta(user);
+
+    assertThat(user.hasDelta()).isFalse();
+    assertThat(user.getAddresses()).isEmpty();
+    assertThat(user.remove(address)).isFalse();
+    assertThat(user.hasDelta()).isFalse();
+  }
+
+  @Test
+  public void deltaPropagationIsOptInByType() {
+
+    assertThat(new Programmer(1L)).isNotInstanceOf(Delta.class);
+    assertThat(new Customer(1L)).isNotInstanceOf(Delta.class);
+    assertThat(new User("jonDoe")).isNotInstanceOf(Delta.class);
+
+    DeltaPerson person = new DeltaPerson("Jon", "Doe");
+
+    assertThat(person.hasDelta()).isFalse();
+
+    person.setLastName("Smith");
+
+    assertThat(person.hasDelta()).isTrue();
+  }
+
+  @Test
+  public void measureDeltaBytes() throws IOException {
+
+    DeltaProgrammer programmer = newProgrammer();
+
+    long totalBytes = 0L;
+
+    for (int count = 0; count < TEST_ITERATIONS; count++) {
+      programmer.setReputation(programmer.getReputation() + 1);
+      totalBytes += toDelta(programmer).length;
+    }
+
+    deltaBytesPerUpdate = ((double) totalBytes / TEST_ITERATIONS);
+  }
+
+  @Test
+  public void measureFullValueBytes() throws IOException {
+
+    DeltaProgrammer programmer = newProgrammer();
+
+    long totalBytes = 0L;
+
+    for (int count = 0; count < TEST_ITERATIONS; count++) {
+      programmer.setReputation(programmer.getReputation() + 1);
+      totalBytes += toFullValue(programmer).length;
+    }
+
+    fullValueBytesPerUpdate = ((double) totalBytes / TEST_ITERATIONS);
+  }
+}
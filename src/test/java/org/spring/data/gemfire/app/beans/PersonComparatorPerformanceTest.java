@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.beans;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.codeprimate.util.ComparatorAccumulator;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Performance test measuring the bytes allocated per comparison when sorting {@link Person People} with the
+ * {@link ComparatorAccumulator} based comparison previously used by {@link Person#compareTo(Person)}
+ * compared to the {@link Comparators#PERSON_NATURAL_ORDER} {@link Comparator}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.beans.Comparators
+ * @see org.spring.data.gemfire.app.beans.Person
+ * @since 1.0.0
+ */
+public class PersonComparatorPerformanceTest {
+
+  private static final int JVM_WARM_UP_ITERATIONS = 1000;
+  private static final int PEOPLE_COUNT = 1000;
+  private static final int TEST_ITERATIONS = (JVM_WARM_UP_ITERATIONS * 100);
+
+  private static final Comparator<Person> COMPARATOR_ACCUMULATOR_ORDER = (personOne, personTwo) ->
+    new ComparatorAccumulator()
+      .doCompare(personOne.getLastName(), personTwo.getLastName())
+      .doCompare(personOne.getFirstName(), personTwo.getFirstName())
+      .doCompare(personOne.getBirthDate(), personTwo.getBirthDate())
+      .getResult();
+
+  private static double comparatorAccumulatorBytesPerComparison = Double.NaN;
+  private static double comparatorsBytesPerComparison = Double.NaN;
+
+  private static List<Person> people;
+
+  private static volatile int comparisonResult;
+
+  @BeforeClass
+  public static void setupBeforeClass() {
+
+    Random random = new Random(PEOPLE_COUNT);
+
+    String[] firstNames = { "Cookie", "Fro", "Jane", "Joe", "Jon", "Pie", "Sour" };
+
+    people = new ArrayList<>(PEOPLE_COUNT);
+
+    for (int count = 0; count < PEOPLE_COUNT; count++) {
+
+      Calendar birthDate = Calendar.getInstance();
+
+      birthDate.clear();
+      birthDate.set(1950 + random.nextInt(50), random.nextInt(12), 1 + random.nextInt(28));
+
+      Person person = new Person(firstNames[random.nextInt(firstNames.length)], "Doe");
+
+      person.setBirthDate(birthDate);
+      people.add(person);
+    }
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+
+    System.out.printf("ComparatorAccumulator Bytes per Comparison (%1$.2f)%n", comparatorAccumulatorBytesPerComparison);
+    System.out.printf("Comparators Bytes per Comparison (%1$.2f)%n", comparatorsBytesPerComparison);
+
+    // only compare when both test cases ran, e.g. not when a single test method is run from the IDE
+    if (Double.isNaN(comparatorAccumulatorBytesPerComparison) || Double.isNaN(comparatorsBytesPerComparison)) {
+      return;
+    }
+
+    assertThat(comparatorsBytesPerComparison)
+      .describedAs("Expected Comparators (%1$.2f) to allocate less than ComparatorAccumulator (%2$.2f) per comparison!",
+        comparatorsBytesPerComparison, comparatorAccumulatorBytesPerComparison)
+      .isLessThan(comparatorAccumulatorBytesPerComparison);
+  }
+
+  private static long currentThreadAllocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+      .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private double measureBytesPerComparison(Comparator<Person> comparator) {
+
+    int result = 0;
+
+    for (int count = 0; count < JVM_WARM_UP_ITERATIONS; count++) {
+      result += comparator.compare(people.get(count % PEOPLE_COUNT), people.get((count + 1) % PEOPLE_COUNT));
+    }
+
+    long allocatedBytesBefore = currentThreadAllocatedBytes();
+
+    for (int count = 0; count < TEST_ITERATIONS; count++) {
+      result += comparator.compare(people.get(count % PEOPLE_COUNT), people.get((count + 7) % PEOPLE_COUNT));
+    }
+
+    long allocatedBytes = (currentThreadAllocatedBytes() - allocatedBytesBefore);
+
+    comparisonResult = result;
+
+    return ((double) allocatedBytes / TEST_ITERATIONS);
+  }
+
+  @Test
+  public void comparatorsOrderPeopleTheSameAsComparatorAccumulator() {
+
+    List<Person> expected = new ArrayList<>(people);
+    List<Person> actual = new ArrayList<>(people);
+
+    Collections.shuffle(actual, new Random(TEST_ITERATIONS));
+    expected.sort(COMPARATOR_ACCUMULATOR_ORDER);
+    actual.sort(Comparators.PERSON_NATURAL_ORDER);
+
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void measureComparatorAccumulator() {
+    comparatorAccumulatorBytesPerComparison = measureBytesPerComparison(COMPARATOR_ACCUMULATOR_ORDER);
+  }
+
+  @Test
+  public void measureComparators() {
+    comparatorsBytesPerComparison = measureBytesPerComparison(Comparators.PERSON_NATURAL_ORDER);
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Region;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spring.data.gemfire.app.context.ParallelBootstrapBeanFactory.BeanTiming;
+
+/**
+ * Integration tests for the {@link ParallelBootstrapApplicationContext} and {@link ParallelBootstrapBeanFactory}
+ * creating persistent Regions, Disk Stores and Indexes concurrently.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.context.ParallelBootstrapApplicationContext
+ * @see org.spring.data.gemfire.app.context.ParallelBootstrapBeanFactory
+ * @since 1.0.0
+ */
+public class ParallelBootstrapApplicationContextIntegrationTests {
+
+  private static ParallelBootstrapApplicationContext applicationContext;
+
+  @BeforeClass
+  public static void setupBeforeClass() {
+    applicationContext = new ParallelBootstrapApplicationContext(4,
+      "org/spring/data/gemfire/app/context/ParallelBootstrapApplicationContextIntegrationTests-context.xml");
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+    if (applicationContext != null) {
+      applicationContext.close();
+    }
+  }
+
+  private static BeanTiming timingOf(String beanName) {
+
+    BeanTiming beanTiming = applicationContext.getParallelBootstrapBeanFactory().getBeanTiming(beanName);
+
+    assertThat(beanTiming).describedAs("No timing for bean [%s]", beanName).isNotNull();
+
+    return beanTiming;
+  }
+
+  @Test
+  public void regionsDiskStoresAndIndexesAreCreated() {
+
+    Cache cache = applicationContext.getBean(Cache.class);
+
+    assertThat(cache.findDiskStore("CustomersData")).isNotNull();
+    assertThat(cache.findDiskStore("OrdersData")).isNotNull();
+    assertThat(cache.findDiskStore("ProductsData")).isNotNull();
+
+    Region<?, ?> customers = cache.getRegion("Customers");
+    Region<?, ?> lineItems = cache.getRegion("LineItems");
+
+    assertThat(customers).isNotNull();
+    assertThat(customers.getAttributes().getDataPolicy()).isEqualTo(DataPolicy.PERSISTENT_REPLICATE);
+    assertThat(customers.getAttributes().getDiskStoreName()).isEqualTo("CustomersData");
+    assertThat(lineItems).isNotNull();
+    assertThat(lineItems.getAttributes().getPartitionAttributes().getColocatedWith()).isEqualTo("Orders");
+    assertThat(cache.getRegion("Audit")).isNotNull();
+    assertThat(cache.getRegion("Orders")).isNotNull();
+    assertThat(cache.getRegion("Products")).isNotNull();
+
+    assertThat(cache.getQueryService().getIndex(customers, "CustomerNameIdx")).isNotNull();
+    assertThat(cache.getQueryService().getIndex(cache.getRegion("Products"), "ProductNameIdx")).isNotNull();
+  }
+
+  @Test
+  public void gemfireBeansAreCreatedAfterTheirDependencies() {
+
+    assertThat(timingOf("CustomersData").getEndNanos()).isLessThanOrEqualTo(timingOf("Customers").getStartNanos());
+    assertThat(timingOf("OrdersData").getEndNanos()).isLessThanOrEqualTo(timingOf("Orders").getStartNanos());
+    assertThat(timingOf("Orders").getEndNanos()).isLessThanOrEqualTo(timingOf("LineItems").getStartNanos());
+    assertThat(timingOf("Customers").getEndNanos()).isLessThanOrEqualTo(timingOf("CustomerNameIdx").getStartNanos());
+    assertThat(timingOf("Customers").getEndNanos()).isLessThanOrEqualTo(timingOf("Audit").getStartNanos());
+    assertThat(timingOf("Products").getEndNanos()).isLessThanOrEqualTo(timingOf("Audit").getStartNanos());
+  }
+
+  @Test
+  public void gemfireBeansAreCreatedOnBootstrapThreads() {
+
+    assertThat(timingOf("gemfireCache").getThreadName())
+      .doesNotStartWith(ParallelBootstrapBeanFactory.BOOTSTRAP_THREAD_NAME_PREFIX);
+
+    assertThat(applicationContext.getParallelBootstrapBeanFactory().getBeanTimings())
+      .filteredOn(beanTiming -> beanTiming.getBeanName().endsWith("Data"))
+      .extracting(BeanTiming::getThreadName)
+      .allMatch(threadName -> threadName.startsWith(ParallelBootstrapBeanFactory.BOOTSTRAP_THREAD_NAME_PREFIX));
+
+    assertThat(applicationContext.getParallelBootstrapBeanFactory().getParallelPhaseTime(TimeUnit.NANOSECONDS))
+      .isPositive();
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.InterestPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.SubscriptionAttributes;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.app.beans.Programmer;
+import org.spring.data.gemfire.app.beans.User;
+import org.spring.data.gemfire.app.dao.repo.ProgrammerRepository;
+import org.spring.data.gemfire.app.dao.repo.UserRepository;
+import org.spring.data.gemfire.cache.query.CacheableQuery;
+import org.spring.data.gemfire.cache.query.QueryResultCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.PartitionedRegionFactoryBean;
+import org.springframework.data.gemfire.RegionAttributesFactoryBean;
+import org.springframework.data.gemfire.ReplicatedRegionFactoryBean;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.data.gemfire.repository.config.EnableGemfireRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for repositories created with the {@link CachingGemfireRepositoryFactoryBean} caching the results
+ * of {@link CacheableQuery @CacheableQuery} methods in a {@link QueryResultCache}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.dao.repo.ProgrammerRepository
+ * @see org.spring.data.gemfire.app.dao.repo.UserRepository
+ * @see org.spring.data.gemfire.app.dao.repo.support.CachingGemfireRepositoryFactoryBean
+ * @see org.spring.data.gemfire.cache.query.QueryResultCache
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class CachingGemfireRepositoryIntegrationTests {
+
+  @Autowired
+  private Cache gemfireCache;
+
+  @Autowired
+  private ProgrammerRepository programmerRepository;
+
+  @Autowired
+  private QueryResultCache queryResultCache;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Before
+  public void setup() {
+
+    this.programmerRepository.deleteAll();
+    this.userRepository.deleteAll();
+    this.queryResultCache.clear();
+
+    save(1L, "Jon", "Java");
+    save(2L, "Jane", "Java");
+    save(3L, "Bob", "Scala");
+
+    this.userRepository.save(new User("jonDoe"));
+    this.userRepository.save(new User("joeBlow"));
+    this.userRepository.save(new User("pieDoe"));
+  }
+
+  private Programmer save(Long id, String firstName, String programmingLanguage) {
+
+    Programmer programmer = new Programmer(firstName, "Doe");
+
+    programmer.setId(id);
+    programmer.setProgrammingLanguage(programmingLanguage);
+
+    return this.programmerRepository.save(programmer);
+  }
+
+  private List<Programmer> findJavaProgrammers() {
+    return this.programmerRepository.findDistinctByProgrammingLanguageOrderByNameAsc("Java");
+  }
+
+  @Test
+  public void repeatedQueryIsServedFromCache() {
+
+    long hits = this.queryResultCache.getStatistics().getHits();
+    long misses = this.queryResultCache.getStatistics().getMisses();
+
+    List<Programmer> programmers = findJavaProgrammers();
+
+    assertThat(programmers).extracting(Programmer::getId).containsExactlyInAnyOrder(1L, 2L);
+
+    programmers.clear();
+
+    assertThat(findJavaProgrammers()).extracting(Programmer::getId).containsExactlyInAnyOrder(1L, 2L);
+    assertThat(findJavaProgrammers()).hasSize(2);
+    assertThat(this.queryResultCache.getStatistics().getMisses()).isEqualTo(misses + 1);
+    assertThat(this.queryResultCache.getStatistics().getHits()).isEqualTo(hits + 2);
+  }
+
+  @Test
+  public void changesNotMatchingThePredicateKeepResultsCached() {
+
+    findJavaProgrammers();
+
+    long invalidations = this.queryResultCache.getStatistics().getInvalidations();
+
+    save(4L, "Ada", "Groovy");
+    save(3L, "Bob", "Clojure");
+
+    assertThat(this.queryResultCache.getStatistics().getInvalidations()).isEqualTo(invalidations);
+
+    long hits = this.queryResultCache.getStatistics().getHits();
+
+    assertThat(findJavaProgrammers()).hasSize(2);
+    assertThat(this.queryResultCache.getStatistics().getHits()).isEqualTo(hits + 1);
+  }
+
+  @Test
+  public void createMatchingThePredicateInvalidatesResults() {
+
+    findJavaProgrammers();
+    save(4L, "Ada", "Java");
+
+    assertThat(findJavaProgrammers()).extracting(Programmer::getId).containsExactlyInAnyOrder(1L, 2L, 4L);
+  }
+
+  @Test
+  public void updateOfMatchingValueInvalidatesResults() {
+
+    findJavaProgrammers();
+    save(2L, "Jane", "Kotlin");
+
+    assertThat(findJavaProgrammers()).extracting(Programmer::getId).containsExactly(1L);
+  }
+
+  @Test
+  public void destroyOfMatchingValueInvalidatesResults() {
+
+    findJavaProgrammers();
+    this.programmerRepository.deleteById(1L);
+
+    assertThat(findJavaProgrammers()).extracting(Programmer::getId).containsExactly(2L);
+  }
+
+  @Test
+  public void modifyingReturnedResultsDoesNotModifyCachedResults() {
+
+    findJavaProgrammers().forEach(programmer -> programmer.setProgrammingLanguage("COBOL"));
+
+    long hits = this.queryResultCache.getStatistics().getHits();
+
+    assertThat(findJavaProgrammers()).extracting(Programmer::getProgrammingLanguage).containsOnly("Java");
+    assertThat(findJavaProgrammers().get(0)).isNotSameAs(findJavaProgrammers().get(0));
+    assertThat(this.queryResultCache.getStatistics().getHits()).isEqualTo(hits + 3);
+  }
+
+  @Test
+  public void resultsOfQueriesOnPartitionedRegionNotSubscribedToAllEventsAreNotCached() {
+
+    Region<Long, Programmer> localEventsOnly =
+      this.gemfireCache.<Long, Programmer>createRegionFactory(RegionShortcut.PARTITION).create("LocalEventsOnly");
+
+    try {
+      long uncacheable = this.queryResultCache.getStatistics().getUncacheable();
+
+      Object key = QueryResultCache.key("localEventsOnly");
+
+      for (int count = 0; count < 2; count++) {
+        this.queryResultCache.execute(key, 10, () -> {
+          this.queryResultCache.watch("SELECT * FROM /LocalEventsOnly p WHERE p.programmingLanguage = $1", "Java");
+          return Collections.emptyList();
+        });
+      }
+
+      assertThat(this.queryResultCache.getStatistics().getUncacheable()).isEqualTo(uncacheable + 2);
+    }
+    finally {
+      localEventsOnly.destroyRegion();
+    }
+  }
+
+  @Test
+  public void resultsOfQueriesOnLocalRegionsAreNotCached() {
+
+    Region<Long, Programmer> local =
+      this.gemfireCache.<Long, Programmer>createRegionFactory(RegionShortcut.LOCAL).create("Local");
+
+    try {
+      long uncacheable = this.queryResultCache.getStatistics().getUncacheable();
+
+      this.queryResultCache.execute(QueryResultCache.key("local"), 10, () -> {
+        this.queryResultCache.watch("SELECT * FROM /Local p WHERE p.programmingLanguage = $1", "Java");
+        return Collections.emptyList();
+      });
+
+      assertThat(this.queryResultCache.getStatistics().getUncacheable()).isEqualTo(uncacheable + 1);
+    }
+    finally {
+      local.destroyRegion();
+    }
+  }
+
+  @Test
+  public void resultsAreCachedPerBindParameterValues() {
+
+    assertThat(this.userRepository.countUsersByUsernameLike("jo%")).isEqualTo(2);
+    assertThat(this.userRepository.countUsersByUsernameLike("pie%")).isEqualTo(1);
+
+    long invalidations = this.queryResultCache.getStatistics().getInvalidations();
+
+    this.userRepository.save(new User("jackHandy"));
+    this.userRepository.save(new User("pieHandy"));
+
+    assertThat(this.queryResultCache.getStatistics().getInvalidations()).isEqualTo(invalidations + 1);
+    assertThat(this.userRepository.countUsersByUsernameLike("jo%")).isEqualTo(2);
+    assertThat(this.userRepository.countUsersByUsernameLike("pie%")).isEqualTo(2);
+  }
+
+  @PeerCacheApplication(name = "CachingGemfireRepositoryIntegrationTests", logLevel = "warning")
+  @EnableGemfireRepositories(basePackageClasses = ProgrammerRepository.class,
+    repositoryFactoryBeanClass = CachingGemfireRepositoryFactoryBean.class,
+    includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+      classes = { ProgrammerRepository.class, UserRepository.class }))
+  static class TestConfiguration {
+
+    @Bean("Programmers")
+    @SuppressWarnings("unchecked")
+    PartitionedRegionFactoryBean<Long, Programmer> programmersRegion(GemFireCache gemfireCache) throws Exception {
+
+      // the QueryResultCache only caches the results of queries on partitioned Regions subscribed to all events
+      RegionAttributesFactoryBean programmersRegionAttributes = new RegionAttributesFactoryBean();
+
+      programmersRegionAttributes.setSubscriptionAttributes(new SubscriptionAttributes(InterestPolicy.ALL));
+      programmersRegionAttributes.afterPropertiesSet();
+
+      PartitionedRegionFactoryBean<Long, Programmer> programmersRegion = new PartitionedRegionFactoryBean<>();
+
+      programmersRegion.setAttributes(programmersRegionAttributes.getObject());
+      programmersRegion.setCache(gemfireCache);
+      programmersRegion.setClose(false);
+      programmersRegion.setPersistent(false);
+
+      return programmersRegion;
+    }
+
+    @Bean("Users")
+    ReplicatedRegionFactoryBean<String, User> usersRegion(GemFireCache gemfireCache) {
+
+      ReplicatedRegionFactoryBean<String, User> usersRegion = new ReplicatedRegionFactoryBean<>();
+
+      usersRegion.setCache(gemfireCache);
+      usersRegion.setClose(false);
+      usersRegion.setPersistent(false);
+
+      return usersRegion;
+    }
+
+    @Bean
+    @DependsOn("Programmers")
+    GemfireTemplate programmersTemplate(GemFireCache gemfireCache) {
+      return new GemfireTemplate(gemfireCache.getRegion("Programmers"));
+    }
+
+    @Bean
+    QueryResultCache queryResultCache(GemFireCache gemfireCache) {
+      return new QueryResultCache(gemfireCache);
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.app.beans.Account;
+import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.app.beans.projection.PersonName;
+import org.spring.data.gemfire.app.dao.repo.CustomerRepository;
+import org.spring.data.gemfire.cache.execute.JoinFunctions;
+import org.spring.data.gemfire.cache.query.SemiJoinExecutorIntegrationTests.CustomerIdPartitionResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.gemfire.PartitionAttributesFactoryBean;
+import org.springframework.data.gemfire.PartitionedRegionFactoryBean;
+import org.springframework.data.gemfire.RegionAttributesFactoryBean;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.data.gemfire.function.config.EnableGemfireFunctions;
+import org.springframework.data.gemfire.repository.config.EnableGemfireRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link CustomerRepository} joining Customers with the Accounts of a Region colocated with
+ * the Customers Region and routing each Account by the ID of its Customer.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.dao.repo.CustomerRepository
+ * @see org.spring.data.gemfire.app.dao.repo.support.CustomerRepositoryImpl
+ * @see org.spring.data.gemfire.cache.query.SemiJoinExecutor
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@TestPropertySource(properties = "example.accounts.routed-by-customer-id=true")
+@SuppressWarnings("unused")
+public class CustomerRepositoryColocatedJoinIntegrationTests {
+
+  @Resource(name = "Accounts")
+  private Region<Long, Account> accounts;
+
+  @Autowired
+  private CustomerRepository customerRepository;
+
+  @Autowired
+  private CustomerRepositoryImpl customerRepositoryImpl;
+
+  @Before
+  public void setup() {
+
+    if (this.customerRepository.count() == 0) {
+      for (long id = 1; id <= 4; id++) {
+
+        Customer customer = new Customer("Customer" + id, "Doe");
+
+        customer.setId(id);
+
+        this.customerRepository.save(customer);
+      }
+
+      save(newAccount(1L, 0L), newAccount(1L, 1L), newAccount(3L, 0L));
+    }
+  }
+
+  private Account newAccount(long customerId, long number) {
+
+    Account account = new Account(customerId, String.valueOf(number));
+
+    account.setId(customerId * CustomerIdPartitionResolver.ACCOUNTS_PER_CUSTOMER + number);
+
+    return account;
+  }
+
+  private void save(Account... accounts) {
+    Arrays.stream(accounts).forEach(account -> this.accounts.put(account.getId(), account));
+  }
+
+  @Test
+  public void customersWithAccountsAreJoinedOnColocatedBuckets() {
+
+    assertThat(this.customerRepositoryImpl.getCustomersWithAccountsJoin().isColocated()).isTrue();
+    assertThat(this.customerRepository.findCustomersWithAccounts()).extracting(Customer::getId)
+      .containsExactlyInAnyOrder(1L, 3L);
+    assertThat(this.customerRepository.findCustomersWithAccounts(PersonName.class)).extracting(PersonName::getId)
+      .containsExactlyInAnyOrder(1L, 3L);
+  }
+
+  @PeerCacheApplication(name = "CustomerRepositoryColocatedJoinIntegrationTests", logLevel = "warning")
+  @EnableGemfireFunctions
+  @EnableGemfireRepositories(basePackageClasses = CustomerRepository.class,
+    includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = CustomerRepository.class))
+  static class TestConfiguration {
+
+    @Bean("Customers")
+    PartitionedRegionFactoryBean<Long, Customer> customersRegion(GemFireCache gemfireCache) {
+
+      PartitionedRegionFactoryBean<Long, Customer> customersRegion = new PartitionedRegionFactoryBean<>();
+
+      customersRegion.setCache(gemfireCache);
+      customersRegion.setClose(false);
+      customersRegion.setPersistent(false);
+
+      return customersRegion;
+    }
+
+    @Bean("Accounts")
+    @DependsOn("Customers")
+    PartitionedRegionFactoryBean<Long, Account> accountsRegion(GemFireCache gemfireCache) throws Exception {
+
+      PartitionAttributesFactoryBean accountsPartitionAttributes = new PartitionAttributesFactoryBean();
+
+      accountsPartitionAttributes.setColocatedWith("Customers");
+      accountsPartitionAttributes.setPartitionResolver(new CustomerIdPartitionResolver());
+      accountsPartitionAttributes.afterPropertiesSet();
+
+      RegionAttributesFactoryBean accountsRegionAttributes = new RegionAttributesFactoryBean();
+
+      accountsRegionAttributes.setPartitionAttributes(accountsPartitionAttributes.getObject());
+      accountsRegionAttributes.afterPropertiesSet();
+
+      PartitionedRegionFactoryBean<Long, Account> accountsRegion = new PartitionedRegionFactoryBean<>();
+
+      accountsRegion.setAttributes(accountsRegionAttributes.getObject());
+      accountsRegion.setCache(gemfireCache);
+      accountsRegion.setClose(false);
+      accountsRegion.setPersistent(false);
+
+      return accountsRegion;
+    }
+
+    @Bean
+    JoinFunctions joinFunctions() {
+      return new JoinFunctions();
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.app.dao.repo.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.app.dao.repo.CustomerRepository;
+import org.spring.data.gemfire.cache.execute.QueryFunctions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.gemfire.PartitionedRegionFactoryBean;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.data.gemfire.function.annotation.GemfireFunction;
+import org.springframework.data.gemfire.function.config.EnableGemfireFunctions;
+import org.springframework.data.gemfire.repository.config.EnableGemfireRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for repositories created with the {@link RoutingGemfireRepositoryFactoryBean}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.dao.repo.CustomerRepository
+ * @see org.spring.data.gemfire.app.dao.repo.support.RoutingGemfireRepositoryFactoryBean
+ * @see org.spring.data.gemfire.app.dao.repo.support.RoutingGemfireTemplate
+ * @see org.spring.data.gemfire.cache.execute.QueryFunctions
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class RoutingGemfireRepositoryIntegrationTests {
+
+  private static final List<Set<Object>> routedQueryFilters = new CopyOnWriteArrayList<>();
+
+  @Autowired
+  private CustomerRepository customerRepository;
+
+  @Before
+  public void setup() {
+
+    routedQueryFilters.clear();
+
+    if (this.customerRepository.count() == 0) {
+      for (long id = 0; id < 100; id++) {
+        this.customerRepository.save(newCustomer(id, (id % 2 == 0 ? "Doe" : "Smith")));
+      }
+    }
+  }
+
+  private Customer newCustomer(Long id, String lastName) {
+
+    Customer customer = new Customer("Customer" + id, lastName);
+
+    customer.setId(id);
+
+    return customer;
+  }
+
+  @Test
+  public void queryOnIdIsRoutedToOwningBucket() {
+
+    Customer customer = this.customerRepository.findCustomerById(42L);
+
+    assertThat(customer).isNotNull();
+    assertThat(customer.getId()).isEqualTo(42L);
+    assertThat(routedQueryFilters).containsExactly(Collections.singleton(42L));
+  }
+
+  @Test
+  public void queryOnIdInSetIsRoutedToOwningBuckets() {
+
+    List<Customer> customers = this.customerRepository.findByIdIn(Arrays.asList(1L, 2L, 3L));
+
+    assertThat(customers).extracting(Customer::getId).containsExactlyInAnyOrder(1L, 2L, 3L);
+    assertThat(routedQueryFilters).hasSize(1);
+    assertThat(routedQueryFilters.get(0)).containsExactlyInAnyOrder(1L, 2L, 3L);
+  }
+
+  @Test
+  public void queryNotConstrainingRoutingKeyIsNotRouted() {
+
+    assertThat(this.customerRepository.findByLastName("Doe")).hasSize(50);
+    assertThat(routedQueryFilters).isEmpty();
+  }
+
+  @Test
+  public void queryWithFilterParameterIsRoutedToFilteredBuckets() {
+
+    List<Customer> customers = this.customerRepository.findByLastName("Doe", Arrays.asList(2L, 4L, 5L));
+
+    assertThat(customers).extracting(Customer::getId).containsExactlyInAnyOrder(2L, 4L);
+    assertThat(routedQueryFilters).hasSize(1);
+    assertThat(routedQueryFilters.get(0)).containsExactlyInAnyOrder(2L, 4L, 5L);
+  }
+
+  @Test
+  public void queryWithEmptyFilterReturnsNoResults() {
+
+    assertThat(this.customerRepository.findByIdIn(Collections.emptyList())).isEmpty();
+    assertThat(routedQueryFilters).isEmpty();
+  }
+
+  public static class RecordingQueryFunctions extends QueryFunctions {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @GemfireFunction(id = ROUTED_QUERY_FUNCTION_ID, HA = true, hasResult = true, optimizeForWrite = true)
+    public List<Object> routedQuery(FunctionContext functionContext, String query, Object[] parameters) {
+      routedQueryFilters.add((Set<Object>) ((RegionFunctionContext) functionContext).getFilter());
+      return super.routedQuery(functionContext, query, parameters);
+    }
+  }
+
+  @PeerCacheApplication(name = "RoutingGemfireRepositoryIntegrationTests", logLevel = "warning")
+  @EnableGemfireFunctions
+  @EnableGemfireRepositories(basePackageClasses = CustomerRepository.class,
+    repositoryFactoryBeanClass = RoutingGemfireRepositoryFactoryBean.class,
+    includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = CustomerRepository.class))
+  static class TestConfiguration {
+
+    @Bean("Customers")
+    PartitionedRegionFactoryBean<Long, Customer> customersRegion(GemFireCache gemfireCache) {
+
+      PartitionedRegionFactoryBean<Long, Customer> customersRegion = new PartitionedRegionFactoryBean<>();
+
+      customersRegion.setCache(gemfireCache);
+      customersRegion.setClose(false);
+      customersRegion.setPersistent(false);
+
+      return customersRegion;
+    }
+
+    @Bean
+    RecordingQueryFunctions queryFunctions() {
+      return new RecordingQueryFunctions();
+    }
+  }
+}
@@ -71,6 +71,7 @@ public class PersistentRegionIndexRecreationTest extends AbstractGemFireTest {
 
     assertNotNull(queryService);
     assertNotNull(queryService.getIndex(gemstones, "GemstoneIdx"));
+    assertNotNull(queryService.getIndex(gemstones, "GemstoneIdIdx"));
   }
 
   public static final class GemstoneCacheLoader implements CacheLoader<Long, Gemstone> {
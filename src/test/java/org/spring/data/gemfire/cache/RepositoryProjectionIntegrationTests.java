@@ -0,0 +1,254 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.pdx.PdxInstance;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.AbstractUserDomainTestSuite;
+import org.spring.data.gemfire.app.beans.Account;
+import org.spring.data.gemfire.app.beans.Address;
+import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.app.beans.Programmer;
+import org.spring.data.gemfire.app.beans.State;
+import org.spring.data.gemfire.app.beans.User;
+import org.spring.data.gemfire.app.beans.projection.PersonName;
+import org.spring.data.gemfire.app.beans.projection.UserSummary;
+import org.spring.data.gemfire.app.dao.repo.CustomerRepository;
+import org.spring.data.gemfire.app.dao.repo.ProgrammerRepository;
+import org.spring.data.gemfire.app.dao.repo.UserRepository;
+import org.spring.data.gemfire.pdx.PdxInstanceProjectionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.PartitionedRegionFactoryBean;
+import org.springframework.data.gemfire.config.annotation.EnablePdx;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.data.gemfire.repository.config.EnableGemfireRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Integration tests for Repository query methods returning interface-based projections read directly from
+ * {@link org.apache.geode.pdx.PdxInstance PdxInstances} when PDX {@literal read-serialized} is enabled.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.beans.projection.PersonName
+ * @see org.spring.data.gemfire.app.beans.projection.UserSummary
+ * @see org.spring.data.gemfire.app.dao.repo.CustomerRepository
+ * @see org.spring.data.gemfire.app.dao.repo.ProgrammerRepository
+ * @see org.spring.data.gemfire.app.dao.repo.UserRepository
+ * @see org.spring.data.gemfire.pdx.PdxInstanceProjectionFactory
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class RepositoryProjectionIntegrationTests extends AbstractUserDomainTestSuite {
+
+  @Autowired
+  private CustomerRepository customerRepository;
+
+  @Autowired
+  private ProgrammerRepository programmerRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Resource(name = "Accounts")
+  private Region<Long, Object> accounts;
+
+  private static User newUser(String username, boolean active) {
+    // the MappingPdxSerializer cannot serialize a Calendar, so leave 'since' unset in the (serialized) Users Region
+    return createUser(username, active, null);
+  }
+
+  private static User withAddressIn(User user, String city, State state) {
+    user.add(new Address("100 Main St.", city, state, "12345"));
+    return user;
+  }
+
+  private static Account newAccount(long id, long customerId, String number) {
+    Account account = new Account(customerId, number);
+    account.setId(id);
+    return account;
+  }
+
+  private static Customer newCustomer(long id, String firstName, String lastName) {
+    Customer customer = new Customer(firstName, lastName);
+    customer.setId(id);
+    return customer;
+  }
+
+  private static Programmer newProgrammer(long id, String firstName, String lastName, String programmingLanguage) {
+    Programmer programmer = new Programmer(firstName, lastName);
+    programmer.setId(id);
+    programmer.setProgrammingLanguage(programmingLanguage);
+    return programmer;
+  }
+
+  private static Object sourceOf(Object projection) {
+    return ReflectionTestUtils.getField(Proxy.getInvocationHandler(projection), "source");
+  }
+
+  @Before
+  public void setup() {
+
+    if (this.userRepository.count() == 0) {
+      this.userRepository.save(withAddressIn(newUser("jonDoe", true), "Portland", State.OREGON));
+      this.userRepository.save(withAddressIn(newUser("janeDoe", false), "Portland", State.OREGON));
+      this.userRepository.save(withAddressIn(newUser("pieDoe", true), "Seattle", State.WASHINGTON));
+    }
+
+    if (this.customerRepository.count() == 0) {
+      this.customerRepository.save(newCustomer(1L, "Jon", "Doe"));
+      this.customerRepository.save(newCustomer(2L, "Jane", "Doe"));
+      this.customerRepository.save(newCustomer(3L, "Pie", "Doe"));
+      this.accounts.put(10L, newAccount(10L, 1L, "0001"));
+      this.accounts.put(11L, newAccount(11L, 1L, "0002"));
+      this.accounts.put(30L, newAccount(30L, 3L, "0003"));
+    }
+
+    if (this.programmerRepository.count() == 0) {
+      this.programmerRepository.save(newProgrammer(1L, "Jon", "Doe", "Java"));
+      this.programmerRepository.save(newProgrammer(2L, "Jane", "Doe", "Scala"));
+      this.programmerRepository.save(newProgrammer(3L, "Jack", "Handy", "C++"));
+    }
+  }
+
+  @Test
+  public void findUsersInCityReturnsProjections() {
+
+    List<UserSummary> users = this.userRepository.findUsersInCity("Portland", UserSummary.class);
+
+    assertThat(users).hasSize(2);
+    assertThat(users.stream().map(UserSummary::getUsername).collect(Collectors.toList()))
+      .containsExactlyInAnyOrder("jonDoe", "janeDoe");
+    assertThat(users.stream().map(UserSummary::getEmail).collect(Collectors.toList()))
+      .containsExactlyInAnyOrder("jonDoe@xcompany.com", "janeDoe@xcompany.com");
+    assertThat(users.stream().map(UserSummary::getActive).collect(Collectors.toList()))
+      .containsExactlyInAnyOrder(true, false);
+    assertThat(users).allMatch(user -> Proxy.isProxyClass(user.getClass()));
+    assertThat(users).allMatch(user -> sourceOf(user) instanceof PdxInstance);
+  }
+
+  @Test
+  public void findCustomersWithAccountsReturnsProjections() {
+
+    List<PersonName> customers = this.customerRepository.findCustomersWithAccounts(PersonName.class);
+
+    assertThat(customers.stream().map(PersonName::getFirstName).collect(Collectors.toList()))
+      .containsExactlyInAnyOrder("Jon", "Pie");
+    assertThat(customers).extracting(PersonName::getLastName).containsOnly("Doe");
+    assertThat(customers).extracting(PersonName::getId).containsExactlyInAnyOrder(1L, 3L);
+    assertThat(customers).allMatch(customer -> sourceOf(customer) instanceof PdxInstance);
+  }
+
+  @Test
+  public void findByJvmBasedLanguagesReturnsProjections() {
+
+    List<PersonName> programmers = this.programmerRepository.findByJvmBasedLanguages(PersonName.class);
+
+    assertThat(programmers).extracting(PersonName::getFirstName).containsExactlyInAnyOrder("Jon", "Jane");
+    assertThat(programmers).allMatch(programmer -> Proxy.isProxyClass(programmer.getClass()));
+    assertThat(programmers).allMatch(programmer -> sourceOf(programmer) instanceof PdxInstance);
+  }
+
+  @Test
+  public void projectionsReadFieldsWithoutDeserializingPdxValues() {
+
+    SelectResults<Object> results =
+      new GemfireTemplate(this.accounts).find("SELECT * FROM /Accounts a WHERE a.customerId = $1", 1L);
+
+    List<AccountNumber> accountNumbers = new PdxInstanceProjectionFactory()
+      .createProjections(AccountNumber.class, results);
+
+    assertThat(accountNumbers).extracting(AccountNumber::getNumber).containsExactlyInAnyOrder("0001", "0002");
+    assertThat(accountNumbers).extracting(AccountNumber::getCustomerId).containsOnly(1L);
+    assertThat(accountNumbers).allMatch(accountNumber -> sourceOf(accountNumber) instanceof PdxInstance);
+    assertThat(this.accounts.get(10L)).isInstanceOf(PdxInstance.class);
+  }
+
+  public interface AccountNumber {
+
+    Long getCustomerId();
+
+    String getNumber();
+
+  }
+
+  @PeerCacheApplication(name = "RepositoryProjectionIntegrationTests", logLevel = "warning")
+  @EnablePdx(readSerialized = true)
+  @EnableGemfireRepositories(basePackageClasses = UserRepository.class, includeFilters =
+    @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+      classes = { CustomerRepository.class, ProgrammerRepository.class, UserRepository.class }))
+  static class TestConfiguration {
+
+    private static <K, V> PartitionedRegionFactoryBean<K, V> partitionedRegion(GemFireCache gemfireCache) {
+
+      // partitioned Regions store values serialized, so with PDX read-serialized queries return PdxInstances
+      PartitionedRegionFactoryBean<K, V> region = new PartitionedRegionFactoryBean<>();
+
+      region.setCache(gemfireCache);
+      region.setClose(false);
+      region.setPersistent(false);
+
+      return region;
+    }
+
+    @Bean("Accounts")
+    public PartitionedRegionFactoryBean<Long, Account> accountsRegion(GemFireCache gemfireCache) {
+      return partitionedRegion(gemfireCache);
+    }
+
+    @Bean("Customers")
+    public PartitionedRegionFactoryBean<Long, Customer> customersRegion(GemFireCache gemfireCache) {
+      return partitionedRegion(gemfireCache);
+    }
+
+    @Bean("Programmers")
+    public PartitionedRegionFactoryBean<Long, Programmer> programmersRegion(GemFireCache gemfireCache) {
+      return partitionedRegion(gemfireCache);
+    }
+
+    @Bean
+    public GemfireTemplate programmersTemplate(GemFireCache gemfireCache) {
+      return new GemfireTemplate(gemfireCache.getRegion("Programmers"));
+    }
+
+    @Bean("Users")
+    public PartitionedRegionFactoryBean<String, User> usersRegion(GemFireCache gemfireCache) {
+      return partitionedRegion(gemfireCache);
+    }
+  }
+}
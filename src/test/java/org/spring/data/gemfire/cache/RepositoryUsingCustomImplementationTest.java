@@ -32,6 +32,7 @@ import org.junit.runner.RunWith;
 import org.spring.data.gemfire.app.beans.Programmer;
 import org.spring.data.gemfire.app.dao.repo.ProgrammerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.gemfire.GemfireTemplate;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -84,6 +85,7 @@ public class RepositoryUsingCustomImplementationTest {
 
   @Before
   public void setup() {
+    ID_SEQUENCE.set(0l);
     save(createProgrammer("Jon", "Doe", "Java"));
     save(createProgrammer("Jane", "Doe", "Groovy"));
     save(createProgrammer("Jack", "Black", "C#"));
@@ -116,6 +118,32 @@ public class RepositoryUsingCustomImplementationTest {
     assertTrue(String.format("Expected (%1$s); but was (%2$s)!", "[Jon Doe, Jane Doe, Cookie Doe, Pie Doe, Sour Doe]",
       toNames(programmers)), toNames(programmers).containsAll(
         Arrays.asList("Jon Doe", "Jane Doe", "Cookie Doe", "Pie Doe", "Sour Doe")));
+
+    programmers = programmerRepository.findByProgrammingLanguage("Java", Sort.by(Sort.Direction.DESC, "name"));
+
+    assertNotNull(programmers);
+    assertEquals(Arrays.asList("Sour Doe", "Jon Doe"), toNames(programmers));
+  }
+
+  @Test
+  public void testOrderByPostProcessing() {
+    List<Programmer> programmers = programmerRepository.findByQuery(
+      "SELECT * FROM /Programmers p WHERE p.lastName = $1 ORDER BY p.programmingLanguage ASC, p.firstName DESC", "Doe");
+
+    assertEquals(Arrays.asList("Jane Doe", "Cookie Doe", "Sour Doe", "Jon Doe", "Pie Doe"), toNames(programmers));
+
+    programmers = programmerRepository.findByQuery(
+      "SELECT DISTINCT * FROM /Programmers WHERE programmingLanguage = 'ORDER BY' ORDER BY name");
+
+    assertTrue(programmers.isEmpty());
+  }
+
+  @Test
+  public void testOrderByPropertyWithoutComparatorIsLeftToTheQueryEngine() {
+    List<Programmer> programmers = programmerRepository.findByQuery(
+      "SELECT DISTINCT * FROM /Programmers p WHERE p.lastName = $1 ORDER BY p.id DESC", "Doe");
+
+    assertEquals(Arrays.asList("Sour Doe", "Pie Doe", "Cookie Doe", "Jane Doe", "Jon Doe"), toNames(programmers));
   }
 
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.client.ClientCacheFactory;
+import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.distributed.ServerLauncher;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spring.data.gemfire.AbstractGemFireIntegrationTest;
+import org.spring.data.gemfire.cache.client.DurableClientReconnector.ReconnectReport;
+
+/**
+ * Integration tests for the {@link DurableClientReconnector} reconnecting a durable client to a GemFire Server
+ * initialized with the entries one, two and three of the {@literal /Example} Region.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.AbstractGemFireIntegrationTest
+ * @see org.spring.data.gemfire.cache.client.DurableClientReconnector
+ * @see org.apache.geode.cache.client.ClientCache
+ * @since 1.0.0
+ */
+@SuppressWarnings("unused")
+public class DurableClientReconnectorIntegrationTests extends AbstractGemFireIntegrationTest {
+
+  private static final int SERVER_PORT = 12480;
+
+  private static final String SERVER_HOST = "localhost";
+
+  private static ServerLauncher serverLauncher;
+
+  @BeforeClass
+  public static void setupGemFireServer() throws IOException {
+
+    Properties gemfireProperties = new Properties();
+
+    gemfireProperties.setProperty(DistributionConfig.NAME_NAME,
+      DurableClientReconnectorIntegrationTests.class.getSimpleName().concat("Server"));
+    gemfireProperties.setProperty(DistributionConfig.HTTP_SERVICE_PORT_NAME, "0");
+    gemfireProperties.setProperty(DistributionConfig.JMX_MANAGER_NAME, "false");
+    gemfireProperties.setProperty(DistributionConfig.LOG_LEVEL_NAME, "warning");
+    gemfireProperties.setProperty(DistributionConfig.MCAST_PORT_NAME, "0");
+    gemfireProperties.setProperty(DistributionConfig.USE_CLUSTER_CONFIGURATION_NAME, "false");
+
+    serverLauncher = startGemFireServer(TimeUnit.SECONDS.toMillis(30), "durable-client-server-cache.xml",
+      gemfireProperties);
+  }
+
+  @AfterClass
+  public static void tearDownGemFireServer() {
+    stopGemFireServer(serverLauncher);
+    serverLauncher = null;
+  }
+
+  private ClientCache newClientCache(boolean durable) {
+
+    String gemfireClientName = DurableClientReconnectorIntegrationTests.class.getSimpleName().concat("Client");
+
+    ClientCacheFactory clientCacheFactory = new ClientCacheFactory()
+      .addPoolServer(SERVER_HOST, SERVER_PORT)
+      .setPoolSubscriptionEnabled(true)
+      .set("name", gemfireClientName)
+      .set("mcast-port", "0")
+      .set("log-level", "warning");
+
+    if (durable) {
+      clientCacheFactory.set("durable-client-id", gemfireClientName.concat("Id"));
+      clientCacheFactory.set("durable-client-timeout", "300");
+    }
+
+    ClientCache clientCache = clientCacheFactory.create();
+
+    clientCache.<String, Integer>createClientRegionFactory(ClientRegionShortcut.CACHING_PROXY).create("Example");
+
+    return clientCache;
+  }
+
+  private ReconnectReport reconnect(ClientCache clientCache) {
+
+    DurableClientReconnector reconnector = new DurableClientReconnector(clientCache);
+
+    reconnector.setChunkSize(2);
+    reconnector.setReplayTimeout(TimeUnit.SECONDS.toMillis(20));
+    reconnector.register(clientCache.getRegion("/Example"));
+
+    return reconnector.reconnect();
+  }
+
+  private void updateWhileDurableClientIsOffline() {
+
+    ClientCache producerClientCache = newClientCache(false);
+
+    try {
+      Region<String, Integer> example = producerClientCache.getRegion("/Example");
+
+      example.put("four", 4);
+      example.put("five", 5);
+      example.destroy("one");
+    }
+    finally {
+      producerClientCache.close();
+    }
+  }
+
+  @Test
+  public void reconnectLoadsInitialImageInChunksAndDrainsDurableQueue() {
+
+    ClientCache clientCache = newClientCache(true);
+
+    try {
+      ReconnectReport report = reconnect(clientCache);
+
+      Region<String, Integer> example = clientCache.getRegion("/Example");
+
+      assertThat(report.isLive()).isTrue();
+      assertThat(report.getImageEntries()).isEqualTo(3);
+      assertThat(report.getReplayedEvents()).isZero();
+      assertThat(example.keySet()).containsOnly("one", "two", "three");
+    }
+    finally {
+      clientCache.close(true);
+    }
+
+    updateWhileDurableClientIsOffline();
+
+    clientCache = newClientCache(true);
+
+    try {
+      ReconnectReport report = reconnect(clientCache);
+
+      Region<String, Integer> example = clientCache.getRegion("/Example");
+
+      assertThat(report.isLive()).isTrue();
+      assertThat(report.getImageEntries()).isEqualTo(4);
+      assertThat(report.getReconnectTime(TimeUnit.NANOSECONDS)).isPositive();
+      assertThat(example.keySet()).containsOnly("two", "three", "four", "five");
+      assertThat(example.get("five")).isEqualTo(5);
+    }
+    finally {
+      clientCache.close(false);
+    }
+  }
+}
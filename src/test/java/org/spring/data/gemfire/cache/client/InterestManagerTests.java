@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.geode.cache.InterestResultPolicy;
+import org.apache.geode.cache.Region;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link InterestManager}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.cache.client.InterestManager
+ * @since 1.0.0
+ */
+@SuppressWarnings("unchecked")
+public class InterestManagerTests {
+
+  private InterestManager interestManager;
+
+  private List<List<Integer>> registeredChunks;
+
+  private List<List<Integer>> unregisteredChunks;
+
+  private Region<Integer, String> region;
+
+  @Before
+  public void setup() {
+
+    this.interestManager = new InterestManager();
+    this.interestManager.setChunkSize(100);
+    this.interestManager.setParallelism(4);
+
+    this.registeredChunks = Collections.synchronizedList(new ArrayList<>());
+    this.unregisteredChunks = Collections.synchronizedList(new ArrayList<>());
+
+    this.region = mock(Region.class);
+
+    when(this.region.getFullPath()).thenReturn("/Example");
+
+    doAnswer(invocation -> this.registeredChunks.add(new ArrayList<>((List<Integer>) invocation.getArguments()[0])))
+      .when(this.region).registerInterest(any(), any(InterestResultPolicy.class), anyBoolean());
+
+    doAnswer(invocation -> this.unregisteredChunks.add((List<Integer>) invocation.getArguments()[0]))
+      .when(this.region).unregisterInterest(any());
+  }
+
+  @After
+  public void tearDown() {
+    this.interestManager.destroy();
+  }
+
+  private List<Integer> keys(int count) {
+    return IntStream.range(0, count).boxed().collect(Collectors.toList());
+  }
+
+  private Set<Integer> flatten(Collection<List<Integer>> chunks) {
+    return chunks.stream().flatMap(List::stream).collect(Collectors.toSet());
+  }
+
+  @Test
+  public void registersKeysInChunks() {
+
+    assertThat(this.interestManager.registerInterest(this.region, keys(1050), true)).isEqualTo(1050);
+    assertThat(this.registeredChunks).hasSize(11);
+    assertThat(this.registeredChunks).allMatch(chunk -> chunk.size() <= 100);
+    assertThat(flatten(this.registeredChunks)).isEqualTo(new HashSet<>(keys(1050)));
+    assertThat(this.unregisteredChunks).isEmpty();
+
+    verify(this.region, never()).getAll(any(Collection.class));
+    verify(this.region, times(11)).registerInterest(any(), eq(InterestResultPolicy.KEYS), eq(true));
+
+    InterestManager.Statistics statistics = this.interestManager.getStatistics();
+
+    assertThat(statistics.getChunks()).isEqualTo(11L);
+    assertThat(statistics.getKeys()).isEqualTo(1050L);
+    assertThat(statistics.getValuesFetched()).isEqualTo(0L);
+    assertThat(statistics.getMaxChunkRegistrationTime(TimeUnit.NANOSECONDS))
+      .isGreaterThanOrEqualTo(statistics.getAverageChunkRegistrationTime(TimeUnit.NANOSECONDS));
+  }
+
+  @Test
+  public void registersRegexAndShardsMatchingKeysOnServer() {
+
+    when(this.region.keySetOnServer()).thenReturn(new HashSet<>(keys(500)));
+
+    assertThat(this.interestManager.registerInterestRegex(this.region, "1.*", true)).isEqualTo(111);
+
+    verify(this.region).registerInterestRegex(eq("1.*"), eq(InterestResultPolicy.NONE), eq(true));
+    verify(this.region, never()).registerInterest(any(), any(InterestResultPolicy.class), eq(true));
+
+    Set<Integer> expectedKeys = keys(500).stream()
+      .filter(key -> String.valueOf(key).startsWith("1"))
+      .collect(Collectors.toSet());
+
+    assertThat(flatten(this.registeredChunks)).isEqualTo(expectedKeys);
+    assertThat(flatten(this.unregisteredChunks)).isEqualTo(expectedKeys);
+  }
+
+  @Test
+  public void registersInterestInAllKeysInChunks() {
+
+    when(this.region.keySetOnServer()).thenReturn(new HashSet<>(keys(250)));
+
+    assertThat(this.interestManager.registerInterestInAllKeys(this.region, false)).isEqualTo(250);
+
+    verify(this.region).registerInterestRegex(eq(InterestManager.ALL_KEYS), eq(InterestResultPolicy.NONE), eq(false));
+
+    assertThat(this.registeredChunks).hasSize(3);
+    assertThat(flatten(this.registeredChunks)).isEqualTo(new HashSet<>(keys(250)));
+    assertThat(flatten(this.unregisteredChunks)).isEqualTo(new HashSet<>(keys(250)));
+  }
+
+  @Test
+  public void fetchesValuesOfEachChunkInParallel() {
+
+    this.interestManager.setValueFetch(InterestManager.ValueFetch.PARALLEL);
+
+    List<Collection<Integer>> fetchedChunks = Collections.synchronizedList(new ArrayList<>());
+
+    doAnswer(invocation -> {
+      fetchedChunks.add((Collection<Integer>) invocation.getArguments()[0]);
+      return Collections.emptyMap();
+    }).when(this.region).getAll(any(Collection.class));
+
+    this.interestManager.registerInterest(this.region, keys(250), false);
+
+    verify(this.region, never()).registerInterest(any(), eq(InterestResultPolicy.KEYS_VALUES), anyBoolean());
+
+    assertThat(fetchedChunks).hasSize(3);
+    assertThat(this.interestManager.getStatistics().getValuesFetched()).isEqualTo(250L);
+  }
+
+  @Test
+  public void failedChunkRegistrationThrowsIllegalStateException() {
+
+    doThrow(new RuntimeException("test")).when(this.region)
+      .registerInterest(any(), any(InterestResultPolicy.class), anyBoolean());
+
+    assertThatThrownBy(() -> this.interestManager.registerInterest(this.region, keys(10), false))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Failed to register interest in Region [/Example]")
+      .hasCauseInstanceOf(RuntimeException.class);
+  }
+}
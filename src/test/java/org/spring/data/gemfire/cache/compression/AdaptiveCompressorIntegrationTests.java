@@ -0,0 +1,181 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.Region;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.cache.compression.AdaptiveCompressor.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link AdaptiveCompressor} compressing Region values configured with
+ * the SDG XML namespace.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.apache.geode.compression.Compressor
+ * @see org.spring.data.gemfire.cache.compression.AdaptiveCompressor
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@DirtiesContext
+@SuppressWarnings("unused")
+public class AdaptiveCompressorIntegrationTests {
+
+  @Autowired
+  private AdaptiveCompressor customersCompressor;
+
+  @Resource(name = "Customers")
+  private Region<Long, String> customers;
+
+  @Resource(name = "Sessions")
+  private Region<Long, byte[]> sessions;
+
+  private static String newRepetitiveValue(long id) {
+
+    StringBuilder value = new StringBuilder();
+
+    while (value.length() < 2048) {
+      value.append(String.format("{ \"id\": %d, \"firstName\": \"Jon\", \"lastName\": \"Doe\" }", id));
+    }
+
+    return value.toString();
+  }
+
+  @Test
+  public void compressesRepetitiveValuesToLessThanHalf() {
+
+    assertThat(this.customers.getAttributes().getCompressor()).isSameAs(this.customersCompressor);
+
+    // snappy-java is not on this project's classpath
+    assertThat(this.customersCompressor.getCodecName())
+      .isEqualTo(SnappyCodec.isAvailable() ? SnappyCodec.NAME : DeflateCodec.NAME);
+
+    for (long id = 0; id < 500; id++) {
+      this.customers.put(id, newRepetitiveValue(id));
+    }
+
+    for (long id = 0; id < 500; id += 50) {
+      assertThat(this.customers.get(id)).isEqualTo(newRepetitiveValue(id));
+    }
+
+    Statistics statistics = this.customersCompressor.getStatistics();
+
+    assertThat(statistics.getCompressed()).isEqualTo(statistics.getValues()).isGreaterThanOrEqualTo(500L);
+    assertThat(statistics.getSkipped()).isZero();
+    assertThat(statistics.getCompressionRatio()).isLessThan(0.5d);
+    assertThat(statistics.getBytesSaved()).isGreaterThan(statistics.getUncompressedBytes() / 2L);
+    assertThat(statistics.getCompressionTime()).isPositive();
+    assertThat(statistics.getDecompressions()).isPositive();
+  }
+
+  @Test
+  public void skipsCompressionOfIncompressibleValuesAdaptively() {
+
+    AdaptiveCompressor sessionsCompressor = (AdaptiveCompressor) this.sessions.getAttributes().getCompressor();
+
+    Random random = new Random(4096L);
+
+    byte[][] values = new byte[200][];
+
+    for (int id = 0; id < values.length; id++) {
+      values[id] = new byte[4096];
+      random.nextBytes(values[id]);
+      this.sessions.put((long) id, values[id]);
+    }
+
+    for (int id = 0; id < values.length; id += 20) {
+      assertThat(this.sessions.get((long) id)).isEqualTo(values[id]);
+    }
+
+    Statistics statistics = sessionsCompressor.getStatistics();
+
+    assertThat(statistics.getCompressed()).isZero();
+    assertThat(statistics.getSkipped()).isGreaterThan(statistics.getIncompressible());
+    assertThat(statistics.getIncompressible())
+      .isGreaterThanOrEqualTo(AdaptiveCompressor.DEFAULT_WARMUP_SAMPLES)
+      .isLessThan(AdaptiveCompressor.DEFAULT_WARMUP_SAMPLES + values.length / 8 + 1);
+    assertThat(statistics.getBytesSaved()).isEqualTo(-statistics.getValues());
+  }
+
+  @Test
+  public void storesSmallValuesUncompressed() {
+
+    AdaptiveCompressor compressor = new AdaptiveCompressor();
+
+    compressor.setCodec(new DeflateCodec());
+
+    byte[] value = "Jon Doe".getBytes();
+    byte[] stored = compressor.compress(value);
+
+    assertThat(stored[0]).isEqualTo(AdaptiveCompressor.UNCOMPRESSED);
+    assertThat(compressor.decompress(stored)).isEqualTo(value);
+    assertThat(compressor.getStatistics().getCompressed()).isZero();
+  }
+
+  @Test
+  public void decompressesValuesCompressedWithAnotherCodec() {
+
+    AdaptiveCompressor deflateCompressor = new AdaptiveCompressor();
+
+    deflateCompressor.setCodecName("deflate");
+
+    byte[] value = newRepetitiveValue(1L).getBytes();
+    byte[] stored = deflateCompressor.compress(value);
+
+    assertThat(stored[0]).isEqualTo(DeflateCodec.ID);
+
+    AdaptiveCompressor otherCompressor = new AdaptiveCompressor();
+
+    otherCompressor.setCodec(new Codec() {
+
+      @Override
+      public byte getId() {
+        return 42;
+      }
+
+      @Override
+      public String getName() {
+        return "identity";
+      }
+
+      @Override
+      public byte[] compress(byte[] input) {
+        return input;
+      }
+
+      @Override
+      public byte[] decompress(byte[] input) {
+        return input;
+      }
+    });
+
+    assertThat(otherCompressor.decompress(stored)).isEqualTo(value);
+    assertThat(AdaptiveCompressor.resolveCodec("lz4")).isInstanceOf(DeflateCodec.class);
+  }
+}
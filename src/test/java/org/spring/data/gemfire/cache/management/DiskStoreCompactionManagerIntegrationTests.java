@@ -0,0 +1,251 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.DiskStore;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.distributed.DistributedLockService;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.spring.data.gemfire.cache.management.DiskStoreCompactionManager.CompactionWindow;
+import org.spring.data.gemfire.cache.management.DiskStoreCompactionManager.Statistics;
+
+/**
+ * Integration tests for the {@link DiskStoreCompactionManager} compacting a persistent Region's {@link DiskStore}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.apache.geode.cache.DiskStore
+ * @see org.spring.data.gemfire.cache.management.DiskStoreCompactionManager
+ * @since 1.0.0
+ */
+public class DiskStoreCompactionManagerIntegrationTests {
+
+  private static final String DISK_STORE_NAME = "CompactionData";
+
+  @ClassRule
+  public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static Cache gemfireCache;
+
+  private static DiskStore diskStore;
+
+  private static Region<Integer, byte[]> example;
+
+  private static final AtomicInteger keySequence = new AtomicInteger(0);
+
+  private DiskStoreCompactionManager compactionManager;
+
+  @BeforeClass
+  public static void setupBeforeClass() throws Exception {
+
+    gemfireCache = new CacheFactory()
+      .set(DistributionConfig.NAME_NAME, DiskStoreCompactionManagerIntegrationTests.class.getSimpleName())
+      .set(DistributionConfig.MCAST_PORT_NAME, "0")
+      .set(DistributionConfig.LOG_LEVEL_NAME, "warning")
+      .create();
+
+    File diskDirectory = temporaryFolder.newFolder(DISK_STORE_NAME);
+
+    diskStore = DiskStoreCompactionManager.configure(gemfireCache.createDiskStoreFactory())
+      .setCompactionThreshold(50)
+      .setDiskDirs(new File[] { diskDirectory })
+      .setMaxOplogSize(1L)
+      .create(DISK_STORE_NAME);
+
+    RegionFactory<Integer, byte[]> regionFactory = gemfireCache.createRegionFactory();
+
+    regionFactory.setDataPolicy(DataPolicy.PERSISTENT_REPLICATE);
+    regionFactory.setDiskStoreName(DISK_STORE_NAME);
+    regionFactory.setDiskSynchronous(true);
+
+    example = regionFactory.create("Example");
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+    if (gemfireCache != null) {
+      gemfireCache.close();
+      gemfireCache = null;
+    }
+  }
+
+  private static Clock clockAt(String localTime) {
+
+    ZoneId zoneId = ZoneId.systemDefault();
+
+    Instant instant = LocalDate.now(zoneId).atTime(LocalTime.parse(localTime)).atZone(zoneId).toInstant();
+
+    return Clock.fixed(instant, zoneId);
+  }
+
+  // oplogs without any live entries are deleted as soon as they are rolled, so leave a quarter of the entries live
+  private static void generateGarbage() {
+
+    int base = keySequence.getAndAdd(3072);
+
+    for (int pass = 0; pass < 2; pass++) {
+      for (int key = base; key < base + 3072; key++) {
+        if (pass == 0 || key % 4 != 0) {
+          example.put(key, new byte[1024]);
+        }
+      }
+    }
+
+    diskStore.forceRoll();
+  }
+
+  @Before
+  public void setup() {
+    compactionManager = new DiskStoreCompactionManager();
+    compactionManager.setLockServiceName(String.valueOf(System.nanoTime()));
+    compactionManager.setCompactionWindows("01:00-05:00");
+    compactionManager.manage(diskStore);
+  }
+
+  @After
+  public void tearDown() {
+    compactionManager.destroy();
+  }
+
+  @Test
+  public void compactionWindowsWrapAroundMidnight() {
+
+    CompactionWindow overnight = CompactionWindow.parse("22:00 - 02:00");
+
+    assertThat(overnight.contains(LocalTime.parse("23:30"))).isTrue();
+    assertThat(overnight.contains(LocalTime.parse("01:59"))).isTrue();
+    assertThat(overnight.contains(LocalTime.parse("02:00"))).isFalse();
+    assertThat(overnight.contains(LocalTime.parse("12:00"))).isFalse();
+    assertThat(CompactionWindow.parse("01:00-05:00").contains(LocalTime.parse("00:59"))).isFalse();
+    assertThatThrownBy(() -> CompactionWindow.parse("01:00")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void compactionIsDeferredOutsideCompactionWindowsBelowThreshold() {
+
+    generateGarbage();
+
+    compactionManager.setClock(clockAt("12:00"));
+    compactionManager.setCompactableOplogThreshold(Integer.MAX_VALUE);
+
+    Statistics statistics = compactionManager.getStatistics(DISK_STORE_NAME);
+
+    assertThat(compactionManager.check(diskStore)).isFalse();
+    assertThat(statistics.getCompactableOplogs()).isPositive();
+    assertThat(statistics.getDeferred()).isEqualTo(1L);
+    assertThat(statistics.getCompactions()).isZero();
+
+    compactionManager.setCompactableOplogThreshold(1);
+
+    assertThat(compactionManager.check(diskStore)).isTrue();
+    assertThat(statistics.getCompactions()).isEqualTo(1L);
+  }
+
+  @Test
+  public void compactsInsideCompactionWindowAndRecordsStatistics() {
+
+    generateGarbage();
+
+    compactionManager.setClock(clockAt("02:30"));
+    compactionManager.setCompactableOplogThreshold(Integer.MAX_VALUE);
+
+    Statistics statistics = compactionManager.getStatistics(DISK_STORE_NAME);
+
+    assertThat(compactionManager.check(diskStore)).isTrue();
+    assertThat(statistics.getCompactions()).isEqualTo(1L);
+    assertThat(statistics.getCompactionNanos()).isPositive();
+    assertThat(statistics.getBytesReclaimed()).isPositive();
+    assertThat(statistics.getLastBytesReclaimed()).isEqualTo(statistics.getBytesReclaimed());
+    assertThat(compactionManager.getTotalBytesReclaimed()).isEqualTo(statistics.getBytesReclaimed());
+    assertThat(compactionManager.getDiskStoreStatistics()).hasSize(1);
+    assertThat(example.get(0)).hasSize(1024);
+  }
+
+  @Test
+  public void compactionIsThrottledByMaxBytesPerSecond() {
+
+    compactionManager.setClock(clockAt("02:30"));
+    compactionManager.setMaxBytesPerSecond(1L);
+
+    Statistics statistics = compactionManager.getStatistics(DISK_STORE_NAME);
+
+    generateGarbage();
+
+    assertThat(compactionManager.check(diskStore)).isTrue();
+
+    generateGarbage();
+
+    assertThat(compactionManager.check(diskStore)).isFalse();
+    assertThat(statistics.getThrottled()).isEqualTo(1L);
+    assertThat(compactionManager.throttleNanos(1024L, 0L)).isEqualTo(TimeUnit.SECONDS.toNanos(1024L));
+  }
+
+  @Test
+  public void compactionIsSkippedWhenAllSlotsAreHeldByOtherMembers() throws Exception {
+
+    DistributedLockService lockService = compactionManager.resolveLockService();
+
+    String slot = DiskStoreCompactionManager.SLOT_LOCK_NAME_PREFIX + 0;
+
+    assertThat(lockService.lock(slot, 0L, -1L)).isTrue();
+
+    try {
+      assertThat(CompletableFuture.supplyAsync(() -> compactionManager.compactNow(DISK_STORE_NAME))
+        .get(30L, TimeUnit.SECONDS)).isFalse();
+      assertThat(compactionManager.getStatistics(DISK_STORE_NAME).getSkipped()).isEqualTo(1L);
+    }
+    finally {
+      lockService.unlock(slot);
+    }
+  }
+
+  @Test
+  public void manageRejectsDiskStoresNotAllowingForcedCompaction() throws Exception {
+
+    DiskStore unmanagedDiskStore = gemfireCache.createDiskStoreFactory()
+      .setDiskDirs(new File[] { temporaryFolder.newFolder("UnmanagedData") })
+      .create("UnmanagedData");
+
+    assertThatThrownBy(() -> compactionManager.manage(unmanagedDiskStore))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("must allow forced compaction");
+  }
+}
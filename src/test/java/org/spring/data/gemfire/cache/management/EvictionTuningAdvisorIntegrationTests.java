@@ -0,0 +1,175 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.spring.data.gemfire.cache.management.EvictionTuningAdvisor.AccessTrace;
+import org.spring.data.gemfire.cache.management.EvictionTuningAdvisor.Recommendation;
+
+/**
+ * Integration tests for the {@link EvictionTuningAdvisor} simulating eviction and idle expiration settings
+ * for an overflowing partitioned Region.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.apache.geode.cache.EvictionAttributes
+ * @see org.spring.data.gemfire.cache.management.EvictionTuningAdvisor
+ * @since 1.0.0
+ */
+public class EvictionTuningAdvisorIntegrationTests {
+
+  private static final int ENTRY_COUNT = 500;
+  private static final int ENTRY_SIZE = 1024;
+  private static final int HOT_ENTRY_COUNT = 50;
+  private static final int HOT_ROUNDS = 20;
+
+  @ClassRule
+  public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static Cache gemfireCache;
+
+  private static Region<Integer, byte[]> example;
+
+  @BeforeClass
+  public static void setupBeforeClass() throws Exception {
+
+    gemfireCache = new CacheFactory()
+      .set(DistributionConfig.NAME_NAME, EvictionTuningAdvisorIntegrationTests.class.getSimpleName())
+      .set(DistributionConfig.MCAST_PORT_NAME, "0")
+      .set(DistributionConfig.LOG_LEVEL_NAME, "warning")
+      .create();
+
+    File diskDirectory = temporaryFolder.newFolder("OverflowData");
+
+    gemfireCache.createDiskStoreFactory().setDiskDirs(new File[] { diskDirectory }).create("OverflowData");
+
+    RegionFactory<Integer, byte[]> regionFactory = gemfireCache.createRegionFactory(RegionShortcut.PARTITION);
+
+    regionFactory.setDiskStoreName("OverflowData");
+    regionFactory.setEvictionAttributes(EvictionAttributes.createLRUEntryAttributes(100,
+      EvictionAction.OVERFLOW_TO_DISK));
+    regionFactory.setStatisticsEnabled(true);
+
+    example = regionFactory.create("Example");
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+    if (gemfireCache != null) {
+      gemfireCache.close();
+      gemfireCache = null;
+    }
+  }
+
+  private static AccessTrace newTrace(int keys, int rounds, long intervalMillis, int size) {
+
+    AccessTrace trace = new AccessTrace(keys * rounds);
+
+    long time = 0L;
+
+    for (int round = 0; round < rounds; round++) {
+      for (int keyId = 0; keyId < keys; keyId++) {
+        trace.record(time++, keyId, 1);
+        trace.recordSize(keyId, size);
+      }
+
+      time += intervalMillis;
+    }
+
+    return trace;
+  }
+
+  @Test
+  public void lruSimulationThrashesBelowWorkingSetSize() {
+
+    AccessTrace trace = newTrace(10, 20, 0L, 100);
+
+    assertThat(trace.footprint()).isEqualTo(1000L);
+    assertThat(EvictionTuningAdvisor.simulateLru(trace, 500L)).isEqualTo(0L);
+    assertThat(EvictionTuningAdvisor.simulateLru(trace, 1000L)).isEqualTo(190L);
+  }
+
+  @Test
+  public void idleTimeoutSimulationCountsExpirationMisses() {
+
+    AccessTrace trace = newTrace(5, 10, TimeUnit.SECONDS.toMillis(60), 100);
+
+    assertThat(EvictionTuningAdvisor.simulateIdleTimeout(trace, TimeUnit.SECONDS.toMillis(30))[0]).isEqualTo(45L);
+    assertThat(EvictionTuningAdvisor.simulateIdleTimeout(trace, TimeUnit.SECONDS.toMillis(120))[0]).isEqualTo(0L);
+  }
+
+  @Test
+  public void recommendsSettingsFromSampledRegionStatistics() throws Exception {
+
+    EvictionTuningAdvisor advisor = new EvictionTuningAdvisor();
+
+    advisor.setRegions(example);
+    advisor.setSamplingModulus(1);
+
+    for (int key = 0; key < ENTRY_COUNT; key++) {
+      example.put(key, new byte[ENTRY_SIZE]);
+    }
+
+    advisor.sample();
+
+    for (int round = 0; round < HOT_ROUNDS; round++) {
+
+      Thread.sleep(2L);
+
+      for (int key = 0; key < HOT_ENTRY_COUNT; key++) {
+        example.get(key);
+      }
+
+      advisor.sample();
+    }
+
+    assertThat(advisor.getRecommendations()).containsExactly("/Example: not advised yet");
+
+    Recommendation recommendation = advisor.advise("/Example");
+
+    assertThat(recommendation.getAccesses()).isGreaterThanOrEqualTo(ENTRY_COUNT + HOT_ROUNDS * HOT_ENTRY_COUNT);
+    assertThat(recommendation.getEntrySizePercentiles()[3]).isGreaterThanOrEqualTo(ENTRY_SIZE);
+    assertThat(recommendation.getOverflowedEntries()).isPositive();
+    assertThat(recommendation.getHitCount()).isGreaterThanOrEqualTo(HOT_ROUNDS * HOT_ENTRY_COUNT);
+    assertThat(recommendation.getCurrentEviction()).isEqualTo("lru-entry-count 100 overflow-to-disk");
+    assertThat(recommendation.getMemoryLimitHitRatios()).hasSize(EvictionTuningAdvisor.MEMORY_LIMIT_STEPS);
+    assertThat(recommendation.getRecommendedMemoryBytes()).isPositive()
+      .isLessThan((long) ENTRY_COUNT * ENTRY_SIZE);
+    assertThat(recommendation.getRecommendedIdleTimeoutSeconds())
+      .isEqualTo(EvictionTuningAdvisor.DEFAULT_IDLE_TIMEOUT_CANDIDATES_IN_SECONDS[0]);
+    assertThat(advisor.getRecommendations()).containsExactly(recommendation.toSummary());
+    assertThat(advisor.advise()).hasSize(1);
+    assertThat(advisor.report()).contains("Region [/Example]").contains("recommended:");
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.SelectResults;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.app.dao.GemfireRegionCustomerDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.gemfire.GemfireQueryException;
+import org.springframework.data.gemfire.LocalRegionFactoryBean;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link CompiledQueryCache}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.dao.GemfireRegionCustomerDao
+ * @see org.spring.data.gemfire.cache.query.CompiledQueryCache
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class CompiledQueryCacheIntegrationTests {
+
+  @Autowired
+  private GemfireRegionCustomerDao customerDao;
+
+  @Resource(name = "Customers")
+  private Region<Long, Customer> customers;
+
+  @Before
+  public void setup() {
+
+    if (this.customerDao.count() == 0) {
+      this.customerDao.save(new Customer("Jon", "Doe"));
+      this.customerDao.save(new Customer("Jane", "Doe"));
+      this.customerDao.save(new Customer("Pie", "Doe"));
+      this.customerDao.save(new Customer("Jack", "Handy"));
+    }
+  }
+
+  @Test
+  public void normalizeCollapsesWhitespaceOutsideStringLiterals() {
+
+    assertThat(CompiledQueryCache.normalize("  SELECT *\n FROM /Customers\tWHERE lastName = 'Doe  Smith'  "))
+      .isEqualTo("SELECT * FROM /Customers WHERE lastName = 'Doe  Smith'");
+  }
+
+  @Test
+  public void queryIsCompiledOnceAndReused() {
+
+    CompiledQueryCache queryCache = CompiledQueryCache.forRegion(this.customers);
+
+    Query query = queryCache.getQuery("SELECT * FROM /Customers WHERE lastName = $1");
+
+    assertThat(queryCache.getQuery("SELECT *  FROM /Customers\n WHERE lastName = $1")).isSameAs(query);
+    assertThat(queryCache.size()).isEqualTo(1);
+    assertThat(queryCache.getStatistics().getHits()).isEqualTo(1L);
+    assertThat(queryCache.getStatistics().getMisses()).isEqualTo(1L);
+    assertThat(queryCache.getStatistics().getHitRate()).isEqualTo(0.5d);
+    assertThat(queryCache.getStatistics().getCompileTime(TimeUnit.NANOSECONDS)).isPositive();
+  }
+
+  @Test
+  public void leastRecentlyUsedQueryIsEvicted() {
+
+    CompiledQueryCache queryCache = new CompiledQueryCache(this.customers.getRegionService().getQueryService(), 2);
+
+    Query firstNameQuery = queryCache.getQuery("SELECT * FROM /Customers WHERE firstName = $1");
+    Query lastNameQuery = queryCache.getQuery("SELECT * FROM /Customers WHERE lastName = $1");
+
+    queryCache.getQuery("SELECT * FROM /Customers WHERE firstName = $1");
+    queryCache.getQuery("SELECT * FROM /Customers WHERE id = $1");
+
+    assertThat(queryCache.size()).isEqualTo(2);
+    assertThat(queryCache.getStatistics().getEvictions()).isEqualTo(1L);
+    assertThat(queryCache.getQuery("SELECT * FROM /Customers WHERE firstName = $1")).isSameAs(firstNameQuery);
+    assertThat(queryCache.getQuery("SELECT * FROM /Customers WHERE lastName = $1")).isNotSameAs(lastNameQuery);
+  }
+
+  @Test
+  public void executeWithBindParameters() {
+
+    CompiledQueryCache queryCache = CompiledQueryCache.forRegion(this.customers);
+
+    SelectResults<Customer> results = queryCache.execute(
+      CompiledQueryCache.selectWhere(this.customers, "lastName = $1 AND firstName <> $2"), "Doe", "Pie");
+
+    assertThat(results.asList()).extracting(Customer::getFirstName).containsOnly("Jon", "Jane");
+    assertThat(queryCache.getStatistics().getExecutions()).isEqualTo(1L);
+    assertThat(queryCache.getStatistics().getExecutionTime(TimeUnit.NANOSECONDS)).isPositive();
+  }
+
+  @Test
+  public void bindParametersAreNotInterpretedAsOql() {
+
+    List<?> customers = this.customerDao.query("lastName = $1", "Doe' OR lastName <> 'Doe");
+
+    assertThat(customers).isEmpty();
+  }
+
+  @Test
+  public void customerDaoQueriesAreCached() throws Exception {
+
+    for (int count = 0; count < 10; count++) {
+      assertThat(this.customerDao.query("lastName = $1", "Handy")).hasSize(1);
+    }
+
+    assertThat(this.customerDao.query("lastName = 'Doe'")).hasSize(3);
+    assertThat(this.customerDao.getQueryStatistics().getHitRate()).isGreaterThanOrEqualTo(0.75d);
+  }
+
+  @Test
+  public void invalidQueryThrowsGemfireQueryException() {
+
+    CompiledQueryCache queryCache = CompiledQueryCache.forRegion(this.customers);
+
+    assertThatThrownBy(() -> queryCache.getQuery("SELECT * FROM WHERE")).isInstanceOf(GemfireQueryException.class);
+    assertThat(queryCache.size()).isZero();
+  }
+
+  @PeerCacheApplication(name = "CompiledQueryCacheIntegrationTests", logLevel = "warning")
+  static class TestConfiguration {
+
+    @Bean("Customers")
+    LocalRegionFactoryBean<Long, Customer> customersRegion(GemFireCache gemfireCache) {
+
+      LocalRegionFactoryBean<Long, Customer> customersRegion = new LocalRegionFactoryBean<>();
+
+      customersRegion.setCache(gemfireCache);
+      customersRegion.setClose(false);
+      customersRegion.setPersistent(false);
+
+      return customersRegion;
+    }
+
+    @Bean
+    GemfireRegionCustomerDao customerDao() {
+      return new GemfireRegionCustomerDao();
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.query.CqEvent;
+import org.apache.geode.cache.query.CqQuery;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.data.gemfire.listener.ContinuousQueryListener;
+
+/**
+ * Unit tests for {@link DispatchingContinuousQueryListener}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.cache.query.DispatchingContinuousQueryListener
+ * @since 1.0.0
+ */
+public class DispatchingContinuousQueryListenerTests {
+
+  private static final String CQ_NAME = "residents";
+
+  private DispatchingContinuousQueryListener dispatcher;
+
+  @After
+  public void tearDown() throws Exception {
+    if (this.dispatcher != null) {
+      this.dispatcher.destroy();
+    }
+  }
+
+  private CqEvent mockEvent(Object key, Object value) {
+
+    CqQuery cq = mock(CqQuery.class);
+
+    when(cq.getName()).thenReturn(CQ_NAME);
+
+    CqEvent event = mock(CqEvent.class);
+
+    when(event.getCq()).thenReturn(cq);
+    when(event.getKey()).thenReturn(key);
+    when(event.getNewValue()).thenReturn(value);
+
+    return event;
+  }
+
+  @Test
+  public void dispatchesEventsInOrderPerKeyInBoundedBatches() throws Exception {
+
+    Map<Object, List<Object>> valuesByKey = new ConcurrentHashMap<>();
+
+    List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    CountDownLatch latch = new CountDownLatch(4000);
+
+    DispatchingContinuousQueryListener.BatchListener listener = events -> {
+
+      batchSizes.add(events.size());
+
+      for (CqEvent event : events) {
+        valuesByKey.computeIfAbsent(event.getKey(), key -> Collections.synchronizedList(new ArrayList<>()))
+          .add(event.getNewValue());
+        latch.countDown();
+      }
+    };
+
+    this.dispatcher = new DispatchingContinuousQueryListener(listener);
+    this.dispatcher.setBatchSize(25);
+    this.dispatcher.setQueueCapacity(100);
+    this.dispatcher.setStripes(4);
+
+    for (int value = 0; value < 100; value++) {
+      for (int key = 0; key < 40; key++) {
+        this.dispatcher.onEvent(mockEvent("key" + key, value));
+      }
+    }
+
+    assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+    assertThat(valuesByKey).hasSize(40);
+
+    valuesByKey.values().forEach(values -> {
+      assertThat(values).hasSize(100);
+      assertThat(values).isSortedAccordingTo((valueOne, valueTwo) -> ((Integer) valueOne).compareTo((Integer) valueTwo));
+    });
+
+    assertThat(batchSizes).allMatch(batchSize -> batchSize > 0 && batchSize <= 25);
+
+    DispatchingContinuousQueryListener.Metrics metrics = this.dispatcher.getMetrics(CQ_NAME);
+
+    assertThat(metrics).isNotNull();
+    assertThat(metrics.getReceived()).isEqualTo(4000L);
+    assertThat(metrics.getConflated()).isEqualTo(0L);
+    assertThat(metrics.getMaxLag(TimeUnit.NANOSECONDS)).isGreaterThanOrEqualTo(metrics.getLag(TimeUnit.NANOSECONDS));
+  }
+
+  @Test
+  public void conflatesQueuedEventsForTheSameKey() throws Exception {
+
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<CqEvent> dispatchedEvents = Collections.synchronizedList(new ArrayList<>());
+
+    DispatchingContinuousQueryListener.BatchListener listener = events -> {
+
+      blocked.countDown();
+
+      try {
+        release.await(30, TimeUnit.SECONDS);
+      }
+      catch (InterruptedException ignore) {
+        Thread.currentThread().interrupt();
+      }
+
+      dispatchedEvents.addAll(events);
+    };
+
+    this.dispatcher = new DispatchingContinuousQueryListener(listener);
+    this.dispatcher.setConflate(true);
+    this.dispatcher.setStripes(1);
+
+    this.dispatcher.onEvent(mockEvent("first", 0));
+
+    assertThat(blocked.await(30, TimeUnit.SECONDS)).isTrue();
+
+    for (int value = 1; value <= 10; value++) {
+      this.dispatcher.onEvent(mockEvent("hot", value));
+      this.dispatcher.onEvent(mockEvent("cold" + value, value));
+    }
+
+    DispatchingContinuousQueryListener.Metrics metrics = this.dispatcher.getMetrics(CQ_NAME);
+
+    assertThat(metrics.getQueueDepth()).isEqualTo(11L);
+    assertThat(metrics.getConflated()).isEqualTo(9L);
+
+    release.countDown();
+    this.dispatcher.destroy();
+
+    assertThat(dispatchedEvents).hasSize(12);
+    assertThat(dispatchedEvents.get(1).getKey()).isEqualTo("hot");
+    assertThat(dispatchedEvents.get(1).getNewValue()).isEqualTo(10);
+    assertThat(metrics.getDispatched()).isEqualTo(12L);
+    assertThat(metrics.getQueueDepth()).isEqualTo(0L);
+  }
+
+  @Test
+  public void continuesDispatchingWhenTheListenerFails() throws Exception {
+
+    CountDownLatch latch = new CountDownLatch(2);
+
+    ContinuousQueryListener listener = event -> {
+      latch.countDown();
+      throw new IllegalStateException("test");
+    };
+
+    this.dispatcher = new DispatchingContinuousQueryListener(listener);
+    this.dispatcher.setBatchSize(1);
+    this.dispatcher.setStripes(1);
+    this.dispatcher.onEvent(mockEvent("one", 1));
+    this.dispatcher.onEvent(mockEvent("two", 2));
+
+    assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.apache.geode.cache.GemFireCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.AbstractUserDomainTestSuite;
+import org.spring.data.gemfire.app.beans.Address;
+import org.spring.data.gemfire.app.beans.Programmer;
+import org.spring.data.gemfire.app.beans.State;
+import org.spring.data.gemfire.app.beans.User;
+import org.spring.data.gemfire.app.dao.repo.ProgrammerRepository;
+import org.spring.data.gemfire.app.dao.repo.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.LocalRegionFactoryBean;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.data.gemfire.repository.config.EnableGemfireRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link IndexAdvisor}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.dao.repo.ProgrammerRepository
+ * @see org.spring.data.gemfire.app.dao.repo.UserRepository
+ * @see org.spring.data.gemfire.cache.query.IndexAdvisor
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class IndexAdvisorIntegrationTests extends AbstractUserDomainTestSuite {
+
+  private static final String[] CITIES = { "Portland", "Seattle", "Boise", "Spokane", "Eugene" };
+
+  private static final String[] PROGRAMMING_LANGUAGES = { "Java", "Groovy", "Scala", "C++", "Go" };
+
+  @Autowired
+  private GemFireCache gemfireCache;
+
+  @Autowired
+  private IndexAdvisor indexAdvisor;
+
+  @Autowired
+  private ProgrammerRepository programmerRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Before
+  public void setup() {
+
+    if (this.programmerRepository.count() == 0) {
+      for (int count = 0; count < 100; count++) {
+
+        Programmer programmer = new Programmer((long) count);
+
+        programmer.setFirstName("Programmer" + count);
+        programmer.setLastName("Doe");
+        programmer.setProgrammingLanguage(PROGRAMMING_LANGUAGES[count % PROGRAMMING_LANGUAGES.length]);
+
+        this.programmerRepository.save(programmer);
+
+        User user = createUser("user" + count);
+
+        user.add(new Address("100 Main St.", CITIES[count % CITIES.length], State.OREGON, "12345"));
+
+        this.userRepository.save(user);
+      }
+    }
+  }
+
+  @Test
+  public void adviseRecommendsAndCreatesIndexesForQueriesScanningRegions() {
+
+    assertThat(this.programmerRepository.findDistinctByProgrammingLanguageOrderByNameAsc("Java")).hasSize(20);
+    assertThat(this.userRepository.findUsersInCity("Portland")).hasSize(20);
+
+    assertThat(this.indexAdvisor.getTracedQueries())
+      .containsKeys("findDistinctByProgrammingLanguageOrderByNameAsc", "findUsersInCity");
+
+    List<IndexAdvisor.Recommendation> recommendations = this.indexAdvisor.advise();
+
+    assertThat(recommendations).extracting(IndexAdvisor.Recommendation::getIndexName)
+      .containsExactlyInAnyOrder("ProgrammersProgrammingLanguageIdx", "UsersCityIdx");
+
+    IndexAdvisor.Recommendation usersCityIdx = recommendations.stream()
+      .filter(recommendation -> "UsersCityIdx".equals(recommendation.getIndexName()))
+      .findFirst()
+      .orElseThrow(IllegalStateException::new);
+
+    assertThat(usersCityIdx.getExpression()).isEqualTo("a.city");
+    assertThat(usersCityIdx.getFromClause()).isEqualTo("/Users u, u.addresses a");
+    assertThat(usersCityIdx.getQueryMethods()).containsExactly("findUsersInCity");
+    assertThat(usersCityIdx.getEstimatedImprovement()).isEqualTo(5.0d);
+    assertThat(usersCityIdx.isKey()).isFalse();
+    assertThat(usersCityIdx.isCreated()).isFalse();
+    assertThat(this.gemfireCache.getQueryService().getIndexes()).isEmpty();
+
+    this.indexAdvisor.setCreateIndexes(true);
+
+    assertThat(this.indexAdvisor.advise()).allMatch(IndexAdvisor.Recommendation::isCreated).hasSize(2);
+    assertThat(this.gemfireCache.getQueryService().getIndexes()).hasSize(2);
+    assertThat(this.indexAdvisor.advise()).isEmpty();
+    assertThat(this.userRepository.findUsersInCity("Portland")).hasSize(20);
+  }
+
+  @PeerCacheApplication(name = "IndexAdvisorIntegrationTests", logLevel = "warning")
+  @EnableGemfireRepositories(basePackageClasses = ProgrammerRepository.class, includeFilters =
+    @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = { ProgrammerRepository.class,
+      UserRepository.class }))
+  static class TestConfiguration {
+
+    @Bean
+    IndexAdvisor indexAdvisor(GemFireCache gemfireCache) {
+      return new IndexAdvisor(gemfireCache);
+    }
+
+    @Bean("Programmers")
+    LocalRegionFactoryBean<Long, Programmer> programmersRegion(GemFireCache gemfireCache) {
+
+      LocalRegionFactoryBean<Long, Programmer> programmersRegion = new LocalRegionFactoryBean<>();
+
+      programmersRegion.setCache(gemfireCache);
+      programmersRegion.setClose(false);
+      programmersRegion.setPersistent(false);
+
+      return programmersRegion;
+    }
+
+    @Bean
+    GemfireTemplate programmersTemplate(GemFireCache gemfireCache) {
+      return new GemfireTemplate(gemfireCache.getRegion("Programmers"));
+    }
+
+    @Bean("Users")
+    LocalRegionFactoryBean<String, User> usersRegion(GemFireCache gemfireCache) {
+
+      LocalRegionFactoryBean<String, User> usersRegion = new LocalRegionFactoryBean<>();
+
+      usersRegion.setCache(gemfireCache);
+      usersRegion.setClose(false);
+      usersRegion.setPersistent(false);
+
+      return usersRegion;
+    }
+  }
+}
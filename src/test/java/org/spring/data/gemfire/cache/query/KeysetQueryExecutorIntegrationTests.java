@@ -0,0 +1,363 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.app.beans.Programmer;
+import org.spring.data.gemfire.app.beans.User;
+import org.spring.data.gemfire.app.dao.repo.CustomerRepository;
+import org.spring.data.gemfire.app.dao.repo.ProgrammerRepository;
+import org.spring.data.gemfire.app.dao.repo.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.LocalRegionFactoryBean;
+import org.springframework.data.gemfire.PartitionedRegionFactoryBean;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.data.gemfire.repository.config.EnableGemfireRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link KeysetQueryExecutor} paging through a partitioned Region.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.dao.repo.CustomerRepository
+ * @see org.spring.data.gemfire.app.dao.repo.ProgrammerRepository
+ * @see org.spring.data.gemfire.app.dao.repo.UserRepository
+ * @see org.spring.data.gemfire.cache.query.KeysetPageRequest
+ * @see org.spring.data.gemfire.cache.query.KeysetQueryExecutor
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class KeysetQueryExecutorIntegrationTests {
+
+  private static final long CUSTOMER_COUNT = 1000;
+
+  private static final String LAST_NAME_PREDICATE = "this.lastName = $1";
+
+  @Autowired
+  private CustomerRepository customerRepository;
+
+  @Autowired
+  private ProgrammerRepository programmerRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Resource(name = "Customers")
+  private Region<Long, Customer> customers;
+
+  @Resource(name = "Programmers")
+  private Region<Long, Programmer> programmers;
+
+  @Resource(name = "Users")
+  private Region<String, User> users;
+
+  @Before
+  public void setup() {
+
+    if (this.customers.isEmpty()) {
+      for (long id = 0; id < CUSTOMER_COUNT; id++) {
+
+        Customer customer = new Customer("Customer" + id, (id % 2 == 0 ? "Doe" : "Smith"));
+
+        customer.setId(id);
+
+        this.customers.put(id, customer);
+      }
+    }
+
+    if (this.programmers.isEmpty()) {
+      for (long id = 0; id < 100; id++) {
+
+        Programmer programmer = new Programmer("Programmer" + id, "Doe");
+
+        programmer.setId(id);
+        programmer.setProgrammingLanguage(id % 3 == 0 ? "Java" : "Groovy");
+
+        this.programmers.put(id, programmer);
+      }
+    }
+
+    if (this.users.isEmpty()) {
+      for (int index = 0; index < 50; index++) {
+
+        User user = new User(String.format("user%02d", index));
+
+        user.setActive(index % 5 != 0);
+
+        this.users.put(user.getUsername(), user);
+      }
+    }
+  }
+
+  private List<Long> doeIds() {
+    return LongStream.range(0, CUSTOMER_COUNT).filter(id -> id % 2 == 0).boxed().collect(Collectors.toList());
+  }
+
+  private List<Long> scroll(Pageable pageable, int expectedPageSize) {
+
+    List<Long> ids = new ArrayList<>();
+
+    Slice<Customer> slice;
+
+    do {
+      slice = this.customerRepository.findByLastName("Doe", pageable);
+
+      assertThat(slice).isInstanceOf(KeysetSlice.class);
+      assertThat(slice.getNumberOfElements()).isLessThanOrEqualTo(expectedPageSize);
+      assertThat(slice.getContent()).extracting(Customer::getLastName).containsOnly("Doe");
+
+      slice.forEach(customer -> ids.add(customer.getId()));
+      pageable = slice.nextPageable();
+    }
+    while (slice.hasNext());
+
+    assertThat(pageable.isUnpaged()).isTrue();
+
+    return ids;
+  }
+
+  @Test
+  public void keysetPagesScrollThroughAllResultsInKeyOrder() {
+    assertThat(scroll(KeysetPageRequest.of(64), 64)).containsExactlyElementsOf(doeIds());
+  }
+
+  @Test
+  public void keysetPagesScrollInDescendingKeyOrder() {
+
+    List<Long> expectedIds = doeIds();
+
+    expectedIds.sort((idOne, idTwo) -> Long.compare(idTwo, idOne));
+
+    assertThat(scroll(KeysetPageRequest.of(100, Sort.by(Sort.Direction.DESC, "id")), 100))
+      .containsExactlyElementsOf(expectedIds);
+  }
+
+  @Test
+  public void keysetPageResumesAfterSavedKey() {
+
+    Slice<Customer> slice = this.customerRepository.findByLastName("Doe", KeysetPageRequest.of(10).after(500L));
+
+    assertThat(slice.getContent()).extracting(Customer::getId)
+      .containsExactly(502L, 504L, 506L, 508L, 510L, 512L, 514L, 516L, 518L, 520L);
+    assertThat(slice.hasNext()).isTrue();
+    assertThat(((KeysetSlice<Customer>) slice).getLastKey()).isEqualTo(520L);
+  }
+
+  @Test
+  public void offsetPageMatchesKeysetPage() {
+
+    Slice<Customer> offsetSlice = this.customerRepository.findByLastName("Doe", PageRequest.of(3, 25));
+
+    assertThat(offsetSlice.getContent()).extracting(Customer::getId)
+      .containsExactlyElementsOf(doeIds().subList(75, 100));
+
+    Slice<Customer> keysetSlice = this.customerRepository.findByLastName("Doe", offsetSlice.nextPageable());
+
+    assertThat(keysetSlice.getNumber()).isEqualTo(4);
+    assertThat(keysetSlice.getContent()).extracting(Customer::getId)
+      .containsExactlyElementsOf(doeIds().subList(100, 125));
+  }
+
+  @Test
+  public void nextOfQueriedKeysetPageResumesAfterItsLastKey() {
+
+    Slice<Customer> slice = this.customerRepository.findByLastName("Doe", KeysetPageRequest.of(10));
+
+    Pageable next = slice.getPageable().next();
+
+    assertThat(next).isEqualTo(slice.nextPageable());
+    assertThat(((KeysetPageRequest) next).getAfterKey()).isEqualTo(18L);
+  }
+
+  @Test
+  public void adjacentPagesOfUnqueriedKeysetPageRequestAreOffsetBased() {
+
+    KeysetPageRequest pageRequest = KeysetPageRequest.of(25).after(48L);
+
+    assertThat(pageRequest.next()).isEqualTo(PageRequest.of(2, 25));
+    assertThat(pageRequest.previous()).isEqualTo(PageRequest.of(0, 25));
+    assertThat(pageRequest.previousOrFirst()).isEqualTo(PageRequest.of(0, 25));
+    assertThat(KeysetPageRequest.of(25).previousOrFirst()).isEqualTo(KeysetPageRequest.of(25));
+
+    Slice<Customer> slice = this.customerRepository.findByLastName("Doe", pageRequest.next());
+
+    assertThat(slice.getContent()).extracting(Customer::getId).containsExactlyElementsOf(doeIds().subList(50, 75));
+  }
+
+  @Test
+  public void pagesOfAnySizeShareOneCompiledQuery() {
+
+    CompiledQueryCache queryCache = CompiledQueryCache.forRegion(this.customers);
+
+    KeysetQueryExecutor queryExecutor = new KeysetQueryExecutor(queryCache, this.customers, "id");
+
+    for (int pageSize = 10; pageSize <= 50; pageSize += 10) {
+      assertThat(queryExecutor.findSlice(LAST_NAME_PREDICATE, KeysetPageRequest.of(pageSize), "Doe"))
+        .hasSize(pageSize);
+    }
+
+    assertThat(queryCache.getStatistics().getExecutions()).isEqualTo(5);
+    assertThat(queryCache.getStatistics().getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  public void findActiveUsersPagesThroughActiveUsersInUsernameOrder() {
+
+    List<String> usernames = new ArrayList<>();
+
+    Pageable pageable = KeysetPageRequest.of(15);
+
+    Slice<User> slice;
+
+    do {
+      slice = this.userRepository.findActiveUsers(pageable);
+      slice.forEach(user -> usernames.add(user.getUsername()));
+      pageable = slice.nextPageable();
+    }
+    while (slice.hasNext());
+
+    assertThat(usernames).hasSize(40).isSorted().doesNotContain("user00", "user05", "user45");
+  }
+
+  @Test
+  public void findByProgrammingLanguagePagesThroughProgrammersInIdOrder() {
+
+    Slice<Programmer> firstSlice = this.programmerRepository.findByProgrammingLanguage("Java",
+      KeysetPageRequest.of(10));
+
+    assertThat(firstSlice.getContent()).extracting(Programmer::getId)
+      .containsExactly(0L, 3L, 6L, 9L, 12L, 15L, 18L, 21L, 24L, 27L);
+    assertThat(firstSlice.hasNext()).isTrue();
+
+    Slice<Programmer> lastSlice = this.programmerRepository.findByProgrammingLanguage("Java",
+      firstSlice.nextPageable().next().next());
+
+    assertThat(lastSlice.getContent()).extracting(Programmer::getId).containsExactly(90L, 93L, 96L, 99L);
+    assertThat(lastSlice.getContent()).extracting(Programmer::getProgrammingLanguage).containsOnly("Java");
+    assertThat(lastSlice.hasNext()).isFalse();
+  }
+
+  @Test
+  public void lastPageHasNoNext() {
+
+    Slice<Customer> slice = this.customerRepository.findByLastName("Doe", PageRequest.of(0, 500));
+
+    assertThat(slice.getNumberOfElements()).isEqualTo(500);
+    assertThat(slice.hasNext()).isFalse();
+  }
+
+  @Test
+  public void sortOnNonKeyPropertyIsRejected() {
+    assertThatThrownBy(() -> this.customerRepository.findByLastName("Doe",
+      KeysetPageRequest.of(10, Sort.by("firstName")))).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void streamQueriesOnePageAtATime() {
+
+    CompiledQueryCache queryCache = CompiledQueryCache.forRegion(this.customers);
+
+    KeysetQueryExecutor queryExecutor = new KeysetQueryExecutor(queryCache, this.customers, "id");
+
+    List<Long> firstIds = queryExecutor.<Customer>stream(LAST_NAME_PREDICATE, 50, "Smith")
+      .limit(75).map(Customer::getId).collect(Collectors.toList());
+
+    assertThat(firstIds).hasSize(75).isSorted();
+    assertThat(queryCache.getStatistics().getExecutions()).isEqualTo(2);
+  }
+
+  @Test
+  public void streamAllReturnsEveryValue() {
+    assertThat(this.customerRepository.streamAll(128).map(Customer::getId))
+      .containsExactlyElementsOf(LongStream.range(0, CUSTOMER_COUNT).boxed().collect(Collectors.toList()));
+  }
+
+  @PeerCacheApplication(name = "KeysetQueryExecutorIntegrationTests", logLevel = "warning")
+  @EnableGemfireRepositories(basePackageClasses = CustomerRepository.class, includeFilters =
+    @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+      classes = { CustomerRepository.class, ProgrammerRepository.class, UserRepository.class }))
+  static class TestConfiguration {
+
+    @Bean("Customers")
+    PartitionedRegionFactoryBean<Long, Customer> customersRegion(GemFireCache gemfireCache) {
+
+      PartitionedRegionFactoryBean<Long, Customer> customersRegion = new PartitionedRegionFactoryBean<>();
+
+      customersRegion.setCache(gemfireCache);
+      customersRegion.setClose(false);
+      customersRegion.setPersistent(false);
+
+      return customersRegion;
+    }
+
+    @Bean("Programmers")
+    PartitionedRegionFactoryBean<Long, Programmer> programmersRegion(GemFireCache gemfireCache) {
+
+      PartitionedRegionFactoryBean<Long, Programmer> programmersRegion = new PartitionedRegionFactoryBean<>();
+
+      programmersRegion.setCache(gemfireCache);
+      programmersRegion.setClose(false);
+      programmersRegion.setPersistent(false);
+
+      return programmersRegion;
+    }
+
+    @Bean
+    GemfireTemplate programmersTemplate(GemFireCache gemfireCache) {
+      return new GemfireTemplate(gemfireCache.getRegion("Programmers"));
+    }
+
+    @Bean("Users")
+    LocalRegionFactoryBean<String, User> usersRegion(GemFireCache gemfireCache) {
+
+      LocalRegionFactoryBean<String, User> usersRegion = new LocalRegionFactoryBean<>();
+
+      usersRegion.setCache(gemfireCache);
+      usersRegion.setClose(false);
+      usersRegion.setPersistent(false);
+
+      return usersRegion;
+    }
+  }
+}
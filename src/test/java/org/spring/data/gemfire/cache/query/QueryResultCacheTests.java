@@ -0,0 +1,158 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionAttributes;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.query.CqAttributes;
+import org.apache.geode.cache.query.CqEvent;
+import org.apache.geode.cache.query.CqQuery;
+import org.apache.geode.cache.query.QueryService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.spring.data.gemfire.app.beans.State;
+
+/**
+ * Unit tests for {@link QueryResultCache} watching the results of queries on client Regions with CQs.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.cache.query.QueryResultCache
+ * @since 1.0.0
+ */
+public class QueryResultCacheTests {
+
+  private static final String QUERY = "SELECT DISTINCT * FROM /Programmers p"
+    + " WHERE p.programmingLanguage = $1 AND p.lastName <> 'O''$2' AND p.id > $2 ORDER BY p.id";
+
+  private ClientCache clientCache;
+
+  private CqQuery cq;
+
+  private QueryResultCache queryResultCache;
+
+  private QueryService queryService;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setup() throws Exception {
+
+    RegionAttributes<Object, Object> regionAttributes = mock(RegionAttributes.class);
+
+    when(regionAttributes.getDataPolicy()).thenReturn(DataPolicy.EMPTY);
+    when(regionAttributes.getPoolName()).thenReturn("DEFAULT");
+
+    Region<Object, Object> region = mock(Region.class);
+
+    this.clientCache = mock(ClientCache.class);
+    this.cq = mock(CqQuery.class);
+    this.queryService = mock(QueryService.class);
+
+    when(region.getAttributes()).thenReturn(regionAttributes);
+    when(region.getRegionService()).thenReturn(this.clientCache);
+    when(this.clientCache.getRegion("/Programmers")).thenReturn(region);
+    when(this.clientCache.getQueryService("DEFAULT")).thenReturn(this.queryService);
+    when(this.queryService.newCq(anyString(), any(CqAttributes.class))).thenReturn(this.cq);
+
+    this.queryResultCache = new QueryResultCache(this.clientCache);
+  }
+
+  private List<String> execute(Object... parameters) {
+
+    return this.queryResultCache.execute(QueryResultCache.key(parameters), 10, () -> {
+      this.queryResultCache.watch(QUERY, parameters);
+      return Arrays.asList("Jon", "Jane");
+    });
+  }
+
+  @Test
+  public void resultsOfQueriesOnClientRegionsAreWatchedWithContinuousQueries() throws Exception {
+
+    ArgumentCaptor<CqAttributes> cqAttributes = ArgumentCaptor.forClass(CqAttributes.class);
+
+    assertThat(execute("Java", 10L)).containsExactly("Jon", "Jane");
+    assertThat(execute("Java", 10L)).containsExactly("Jon", "Jane");
+    assertThat(this.queryResultCache.getStatistics().getHits()).isEqualTo(1);
+
+    verify(this.queryService).newCq(eq("SELECT * FROM /Programmers p"
+      + " WHERE p.programmingLanguage = 'Java' AND p.lastName <> 'O''$2' AND p.id > 10L"), cqAttributes.capture());
+    verify(this.cq).execute();
+
+    cqAttributes.getValue().getCqListener().onEvent(mock(CqEvent.class));
+
+    assertThat(this.queryResultCache.getStatistics().getInvalidations()).isEqualTo(1);
+    assertThat(this.queryResultCache.size()).isZero();
+
+    verify(this.cq).close();
+  }
+
+  @Test
+  public void resultsOfQueriesOnClientRegionsWithoutLiteralBindValuesAreNotCached() throws Exception {
+
+    execute(State.OREGON, 10L);
+
+    assertThat(this.queryResultCache.getStatistics().getUncacheable()).isEqualTo(1);
+
+    verify(this.queryService, never()).newCq(anyString(), any(CqAttributes.class));
+  }
+
+  @Test
+  public void resultsOfQueriesOnClientRegionsAreNotCachedWhenContinuousQueryCannotBeRegistered() throws Exception {
+
+    doThrow(new IllegalStateException("Subscriptions are not enabled")).when(this.cq).execute();
+
+    execute("Java", 10L);
+
+    assertThat(this.queryResultCache.getStatistics().getUncacheable()).isEqualTo(1);
+
+    verify(this.cq).close();
+  }
+
+  @Test
+  public void bindValuesAreInlinedAsLiterals() {
+
+    assertThat(QueryResultCache.toLiteral("it's")).isEqualTo("'it''s'");
+    assertThat(QueryResultCache.toLiteral(1)).isEqualTo("1");
+    assertThat(QueryResultCache.toLiteral(1L)).isEqualTo("1L");
+    assertThat(QueryResultCache.toLiteral(1.5d)).isEqualTo("1.5D");
+    assertThat(QueryResultCache.toLiteral(true)).isEqualTo("true");
+    assertThat(QueryResultCache.toLiteral(null)).isEqualTo("NULL");
+    assertThat(QueryResultCache.toLiteral(java.sql.Date.valueOf("2018-04-01"))).isEqualTo("DATE '2018-04-01'");
+    assertThat(QueryResultCache.toLiteral(Arrays.asList("Java", "Scala"))).isEqualTo("SET('Java', 'Scala')");
+    assertThat(QueryResultCache.toLiteral(Collections.singleton(State.OREGON))).isNull();
+    assertThat(QueryResultCache.toLiteral(Double.NaN)).isNull();
+    assertThat(QueryResultCache.toContinuousQuery("/Users", " u, u.addresses a", "a.city = $1",
+      new Object[] { "Portland" })).isNull();
+  }
+}
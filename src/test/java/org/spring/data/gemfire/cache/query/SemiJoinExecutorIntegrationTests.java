@@ -0,0 +1,278 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.EntryOperation;
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.PartitionResolver;
+import org.apache.geode.cache.Region;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.app.beans.Account;
+import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.app.dao.repo.CustomerRepository;
+import org.spring.data.gemfire.cache.execute.JoinFunctions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.gemfire.LocalRegionFactoryBean;
+import org.springframework.data.gemfire.PartitionAttributesFactoryBean;
+import org.springframework.data.gemfire.PartitionedRegionFactoryBean;
+import org.springframework.data.gemfire.RegionAttributesFactoryBean;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.data.gemfire.function.config.EnableGemfireFunctions;
+import org.springframework.data.gemfire.repository.config.EnableGemfireRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link SemiJoinExecutor} joining colocated partitioned Regions with the
+ * {@link JoinFunctions#COLOCATED_SEMI_JOIN_FUNCTION_ID colocated semi-join Function} and non-colocated Regions
+ * with a hash join on the caller.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.dao.repo.CustomerRepository
+ * @see org.spring.data.gemfire.cache.execute.JoinFunctions
+ * @see org.spring.data.gemfire.cache.query.SemiJoinExecutor
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class SemiJoinExecutorIntegrationTests {
+
+  private static final long CUSTOMER_COUNT = 100;
+
+  @Resource(name = "Accounts")
+  private Region<Long, Account> accounts;
+
+  @Resource(name = "LocalAccounts")
+  private Region<Long, Account> localAccounts;
+
+  @Resource(name = "Customers")
+  private Region<Long, Customer> customers;
+
+  @Autowired
+  private CustomerRepository customerRepository;
+
+  @Before
+  public void setup() {
+
+    if (this.customers.isEmpty()) {
+      for (long id = 0; id < CUSTOMER_COUNT; id++) {
+
+        this.customers.put(id, newCustomer(id));
+
+        if (id % 3 == 0) {
+          for (long number = 0; number < 2; number++) {
+
+            Account account = newAccount(id, number);
+
+            this.accounts.put(account.getId(), account);
+            this.localAccounts.put(account.getId(), account);
+          }
+        }
+      }
+    }
+  }
+
+  private Account newAccount(Long customerId, Long number) {
+
+    Account account = new Account(customerId, String.valueOf(number));
+
+    account.setId(customerId * CustomerIdPartitionResolver.ACCOUNTS_PER_CUSTOMER + number);
+
+    return account;
+  }
+
+  private Customer newCustomer(Long id) {
+
+    Customer customer = new Customer("Customer" + id, "Doe");
+
+    customer.setId(id);
+
+    return customer;
+  }
+
+  private List<Long> expectedCustomerIds() {
+    return LongStream.range(0, CUSTOMER_COUNT).filter(id -> id % 3 == 0).boxed().collect(Collectors.toList());
+  }
+
+  @Test
+  public void colocatedJoinReturnsDistinctCustomersWithAccounts() {
+
+    SemiJoinExecutor join = new SemiJoinExecutor(this.customers, "id", this.accounts, "customerId");
+
+    join.setRoutedByJoinProperties(true);
+
+    assertThat(join.isColocated()).isTrue();
+
+    List<Customer> customers = join.execute();
+
+    assertThat(customers).extracting(Customer::getId).containsOnlyElementsOf(expectedCustomerIds())
+      .hasSameSizeAs(expectedCustomerIds());
+  }
+
+  @Test
+  public void colocatedJoinNotRoutedByJoinPropertiesFallsBackToHashJoin() {
+
+    SemiJoinExecutor join = new SemiJoinExecutor(this.customers, "id", this.accounts, "customerId");
+
+    assertThat(join.isColocated()).isFalse();
+    assertThat(join.<Customer>execute()).extracting(Customer::getId).containsOnlyElementsOf(expectedCustomerIds())
+      .hasSameSizeAs(expectedCustomerIds());
+  }
+
+  @Test
+  public void joinIsLimited() {
+
+    SemiJoinExecutor colocatedJoin = new SemiJoinExecutor(this.customers, "id", this.accounts, "customerId");
+
+    colocatedJoin.setRoutedByJoinProperties(true);
+
+    assertThat(colocatedJoin.<Customer>execute(5)).hasSize(5)
+      .extracting(Customer::getId).isSubsetOf(expectedCustomerIds());
+
+    SemiJoinExecutor hashJoin = new SemiJoinExecutor(this.customers, "id", this.localAccounts, "customerId");
+
+    assertThat(hashJoin.<Customer>execute(5)).hasSize(5)
+      .extracting(Customer::getId).isSubsetOf(expectedCustomerIds());
+  }
+
+  @Test
+  public void nonColocatedJoinFallsBackToHashJoin() {
+
+    SemiJoinExecutor join = new SemiJoinExecutor(this.customers, "id", this.localAccounts, "customerId");
+
+    assertThat(join.isColocated()).isFalse();
+
+    List<Customer> customers = join.execute();
+
+    assertThat(customers).extracting(Customer::getId).containsOnlyElementsOf(expectedCustomerIds())
+      .hasSameSizeAs(expectedCustomerIds());
+  }
+
+  @Test
+  public void joinWithNoMatchesReturnsEmptyList() {
+
+    SemiJoinExecutor join = new SemiJoinExecutor(this.customers, "id", this.accounts, "number");
+
+    assertThat(join.<Customer>execute()).isEmpty();
+  }
+
+  @Test
+  public void repositoryFindsCustomersWithAccounts() {
+
+    assertThat(this.customerRepository.findCustomersWithAccounts()).hasSize(CustomerRepository.DEFAULT_LIMIT)
+      .extracting(Customer::getId).isSubsetOf(expectedCustomerIds());
+
+    assertThat(this.customerRepository.findCustomersWithAccounts(Integer.MAX_VALUE)).extracting(Customer::getId)
+      .containsOnlyElementsOf(expectedCustomerIds()).hasSameSizeAs(expectedCustomerIds());
+  }
+
+  public static class CustomerIdPartitionResolver implements PartitionResolver<Long, Account> {
+
+    public static final long ACCOUNTS_PER_CUSTOMER = 1000L;
+
+    @Override
+    public Object getRoutingObject(EntryOperation<Long, Account> entryOperation) {
+      return (entryOperation.getKey() / ACCOUNTS_PER_CUSTOMER);
+    }
+
+    @Override
+    public String getName() {
+      return getClass().getName();
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  @PeerCacheApplication(name = "SemiJoinExecutorIntegrationTests", logLevel = "warning")
+  @EnableGemfireFunctions
+  @EnableGemfireRepositories(basePackageClasses = CustomerRepository.class,
+    includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = CustomerRepository.class))
+  static class TestConfiguration {
+
+    @Bean("Customers")
+    PartitionedRegionFactoryBean<Long, Customer> customersRegion(GemFireCache gemfireCache) {
+
+      PartitionedRegionFactoryBean<Long, Customer> customersRegion = new PartitionedRegionFactoryBean<>();
+
+      customersRegion.setCache(gemfireCache);
+      customersRegion.setClose(false);
+      customersRegion.setPersistent(false);
+
+      return customersRegion;
+    }
+
+    @Bean("Accounts")
+    @DependsOn("Customers")
+    PartitionedRegionFactoryBean<Long, Account> accountsRegion(GemFireCache gemfireCache) throws Exception {
+
+      PartitionAttributesFactoryBean accountsPartitionAttributes = new PartitionAttributesFactoryBean();
+
+      accountsPartitionAttributes.setColocatedWith("Customers");
+      accountsPartitionAttributes.setPartitionResolver(new CustomerIdPartitionResolver());
+      accountsPartitionAttributes.afterPropertiesSet();
+
+      RegionAttributesFactoryBean accountsRegionAttributes = new RegionAttributesFactoryBean();
+
+      accountsRegionAttributes.setPartitionAttributes(accountsPartitionAttributes.getObject());
+      accountsRegionAttributes.afterPropertiesSet();
+
+      PartitionedRegionFactoryBean<Long, Account> accountsRegion = new PartitionedRegionFactoryBean<>();
+
+      accountsRegion.setAttributes(accountsRegionAttributes.getObject());
+      accountsRegion.setCache(gemfireCache);
+      accountsRegion.setClose(false);
+      accountsRegion.setPersistent(false);
+
+      return accountsRegion;
+    }
+
+    @Bean("LocalAccounts")
+    LocalRegionFactoryBean<Long, Account> localAccountsRegion(GemFireCache gemfireCache) {
+
+      LocalRegionFactoryBean<Long, Account> localAccountsRegion = new LocalRegionFactoryBean<>();
+
+      localAccountsRegion.setCache(gemfireCache);
+      localAccountsRegion.setClose(false);
+      localAccountsRegion.setPersistent(false);
+
+      return localAccountsRegion;
+    }
+
+    @Bean
+    JoinFunctions joinFunctions() {
+      return new JoinFunctions();
+    }
+  }
+}
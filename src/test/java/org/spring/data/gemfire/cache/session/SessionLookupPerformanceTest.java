@@ -0,0 +1,192 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spring.data.gemfire.app.beans.Session;
+import org.spring.data.gemfire.app.dao.repo.SessionRepository;
+import org.spring.data.gemfire.app.dao.repo.support.SessionRepositoryImpl;
+import org.springframework.data.gemfire.mapping.GemfireMappingContext;
+import org.springframework.data.gemfire.repository.support.GemfireRepositoryFactory;
+
+/**
+ * Performance test measuring the latency of looking up {@link Session Sessions} by principal name, as on login,
+ * with {@link SessionRepository#findByPrincipalName(String)} on a Region having the
+ * {@link SessionIndexes principal name index} compared to the same Repository query method scanning the Sessions
+ * {@link Region}.
+ *
+ * The number of Sessions defaults to 100,000 and may be set with the {@literal sessions.count} System property
+ * (e.g. {@literal -Dsessions.count=10000000} with a heap large enough to hold them).  Every principal has
+ * 2 Sessions on average.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.beans.Session
+ * @see org.spring.data.gemfire.app.dao.repo.SessionRepository
+ * @see org.spring.data.gemfire.cache.session.SessionIndexes
+ * @since 1.0.0
+ */
+public class SessionLookupPerformanceTest {
+
+  private static final int BATCH_SIZE = 10000;
+  private static final int INDEXED_LOOKUPS = 1000;
+  private static final int SESSION_COUNT = Integer.getInteger("sessions.count", 100000);
+  private static final int PRINCIPAL_COUNT = (SESSION_COUNT / 2);
+  private static final int SCAN_LOOKUPS = 10;
+  private static final int JVM_WARM_UP_ITERATIONS = 5;
+
+  private static double indexedLookupMicroseconds = Double.NaN;
+  private static double scanLookupMicroseconds = Double.NaN;
+
+  private static Cache gemfireCache;
+
+  private static Region<String, Session> indexedSessions;
+  private static Region<String, Session> sessions;
+
+  private static SessionRepository indexedSessionRepository;
+  private static SessionRepository sessionRepository;
+
+  @BeforeClass
+  public static void setupBeforeClass() {
+
+    gemfireCache = new CacheFactory()
+      .set("name", SessionLookupPerformanceTest.class.getSimpleName())
+      .set("mcast-port", "0")
+      .set("log-level", "warning")
+      .create();
+
+    indexedSessions = gemfireCache.<String, Session>createRegionFactory(RegionShortcut.PARTITION)
+      .create("IndexedSessions");
+
+    sessions = gemfireCache.<String, Session>createRegionFactory(RegionShortcut.PARTITION).create("Sessions");
+
+    GemfireRepositoryFactory repositoryFactory =
+      new GemfireRepositoryFactory(Arrays.asList(indexedSessions, sessions), new GemfireMappingContext());
+
+    indexedSessionRepository =
+      repositoryFactory.getRepository(IndexedSessionRepository.class, new SessionRepositoryImpl());
+
+    sessionRepository = repositoryFactory.getRepository(SessionRepository.class, new SessionRepositoryImpl());
+
+    SessionIndexes sessionIndexes = new SessionIndexes(indexedSessions);
+
+    sessionIndexes.setIndexedAttributeNames("custom");
+    sessionIndexes.afterPropertiesSet();
+
+    Random random = new Random(SESSION_COUNT);
+
+    Map<String, Session> batch = new HashMap<>(BATCH_SIZE);
+
+    for (int count = 0; count < SESSION_COUNT; count++) {
+
+      Session session = new Session();
+
+      session.setPrincipalName(toPrincipalName(random.nextInt(PRINCIPAL_COUNT)));
+      session.setAttribute("custom", String.valueOf(count % 100));
+      batch.put(session.getId(), session);
+
+      if (batch.size() >= BATCH_SIZE || count == SESSION_COUNT - 1) {
+        indexedSessions.putAll(batch);
+        sessions.putAll(batch);
+        batch.clear();
+      }
+    }
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+
+    try {
+      System.out.printf("Session Count (%d)%n", SESSION_COUNT);
+      System.out.printf("Indexed Lookup by Principal Name (%1$.2f us)%n", indexedLookupMicroseconds);
+      System.out.printf("Scan Lookup by Principal Name (%1$.2f us)%n", scanLookupMicroseconds);
+
+      // only compare when both measurements were taken, e.g. not when a single test method is run from the IDE
+      if (Double.isNaN(indexedLookupMicroseconds) || Double.isNaN(scanLookupMicroseconds)) {
+        return;
+      }
+
+      assertThat(indexedLookupMicroseconds)
+        .describedAs("Expected indexed lookups (%1$.2f us) to be faster than scans (%2$.2f us)!",
+          indexedLookupMicroseconds, scanLookupMicroseconds)
+        .isLessThan(scanLookupMicroseconds);
+    }
+    finally {
+      if (gemfireCache != null) {
+        gemfireCache.close();
+      }
+    }
+  }
+
+  private static String toPrincipalName(int principal) {
+    return String.format("user%d@example.com", principal);
+  }
+
+  private double measureLookupMicroseconds(SessionRepository repository, int lookups) {
+
+    Random random = new Random(lookups);
+
+    int sessionCount = 0;
+
+    for (int count = 0; count < JVM_WARM_UP_ITERATIONS; count++) {
+      sessionCount += repository.findByPrincipalName(toPrincipalName(random.nextInt(PRINCIPAL_COUNT))).size();
+    }
+
+    long startTime = System.nanoTime();
+
+    for (int count = 0; count < lookups; count++) {
+      sessionCount += repository.findByPrincipalName(toPrincipalName(random.nextInt(PRINCIPAL_COUNT))).size();
+    }
+
+    long elapsedTime = (System.nanoTime() - startTime);
+
+    assertThat(sessionCount).isGreaterThan(0);
+
+    return ((double) TimeUnit.NANOSECONDS.toMicros(elapsedTime) / lookups);
+  }
+
+  @Test
+  public void measureIndexedLookupByPrincipalName() {
+    indexedLookupMicroseconds = measureLookupMicroseconds(indexedSessionRepository, INDEXED_LOOKUPS);
+  }
+
+  @Test
+  public void measureScanLookupByPrincipalName() {
+    scanLookupMicroseconds = measureLookupMicroseconds(sessionRepository, SCAN_LOOKUPS);
+  }
+
+  /**
+   * {@link SessionRepository} of the indexed Sessions {@link Region}.
+   */
+  @org.springframework.data.gemfire.mapping.annotation.Region("IndexedSessions")
+  public interface IndexedSessionRepository extends SessionRepository {
+  }
+}
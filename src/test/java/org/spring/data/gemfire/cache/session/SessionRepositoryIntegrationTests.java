@@ -0,0 +1,235 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.cache.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.Index;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.app.beans.Session;
+import org.spring.data.gemfire.app.dao.repo.SessionRepository;
+import org.spring.data.gemfire.cache.execute.SessionFunctions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.PartitionedRegionFactoryBean;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.data.gemfire.function.config.EnableGemfireFunctions;
+import org.springframework.data.gemfire.repository.config.EnableGemfireRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link SessionRepository}, {@link SessionIndexes} and {@link SessionExpirationSweeper}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.app.dao.repo.SessionRepository
+ * @see org.spring.data.gemfire.cache.session.SessionExpirationSweeper
+ * @see org.spring.data.gemfire.cache.session.SessionIndexes
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class SessionRepositoryIntegrationTests {
+
+  private static final String[] PRINCIPAL_NAMES = { "cookieDoe", "froDoe", "janeDoe", "jonDoe", "pieDoe" };
+
+  @Autowired
+  private GemFireCache gemfireCache;
+
+  @Resource(name = "Sessions")
+  private Region<String, Session> sessions;
+
+  @Autowired
+  private SessionIndexes sessionIndexes;
+
+  @Autowired
+  private SessionRepository sessionRepository;
+
+  @Before
+  public void setup() {
+
+    this.sessionRepository.deleteAll();
+
+    for (int count = 0; count < 100; count++) {
+
+      Session session = new Session();
+
+      session.setPrincipalName(PRINCIPAL_NAMES[count % PRINCIPAL_NAMES.length]);
+      session.setAttribute("custom", String.valueOf(count % 10));
+      session.setAttribute("unindexed", String.valueOf(count));
+
+      this.sessionRepository.save(session);
+    }
+  }
+
+  private long totalUses(String indexName) {
+    Index index = this.gemfireCache.getQueryService().getIndex(this.sessions, indexName);
+    assertThat(index).describedAs("Index [%s] was not created", indexName).isNotNull();
+    return index.getStatistics().getTotalUses();
+  }
+
+  private int expireFroDoeSessions(long now) {
+
+    int expiredCount = 0;
+
+    for (Session session : this.sessionRepository.findByPrincipalName("froDoe")) {
+      session.setLastAccessedTime(now - TimeUnit.MINUTES.toMillis(31));
+      this.sessionRepository.save(session);
+      expiredCount++;
+    }
+
+    Session neverExpires = this.sessionRepository.findByPrincipalName("pieDoe").get(0);
+
+    neverExpires.setLastAccessedTime(0L);
+    neverExpires.setMaxInactiveIntervalInSeconds(-1);
+    this.sessionRepository.save(neverExpires);
+
+    return expiredCount;
+  }
+
+  @Test
+  public void indexesAreCreatedForPrincipalNameAndSelectedAttributes() {
+
+    assertThat(this.gemfireCache.getQueryService().getIndexes(this.sessions))
+      .extracting(Index::getName, Index::getIndexedExpression)
+      .containsExactlyInAnyOrder(
+        tuple("SessionsPrincipalNameIdx", "s.principalName"),
+        tuple("SessionsLastAccessedTimeIdx", "s.lastAccessedTime"),
+        tuple("SessionsMaxInactiveIntervalIdx", "s.maxInactiveIntervalInSeconds"),
+        tuple("SessionsAttributesIdx", "s.attributes['custom']"));
+
+    assertThat(this.sessionIndexes.createIndexes()).hasSize(4);
+  }
+
+  @Test
+  public void findByPrincipalNameUsesPrincipalNameIndex() {
+
+    long totalUses = totalUses(this.sessionIndexes.getPrincipalNameIndexName());
+
+    assertThat(this.sessionRepository.findByPrincipalName("jonDoe"))
+      .hasSize(20)
+      .allMatch(session -> "jonDoe".equals(session.getPrincipalName()));
+
+    assertThat(totalUses(this.sessionIndexes.getPrincipalNameIndexName())).isGreaterThan(totalUses);
+  }
+
+  @Test
+  public void findByAttributeUsesAttributesIndex() {
+
+    long totalUses = totalUses(this.sessionIndexes.getAttributesIndexName());
+
+    assertThat(this.sessionRepository.findByAttribute("custom", "7"))
+      .hasSize(10)
+      .allMatch(session -> "7".equals(session.getAttribute("custom")));
+
+    assertThat(totalUses(this.sessionIndexes.getAttributesIndexName())).isGreaterThan(totalUses);
+    assertThat(this.sessionRepository.findByAttribute("unindexed", "42")).hasSize(1);
+    assertThat(this.sessionRepository.findByAttribute("it's", "quoted")).isEmpty();
+  }
+
+  @Test
+  public void sweepRemovesExpiredSessionsInBatchesOnTheMembersHostingThem() {
+
+    long now = System.currentTimeMillis();
+
+    int expiredCount = expireFroDoeSessions(now);
+
+    long totalUses = totalUses(this.sessionIndexes.getLastAccessedTimeIndexName());
+
+    SessionExpirationSweeper sweeper = new SessionExpirationSweeper(this.sessions);
+
+    sweeper.setBatchSize(3);
+
+    assertThat(sweeper.isDistributed()).isTrue();
+    assertThat(sweeper.sweep(now)).isEqualTo(expiredCount);
+    assertThat(sweeper.getExpired()).isEqualTo(20L);
+    assertThat(sweeper.getScanned()).isEqualTo(21L);
+    assertThat(totalUses(this.sessionIndexes.getLastAccessedTimeIndexName())).isGreaterThan(totalUses);
+    assertThat(this.sessionRepository.findByPrincipalName("froDoe")).isEmpty();
+    assertThat(this.sessions).hasSize(80);
+    assertThat(this.sessionRepository.findByPrincipalName("pieDoe")).hasSize(20);
+    assertThat(sweeper.sweep(now)).isZero();
+    assertThat(sweeper.getSweeps()).isEqualTo(2L);
+  }
+
+  @Test
+  public void sweepQueriesRegionWhenNotDistributed() {
+
+    long now = System.currentTimeMillis();
+
+    int expiredCount = expireFroDoeSessions(now);
+
+    SessionExpirationSweeper sweeper = new SessionExpirationSweeper(this.sessions);
+
+    assertThat(sweeper.sweep(this.sessions, now)).isEqualTo(expiredCount);
+    assertThat(sweeper.getScanned()).isEqualTo(21L);
+    assertThat(this.sessions).hasSize(80);
+  }
+
+  @PeerCacheApplication(name = "SessionRepositoryIntegrationTests", copyOnRead = true, logLevel = "warning")
+  @EnableGemfireFunctions
+  @EnableGemfireRepositories(basePackageClasses = SessionRepository.class, includeFilters =
+    @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SessionRepository.class))
+  static class TestConfiguration {
+
+    @Bean("Sessions")
+    PartitionedRegionFactoryBean<String, Session> sessionsRegion(GemFireCache gemfireCache) {
+
+      PartitionedRegionFactoryBean<String, Session> sessionsRegion = new PartitionedRegionFactoryBean<>();
+
+      sessionsRegion.setCache(gemfireCache);
+      sessionsRegion.setClose(false);
+      sessionsRegion.setPersistent(false);
+
+      return sessionsRegion;
+    }
+
+    @Bean
+    GemfireTemplate sessionsTemplate(GemFireCache gemfireCache) {
+      return new GemfireTemplate(gemfireCache.getRegion("Sessions"));
+    }
+
+    @Bean
+    SessionFunctions sessionFunctions() {
+      return new SessionFunctions();
+    }
+
+    @Bean
+    SessionIndexes sessionIndexes(GemFireCache gemfireCache) {
+
+      SessionIndexes sessionIndexes = new SessionIndexes(gemfireCache.getRegion("Sessions"));
+
+      sessionIndexes.setIndexedAttributeNames("custom");
+
+      return sessionIndexes;
+    }
+  }
+}
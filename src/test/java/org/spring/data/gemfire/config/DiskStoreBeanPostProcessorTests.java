@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.data.gemfire.DiskStoreFactoryBean;
+import org.springframework.data.gemfire.DiskStoreFactoryBean.DiskDir;
+
+/**
+ * Tests for the {@link DiskStoreBeanPostProcessor}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.config.DiskStoreBeanPostProcessor
+ * @since 1.0.0
+ */
+public class DiskStoreBeanPostProcessorTests {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void provisionsDiskDirectoriesOfDiskStore() {
+
+    File one = new File(temporaryFolder.getRoot(), "one");
+    File two = new File(temporaryFolder.getRoot(), "two");
+
+    DiskStoreFactoryBean diskStoreFactoryBean = new DiskStoreFactoryBean();
+
+    diskStoreFactoryBean.setDiskDirs(Arrays.asList(new DiskDir(one.getPath()), new DiskDir(two.getPath(), 10)));
+    diskStoreFactoryBean.setMaxOplogSize(1L);
+
+    DiskStoreBeanPostProcessor beanPostProcessor = new DiskStoreBeanPostProcessor();
+
+    beanPostProcessor.setFsyncProbeCount(1);
+
+    assertThat(beanPostProcessor.postProcessBeforeInitialization(diskStoreFactoryBean, "Example"))
+      .isSameAs(diskStoreFactoryBean);
+    assertThat(one).isDirectory();
+    assertThat(two).isDirectory();
+  }
+
+  @Test
+  public void failsWhenDiskDirectoryLacksSpaceForAnOplog() {
+
+    DiskStoreFactoryBean diskStoreFactoryBean = new DiskStoreFactoryBean();
+
+    diskStoreFactoryBean.setDiskDirs(Arrays.asList(new DiskDir(temporaryFolder.getRoot().getPath())));
+    diskStoreFactoryBean.setMaxOplogSize(Long.MAX_VALUE / (1024L * 1024L));
+
+    assertThatThrownBy(() -> new DiskStoreBeanPostProcessor().postProcessBeforeInitialization(diskStoreFactoryBean,
+      "Example")).isInstanceOf(IllegalStateException.class).hasMessageContaining("usable space");
+  }
+}
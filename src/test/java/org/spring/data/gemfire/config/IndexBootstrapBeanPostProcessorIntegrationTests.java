@@ -0,0 +1,160 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.IndexExistsException;
+import org.apache.geode.cache.query.IndexNameConflictException;
+import org.apache.geode.cache.query.QueryService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.config.IndexBootstrapBeanPostProcessor.RegionIndexes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.gemfire.GemfireIndexException;
+import org.springframework.data.gemfire.IndexFactoryBean;
+import org.springframework.data.gemfire.IndexType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link IndexBootstrapBeanPostProcessor} deferring Index creation until the context
+ * is refreshed and detecting Index conflicts up front.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.config.IndexBootstrapBeanPostProcessor
+ * @see org.springframework.data.gemfire.IndexFactoryBean
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@DirtiesContext
+@SuppressWarnings("unused")
+public class IndexBootstrapBeanPostProcessorIntegrationTests {
+
+  @Autowired
+  private GemFireCache gemfireCache;
+
+  @Autowired
+  private IndexBootstrapBeanPostProcessor indexBootstrap;
+
+  @Resource(name = "Customers")
+  private Region<?, ?> customers;
+
+  @Resource(name = "Products")
+  private Region<?, ?> products;
+
+  private IndexFactoryBean newIndexFactoryBean(String name, String expression, String from, IndexType type) {
+
+    IndexFactoryBean indexFactoryBean = new IndexFactoryBean();
+
+    indexFactoryBean.setCache(this.gemfireCache);
+    indexFactoryBean.setName(name);
+    indexFactoryBean.setExpression(expression);
+    indexFactoryBean.setFrom(from);
+    indexFactoryBean.setType(type);
+
+    return indexFactoryBean;
+  }
+
+  @Test
+  public void indexesAreCreatedTogetherPerRegionOnBootstrapThreads() {
+
+    QueryService queryService = this.gemfireCache.getQueryService();
+
+    assertThat(queryService.getIndexes(this.customers)).extracting(Index::getName)
+      .containsOnly("CustomerIdIdx", "CustomerNameIdx", "CustomerEmailIdx");
+
+    assertThat(queryService.getIndexes(this.products)).extracting(Index::getName)
+      .containsOnly("ProductNameIdx", "ProductPriceIdx");
+
+    assertThat(queryService.getIndex(this.customers, "CustomerIdIdx").getType())
+      .isEqualTo(org.apache.geode.cache.query.IndexType.PRIMARY_KEY);
+
+    assertThat(this.indexBootstrap.getIndexNames("/Customers"))
+      .containsExactly("CustomerIdIdx", "CustomerNameIdx", "CustomerEmailIdx");
+
+    for (String regionPath : new String[] { "/Customers", "/Products" }) {
+
+      RegionIndexes regionIndexes = this.indexBootstrap.getRegionIndexes(regionPath);
+
+      assertThat(regionIndexes.isCreated()).isTrue();
+      assertThat(regionIndexes.getThreadName())
+        .startsWith(IndexBootstrapBeanPostProcessor.INDEX_BOOTSTRAP_THREAD_NAME_PREFIX);
+    }
+  }
+
+  @Test
+  public void resolvesRegionPathFromFromClause() {
+    assertThat(IndexBootstrapBeanPostProcessor.resolveRegionPath("/Customers c")).isEqualTo("/Customers");
+    assertThat(IndexBootstrapBeanPostProcessor.resolveRegionPath("/Customers.entrySet e")).isEqualTo("/Customers");
+    assertThat(IndexBootstrapBeanPostProcessor.resolveRegionPath("Parent/Child.values")).isEqualTo("/Parent/Child");
+  }
+
+  @Test
+  public void indexNameConflictsAreDetectedBeforeCreation() {
+
+    IndexBootstrapBeanPostProcessor indexBootstrap = new IndexBootstrapBeanPostProcessor();
+
+    IndexFactoryBean email = newIndexFactoryBean("EmailIdx", "email", "/Products", IndexType.HASH);
+
+    indexBootstrap.postProcessBeforeInitialization(email, "EmailIdx");
+
+    assertThat(indexBootstrap.getIndexNames("/Products")).containsExactly("EmailIdx");
+
+    assertThatThrownBy(() -> indexBootstrap.postProcessBeforeInitialization(
+        newIndexFactoryBean("EmailIdx", "sku", "/Products", IndexType.FUNCTIONAL), "SkuIdx"))
+      .isInstanceOf(GemfireIndexException.class)
+      .hasCauseInstanceOf(IndexNameConflictException.class);
+
+    assertThatThrownBy(() -> indexBootstrap.postProcessBeforeInitialization(
+        newIndexFactoryBean("CustomerNameIdx", "lastName", "/Customers", IndexType.HASH), "LastNameIdx"))
+      .isInstanceOf(GemfireIndexException.class)
+      .hasCauseInstanceOf(IndexNameConflictException.class)
+      .hasMessageContaining("existing Index");
+  }
+
+  @Test
+  public void indexDefinitionConflictsAreDetectedBeforeCreation() {
+
+    IndexBootstrapBeanPostProcessor indexBootstrap = new IndexBootstrapBeanPostProcessor();
+
+    indexBootstrap.postProcessBeforeInitialization(
+      newIndexFactoryBean("SkuIdx", "sku", "/Products", IndexType.HASH), "SkuIdx");
+
+    assertThatThrownBy(() -> indexBootstrap.postProcessBeforeInitialization(
+        newIndexFactoryBean("AnotherSkuIdx", " sku ", "/Products", IndexType.HASH), "AnotherSkuIdx"))
+      .isInstanceOf(GemfireIndexException.class)
+      .hasCauseInstanceOf(IndexExistsException.class);
+
+    assertThatThrownBy(() -> indexBootstrap.postProcessBeforeInitialization(
+        newIndexFactoryBean("AnotherCustomerIdIdx", "id", "/Customers", IndexType.PRIMARY_KEY),
+          "AnotherCustomerIdIdx"))
+      .isInstanceOf(GemfireIndexException.class)
+      .hasCauseInstanceOf(IndexExistsException.class);
+
+    assertThat(this.gemfireCache.getQueryService().getIndexes(this.products)).hasSize(2);
+  }
+}
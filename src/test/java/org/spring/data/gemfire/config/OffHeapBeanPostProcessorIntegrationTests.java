@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.internal.cache.control.InternalResourceManager.ResourceType;
+import org.apache.geode.internal.cache.control.MemoryEvent;
+import org.apache.geode.internal.cache.control.MemoryThresholds.MemoryState;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.cache.management.OffHeapMemoryMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.gemfire.CacheFactoryBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link OffHeapBeanPostProcessor} storing chosen Regions off-heap in a pool sized from
+ * the Region estimates, and the {@link OffHeapMemoryMonitor} reporting on the pool.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.cache.management.OffHeapMemoryMonitor
+ * @see org.spring.data.gemfire.config.OffHeapBeanPostProcessor
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@DirtiesContext
+@SuppressWarnings("unused")
+public class OffHeapBeanPostProcessorIntegrationTests {
+
+  @Autowired
+  private GemFireCache gemfireCache;
+
+  @Autowired
+  private OffHeapBeanPostProcessor offHeap;
+
+  @Autowired
+  private OffHeapMemoryMonitor offHeapMemoryMonitor;
+
+  @Resource(name = "People")
+  private Region<Long, byte[]> people;
+
+  @Resource(name = "Users")
+  private Region<Long, byte[]> users;
+
+  @Test
+  public void sizesOffHeapMemoryFromRegionEstimates() {
+
+    // 10000 * (1024 + 8) bytes plus 30% headroom
+    assertThat(this.offHeap.computeOffHeapMemorySizeInMegabytes()).isEqualTo(13L);
+
+    assertThat(this.gemfireCache.getDistributedSystem().getProperties().getProperty("off-heap-memory-size"))
+      .isEqualTo("13m");
+
+    assertThat(this.offHeapMemoryMonitor.isOffHeapEnabled()).isTrue();
+    assertThat(this.offHeapMemoryMonitor.getMaxMemory()).isEqualTo(13L * 1024L * 1024L);
+  }
+
+  @Test
+  public void storesChosenRegionsOffHeap() {
+
+    assertThat(this.people.getAttributes().getOffHeap()).isTrue();
+    assertThat(this.users.getAttributes().getOffHeap()).isFalse();
+
+    int objects = this.offHeapMemoryMonitor.getObjects();
+    long usedMemory = this.offHeapMemoryMonitor.getUsedMemory();
+
+    for (long id = 0; id < 100; id++) {
+      this.people.put(id, new byte[1024]);
+      this.users.put(id, new byte[1024]);
+    }
+
+    assertThat(this.offHeapMemoryMonitor.getObjects()).isEqualTo(objects + 100);
+    assertThat(this.offHeapMemoryMonitor.getUsedMemory()).isGreaterThanOrEqualTo(usedMemory + 100L * 1024L);
+    assertThat(this.offHeapMemoryMonitor.getUsedPercentage()).isPositive();
+    assertThat(this.offHeapMemoryMonitor.report()).contains("objects = " + (objects + 100));
+  }
+
+  @Test
+  public void countsTransitionsIntoCriticalAsAllocationFailures() {
+
+    long allocationFailures = this.offHeapMemoryMonitor.getAllocationFailures();
+    long evictionEvents = this.offHeapMemoryMonitor.getEvictionEvents();
+
+    this.offHeapMemoryMonitor.onEvent(newMemoryEvent(MemoryState.NORMAL, MemoryState.CRITICAL));
+    this.offHeapMemoryMonitor.onEvent(newMemoryEvent(MemoryState.CRITICAL, MemoryState.CRITICAL));
+    this.offHeapMemoryMonitor.onEvent(newMemoryEvent(MemoryState.CRITICAL, MemoryState.NORMAL));
+    this.offHeapMemoryMonitor.onEvent(newMemoryEvent(MemoryState.NORMAL, MemoryState.EVICTION));
+
+    assertThat(this.offHeapMemoryMonitor.getAllocationFailures()).isEqualTo(allocationFailures + 1);
+    assertThat(this.offHeapMemoryMonitor.getEvictionEvents()).isEqualTo(evictionEvents + 1);
+  }
+
+  @Test
+  public void sizesOffHeapMemoryOfCacheConfiguredWithoutGemFireProperties() {
+
+    CacheFactoryBean cacheFactoryBean = new CacheFactoryBean();
+
+    assertThat(cacheFactoryBean.getProperties()).isNull();
+
+    this.offHeap.postProcessBeforeInitialization(cacheFactoryBean, "gemfireCache");
+
+    assertThat(cacheFactoryBean.getProperties()).containsEntry("off-heap-memory-size", "13m");
+  }
+
+  @Test
+  public void rejectsMalformedRegionSizeEstimates() {
+
+    assertThatThrownBy(() -> new OffHeapBeanPostProcessor()
+        .setRegionSizeEstimates(Collections.singletonMap("Customers", "1000")))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("<entries>*<average value size>");
+  }
+
+  private MemoryEvent newMemoryEvent(MemoryState previousState, MemoryState state) {
+    return new MemoryEvent(ResourceType.OFFHEAP_MEMORY, previousState, state,
+      this.gemfireCache.getDistributedSystem().getDistributedMember(), 0L, true, null);
+  }
+}
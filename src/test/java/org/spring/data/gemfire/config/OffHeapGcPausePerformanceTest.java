@@ -0,0 +1,423 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.cache.management.OffHeapMemoryMonitor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.gemfire.CacheFactoryBean;
+import org.springframework.data.gemfire.PartitionedRegionFactoryBean;
+
+/**
+ * Performance test comparing the garbage collection pauses of a member storing the {@literal Customers} Region
+ * on the Java heap with one storing it off-heap with the {@link OffHeapBeanPostProcessor}.
+ *
+ * Each mode runs in its own JVM, with the {@literal -X}, {@literal -XX} and module options of the test JVM
+ * (e.g. {@literal -Xmx}), so that one mode's heap does not skew the other.  After loading the Region, a mixed workload
+ * of reads (80%) and updates (20%) of random Customers runs for the configured duration.
+ *
+ * Pauses are the durations of the collections the JVM notifies as {@literal end of minor GC} or
+ * {@literal end of major GC}, which stop the application with the Serial, Parallel and G1 collectors;
+ * collections notified with any other action (e.g. the concurrent cycles of ZGC and Shenandoah) do not pause
+ * the application and are not counted.
+ *
+ * The duration (in seconds), the number of Customers and the number of worker threads default to 30, 100,000 and 4,
+ * and may be set with the {@literal offheap.benchmark.duration}, {@literal offheap.benchmark.entries} and
+ * {@literal offheap.benchmark.threads} System properties.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see com.sun.management.GarbageCollectionNotificationInfo
+ * @see org.spring.data.gemfire.cache.management.OffHeapMemoryMonitor
+ * @see org.spring.data.gemfire.config.OffHeapBeanPostProcessor
+ * @since 1.0.0
+ */
+public class OffHeapGcPausePerformanceTest {
+
+  private static final int DURATION_IN_SECONDS = Integer.getInteger("offheap.benchmark.duration", 30);
+  private static final int ENTRIES = Integer.getInteger("offheap.benchmark.entries", 100000);
+  private static final int THREADS = Integer.getInteger("offheap.benchmark.threads", 4);
+  private static final int ESTIMATED_CUSTOMER_SIZE = 512;
+  private static final int NAME_LENGTH = 64;
+
+  private static final String HEAP_MODE = "heap";
+  private static final String MAJOR_GC_ACTION = "end of major GC";
+  private static final String MINOR_GC_ACTION = "end of minor GC";
+  private static final String OFF_HEAP_MODE = "off-heap";
+
+  private static Properties heapResults;
+  private static Properties offHeapResults;
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+    System.out.printf("Duration (%1$d s), Customers (%2$d), Threads (%3$d)%n", DURATION_IN_SECONDS, ENTRIES, THREADS);
+    printResults(HEAP_MODE, heapResults);
+    printResults(OFF_HEAP_MODE, offHeapResults);
+  }
+
+  private static void printResults(String mode, Properties results) {
+
+    if (results != null) {
+      System.out.printf("Mode [%1$s]: %2$s ops/s; GC pauses = %3$s (minor = %4$s, major = %5$s), total = %6$s ms,"
+          + " p50 = %7$s ms, p90 = %8$s ms, p99 = %9$s ms, max = %10$s ms%n", mode,
+        results.getProperty("throughput"), results.getProperty("pauses"), results.getProperty("minorPauses"),
+        results.getProperty("majorPauses"), results.getProperty("totalPauseTime"), results.getProperty("p50"),
+        results.getProperty("p90"), results.getProperty("p99"), results.getProperty("max"));
+    }
+  }
+
+  /**
+   * Runs a single mode in the forked JVM.
+   *
+   * Usage: OffHeapGcPausePerformanceTest [heap|off-heap] [duration in seconds] [entries] [threads] [results file]
+   */
+  public static void main(String[] args) throws Exception {
+
+    Properties results = run(OFF_HEAP_MODE.equals(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+      Integer.parseInt(args[3]));
+
+    try (OutputStream out = new FileOutputStream(args[4])) {
+      results.store(out, args[0]);
+    }
+  }
+
+  private static Properties fork(String mode) throws Exception {
+
+    File resultsFile = File.createTempFile(OffHeapGcPausePerformanceTest.class.getSimpleName(), ".properties");
+
+    try {
+      List<String> command = new ArrayList<>();
+
+      command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getAbsolutePath());
+
+      for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+        // the debugger and agents (e.g. from the IDE) are not forwarded
+        if ((argument.startsWith("-X") && !argument.startsWith("-Xrun") && !argument.startsWith("-Xdebug"))
+            || argument.startsWith("--add-")) {
+
+          command.add(argument);
+        }
+      }
+
+      command.add("-cp");
+      command.add(System.getProperty("java.class.path"));
+      command.add(OffHeapGcPausePerformanceTest.class.getName());
+      command.add(mode);
+      command.add(String.valueOf(DURATION_IN_SECONDS));
+      command.add(String.valueOf(ENTRIES));
+      command.add(String.valueOf(THREADS));
+      command.add(resultsFile.getAbsolutePath());
+
+      int exitValue = new ProcessBuilder(command).inheritIO().start().waitFor();
+
+      assertThat(exitValue).describedAs("Expected the [%s] mode JVM to exit normally", mode).isZero();
+
+      Properties results = new Properties();
+
+      try (InputStream in = new FileInputStream(resultsFile)) {
+        results.load(in);
+      }
+
+      return results;
+    }
+    finally {
+      resultsFile.delete();
+    }
+  }
+
+  private static Properties run(boolean offHeap, int durationSeconds, int entries, int threads) {
+
+    AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext();
+
+    if (offHeap) {
+
+      OffHeapBeanPostProcessor offHeapBeanPostProcessor = new OffHeapBeanPostProcessor();
+
+      offHeapBeanPostProcessor.setRegionSizeEstimates(Collections.singletonMap("Customers",
+        String.format("%1$d*%2$d", entries, ESTIMATED_CUSTOMER_SIZE)));
+
+      applicationContext.getBeanFactory().addBeanPostProcessor(offHeapBeanPostProcessor);
+    }
+
+    applicationContext.register(TestConfiguration.class);
+    applicationContext.refresh();
+
+    try {
+      @SuppressWarnings("unchecked")
+      Region<Long, Customer> customers = applicationContext.getBean("Customers", Region.class);
+
+      OffHeapMemoryMonitor offHeapMemoryMonitor =
+        new OffHeapMemoryMonitor(applicationContext.getBean(GemFireCache.class));
+
+      load(customers, entries);
+
+      List<long[]> pauses = Collections.synchronizedList(new ArrayList<>());
+      List<Runnable> unregistrations = recordGcPauses(pauses);
+
+      long operations;
+
+      try {
+        operations = runWorkload(customers, entries, threads, durationSeconds);
+      }
+      finally {
+        unregistrations.forEach(Runnable::run);
+      }
+
+      if (offHeap) {
+        offHeapMemoryMonitor.sample();
+        System.out.printf("%s%n", offHeapMemoryMonitor.report());
+      }
+
+      return toResults(durationSeconds, operations, pauses);
+    }
+    finally {
+      applicationContext.close();
+    }
+  }
+
+  private static String randomName() {
+
+    char[] name = new char[NAME_LENGTH];
+
+    for (int index = 0; index < name.length; index++) {
+      name[index] = (char) ('a' + ThreadLocalRandom.current().nextInt(26));
+    }
+
+    return new String(name);
+  }
+
+  private static Customer newCustomer(long id) {
+
+    Customer customer = new Customer(randomName(), randomName());
+
+    customer.setId(id);
+
+    return customer;
+  }
+
+  private static void load(Region<Long, Customer> customers, int entries) {
+
+    long startTime = System.nanoTime();
+
+    for (long id = 0; id < entries; id++) {
+      customers.put(id, newCustomer(id));
+    }
+
+    System.out.printf("Loaded [%1$d] Customers in [%2$d] ms%n", entries,
+      TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+  }
+
+  /* (non-Javadoc) - records { duration in ms, 1 if major } of every stop-the-world collection */
+  private static List<Runnable> recordGcPauses(List<long[]> pauses) {
+
+    List<Runnable> unregistrations = new ArrayList<>();
+
+    for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+
+      if (garbageCollector instanceof NotificationEmitter) {
+
+        NotificationListener listener = (notification, handback) -> {
+
+          if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+
+            GarbageCollectionNotificationInfo info =
+              GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+            boolean major = MAJOR_GC_ACTION.equals(info.getGcAction());
+
+            if (major || MINOR_GC_ACTION.equals(info.getGcAction())) {
+              pauses.add(new long[] { info.getGcInfo().getDuration(), major ? 1L : 0L });
+            }
+          }
+        };
+
+        ((NotificationEmitter) garbageCollector).addNotificationListener(listener, null, null);
+
+        unregistrations.add(() -> {
+          try {
+            ((NotificationEmitter) garbageCollector).removeNotificationListener(listener);
+          }
+          catch (Exception ignore) {
+          }
+        });
+      }
+    }
+
+    return unregistrations;
+  }
+
+  private static long runWorkload(Region<Long, Customer> customers, int entries, int threads, int durationSeconds) {
+
+    long endTime = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+    long[] operations = new long[threads];
+
+    List<Thread> workers = new ArrayList<>(threads);
+
+    for (int index = 0; index < threads; index++) {
+
+      int worker = index;
+
+      Thread thread = new Thread(() -> {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < endTime) {
+
+          long id = random.nextLong(entries);
+
+          if (random.nextInt(5) == 0) {
+            customers.put(id, newCustomer(id));
+          }
+          else {
+            customers.get(id);
+          }
+
+          operations[worker]++;
+        }
+      }, "Benchmark Worker-" + index);
+
+      workers.add(thread);
+      thread.start();
+    }
+
+    long totalOperations = 0L;
+
+    for (int index = 0; index < threads; index++) {
+      try {
+        workers.get(index).join();
+        totalOperations += operations[index];
+      }
+      catch (InterruptedException cause) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while running the workload", cause);
+      }
+    }
+
+    return totalOperations;
+  }
+
+  private static long percentile(List<Long> sortedPauses, double percentile) {
+    return (sortedPauses.isEmpty() ? 0L
+      : sortedPauses.get(Math.min(sortedPauses.size() - 1,
+          Math.max(0, (int) Math.ceil(percentile * sortedPauses.size()) - 1))));
+  }
+
+  private static Properties toResults(int durationSeconds, long operations, List<long[]> pauses) {
+
+    List<Long> sortedPauses = new ArrayList<>(pauses.size());
+
+    long majorPauses = 0L;
+
+    synchronized (pauses) {
+      for (long[] pause : pauses) {
+        sortedPauses.add(pause[0]);
+        majorPauses += pause[1];
+      }
+    }
+
+    Collections.sort(sortedPauses);
+
+    Properties results = new Properties();
+
+    results.setProperty("throughput", String.valueOf(operations / Math.max(1, durationSeconds)));
+    results.setProperty("pauses", String.valueOf(sortedPauses.size()));
+    results.setProperty("majorPauses", String.valueOf(majorPauses));
+    results.setProperty("minorPauses", String.valueOf(sortedPauses.size() - majorPauses));
+    results.setProperty("totalPauseTime", String.valueOf(sortedPauses.stream().mapToLong(Long::longValue).sum()));
+    results.setProperty("p50", String.valueOf(percentile(sortedPauses, 0.5d)));
+    results.setProperty("p90", String.valueOf(percentile(sortedPauses, 0.9d)));
+    results.setProperty("p99", String.valueOf(percentile(sortedPauses, 0.99d)));
+    results.setProperty("max", String.valueOf(percentile(sortedPauses, 1.0d)));
+
+    return results;
+  }
+
+  @Test
+  public void heapGcPauses() throws Exception {
+
+    heapResults = fork(HEAP_MODE);
+
+    assertThat(Long.parseLong(heapResults.getProperty("throughput"))).isPositive();
+  }
+
+  @Test
+  public void offHeapGcPauses() throws Exception {
+
+    offHeapResults = fork(OFF_HEAP_MODE);
+
+    assertThat(Long.parseLong(offHeapResults.getProperty("throughput"))).isPositive();
+  }
+
+  @Configuration
+  static class TestConfiguration {
+
+    @Bean
+    CacheFactoryBean gemfireCache() {
+
+      CacheFactoryBean gemfireCache = new CacheFactoryBean();
+
+      Properties gemfireProperties = new Properties();
+
+      gemfireProperties.setProperty("name", OffHeapGcPausePerformanceTest.class.getSimpleName());
+      gemfireProperties.setProperty("mcast-port", "0");
+      gemfireProperties.setProperty("log-level", "warning");
+
+      gemfireCache.setProperties(gemfireProperties);
+
+      return gemfireCache;
+    }
+
+    @Bean(name = "Customers")
+    PartitionedRegionFactoryBean<Long, Customer> customersRegion(GemFireCache gemfireCache) {
+
+      PartitionedRegionFactoryBean<Long, Customer> customers = new PartitionedRegionFactoryBean<>();
+
+      customers.setCache(gemfireCache);
+      customers.setPersistent(false);
+
+      return customers;
+    }
+  }
+}
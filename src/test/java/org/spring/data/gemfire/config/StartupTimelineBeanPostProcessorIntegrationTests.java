@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.config.StartupTimelineBeanPostProcessor.GemFirePhase;
+import org.spring.data.gemfire.config.StartupTimelineBeanPostProcessor.TimelineEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link StartupTimelineBeanPostProcessor}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.config.StartupTimelineBeanPostProcessor
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class StartupTimelineBeanPostProcessorIntegrationTests {
+
+  @Autowired
+  private StartupTimelineBeanPostProcessor startupTimeline;
+
+  private TimelineEvent eventNamed(String name) {
+
+    return this.startupTimeline.getTimeline().stream()
+      .filter(timelineEvent -> timelineEvent.getName().equals(name))
+      .findFirst()
+      .orElseThrow(() -> new AssertionError(String.format("No timeline event named [%s]", name)));
+  }
+
+  @Test
+  public void gemfirePhasesAreBrokenOut() {
+
+    List<String> categories = this.startupTimeline.getTimeline().stream()
+      .map(TimelineEvent::getCategory).distinct().collect(Collectors.toList());
+
+    assertThat(categories).contains(GemFirePhase.CACHE_CREATION.getCategory(),
+      GemFirePhase.DISK_STORE_RECOVERY.getCategory(), GemFirePhase.REGION_CREATION.getCategory(),
+      GemFirePhase.INDEX_BUILD.getCategory());
+
+    TimelineEvent regionCreation = eventNamed("Customers " + GemFirePhase.REGION_CREATION.getDescription());
+
+    assertThat(regionCreation.getArgs()).containsEntry("regionPath", "/Customers")
+      .containsEntry("diskStoreName", "TimelineData");
+    assertThat(regionCreation.getDurationNanos()).isPositive();
+    assertThat(regionCreation.getCpuNanos()).isGreaterThanOrEqualTo(0L);
+    assertThat(regionCreation.getAllocatedBytes()).isGreaterThanOrEqualTo(0L);
+  }
+
+  @Test
+  public void beanPhasesNestWithinTheBean() {
+
+    TimelineEvent bean = eventNamed("Customers");
+
+    for (String phase : new String[] { "Customers instantiation", "Customers population",
+        "Customers " + GemFirePhase.REGION_CREATION.getDescription() }) {
+
+      TimelineEvent timelineEvent = eventNamed(phase);
+
+      assertThat(timelineEvent.getStartNanos()).isGreaterThanOrEqualTo(bean.getStartNanos());
+      assertThat(timelineEvent.getEndNanos()).isLessThanOrEqualTo(bean.getEndNanos());
+      assertThat(timelineEvent.getThreadId()).isEqualTo(bean.getThreadId());
+    }
+
+    assertThat(eventNamed("Spring GemFire context startup").getDurationNanos())
+      .isGreaterThanOrEqualTo(bean.getDurationNanos());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void chromeTraceIsWritten() throws Exception {
+
+    File traceFile = this.startupTimeline.getTraceFile();
+
+    assertThat(traceFile).isFile();
+
+    Map<String, Object> chromeTrace = new ObjectMapper().readValue(traceFile, Map.class);
+
+    List<Map<String, Object>> traceEvents = (List<Map<String, Object>>) chromeTrace.get("traceEvents");
+
+    assertThat(traceEvents).isNotEmpty();
+
+    assertThat(traceEvents).filteredOn(traceEvent -> "X".equals(traceEvent.get("ph")))
+      .allSatisfy(traceEvent -> assertThat(traceEvent).containsKeys("name", "cat", "ts", "dur", "pid", "tid", "args"))
+      .extracting(traceEvent -> traceEvent.get("cat"))
+      .contains(GemFirePhase.INDEX_BUILD.getCategory());
+
+    assertThat(traceEvents).filteredOn(traceEvent -> "M".equals(traceEvent.get("ph")))
+      .extracting(traceEvent -> traceEvent.get("name"))
+      .containsOnly("thread_name");
+  }
+}
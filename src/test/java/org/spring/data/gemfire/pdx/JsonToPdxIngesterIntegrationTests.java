@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.pdx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.pdx.JSONFormatter;
+import org.apache.geode.pdx.PdxInstance;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.gemfire.PartitionedRegionFactoryBean;
+import org.springframework.data.gemfire.config.annotation.EnablePdx;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link JsonToPdxIngester}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.pdx.JsonToPdxIngester
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class JsonToPdxIngesterIntegrationTests {
+
+  private static final int DOCUMENT_COUNT = 10000;
+
+  private static Path jsonFile;
+
+  @Resource(name = "Documents")
+  private Region<Long, Object> documents;
+
+  @BeforeClass
+  public static void setupBeforeClass() throws IOException {
+
+    jsonFile = Files.createTempFile(JsonToPdxIngesterIntegrationTests.class.getSimpleName(), ".json");
+
+    try (BufferedWriter writer = Files.newBufferedWriter(jsonFile, StandardCharsets.UTF_8)) {
+
+      for (int id = 1; id <= DOCUMENT_COUNT; id++) {
+        writer.write(String.format("{\"id\": %1$d, \"name\": \"Doc %1$d\", \"score\": %2$.1f, \"active\": %3$b,"
+          + " \"address\": {\"city\": \"Portland\", \"zipCode\": \"97205\"}, \"tags\": [\"a\", \"b\"],"
+            + " \"note\": null}", id, id / 2.0d, (id % 2 == 0)));
+        writer.newLine();
+
+        if (id == DOCUMENT_COUNT / 2) {
+          writer.write("{\"id\": -1, \"name\": \"Malformed\"");
+          writer.newLine();
+          writer.write("{\"name\": \"No Key\"}");
+          writer.newLine();
+          writer.write("{\"id\": -2, \"name\": \"Duplicate\", \"name\": \"Field\"}");
+          writer.newLine();
+          writer.newLine();
+        }
+      }
+    }
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() throws IOException {
+    Files.deleteIfExists(jsonFile);
+  }
+
+  @Test
+  public void ingestLoadsDocumentsAsPdxInstances() throws IOException {
+
+    JsonToPdxIngester ingester = new JsonToPdxIngester(this.documents);
+
+    ingester.setBatchSize(100);
+    ingester.setBufferSize(256);
+    ingester.setMaxInFlight(4);
+
+    JsonToPdxIngester.Statistics statistics = ingester.ingest(jsonFile);
+
+    assertThat(statistics.getDocuments()).isEqualTo(DOCUMENT_COUNT + 3);
+    assertThat(statistics.getLoadedDocuments()).isEqualTo(DOCUMENT_COUNT);
+    assertThat(statistics.getFailedDocuments()).isEqualTo(3);
+    assertThat(statistics.getFailedBatches()).isZero();
+    assertThat(statistics.getBatches()).isGreaterThanOrEqualTo(DOCUMENT_COUNT / 100);
+    assertThat(statistics.getThroughput()).isPositive();
+    assertThat(this.documents).hasSize(DOCUMENT_COUNT);
+    assertThat(this.documents.containsKey(-2L)).isFalse();
+
+    Object value = this.documents.get(42L);
+
+    assertThat(value).isInstanceOf(PdxInstance.class);
+
+    PdxInstance document = (PdxInstance) value;
+
+    assertThat(document.getField("name")).isEqualTo("Doc 42");
+    assertThat(document.getField("score")).isEqualTo(21.0d);
+    assertThat(document.getField("active")).isEqualTo(true);
+    assertThat(document.getField("tags")).isEqualTo(Arrays.asList("a", "b"));
+    assertThat(document.getField("note")).isNull();
+    assertThat(((PdxInstance) document.getField("address")).getField("city")).isEqualTo("Portland");
+    assertThat(JSONFormatter.toJSON(document)).contains("\"zipCode\"").contains("97205");
+  }
+
+  @PeerCacheApplication(name = "JsonToPdxIngesterIntegrationTests", logLevel = "warning")
+  @EnablePdx(readSerialized = true)
+  static class TestConfiguration {
+
+    @Bean("Documents")
+    PartitionedRegionFactoryBean<Long, Object> documentsRegion(GemFireCache gemfireCache) {
+
+      PartitionedRegionFactoryBean<Long, Object> documentsRegion = new PartitionedRegionFactoryBean<>();
+
+      documentsRegion.setCache(gemfireCache);
+      documentsRegion.setClose(false);
+      documentsRegion.setPersistent(false);
+
+      return documentsRegion;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.pdx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.pdx.internal.PdxType;
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.app.beans.Account;
+import org.spring.data.gemfire.app.beans.Address;
+import org.spring.data.gemfire.app.beans.Customer;
+import org.spring.data.gemfire.app.beans.Programmer;
+import org.spring.data.gemfire.app.beans.State;
+import org.spring.data.gemfire.app.beans.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.data.gemfire.config.annotation.EnablePdx;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link PdxTypeRegistryWarmer} and {@link PdxTypeCacheFile}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.pdx.PdxTypeCacheFile
+ * @see org.spring.data.gemfire.pdx.PdxTypeRegistryWarmer
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class PdxTypeRegistryWarmerIntegrationTests {
+
+  private static final File TYPE_CACHE_FILE =
+    new File(System.getProperty("java.io.tmpdir"), "PdxTypeRegistryWarmerIntegrationTests.types");
+
+  @Autowired
+  private ApplicationContext applicationContext;
+
+  @Autowired
+  private GemFireCache gemfireCache;
+
+  @Autowired
+  private PdxTypeRegistryWarmer pdxTypeRegistryWarmer;
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+    TYPE_CACHE_FILE.delete();
+  }
+
+  @Test
+  public void domainTypesAreRegisteredOnContextRefresh() {
+
+    assertThat(this.pdxTypeRegistryWarmer.getRegisteredTypes()).containsKeys(Account.class.getName(),
+      Customer.class.getName(), Programmer.class.getName(), User.class.getName());
+  }
+
+  @Test
+  public void scannedTypesAreRecordedInTypeCacheFile() throws IOException {
+
+    assertThat(new PdxTypeCacheFile(TYPE_CACHE_FILE).read(this.pdxTypeRegistryWarmer.fingerprint()))
+      .contains(Account.class.getName(), Customer.class.getName(), Programmer.class.getName(), User.class.getName())
+      .doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void typeCacheFileIsUsedInsteadOfScanningWhenCurrent() {
+
+    PdxTypeRegistryWarmer pdxTypeRegistryWarmer = new PdxTypeRegistryWarmer(this.gemfireCache);
+
+    pdxTypeRegistryWarmer.setTypeCacheFile(TYPE_CACHE_FILE);
+    pdxTypeRegistryWarmer.warmUp();
+
+    assertThat(pdxTypeRegistryWarmer.isTypeCacheFileHit()).isTrue();
+    assertThat(pdxTypeRegistryWarmer.getImportedTypeCount()).isGreaterThanOrEqualTo(4);
+    assertThat(pdxTypeRegistryWarmer.getRegisteredTypes().keySet())
+      .isEqualTo(this.pdxTypeRegistryWarmer.getRegisteredTypes().keySet());
+  }
+
+  @Test
+  public void typeCacheFileRecordsPdxTypeDefinitionsIncludingNestedTypes() throws Exception {
+
+    File typeCacheFile = new File(TYPE_CACHE_FILE.getParentFile(), TYPE_CACHE_FILE.getName() + ".nested");
+
+    try {
+      User user = new User("jonDoe");
+
+      user.add(new Address("100 Main St.", "Portland", State.OREGON, "97205"));
+
+      DataSerializer.writeObject(user, new DataOutputStream(new ByteArrayOutputStream()));
+
+      PdxTypeRegistryWarmer pdxTypeRegistryWarmer = new PdxTypeRegistryWarmer(this.gemfireCache);
+
+      pdxTypeRegistryWarmer.setTypeCacheFile(typeCacheFile);
+      pdxTypeRegistryWarmer.warmUp();
+
+      assertThat(pdxTypeRegistryWarmer.isTypeCacheFileHit()).isFalse();
+      assertThat(new PdxTypeCacheFile(typeCacheFile).readTypes(pdxTypeRegistryWarmer.fingerprint()).values())
+        .extracting(PdxType::getClassName)
+        .contains(Account.class.getName(), Address.class.getName(), Customer.class.getName(), User.class.getName());
+    }
+    finally {
+      typeCacheFile.delete();
+    }
+  }
+
+  @Test
+  public void staleTypeCacheFileIsIgnored() throws IOException {
+
+    File staleTypeCacheFile = new File(TYPE_CACHE_FILE.getParentFile(), TYPE_CACHE_FILE.getName() + ".stale");
+
+    try {
+      PdxTypeRegistryWarmer pdxTypeRegistryWarmer = new PdxTypeRegistryWarmer(this.gemfireCache);
+
+      new PdxTypeCacheFile(staleTypeCacheFile).write(Collections.singleton(Account.class.getName()),
+        pdxTypeRegistryWarmer.fingerprint() + 1L);
+
+      pdxTypeRegistryWarmer.setTypeCacheFile(staleTypeCacheFile);
+      pdxTypeRegistryWarmer.warmUp();
+
+      assertThat(pdxTypeRegistryWarmer.isTypeCacheFileHit()).isFalse();
+      assertThat(pdxTypeRegistryWarmer.getRegisteredTypes()).containsKeys(Customer.class.getName());
+      assertThat(new PdxTypeCacheFile(staleTypeCacheFile).read(pdxTypeRegistryWarmer.fingerprint()))
+        .contains(Account.class.getName(), Customer.class.getName());
+    }
+    finally {
+      staleTypeCacheFile.delete();
+    }
+  }
+
+  @Test
+  public void warmsUpOnlyOnFirstContextRefresh() {
+
+    PdxTypeRegistryWarmer pdxTypeRegistryWarmer = new PdxTypeRegistryWarmer(this.gemfireCache);
+
+    pdxTypeRegistryWarmer.setTypes(Account.class);
+    pdxTypeRegistryWarmer.setBasePackages();
+    pdxTypeRegistryWarmer.onApplicationEvent(new ContextRefreshedEvent(this.applicationContext));
+
+    assertThat(pdxTypeRegistryWarmer.getRegisteredTypes()).hasSize(1);
+
+    pdxTypeRegistryWarmer.setTypes(Account.class, Customer.class);
+    pdxTypeRegistryWarmer.onApplicationEvent(new ContextRefreshedEvent(this.applicationContext));
+
+    assertThat(pdxTypeRegistryWarmer.getRegisteredTypes()).hasSize(1);
+  }
+
+  @PeerCacheApplication(name = "PdxTypeRegistryWarmerIntegrationTests", logLevel = "warning")
+  @EnablePdx
+  static class TestConfiguration {
+
+    @Bean
+    PdxTypeRegistryWarmer pdxTypeRegistryWarmer(GemFireCache gemfireCache) {
+
+      PdxTypeRegistryWarmer pdxTypeRegistryWarmer = new PdxTypeRegistryWarmer(gemfireCache);
+
+      pdxTypeRegistryWarmer.setTypeCacheFile(TYPE_CACHE_FILE);
+
+      return pdxTypeRegistryWarmer;
+    }
+  }
+}
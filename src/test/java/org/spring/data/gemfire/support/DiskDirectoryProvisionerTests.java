@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.spring.data.gemfire.support.DiskDirectoryProvisioner.DiskDirectoryReport;
+
+/**
+ * Tests for the {@link DiskDirectoryProvisioner}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.support.DiskDirectoryProvisioner
+ * @since 1.0.0
+ */
+public class DiskDirectoryProvisionerTests {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private DiskDirectoryProvisioner provisioner;
+
+  @Before
+  public void setup() {
+    provisioner = new DiskDirectoryProvisioner();
+    provisioner.setFsyncProbeCount(4);
+  }
+
+  @Test
+  public void provisionCreatesAllDirectoriesAndProbesFsyncLatency() {
+
+    Map<File, Integer> directories = new LinkedHashMap<>();
+
+    directories.put(new File(temporaryFolder.getRoot(), "one"), null);
+    directories.put(new File(temporaryFolder.getRoot(), "two/nested"), 2);
+    directories.put(temporaryFolder.getRoot(), null);
+
+    List<DiskDirectoryReport> reports = provisioner.provision("Example", directories, 1L);
+
+    assertThat(reports).hasSize(3);
+    assertThat(reports).extracting(DiskDirectoryReport::getDirectory).containsExactlyElementsOf(directories.keySet());
+    assertThat(reports).extracting(DiskDirectoryReport::isCreated).containsExactly(true, true, false);
+    assertThat(reports).extracting(DiskDirectoryReport::getRequiredBytes)
+      .containsExactly(1024L * 1024L, 1024L * 1024L, 1024L * 1024L);
+    assertThat(reports).allMatch(report -> report.getDirectory().isDirectory());
+    assertThat(reports).allMatch(report -> report.getMaxFsyncLatencyNanos() >= report.getMedianFsyncLatencyNanos());
+    assertThat(reports).allMatch(report -> report.getMedianFsyncLatencyNanos() > 0L);
+    assertThat(new File(temporaryFolder.getRoot(), DiskDirectoryProvisioner.FSYNC_PROBE_FILE_NAME)).doesNotExist();
+  }
+
+  @Test
+  public void provisionFailsWhenDirectoryLacksSpace() {
+
+    File directory = new File(temporaryFolder.getRoot(), "small");
+
+    assertThatThrownBy(() -> provisioner.provision("Example", directory, Long.MAX_VALUE))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining(String.format("Disk Directory [%s] of Disk Store [Example]", directory));
+
+    provisioner.setValidateFreeSpace(false);
+
+    assertThat(provisioner.provision("Example", directory, Long.MAX_VALUE).getUsableBytes()).isPositive();
+  }
+
+  @Test
+  public void provisionPreallocatesRequiredSpace() {
+
+    provisioner.setPreallocate(true);
+
+    DiskDirectoryReport report = provisioner.provision("Example", temporaryFolder.getRoot(), 3L * 1024L * 1024L + 1L);
+
+    assertThat(report.getPreallocatedBytes()).isEqualTo(3L * 1024L * 1024L + 1L);
+    assertThat(new File(temporaryFolder.getRoot(), DiskDirectoryProvisioner.PREALLOCATION_FILE_NAME)).doesNotExist();
+  }
+
+  @Test
+  public void provisionReportsSlowDevices() {
+
+    provisioner.setSlowFsyncThreshold(0L, TimeUnit.NANOSECONDS);
+
+    assertThat(provisioner.provision("Example", temporaryFolder.getRoot(), 0L).isSlow()).isTrue();
+
+    provisioner.setSlowFsyncThreshold(1L, TimeUnit.HOURS);
+
+    assertThat(provisioner.provision("Example", temporaryFolder.getRoot(), 0L).isSlow()).isFalse();
+  }
+}
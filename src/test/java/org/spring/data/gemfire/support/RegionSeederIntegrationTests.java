@@ -0,0 +1,286 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import javax.annotation.Resource;
+
+import org.apache.geode.cache.CacheWriterException;
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.util.CacheWriterAdapter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.spring.data.gemfire.app.beans.Programmer;
+import org.spring.data.gemfire.config.RegionPutAllBeanPostProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.gemfire.LocalRegionFactoryBean;
+import org.springframework.data.gemfire.PartitionedRegionFactoryBean;
+import org.springframework.data.gemfire.config.annotation.PeerCacheApplication;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Integration tests for the {@link RegionSeeder}, the {@link RegionDataSources} and seeding with
+ * the {@link RegionPutAllBeanPostProcessor}.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.config.RegionPutAllBeanPostProcessor
+ * @see org.spring.data.gemfire.support.RegionDataSources
+ * @see org.spring.data.gemfire.support.RegionSeeder
+ * @since 1.0.0
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration
+@SuppressWarnings("unused")
+public class RegionSeederIntegrationTests {
+
+  private static final int NUMBER_COUNT = 10000;
+
+  @Resource(name = "Numbers")
+  private Region<Long, Long> numbers;
+
+  @Resource(name = "Programmers")
+  private Region<Object, Programmer> programmers;
+
+  @Resource(name = "ReferenceData")
+  private Region<Object, Object> referenceData;
+
+  @Resource(name = "Users")
+  private Region<Object, Object> users;
+
+  @Autowired
+  private RegionPutAllBeanPostProcessor referenceDataSeeder;
+
+  @Before
+  public void setup() {
+    this.numbers.removeAll(this.numbers.keySet());
+    this.programmers.removeAll(this.programmers.keySet());
+    this.users.clear();
+  }
+
+  private ClassPathResource resource(String name) {
+    return new ClassPathResource(name, getClass());
+  }
+
+  @Test
+  public void seedsStreamInChunksAcrossBuckets() {
+
+    RegionSeeder<Long, Long> seeder = new RegionSeeder<>(this.numbers);
+
+    seeder.setChunkSize(100);
+    seeder.setParallelism(4);
+    seeder.setProgressInterval(2500L);
+
+    RegionSeeder.Statistics statistics = seeder.seed(() -> LongStream.rangeClosed(1, NUMBER_COUNT)
+      .mapToObj(number -> new AbstractMap.SimpleImmutableEntry<>(number, number * number)));
+
+    int totalNumberOfBuckets = this.numbers.getAttributes().getPartitionAttributes().getTotalNumBuckets();
+
+    assertThat(statistics.getEntries()).isEqualTo(NUMBER_COUNT);
+    assertThat(statistics.getLoadedEntries()).isEqualTo(NUMBER_COUNT);
+    assertThat(statistics.getFailedEntries()).isZero();
+    assertThat(statistics.getFailedChunks()).isZero();
+    assertThat(statistics.getChunks()).isBetween((long) NUMBER_COUNT / 100, (long) NUMBER_COUNT / 100
+      + totalNumberOfBuckets);
+    assertThat(statistics.getThroughput()).isPositive();
+    assertThat(this.numbers).hasSize(NUMBER_COUNT);
+    assertThat(this.numbers.get(42L)).isEqualTo(1764L);
+  }
+
+  @Test
+  public void seedsProgrammersFromCsv() {
+
+    RegionSeeder.Statistics statistics = new RegionSeeder<>(this.programmers)
+      .seed(RegionDataSources.csv(resource("programmers.csv"), "id", Programmer.class));
+
+    assertThat(statistics.getEntries()).isEqualTo(4L);
+    assertThat(statistics.getLoadedEntries()).isEqualTo(3L);
+    assertThat(statistics.getFailedEntries()).isEqualTo(1L);
+    assertThat(this.programmers).hasSize(3);
+
+    Programmer jane = this.programmers.get(2L);
+
+    assertThat(jane.getFirstName()).isEqualTo("Jane");
+    assertThat(jane.getProgrammingLanguage()).isEqualTo("C, C++");
+    assertThat(jane.getReputation()).isEqualTo(8);
+    assertThat(this.programmers.get(3L).getFirstName()).isEqualTo("Cookie \"The Coder\"");
+  }
+
+  @Test
+  public void seedsProgrammersFromJsonLines() {
+
+    RegionSeeder.Statistics statistics = new RegionSeeder<>(this.programmers)
+      .seed(RegionDataSources.json(resource("programmers.json"), "id", Programmer.class));
+
+    assertThat(statistics.getLoadedEntries()).isEqualTo(2L);
+    assertThat(this.programmers.get(11L).getProgrammingLanguage()).isEqualTo("Kotlin");
+    assertThat(this.programmers.get(10L).getReputation()).isEqualTo(5);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void seedsMapsFromJsonArray() {
+
+    new RegionSeeder<>(this.users).seed(RegionDataSources.json(resource("users.json"), "username"));
+
+    assertThat(this.users.keySet()).containsOnly("jonDoe", "janeDoe");
+    assertThat(((Map<String, Object>) this.users.get("janeDoe")).get("email")).isEqualTo("jane.doe@home.com");
+  }
+
+  private RegionSeeder<Object, Object> newSeederRejecting(Object rejectedKey) {
+
+    this.users.getAttributesMutator().setCacheWriter(new CacheWriterAdapter<Object, Object>() {
+      @Override public void beforeCreate(EntryEvent<Object, Object> event) throws CacheWriterException {
+        if (rejectedKey.equals(event.getKey())) {
+          throw new CacheWriterException(String.format("Key [%s] is rejected", rejectedKey));
+        }
+      }
+    });
+
+    RegionSeeder<Object, Object> seeder = new RegionSeeder<>(this.users);
+
+    seeder.setChunkSize(10);
+
+    return seeder;
+  }
+
+  @Test
+  public void seedFailsAfterLoadingAllChunksWhenAChunkFailed() {
+
+    try {
+      Throwable thrown = catchThrowable(() -> newSeederRejecting(42L).seed(() -> LongStream.range(0, 100)
+        .mapToObj(number -> new AbstractMap.SimpleImmutableEntry<>(number, number))));
+
+      assertThat(thrown).isInstanceOf(RegionSeeder.SeedingException.class)
+        .hasCauseInstanceOf(CacheWriterException.class);
+
+      RegionSeeder.Statistics statistics = ((RegionSeeder.SeedingException) thrown).getStatistics();
+
+      assertThat(statistics.getChunks()).isEqualTo(10L);
+      assertThat(statistics.getFailedChunks()).isEqualTo(1L);
+      assertThat(statistics.getLoadedEntries()).isEqualTo(90L);
+    }
+    finally {
+      this.users.getAttributesMutator().setCacheWriter(null);
+    }
+  }
+
+  @Test
+  public void seedAsyncCountsFailedChunks() throws Exception {
+
+    try {
+      RegionSeeder.Statistics statistics = newSeederRejecting(42L).seedAsync(() -> LongStream.range(0, 100)
+        .mapToObj(number -> new AbstractMap.SimpleImmutableEntry<>(number, number))).get(30, TimeUnit.SECONDS);
+
+      assertThat(statistics.getFailedChunks()).isEqualTo(1L);
+      assertThat(statistics.getFailedEntries()).isEqualTo(10L);
+    }
+    finally {
+      this.users.getAttributesMutator().setCacheWriter(null);
+    }
+  }
+
+  @Test
+  public void seedsRegionAsynchronouslyAfterContextRefresh() throws Exception {
+
+    RegionSeeder.Statistics statistics = this.referenceDataSeeder.getSeeding().get(30, TimeUnit.SECONDS);
+
+    assertThat(statistics.getLoadedEntries()).isEqualTo(4L);
+    assertThat(this.referenceData.get("version")).isEqualTo("1.0");
+    assertThat(this.referenceData.get("3")).isInstanceOf(Map.class);
+  }
+
+  @PeerCacheApplication(name = "RegionSeederIntegrationTests", logLevel = "warning")
+  static class TestConfiguration {
+
+    @Bean
+    static RegionPutAllBeanPostProcessor referenceDataSeeder() {
+
+      RegionPutAllBeanPostProcessor referenceDataSeeder = new RegionPutAllBeanPostProcessor();
+
+      referenceDataSeeder.setAsync(true);
+      referenceDataSeeder.setChunkSize(2);
+      referenceDataSeeder.setRegionData(Collections.singletonMap("version", "1.0"));
+      referenceDataSeeder.setSource(RegionDataSources.csv(new ClassPathResource("programmers.csv",
+        RegionSeederIntegrationTests.class), "id"));
+      referenceDataSeeder.setTargetBeanName("ReferenceData");
+
+      return referenceDataSeeder;
+    }
+
+    @Bean("Numbers")
+    PartitionedRegionFactoryBean<Long, Long> numbersRegion(GemFireCache gemfireCache) {
+
+      PartitionedRegionFactoryBean<Long, Long> numbersRegion = new PartitionedRegionFactoryBean<>();
+
+      numbersRegion.setCache(gemfireCache);
+      numbersRegion.setClose(false);
+      numbersRegion.setPersistent(false);
+
+      return numbersRegion;
+    }
+
+    @Bean("Programmers")
+    PartitionedRegionFactoryBean<Object, Programmer> programmersRegion(GemFireCache gemfireCache) {
+
+      PartitionedRegionFactoryBean<Object, Programmer> programmersRegion = new PartitionedRegionFactoryBean<>();
+
+      programmersRegion.setCache(gemfireCache);
+      programmersRegion.setClose(false);
+      programmersRegion.setPersistent(false);
+
+      return programmersRegion;
+    }
+
+    @Bean("ReferenceData")
+    LocalRegionFactoryBean<Object, Object> referenceDataRegion(GemFireCache gemfireCache) {
+
+      LocalRegionFactoryBean<Object, Object> referenceDataRegion = new LocalRegionFactoryBean<>();
+
+      referenceDataRegion.setCache(gemfireCache);
+      referenceDataRegion.setClose(false);
+      referenceDataRegion.setPersistent(false);
+
+      return referenceDataRegion;
+    }
+
+    @Bean("Users")
+    LocalRegionFactoryBean<Object, Object> usersRegion(GemFireCache gemfireCache) {
+
+      LocalRegionFactoryBean<Object, Object> usersRegion = new LocalRegionFactoryBean<>();
+
+      usersRegion.setCache(gemfireCache);
+      usersRegion.setClose(false);
+      usersRegion.setPersistent(false);
+
+      return usersRegion;
+    }
+  }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.spring.data.gemfire.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.spring.data.gemfire.support.RegionSnapshotTool.Statistics;
+
+/**
+ * Integration tests for the {@link RegionSnapshotTool} exporting and importing partitioned and replicated Regions.
+ *
+ * @author John Blum
+ * @see org.junit.Test
+ * @see org.spring.data.gemfire.support.RegionSnapshotTool
+ * @since 1.0.0
+ */
+public class RegionSnapshotToolIntegrationTests {
+
+  private static final int ENTRY_COUNT = 5000;
+  private static final int TOTAL_NUMBER_OF_BUCKETS = 13;
+
+  private static final String MEMBER_NAME = RegionSnapshotToolIntegrationTests.class.getSimpleName();
+
+  private static Cache gemfireCache;
+
+  private static Region<Long, String> orders;
+  private static Region<Long, String> ordersCopy;
+  private static Region<Long, String> products;
+  private static Region<Long, String> productsCopy;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void setupBeforeClass() {
+
+    gemfireCache = new CacheFactory()
+      .set(DistributionConfig.NAME_NAME, MEMBER_NAME)
+      .set(DistributionConfig.MCAST_PORT_NAME, "0")
+      .set(DistributionConfig.LOG_LEVEL_NAME, "warning")
+      .create();
+
+    orders = newPartitionedRegion("Orders");
+    ordersCopy = newPartitionedRegion("OrdersCopy");
+
+    RegionFactory<Long, String> regionFactory = gemfireCache.createRegionFactory();
+
+    regionFactory.setDataPolicy(DataPolicy.REPLICATE);
+
+    products = regionFactory.create("Products");
+    productsCopy = regionFactory.create("ProductsCopy");
+  }
+
+  private static Region<Long, String> newPartitionedRegion(String name) {
+
+    RegionFactory<Long, String> regionFactory = gemfireCache.createRegionFactory(RegionShortcut.PARTITION);
+
+    regionFactory.setPartitionAttributes(new PartitionAttributesFactory<Long, String>()
+      .setTotalNumBuckets(TOTAL_NUMBER_OF_BUCKETS).create());
+
+    return regionFactory.create(name);
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+    if (gemfireCache != null) {
+      gemfireCache.close();
+      gemfireCache = null;
+    }
+  }
+
+  @Before
+  public void setup() {
+
+    for (Region<Long, String> region : new Region[] { orders, ordersCopy, products, productsCopy }) {
+      region.removeAll(region.keySet());
+    }
+
+    for (long key = 0; key < ENTRY_COUNT; key++) {
+      orders.put(key, "order-" + key);
+      products.put(key, "product-" + key);
+    }
+  }
+
+  private static void assertCopied(Region<Long, String> source, Region<Long, String> target) {
+
+    assertThat(target.size()).isEqualTo(source.size());
+
+    for (long key = 0; key < ENTRY_COUNT; key += 97) {
+      assertThat(target.get(key)).isEqualTo(source.get(key));
+    }
+  }
+
+  private static Properties load(File file) throws Exception {
+
+    Properties properties = new Properties();
+
+    try (InputStream in = new FileInputStream(file)) {
+      properties.load(in);
+    }
+
+    return properties;
+  }
+
+  private static File manifestFile(File directory) {
+    return RegionSnapshotTool.newManifestFile(directory, MEMBER_NAME);
+  }
+
+  private static File segmentFile(File directory, String segmentName) {
+    return RegionSnapshotTool.newSegmentFile(directory, MEMBER_NAME, segmentName);
+  }
+
+  private static void store(Properties properties, File file) throws Exception {
+    try (OutputStream out = new FileOutputStream(file)) {
+      properties.store(out, null);
+    }
+  }
+
+  @Test
+  public void exportsPartitionedRegionPerBucketAndImportsCompressedSnapshot() throws Exception {
+
+    File directory = temporaryFolder.newFolder("orders");
+
+    RegionSnapshotTool<Long, String> exporter = new RegionSnapshotTool<>(orders);
+
+    exporter.setBlockSize(4096);
+    exporter.setCompress(true);
+
+    Statistics exportStatistics = exporter.exportTo(directory);
+
+    assertThat(exportStatistics.getSegments()).isEqualTo(TOTAL_NUMBER_OF_BUCKETS);
+    assertThat(exportStatistics.getEntries()).isEqualTo(ENTRY_COUNT);
+    assertThat(segmentFile(directory, "bucket-0000")).isFile();
+    assertThat(RegionSnapshotTool.newPdxTypesFile(directory, MEMBER_NAME)).isFile();
+
+    RegionSnapshotTool<Long, String> importer = new RegionSnapshotTool<>(ordersCopy);
+
+    importer.setChunkSize(100);
+
+    Statistics importStatistics = importer.importFrom(directory);
+
+    assertThat(importStatistics.getEntries()).isEqualTo(ENTRY_COUNT);
+    assertThat(importStatistics.getBytes()).isEqualTo(exportStatistics.getBytes());
+    assertCopied(orders, ordersCopy);
+  }
+
+  @Test
+  public void exportsReplicatedRegionInKeyShards() throws Exception {
+
+    File directory = temporaryFolder.newFolder("products");
+
+    RegionSnapshotTool<Long, String> exporter = new RegionSnapshotTool<>(products);
+
+    exporter.setShardCount(4);
+    exporter.setBlockSize(1024);
+
+    Statistics exportStatistics = exporter.exportTo(directory);
+
+    assertThat(exportStatistics.getSegments()).isEqualTo(4L);
+    assertThat(exportStatistics.getEntries()).isEqualTo(ENTRY_COUNT);
+    assertThat(load(manifestFile(directory)))
+      .containsEntry("region", "/Products")
+      .containsEntry("member", MEMBER_NAME)
+      .containsEntry("status", "COMPLETE")
+      .containsEntry("shards", "4")
+      .containsEntry("segment.shard-0003.status", "COMPLETE");
+
+    new RegionSnapshotTool<>(productsCopy).importFrom(directory);
+
+    assertCopied(products, productsCopy);
+  }
+
+  @Test
+  public void interruptedExportAndImportResume() throws Exception {
+
+    File directory = temporaryFolder.newFolder("resume");
+    File manifestFile = manifestFile(directory);
+
+    RegionSnapshotTool<Long, String> exporter = new RegionSnapshotTool<>(orders);
+
+    exporter.exportTo(directory);
+
+    Properties manifest = load(manifestFile);
+
+    manifest.setProperty("status", "IN_PROGRESS");
+    manifest.remove("segment.bucket-0005.status");
+    store(manifest, manifestFile);
+
+    assertThat(segmentFile(directory, "bucket-0005").delete()).isTrue();
+
+    Statistics resumedExportStatistics = exporter.exportTo(directory);
+
+    assertThat(resumedExportStatistics.getSegments()).isEqualTo(1L);
+    assertThat(resumedExportStatistics.getSkippedSegments()).isEqualTo(TOTAL_NUMBER_OF_BUCKETS - 1);
+
+    Properties importManifest = new Properties();
+
+    for (int bucketId = 1; bucketId < TOTAL_NUMBER_OF_BUCKETS; bucketId++) {
+      importManifest.setProperty(String.format("segment.%1$s-bucket-%2$04d.status", MEMBER_NAME, bucketId),
+        "COMPLETE");
+    }
+
+    store(importManifest, new File(directory, RegionSnapshotTool.IMPORT_MANIFEST_FILE_NAME));
+
+    Statistics resumedImportStatistics = new RegionSnapshotTool<>(ordersCopy).importFrom(directory);
+
+    assertThat(resumedImportStatistics.getSegments()).isEqualTo(1L);
+    assertThat(resumedImportStatistics.getSkippedSegments()).isEqualTo(TOTAL_NUMBER_OF_BUCKETS - 1);
+    assertThat(resumedImportStatistics.getEntries()).isPositive();
+    assertThat(ordersCopy.size()).isEqualTo((int) resumedImportStatistics.getEntries());
+
+    assertThat(load(new File(directory, RegionSnapshotTool.IMPORT_MANIFEST_FILE_NAME)))
+      .containsEntry(String.format("segment.%s-bucket-0000.status", MEMBER_NAME), "COMPLETE");
+  }
+
+  @Test
+  public void newExportReplacesSegmentsOfPreviousExport() throws Exception {
+
+    File directory = temporaryFolder.newFolder("reexport");
+    File manifestFile = manifestFile(directory);
+
+    RegionSnapshotTool<Long, String> exporter = new RegionSnapshotTool<>(orders);
+
+    exporter.exportTo(directory);
+
+    Properties manifest = load(manifestFile);
+
+    manifest.setProperty("segment.bucket-0099.status", "COMPLETE");
+    store(manifest, manifestFile);
+
+    assertThat(segmentFile(directory, "bucket-0099").createNewFile()).isTrue();
+
+    for (long key = 0; key < ENTRY_COUNT; key += 2) {
+      orders.remove(key);
+    }
+
+    Statistics exportStatistics = exporter.exportTo(directory);
+
+    assertThat(exportStatistics.getSegments()).isEqualTo(TOTAL_NUMBER_OF_BUCKETS);
+    assertThat(exportStatistics.getSkippedSegments()).isZero();
+    assertThat(exportStatistics.getEntries()).isEqualTo(ENTRY_COUNT / 2);
+    assertThat(segmentFile(directory, "bucket-0099")).doesNotExist();
+    assertThat(load(manifestFile)).doesNotContainKey("segment.bucket-0099.status");
+
+    Statistics importStatistics = new RegionSnapshotTool<>(ordersCopy).importFrom(directory);
+
+    assertThat(importStatistics.getEntries()).isEqualTo(ENTRY_COUNT / 2);
+    assertCopied(orders, ordersCopy);
+  }
+
+  @Test
+  public void membersExportToTheirOwnFilesAndImportTakesEachBucketOnce() throws Exception {
+
+    File directory = temporaryFolder.newFolder("members");
+
+    for (String memberName : new String[] { "serverOne", "serverTwo" }) {
+
+      RegionSnapshotTool<Long, String> exporter = new RegionSnapshotTool<>(orders);
+
+      exporter.setMemberName(memberName);
+      exporter.exportTo(directory);
+
+      assertThat(RegionSnapshotTool.newManifestFile(directory, memberName)).isFile();
+      assertThat(RegionSnapshotTool.newPdxTypesFile(directory, memberName)).isFile();
+      assertThat(RegionSnapshotTool.newSegmentFile(directory, memberName, "bucket-0000")).isFile();
+    }
+
+    Statistics importStatistics = new RegionSnapshotTool<>(ordersCopy).importFrom(directory);
+
+    assertThat(importStatistics.getSegments()).isEqualTo(TOTAL_NUMBER_OF_BUCKETS);
+    assertThat(importStatistics.getEntries()).isEqualTo(ENTRY_COUNT);
+    assertCopied(orders, ordersCopy);
+  }
+}